@@ -0,0 +1,66 @@
+package com.yonhoo.ddd.benchmark;
+
+import com.yonhoo.ddd.domain.model.*;
+import com.yonhoo.ddd.domain.service.ComprehensivePricingDomainService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 综合定价：基础价格 → 用户策略 → 营销策略
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ComprehensivePricingBenchmark {
+
+    @Param({"10", "40"})
+    int rooms;
+
+    @Param({"1", "7"})
+    int nights;
+
+    @Param({"5"})
+    int priceRules;
+
+    @Param({"1", "10"})
+    int userStrategies;
+
+    @Param({"1", "10", "50"})
+    int marketingStrategies;
+
+    private HotelOffer hotelOffer;
+    private Map<String, PriceData> priceData;
+    private UserContext userContext;
+    private MarketingContext marketingContext;
+    private List<UserPricingStrategy> userStrategyList;
+    private List<MarketingPricingStrategy> marketingStrategyList;
+
+    @Setup
+    public void setUp() {
+        hotelOffer = PricingFixtures.hotelOffer(PricingFixtures.hotelProduct(rooms, nights),
+                PricingFixtures.priceRules(priceRules));
+        priceData = PricingFixtures.priceData(rooms);
+        userContext = PricingFixtures.userContext();
+        marketingContext = PricingFixtures.marketingContext();
+        userStrategyList = PricingFixtures.userStrategies(userStrategies);
+        marketingStrategyList = PricingFixtures.marketingStrategies(marketingStrategies);
+    }
+
+    @Benchmark
+    public PricingResult calculateFinalPrice() {
+        return ComprehensivePricingDomainService.calculateFinalPrice(
+                hotelOffer,
+                PricingFixtures.CHECK_IN_DAY,
+                priceData,
+                userContext,
+                marketingContext,
+                userStrategyList,
+                marketingStrategyList);
+    }
+}
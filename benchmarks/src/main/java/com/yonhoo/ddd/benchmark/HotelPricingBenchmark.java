@@ -0,0 +1,63 @@
+package com.yonhoo.ddd.benchmark;
+
+import com.yonhoo.ddd.domain.model.*;
+import com.yonhoo.ddd.domain.service.HotelPricingDomainService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HotelOffer / HotelOfferV2 基础价格计算
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HotelPricingBenchmark {
+
+    @Param({"10", "40", "100"})
+    int rooms;
+
+    @Param({"1", "7"})
+    int nights;
+
+    @Param({"1", "5", "20"})
+    int priceRules;
+
+    @Param({"SINGLE", "FIXED"})
+    CustomerChoice customerChoice;
+
+    private HotelOffer hotelOffer;
+    private HotelOfferV2 hotelOfferV2;
+    private Map<String, PriceData> priceData;
+    private RoomPriceCalendar roomPriceCalendar;
+
+    @Setup
+    public void setUp() {
+        HotelProduct hotelProduct = PricingFixtures.hotelProduct(rooms, nights);
+        List<PriceRule> rules = PricingFixtures.priceRules(priceRules);
+        hotelOffer = PricingFixtures.hotelOffer(hotelProduct, rules);
+        hotelOfferV2 = PricingFixtures.hotelOfferV2(hotelProduct, rules, customerChoice);
+        priceData = PricingFixtures.priceData(rooms);
+        roomPriceCalendar = RoomPriceCalendar.of(priceData);
+    }
+
+    @Benchmark
+    public Money calculateMinPrice() {
+        return HotelPricingDomainService.calculateMinPrice(hotelOffer, PricingFixtures.CHECK_IN_DAY, priceData);
+    }
+
+    @Benchmark
+    public Money calculateMinPriceV2() {
+        return HotelPricingDomainService.calculateMinPriceV2(hotelOfferV2, PricingFixtures.CHECK_IN_DAY, priceData);
+    }
+
+    @Benchmark
+    public Money calculateMinPriceV2WithCalendar() {
+        return HotelPricingDomainService.calculateMinPriceV2(hotelOfferV2, PricingFixtures.CHECK_IN_DAY, roomPriceCalendar);
+    }
+}
@@ -0,0 +1,69 @@
+package com.yonhoo.ddd.benchmark;
+
+import com.yonhoo.ddd.domain.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HybridOffer 酒店 + 门票 组合价格计算
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HybridOfferBenchmark {
+
+    @Param({"10", "40", "100"})
+    int rooms;
+
+    @Param({"1", "7"})
+    int nights;
+
+    @Param({"1", "5", "20"})
+    int priceRules;
+
+    @Param({"5", "200"})
+    int tickets;
+
+    @Param({"SINGLE", "FIXED"})
+    CustomerChoice customerChoice;
+
+    private static final DateRange CALENDAR_DAYS =
+            DateRange.of(PricingFixtures.CHECK_IN_DAY, PricingFixtures.CHECK_IN_DAY.plusDays(29));
+
+    private HybridOffer hybridOffer;
+    private PriceDataAdapter.HybridPriceQuery priceQuery;
+
+    @Setup
+    public void setUp() {
+        hybridOffer = PricingFixtures.hybridOffer(PricingFixtures.hotelProduct(rooms, nights), tickets,
+                PricingFixtures.priceRules(priceRules), customerChoice);
+        priceQuery = PricingFixtures.hybridPriceQuery(
+                RoomPriceCalendar.of(PricingFixtures.priceData(rooms)),
+                RoomPriceCalendar.of(PricingFixtures.ticketPriceData(tickets)));
+    }
+
+    @Benchmark
+    public Money calculateMinPrice() {
+        return hybridOffer.getMinPriceV3(PricingFixtures.CHECK_IN_DAY, priceQuery);
+    }
+
+    /**
+     * 套餐足够大时门票分支在 commonPool 中与酒店分支并发计算
+     */
+    @Benchmark
+    public Money calculateMinPriceConcurrently() {
+        return hybridOffer.getMinPriceV3(PricingFixtures.CHECK_IN_DAY, priceQuery, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public Map<LocalDate, Money> calculateMinPriceCalendar() {
+        return hybridOffer.getMinPricesV3(CALENDAR_DAYS, priceQuery, null);
+    }
+}
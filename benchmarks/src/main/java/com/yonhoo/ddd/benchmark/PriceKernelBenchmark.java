@@ -0,0 +1,76 @@
+package com.yonhoo.ddd.benchmark;
+
+import com.yonhoo.ddd.domain.model.*;
+import com.yonhoo.ddd.domain.service.HotelPricingDomainService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 标量 / 向量定价内核在大酒店（100+ 房间）上的对比
+ * fork 出的 JVM 加载 jdk.incubator.vector，kernel=scalar 即原有路径；kernel=vector 需要主工程以 mvn -Pvector install 构建
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class PriceKernelBenchmark {
+
+    private static final DateRange CALENDAR_DAYS =
+            DateRange.of(PricingFixtures.CHECK_IN_DAY, PricingFixtures.CHECK_IN_DAY.plusDays(29));
+
+    @Param({"scalar", "vector"})
+    String kernel;
+
+    @Param({"100", "400", "1000"})
+    int rooms;
+
+    @Param({"7"})
+    int nights;
+
+    @Param({"5"})
+    int priceRules;
+
+    @Param({"SINGLE", "FIXED"})
+    CustomerChoice customerChoice;
+
+    private HotelOffer hotelOffer;
+    private HotelOfferV2 hotelOfferV2;
+    private RoomPriceCalendar roomPriceCalendar;
+
+    @Setup
+    public void setUp() {
+        if ("vector".equals(kernel) && !PricingKernels.useVector()) {
+            throw new IllegalStateException("vector kernel is not available, install the main module with -Pvector");
+        }
+        if ("scalar".equals(kernel)) {
+            PricingKernels.useScalar();
+        }
+
+        HotelProduct hotelProduct = PricingFixtures.hotelProduct(rooms, nights);
+        List<PriceRule> rules = PricingFixtures.priceRules(priceRules);
+        hotelOffer = PricingFixtures.hotelOffer(hotelProduct, rules);
+        hotelOfferV2 = PricingFixtures.hotelOfferV2(hotelProduct, rules, customerChoice);
+        roomPriceCalendar = RoomPriceCalendar.of(PricingFixtures.priceData(rooms));
+    }
+
+    @TearDown
+    public void tearDown() {
+        PricingKernels.useScalar();
+    }
+
+    @Benchmark
+    public Money calculateMinPriceV2WithCalendar() {
+        return HotelPricingDomainService.calculateMinPriceV2(hotelOfferV2, PricingFixtures.CHECK_IN_DAY, roomPriceCalendar);
+    }
+
+    @Benchmark
+    public Map<LocalDate, Money> calculateMinPriceCalendar() {
+        return hotelOffer.calculateMinPrices(CALENDAR_DAYS, roomPriceCalendar);
+    }
+}
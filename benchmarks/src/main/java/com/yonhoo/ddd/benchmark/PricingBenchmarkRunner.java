@@ -0,0 +1,29 @@
+package com.yonhoo.ddd.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * 接受标准 JMH 命令行参数，并默认开启 GC profiler 以输出分配速率（gc.alloc.rate.norm）
+ *
+ * <pre>
+ * mvn -B install -DskipTests
+ * mvn -B -f benchmarks/pom.xml package
+ * java -jar benchmarks/target/benchmarks.jar HotelPricingBenchmark -p rooms=40 -p nights=7
+ * </pre>
+ */
+public class PricingBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
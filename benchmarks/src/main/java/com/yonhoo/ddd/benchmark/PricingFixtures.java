@@ -0,0 +1,274 @@
+package com.yonhoo.ddd.benchmark;
+
+import com.yonhoo.ddd.domain.model.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 基准测试数据构建
+ * 按房间数、入住晚数、价格规则数、策略数生成确定性的聚合和外部价格数据
+ */
+final class PricingFixtures {
+
+    static final LocalDate CHECK_IN_DAY = LocalDate.of(2025, 10, 1);
+    static final LocalDateTime CHECK_TIME = CHECK_IN_DAY.atTime(10, 0);
+
+    /**
+     * 价格数据覆盖入住日前后的天数，保证日历类请求也有数据
+     */
+    private static final int PRICE_HORIZON_DAYS = 60;
+
+    private static final long SEED = 20251001L;
+
+    private PricingFixtures() {
+    }
+
+    static HotelProduct hotelProduct(int rooms, int nights) {
+        NumberOfNights numberOfNights = new NumberOfNights();
+        numberOfNights.setMinNight(nights);
+        numberOfNights.setMaxNight(nights);
+
+        List<RoomInfo> roomInfos = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            RoomInfo roomInfo = new RoomInfo();
+            roomInfo.setRoomNo(roomNo(i));
+            roomInfo.setHotelName("benchmark-hotel");
+            roomInfo.setRoomType(i % 2 == 0 ? "KING" : "TWIN");
+            roomInfos.add(roomInfo);
+        }
+
+        HotelProduct hotelProduct = new HotelProduct();
+        hotelProduct.setAdvanceBookingDay(0);
+        hotelProduct.setNumberOfNights(numberOfNights);
+        hotelProduct.setHotelProducts(roomInfos);
+        return hotelProduct;
+    }
+
+    static List<PriceRule> priceRules(int count) {
+        List<PriceRule> priceRules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DiscountDefinition discount = new DiscountDefinition();
+            discount.setDiscountType(DiscountType.PERCENTAGE);
+            discount.setValue((double) (i * 5 % 40));
+
+            PriceRule priceRule = new PriceRule();
+            priceRule.setPriceRuleId((long) i);
+            priceRule.setVersion(1L);
+            priceRule.setRuleName("rule-" + i);
+            priceRule.setDefaultPriceFlag(i == 0);
+            priceRule.setCreatedTime(CHECK_TIME);
+            priceRule.setProductPriceDefinitions(List.of(discount));
+            priceRules.add(priceRule);
+        }
+        return priceRules;
+    }
+
+    static HotelOffer hotelOffer(HotelProduct hotelProduct, List<PriceRule> priceRules) {
+        HotelOffer hotelOffer = new HotelOffer();
+        hotelOffer.setOfferNo("offer-hotel");
+        hotelOffer.setProducts(hotelProduct);
+        hotelOffer.setPriceRuleList(priceRules);
+        hotelOffer.setValidity(new Validity());
+        return hotelOffer;
+    }
+
+    static HotelOfferV2 hotelOfferV2(HotelProduct hotelProduct, List<PriceRule> priceRules, CustomerChoice customerChoice) {
+        HotelOfferV2 hotelOffer = new HotelOfferV2();
+        hotelOffer.setOfferNo("offer-hotel-v2");
+        hotelOffer.setProducts(hotelProduct);
+        hotelOffer.setPriceRuleList(priceRules);
+        hotelOffer.setCustomerChoice(customerChoice);
+        hotelOffer.setValidity(new Validity());
+        return hotelOffer;
+    }
+
+    static HybridOffer hybridOffer(HotelProduct hotelProduct, int tickets, List<PriceRule> priceRules, CustomerChoice customerChoice) {
+        List<TicketItem> ticketItems = new ArrayList<>(tickets);
+        for (int i = 0; i < tickets; i++) {
+            TicketItem ticketItem = new TicketItem();
+            ticketItem.setProductNumber(ticketNo(i));
+            ticketItem.setName("ticket-" + i);
+            ticketItems.add(ticketItem);
+        }
+
+        AttractionProduct attractionProduct = new AttractionProduct();
+        attractionProduct.setValidQuantityRange(QuantityRange.defaultQuantityRange());
+        attractionProduct.setProductItemList(ticketItems);
+
+        return new HybridOffer(new ProductGroups(hotelProduct, attractionProduct),
+                "offer-hybrid", priceRules, new Validity(), customerChoice);
+    }
+
+    /**
+     * 每个房间每天两个报价，模拟同一天多个供应商价格
+     */
+    static Map<String, PriceData> priceData(int rooms) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Map<String, PriceData> priceDataMap = new HashMap<>(rooms * 2);
+        for (int i = 0; i < rooms; i++) {
+            List<PricePair> pricePairs = new ArrayList<>(PRICE_HORIZON_DAYS * 2);
+            for (int day = 0; day < PRICE_HORIZON_DAYS; day++) {
+                LocalDate date = CHECK_IN_DAY.plusDays(day);
+                pricePairs.add(new PricePair(date, randomPrice(random)));
+                pricePairs.add(new PricePair(date, randomPrice(random)));
+            }
+            PriceData priceData = new PriceData();
+            priceData.setRoomNo(roomNo(i));
+            priceData.setPricePairs(pricePairs);
+            priceDataMap.put(roomNo(i), priceData);
+        }
+        return priceDataMap;
+    }
+
+    static Map<String, PriceData> ticketPriceData(int tickets) {
+        Map<String, PriceData> rooms = priceData(tickets);
+        Map<String, PriceData> ticketPriceData = new HashMap<>(tickets * 2);
+        for (int i = 0; i < tickets; i++) {
+            ticketPriceData.put(ticketNo(i), rooms.get(roomNo(i)));
+        }
+        return ticketPriceData;
+    }
+
+    static PriceDataAdapter.HybridPriceQuery hybridPriceQuery(RoomPriceCalendar roomCalendar, RoomPriceCalendar ticketCalendar) {
+        return new PriceDataAdapter.HybridPriceQuery() {
+            @Override
+            public Money queryRoomMinPrice(String roomNo, LocalDate day) {
+                return roomCalendar.queryRoomMinPrice(roomNo, day);
+            }
+
+            @Override
+            public long queryRoomMinPriceInMinorUnits(String roomNo, LocalDate day) {
+                return roomCalendar.queryRoomMinPriceInMinorUnits(roomNo, day);
+            }
+
+            @Override
+            public boolean hasDataForRoom(String roomNo) {
+                return roomCalendar.hasDataForRoom(roomNo);
+            }
+
+            @Override
+            public Money queryTicketMinPrice(String productNumber, LocalDate day) {
+                return ticketCalendar.queryRoomMinPrice(productNumber, day);
+            }
+
+            @Override
+            public boolean hasDataForTicket(String productNumber) {
+                return ticketCalendar.hasDataForRoom(productNumber);
+            }
+        };
+    }
+
+    static UserContext userContext() {
+        return new UserContext("bench-user", UserLevel.GOLD, Region.EAST_CHINA, Channel.MOBILE_APP, "MEMBER_bench-user");
+    }
+
+    static MarketingContext marketingContext() {
+        return new MarketingContext(CHECK_TIME, "bench-session", 1, "BENCHMARK");
+    }
+
+    /**
+     * 每个策略都覆盖全部会员等级、区域和渠道，保证所有策略都参与选择
+     */
+    static List<UserPricingStrategy> userStrategies(int count) {
+        List<UserPricingStrategy> strategies = new ArrayList<>(count);
+        PriorityLevel[] priorities = PriorityLevel.values();
+        for (int i = 0; i < count; i++) {
+            List<UserLevelDiscount> levelDiscounts = new ArrayList<>();
+            for (UserLevel userLevel : UserLevel.values()) {
+                UserLevelDiscount discount = new UserLevelDiscount();
+                discount.setDiscountId("level-" + i + "-" + userLevel);
+                discount.setTargetLevel(userLevel);
+                discount.setDiscountType(DiscountType.PERCENTAGE);
+                discount.setDiscountValue(BigDecimal.valueOf(5 + (i + userLevel.ordinal()) % 10));
+                discount.setMinOrderAmount(Money.ZERO);
+                levelDiscounts.add(discount);
+            }
+
+            List<RegionPricing> regionPricings = new ArrayList<>();
+            for (Region region : Region.values()) {
+                RegionPricing pricing = new RegionPricing();
+                pricing.setPricingId("region-" + i + "-" + region);
+                pricing.setTargetRegion(region);
+                pricing.setAdjustmentType(PricingAdjustmentType.DISCOUNT);
+                pricing.setAdjustmentValue(BigDecimal.valueOf((i + region.ordinal()) % 5));
+                regionPricings.add(pricing);
+            }
+
+            List<ChannelPricing> channelPricings = new ArrayList<>();
+            for (Channel channel : Channel.values()) {
+                ChannelPricing pricing = new ChannelPricing();
+                pricing.setPricingId("channel-" + i + "-" + channel);
+                pricing.setTargetChannel(channel);
+                pricing.setAdjustmentType(i % 3 == 0 ? PricingAdjustmentType.MARKUP : PricingAdjustmentType.DISCOUNT);
+                pricing.setAdjustmentValue(BigDecimal.valueOf((i + channel.ordinal()) % 4));
+                channelPricings.add(pricing);
+            }
+
+            PriorityRule priorityRule = new PriorityRule();
+            priorityRule.setApplyUserLevel(true);
+            priorityRule.setApplyRegion(true);
+            priorityRule.setApplyChannel(true);
+
+            UserPricingStrategy strategy = new UserPricingStrategy();
+            strategy.setStrategyId("user-strategy-" + i);
+            strategy.setStrategyName("user-strategy-" + i);
+            strategy.setActive(true);
+            strategy.setStrategyPriority(priorities[i % priorities.length]);
+            strategy.setEffectivePeriod(CHECK_TIME.minusDays(30), CHECK_TIME.plusDays(30));
+            strategy.setUserLevelDiscounts(levelDiscounts);
+            strategy.setRegionPricings(regionPricings);
+            strategy.setChannelPricings(channelPricings);
+            strategy.setPriorityRule(priorityRule);
+            strategies.add(strategy);
+        }
+        return strategies;
+    }
+
+    /**
+     * 节假日策略，一半覆盖入住日，一半不覆盖
+     */
+    static List<MarketingPricingStrategy> marketingStrategies(int count) {
+        List<MarketingPricingStrategy> strategies = new ArrayList<>(count);
+        PriorityLevel[] priorities = PriorityLevel.values();
+        for (int i = 0; i < count; i++) {
+            LocalDate start = i % 2 == 0 ? CHECK_IN_DAY.minusDays(i) : CHECK_IN_DAY.plusDays(i + 1L);
+
+            HolidayPricing holidayPricing = new HolidayPricing();
+            holidayPricing.setHolidayId("holiday-" + i);
+            holidayPricing.setHolidayName("holiday-" + i);
+            holidayPricing.setHolidayPeriod(DateRange.of(start, start.plusDays(7)));
+            holidayPricing.setAdjustmentType(i % 4 == 0 ? PricingAdjustmentType.MARKUP : PricingAdjustmentType.DISCOUNT);
+            holidayPricing.setAdjustmentValue(BigDecimal.valueOf(3 + i % 12));
+
+            MarketingPricingStrategy strategy = new MarketingPricingStrategy();
+            strategy.setStrategyId("marketing-strategy-" + i);
+            strategy.setStrategyName("marketing-strategy-" + i);
+            strategy.setStrategyType(StrategyType.HOLIDAY_PRICING);
+            strategy.setActive(true);
+            strategy.setEffectivePeriod(DateRange.of(start, start.plusDays(14)));
+            strategy.setHolidayPricings(List.of(holidayPricing));
+            strategy.setPriorityLevel(priorities[i % priorities.length]);
+            strategies.add(strategy);
+        }
+        return strategies;
+    }
+
+    static String roomNo(int index) {
+        return "room-" + index;
+    }
+
+    static String ticketNo(int index) {
+        return "ticket-" + index;
+    }
+
+    private static BigDecimal randomPrice(SplittableRandom random) {
+        return BigDecimal.valueOf(200_00L + random.nextInt(800_00), 2);
+    }
+}
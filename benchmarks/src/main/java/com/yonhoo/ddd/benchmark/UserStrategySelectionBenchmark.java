@@ -0,0 +1,54 @@
+package com.yonhoo.ddd.benchmark;
+
+import com.yonhoo.ddd.domain.model.Money;
+import com.yonhoo.ddd.domain.model.UserContext;
+import com.yonhoo.ddd.domain.model.UserPricingStrategy;
+import com.yonhoo.ddd.domain.model.UserStrategyDecisionTable;
+import com.yonhoo.ddd.domain.service.UserPricingStrategySelector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户定价策略选择，覆盖全部 SelectionMode
+ * 对比逐个策略遍历折扣配置与预编译决策表两种实现
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserStrategySelectionBenchmark {
+
+    @Param({"1", "5", "20"})
+    int userStrategies;
+
+    @Param({"BEST_PRICE", "HIGHEST_PRIORITY", "FIRST_APPLICABLE"})
+    UserPricingStrategySelector.SelectionMode mode;
+
+    private final Money basePrice = Money.ofMajor(1_000);
+    private UserContext userContext;
+    private List<UserPricingStrategy> strategies;
+    private UserStrategyDecisionTable decisionTable;
+
+    @Setup
+    public void setUp() {
+        userContext = PricingFixtures.userContext();
+        strategies = PricingFixtures.userStrategies(userStrategies);
+        decisionTable = UserStrategyDecisionTable.compile(strategies);
+    }
+
+    @Benchmark
+    public Money calculateBestUserPrice() {
+        return UserPricingStrategySelector.calculateBestUserPrice(
+                basePrice, userContext, strategies, mode, PricingFixtures.CHECK_TIME);
+    }
+
+    @Benchmark
+    public Money selectUserPriceFromDecisionTable() {
+        return UserPricingStrategySelector.selectUserPrice(
+                basePrice, userContext, decisionTable, mode, PricingFixtures.CHECK_TIME);
+    }
+}
@@ -6,17 +6,27 @@ import com.yonhoo.ddd.domain.service.HotelPricingDomainService;
 import com.yonhoo.ddd.repository.*;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 /**
  * 应用服务层
  * 职责：编排业务流程，协调聚合和领域服务
+ * 未注入仓储加载线程池时按需自建一个，close 时只关闭自建的线程池，注入的由调用方管理
  */
-public class ApplicationService {
+public class ApplicationService implements AutoCloseable {
     private PriceRuleRepository priceRuleRepository;
     private ProductRepository productRepository;
     private ValidityRepository validityRepository;
@@ -27,6 +37,17 @@ public class ApplicationService {
     private UserPricingStrategyRepository userPricingStrategyRepository;
     private MarketingPricingStrategyRepository marketingPricingStrategyRepository;
 
+    // 并发加载编排配置
+    private ExecutorService repositoryLoadExecutor;
+    private boolean ownsRepositoryLoadExecutor;
+    private Duration repositoryLoadTimeout = Duration.ofSeconds(1);
+
+    // 可选的 offer 最低价物化视图（PricingStateBootstrap.createOfferMinPriceView 创建并维护），未配置或版本不一致时现算
+    private OfferMinPriceView offerMinPriceView;
+
+    // 可选的折扣上限（基点）：设置后 top-K 下界直接按基础价扣除该比例，不再按用户决策表和营销策略索引推算
+    private Long maxTotalDiscountBasisPoints;
+
     /**
      * 原始实现 - 应用层直接处理业务逻辑（不推荐）
      */
@@ -35,7 +56,7 @@ public class ApplicationService {
         List<HotelProduct> hotelProducts = productRepository.queryHotelProductByOfferNo(offerNo);
         Validity validity = validityRepository.queryValidityByOfferNo(offerNo);
 
-        if (calculateCheckInDayIsAvailable(validity, checkInDay)) {
+        if (!calculateCheckInDayIsAvailable(validity, checkInDay)) {
             throw new RuntimeException("CheckInDay is not available");
         }
 
@@ -51,13 +72,23 @@ public class ApplicationService {
     public BigDecimal calculateMinPriceV2(String offerNo, LocalDate checkInDay) {
         // 1. 获取聚合根
         HotelOffer hotelOffer = hotelOfferRepository.queryHotelOfferByOfferNo(offerNo);
-        
+
+        // 物化视图登记的版本与当前聚合一致时直接返回，否则按视图的同一价格来源现算
+        if (offerMinPriceView != null) {
+            Money minPrice = offerMinPriceView.getMinPrice(offerNo, hotelOffer.getVersion(), checkInDay);
+            if (minPrice != null) {
+                return minPrice.toBigDecimal();
+            }
+            return HotelPricingDomainService.calculateMinPrice(
+                hotelOffer, checkInDay, offerMinPriceView.getPriceQuery()).toBigDecimal();
+        }
+
         // 2. 获取外部价格数据
         List<String> roomNoList = hotelOffer.getRoomNoList();
         Map<String, PriceData> roomPriceDataMap = priceDataRepository.queryPriceDataByRoomList(roomNoList);
 
         // 3. 使用领域服务协调聚合和外部数据
-        return HotelPricingDomainService.calculateMinPrice(hotelOffer, checkInDay, roomPriceDataMap);
+        return HotelPricingDomainService.calculateMinPrice(hotelOffer, checkInDay, roomPriceDataMap).toBigDecimal();
     }
 
     /**
@@ -69,7 +100,7 @@ public class ApplicationService {
         Map<String, PriceDataV2> roomPriceDataMap = priceDataRepository.queryPriceDataV2ByRoomList(roomNoList);
 
         // 使用领域服务处理不同版本的价格数据
-        return HotelPricingDomainService.calculateMinPrice(hotelOffer, checkInDay, roomPriceDataMap);
+        return HotelPricingDomainService.calculateMinPrice(hotelOffer, checkInDay, roomPriceDataMap).toBigDecimal();
     }
 
     /**
@@ -78,10 +109,10 @@ public class ApplicationService {
     public BigDecimal calculateMinPriceV4(String offerNo, LocalDate checkInDay) {
         HotelOfferV2 hotelOffer = hotelOfferRepository.queryHotelOfferV2ByOfferNo(offerNo);
         List<String> roomNoList = hotelOffer.getRoomNoList();
-        Map<String, PriceDataV2> roomPriceDataMap = priceDataRepository.queryPriceDataV2ByRoomList(roomNoList);
+        RoomPriceCalendar roomPriceCalendar = priceDataRepository.queryRoomPriceCalendarV2ByRoomList(roomNoList);
 
         // 使用领域服务处理不同版本的聚合根
-        return HotelPricingDomainService.calculateMinPriceV2(hotelOffer, checkInDay, roomPriceDataMap);
+        return HotelPricingDomainService.calculateMinPriceV2(hotelOffer, checkInDay, roomPriceCalendar).toBigDecimal();
     }
 
     /**
@@ -115,9 +146,9 @@ public class ApplicationService {
         List<UserPricingStrategy> userStrategies = 
             userPricingStrategyRepository.queryApplicableStrategies(userContext);
 
-        // 6. 获取适用的营销定价策略
-        List<MarketingPricingStrategy> marketingStrategies = 
-            marketingPricingStrategyRepository.queryEffectiveStrategies(checkInDay, offerNo);
+        // 6. 获取营销定价策略的有效期索引（索引化仓储按产品缓存，不再每次重建）
+        MarketingStrategyIndex marketingStrategies =
+            marketingPricingStrategyRepository.queryStrategyIndexByOfferNo(offerNo);
 
         // 7. 使用综合定价领域服务计算最终价格
         return ComprehensivePricingDomainService.calculateFinalPrice(
@@ -131,6 +162,214 @@ public class ApplicationService {
         );
     }
 
+    /**
+     * 综合定价服务 - 并发加载版本
+     * 产品、用户策略、营销策略三个仓储并行加载，价格数据只等待产品的房间列表；
+     * 每个仓储调用单独计时，任一加载失败或超时立即取消其余加载，
+     * 整体延迟取决于最慢的单个依赖而不是所有依赖之和
+     */
+    public PricingResult calculateComprehensivePriceConcurrently(
+            String offerNo,
+            LocalDate checkInDay,
+            String userId,
+            UserLevel userLevel,
+            Region region,
+            Channel channel,
+            String sessionId) {
+
+        UserContext userContext = new UserContext(userId, userLevel, region, channel, "MEMBER_" + userId);
+        MarketingContext marketingContext = new MarketingContext(
+            LocalDateTime.now(), sessionId, 1, "HOTEL_BOOKING_SYSTEM"
+        );
+
+        try (ConcurrentLoadScope scope = new ConcurrentLoadScope(repositoryLoadExecutor())) {
+            CompletableFuture<HotelOffer> hotelOffer = scope.fork("hotel offer",
+                () -> hotelOfferRepository.queryHotelOfferByOfferNo(offerNo), repositoryLoadTimeout);
+
+            CompletableFuture<Map<String, PriceData>> roomPriceData = scope.forkAfter(hotelOffer, "room price data",
+                offer -> priceDataRepository.queryPriceDataByRoomList(offer.getRoomNoList()), repositoryLoadTimeout);
+
+            CompletableFuture<List<UserPricingStrategy>> userStrategies = scope.fork("user pricing strategies",
+                () -> userPricingStrategyRepository.queryApplicableStrategies(userContext), repositoryLoadTimeout);
+
+            CompletableFuture<MarketingStrategyIndex> marketingStrategies = scope.fork("marketing pricing strategies",
+                () -> marketingPricingStrategyRepository.queryStrategyIndexByOfferNo(offerNo), repositoryLoadTimeout);
+
+            // 最长的依赖链是 产品 → 价格数据 两级加载
+            scope.join(repositoryLoadTimeout.multipliedBy(2));
+
+            return ComprehensivePricingDomainService.calculateFinalPrice(
+                hotelOffer.join(),
+                checkInDay,
+                roomPriceData.join(),
+                userContext,
+                marketingContext,
+                userStrategies.join(),
+                marketingStrategies.join()
+            );
+        }
+    }
+
+    /**
+     * 批量综合定价服务 - 多个产品 × 多个入住日一次完成
+     * offer 去重后只加载一次，所有房间价格一次性加载为价格日历，
+     * 用户策略整个批次只取一次决策表，营销策略每个 offer 取一次仓储缓存的有效期索引（queryStrategyIndexByOfferNo），逐日按索引查找
+     *
+     * @return offerNo → 入住日期 → 定价结果；不存在的 offer 和不可入住的日期不出现在结果中
+     */
+    public Map<String, Map<LocalDate, PricingResult>> calculateComprehensivePrices(
+            List<String> offerNos,
+            DateRange checkInDays,
+            UserContext userContext) {
+
+        // 1. 去重后批量获取酒店产品聚合根
+        Map<String, HotelOffer> hotelOffers =
+            hotelOfferRepository.queryHotelOffersByOfferNos(new LinkedHashSet<>(offerNos));
+
+        // 2. 一次性加载所有房间的价格数据
+        List<String> roomNoList = hotelOffers.values().stream()
+            .flatMap(hotelOffer -> hotelOffer.getRoomNoList().stream())
+            .distinct()
+            .toList();
+        PriceDataAdapter.RoomPriceQuery roomPriceQuery = priceDataRepository.queryRoomPriceQueryByRoomList(roomNoList);
+
+        // 3. 整个批次共用营销上下文和用户策略
+        MarketingContext marketingContext = new MarketingContext(
+            LocalDateTime.now(), "BATCH_" + userContext.getUserId(), 1, "HOTEL_BOOKING_SYSTEM"
+        );
+        UserStrategyDecisionTable userStrategyDecisionTable = userPricingStrategyRepository.queryDecisionTable();
+
+        // 4. 逐个 offer 计算整个日期范围
+        Map<String, Map<LocalDate, PricingResult>> results = new LinkedHashMap<>();
+        hotelOffers.forEach((offerNo, hotelOffer) -> {
+            MarketingStrategyIndex marketingStrategyIndex =
+                marketingPricingStrategyRepository.queryStrategyIndexByOfferNo(offerNo);
+
+            results.put(offerNo, ComprehensivePricingDomainService.calculateFinalPrices(
+                hotelOffer,
+                checkInDays,
+                roomPriceQuery,
+                userContext,
+                marketingContext,
+                userStrategyDecisionTable,
+                marketingStrategyIndex
+            ));
+        });
+        return results;
+    }
+
+    /**
+     * 最便宜的 K 个 offer - 某个入住日、某个用户综合最终价格最低的 K 个 offer
+     * 下界由物化视图中的基础最低价推出（不加载 offer）：先取用户决策表中该用户的最优价，再取 offer 缓存的营销策略索引中
+     * 当天生效策略的最低价，与完整定价同一条链路，限时活动库存只减不增，因此不会高于最终价。
+     * 按下界从低到高逐个完整定价，用大小为 K 的最大堆保留当前最便宜的结果；堆满且下一个下界不低于堆顶时停止，
+     * 完整定价的 offer 数取决于 K 和下界的紧密程度，而不是目录大小。
+     * 视图中没有的 offer 下界未知，总是完整定价；视图显示当天不可入住或缺价的 offer 排在最后，结果不足 K 个时仍会完整定价确认。
+     * 设置了折扣上限时下界改为 基础最低价 × (1 - 折扣上限)，这是业务约束，策略组合让最终价低于下界时结果可能遗漏该 offer
+     *
+     * @return offerNo → 定价结果，按最终价格升序；不存在、不可入住和缺价的 offer 不出现在结果中
+     */
+    public Map<String, PricingResult> calculateCheapestOffers(
+            List<String> offerNos,
+            LocalDate checkInDay,
+            UserContext userContext,
+            int k) {
+
+        Map<String, PricingResult> results = new LinkedHashMap<>();
+        if (k <= 0) {
+            return results;
+        }
+
+        // 1. 整个查询共用营销上下文和用户策略
+        MarketingContext marketingContext = new MarketingContext(
+            LocalDateTime.now(), "TOP_K_" + userContext.getUserId(), 1, "HOTEL_BOOKING_SYSTEM"
+        );
+        UserStrategyDecisionTable userStrategyDecisionTable = userPricingStrategyRepository.queryDecisionTable();
+
+        // 2. 计算下界（视图查找和缓存的策略索引，不加载 offer），按下界升序
+        List<OfferCandidate> candidates = new ArrayList<>();
+        for (String offerNo : new LinkedHashSet<>(offerNos)) {
+            MarketingStrategyIndex marketingStrategyIndex =
+                marketingPricingStrategyRepository.queryStrategyIndexByOfferNo(offerNo);
+            long lowerBound = lowerBoundOf(offerNo, checkInDay, userContext, marketingContext,
+                userStrategyDecisionTable, marketingStrategyIndex);
+            // 视图认为不可订的 offer 排在最后而不是直接丢弃，结果不足 K 个时仍会完整定价一次
+            candidates.add(new OfferCandidate(offerNo, marketingStrategyIndex, lowerBound));
+        }
+        candidates.sort(Comparator.comparingLong(OfferCandidate::getLowerBound));
+
+        // 3. 逐个完整定价，最大堆保留最便宜的 K 个
+        PriorityQueue<OfferCandidate> cheapest =
+            new PriorityQueue<>(k + 1, Comparator.comparingLong(OfferCandidate::getFinalPrice).reversed());
+        for (OfferCandidate candidate : candidates) {
+            if (cheapest.size() == k && candidate.getLowerBound() >= cheapest.peek().getFinalPrice()) {
+                break;
+            }
+
+            HotelOffer hotelOffer = hotelOfferRepository.queryHotelOfferByOfferNo(candidate.getOfferNo());
+            if (hotelOffer == null) {
+                continue;
+            }
+            PricingResult result = ComprehensivePricingDomainService.calculateFinalPriceIfAvailable(
+                hotelOffer,
+                checkInDay,
+                priceDataRepository.queryRoomPriceQueryByRoomList(hotelOffer.getRoomNoList()),
+                userContext,
+                marketingContext,
+                userStrategyDecisionTable,
+                candidate.getMarketingStrategyIndex()
+            );
+            if (result == null) {
+                continue;
+            }
+
+            candidate.price(result);
+            cheapest.add(candidate);
+            if (cheapest.size() > k) {
+                cheapest.poll();
+            }
+        }
+
+        List<OfferCandidate> ranked = new ArrayList<>(cheapest);
+        ranked.sort(Comparator.comparingLong(OfferCandidate::getFinalPrice));
+        ranked.forEach(candidate -> results.put(candidate.getOfferNo(), candidate.getResult()));
+        return results;
+    }
+
+    /**
+     * 物化视图中的基础最低价依次经过用户决策表和当天生效的营销策略（或直接扣除折扣上限）；视图不可用时为 Long.MIN_VALUE（必须定价）
+     */
+    private long lowerBoundOf(String offerNo,
+                              LocalDate checkInDay,
+                              UserContext userContext,
+                              MarketingContext marketingContext,
+                              UserStrategyDecisionTable userStrategyDecisionTable,
+                              MarketingStrategyIndex marketingStrategyIndex) {
+        if (offerMinPriceView == null
+                || !offerMinPriceView.isRegistered(offerNo)
+                || !offerMinPriceView.getCheckInDays().contains(checkInDay)) {
+            return Long.MIN_VALUE;
+        }
+        Money basePrice = offerMinPriceView.getMinPrice(offerNo, checkInDay);
+        if (basePrice == null) {
+            return OfferCandidate.NOT_BOOKABLE;
+        }
+        if (maxTotalDiscountBasisPoints != null) {
+            return Money.applyBasisPoints(basePrice.getMinorUnits(),
+                Money.BASIS_POINTS - maxTotalDiscountBasisPoints, RoundingMode.FLOOR);
+        }
+
+        // 决策表不经过 UserPricingStrategySelector，下界推算不产生定价决策记录
+        Money userPrice = Money.ofMinor(userStrategyDecisionTable.selectBestPrice(
+            basePrice.getMinorUnits(), userContext, marketingContext.getCurrentTime()));
+        long lowerBound = userPrice.getMinorUnits();
+        for (MarketingPricingStrategy strategy : marketingStrategyIndex.findEffective(checkInDay)) {
+            lowerBound = Math.min(lowerBound,
+                strategy.calculateMarketingPrice(userPrice, checkInDay, marketingContext).getMinorUnits());
+        }
+        return lowerBound;
+    }
+
     /**
      * 价格趋势分析服务
      */
@@ -156,10 +395,18 @@ public class ApplicationService {
         List<MarketingPricingStrategy> marketingStrategies = 
             marketingPricingStrategyRepository.queryStrategiesInDateRange(startDate, endDate, offerNo);
 
-        // 4. 执行趋势分析
+        // 4. 一次性加载整个分析区间的房间价格日历
+        PriceDataAdapter.RoomPriceQuery roomPriceQuery =
+            priceDataRepository.queryRoomPriceQueryByRoomList(hotelOffer.getRoomNoList());
+
+        // 5. 执行趋势分析
         DateRange analysisRange = DateRange.of(startDate, endDate);
+        MarketingContext marketingContext = new MarketingContext(
+            LocalDateTime.now(), "trend-analysis", 1, "PRICE_ANALYSIS_SYSTEM"
+        );
         return ComprehensivePricingDomainService.analyzePriceTrend(
-            hotelOffer, analysisRange, userContext, userStrategies, marketingStrategies
+            hotelOffer, analysisRange, roomPriceQuery, userContext, marketingContext,
+            userStrategies, marketingStrategies
         );
     }
 
@@ -179,13 +426,91 @@ public class ApplicationService {
 
     // === 遗留方法（逐步迁移） ===
     public Boolean calculateCheckInDayIsAvailable(Validity validity, LocalDate checkInDay) {
-        return true; // logical processing
+        return validity.validateCheckInDayIsAvailable(checkInDay);
     }
 
     public BigDecimal calculatePrice(PriceRule priceRule, List<HotelProduct> hotelProducts, LocalDate checkInDay) {
         return BigDecimal.ONE; // logical processing
     }
 
+    /**
+     * top-K 查询中的一个 offer：营销策略索引，下界，完整定价后的结果
+     */
+    private static final class OfferCandidate {
+        private static final long NOT_BOOKABLE = Long.MAX_VALUE;
+
+        private final String offerNo;
+        private final MarketingStrategyIndex marketingStrategyIndex;
+        private final long lowerBound;
+        private PricingResult result;
+        private long finalPrice;
+
+        private OfferCandidate(String offerNo, MarketingStrategyIndex marketingStrategyIndex, long lowerBound) {
+            this.offerNo = offerNo;
+            this.marketingStrategyIndex = marketingStrategyIndex;
+            this.lowerBound = lowerBound;
+        }
+
+        private void price(PricingResult result) {
+            this.result = result;
+            this.finalPrice = Money.of(result.getFinalPrice()).getMinorUnits();
+        }
+
+        private String getOfferNo() {
+            return offerNo;
+        }
+
+        private MarketingStrategyIndex getMarketingStrategyIndex() {
+            return marketingStrategyIndex;
+        }
+
+        private long getLowerBound() {
+            return lowerBound;
+        }
+
+        private PricingResult getResult() {
+            return result;
+        }
+
+        private long getFinalPrice() {
+            return finalPrice;
+        }
+    }
+
+    // === 仓储的 Setter 方法 ===
+    public void setHotelOfferRepository(HotelOfferRepository hotelOfferRepository) {
+        this.hotelOfferRepository = hotelOfferRepository;
+    }
+
+    public void setPriceDataRepository(PriceDataRepository priceDataRepository) {
+        this.priceDataRepository = priceDataRepository;
+    }
+
+    // === 并发加载配置的 Setter 方法 ===
+    public synchronized void setRepositoryLoadExecutor(ExecutorService repositoryLoadExecutor) {
+        close();
+        this.repositoryLoadExecutor = repositoryLoadExecutor;
+    }
+
+    public void setRepositoryLoadTimeout(Duration repositoryLoadTimeout) {
+        this.repositoryLoadTimeout = repositoryLoadTimeout;
+    }
+
+    public void setOfferMinPriceView(OfferMinPriceView offerMinPriceView) {
+        this.offerMinPriceView = offerMinPriceView;
+    }
+
+    /**
+     * 覆盖按策略推算的 top-K 下界，传 null 恢复默认
+     */
+    public void setMaxTotalDiscountBasisPoints(Long maxTotalDiscountBasisPoints) {
+        if (maxTotalDiscountBasisPoints != null
+                && (maxTotalDiscountBasisPoints < 0 || maxTotalDiscountBasisPoints > Money.BASIS_POINTS)) {
+            throw new RuntimeException("max total discount must be between 0 and 10000 basis points");
+        }
+        this.maxTotalDiscountBasisPoints = maxTotalDiscountBasisPoints;
+    }
+
     // === 新增策略仓储的 Setter 方法 ===
     public void setUserPricingStrategyRepository(UserPricingStrategyRepository userPricingStrategyRepository) {
         this.userPricingStrategyRepository = userPricingStrategyRepository;
@@ -194,4 +519,24 @@ public class ApplicationService {
     public void setMarketingPricingStrategyRepository(MarketingPricingStrategyRepository marketingPricingStrategyRepository) {
         this.marketingPricingStrategyRepository = marketingPricingStrategyRepository;
     }
+
+    /**
+     * 关闭自建的仓储加载线程池，已提交的加载任务继续执行完
+     */
+    @Override
+    public synchronized void close() {
+        if (ownsRepositoryLoadExecutor) {
+            repositoryLoadExecutor.shutdown();
+            repositoryLoadExecutor = null;
+            ownsRepositoryLoadExecutor = false;
+        }
+    }
+
+    private synchronized ExecutorService repositoryLoadExecutor() {
+        if (repositoryLoadExecutor == null) {
+            repositoryLoadExecutor = ConcurrentLoadScope.newPerTaskExecutor();
+            ownsRepositoryLoadExecutor = true;
+        }
+        return repositoryLoadExecutor;
+    }
 }
@@ -0,0 +1,174 @@
+package com.yonhoo.ddd.application;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * 仓储并发加载作用域
+ * 语义参照 StructuredTaskScope.ShutdownOnFailure（JDK 21+ 预览特性，项目基线为 JDK 17）：
+ * 子任务只能在作用域内派生，任一子任务失败或超时即中断其余子任务，join 抛出第一个失败原因，
+ * 离开 try-with-resources 时不会遗留仍在运行的子任务。
+ * 取消只是失败或关闭的后果，不作为失败原因记录；作用域失败后再派生的子任务立即取消
+ */
+final class ConcurrentLoadScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final List<Subtask<?>> subtasks = new CopyOnWriteArrayList<>();
+    private final AtomicReference<RuntimeException> firstFailure = new AtomicReference<>();
+
+    ConcurrentLoadScope(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 优先使用虚拟线程（JDK 21+），否则退化为按需创建的守护线程池
+     */
+    static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "repository-load");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * 立即派生一个独立的加载任务，超时从派生时开始计算
+     */
+    <T> CompletableFuture<T> fork(String taskName, Callable<T> task, Duration timeout) {
+        Subtask<T> subtask = register(taskName);
+        start(subtask, task, timeout);
+        return subtask.result;
+    }
+
+    /**
+     * 派生一个依赖其他任务结果的加载任务，只在依赖成功后才开始执行并计算超时；依赖失败或被取消时该任务随之取消
+     */
+    <U, T> CompletableFuture<T> forkAfter(CompletableFuture<U> dependency,
+                                          String taskName,
+                                          Function<U, T> task,
+                                          Duration timeout) {
+        Subtask<T> subtask = register(taskName);
+        dependency.whenComplete((value, failure) -> {
+            if (failure == null) {
+                start(subtask, () -> task.apply(value), timeout);
+            } else {
+                subtask.cancel();
+            }
+        });
+        return subtask.result;
+    }
+
+    /**
+     * 最多等待 timeout 让所有子任务完成；任一子任务失败或整体超时时中断其余子任务并抛出第一个失败原因
+     */
+    void join(Duration timeout) {
+        try {
+            CompletableFuture.allOf(subtasks.stream().map(subtask -> subtask.result).toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shutdown(new RuntimeException("repository load interrupted", e));
+        } catch (TimeoutException e) {
+            shutdown(new RuntimeException("repository load timed out after " + timeout.toMillis() + " ms", e));
+        } catch (ExecutionException e) {
+            // 失败原因由 whenComplete 或下面的扫描记录
+        }
+
+        for (Subtask<?> subtask : subtasks) {
+            if (subtask.result.isCompletedExceptionally()) {
+                shutdown(failure(subtask.taskName, subtask.result.handle((value, failure) -> failure).join()));
+            }
+        }
+
+        RuntimeException failure = firstFailure.get();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Subtask<?> subtask : subtasks) {
+            subtask.cancel();
+        }
+    }
+
+    private <T> Subtask<T> register(String taskName) {
+        Subtask<T> subtask = new Subtask<>(taskName);
+        subtasks.add(subtask);
+        subtask.result.whenComplete((value, failure) -> {
+            if (failure != null && !(failure instanceof CancellationException)) {
+                shutdown(failure(taskName, failure));
+            }
+        });
+        // 作用域已经失败时 shutdown 可能错过这个子任务
+        if (firstFailure.get() != null) {
+            subtask.cancel();
+        }
+        return subtask;
+    }
+
+    private <T> void start(Subtask<T> subtask, Callable<T> task, Duration timeout) {
+        subtask.result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        subtask.running = executor.submit(() -> {
+            try {
+                subtask.result.complete(task.call());
+            } catch (Throwable t) {
+                subtask.result.completeExceptionally(t);
+            }
+        });
+        if (firstFailure.get() != null) {
+            subtask.cancel();
+        }
+    }
+
+    private void shutdown(RuntimeException failure) {
+        if (firstFailure.compareAndSet(null, failure)) {
+            for (Subtask<?> subtask : subtasks) {
+                subtask.cancel();
+            }
+        }
+    }
+
+    private static RuntimeException failure(String taskName, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        return new RuntimeException("failed to load " + taskName, cause);
+    }
+
+    private static final class Subtask<T> {
+        private final String taskName;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile Future<?> running;
+
+        private Subtask(String taskName) {
+            this.taskName = taskName;
+        }
+
+        private void cancel() {
+            result.cancel(false);
+            Future<?> task = running;
+            if (task != null) {
+                task.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.yonhoo.ddd.application;
+
+import com.yonhoo.ddd.domain.model.DateRange;
+import com.yonhoo.ddd.domain.model.HotelOffer;
+import com.yonhoo.ddd.domain.model.Money;
+import com.yonhoo.ddd.domain.model.PriceDataAdapter;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * offer 最低价物化视图
+ * 为已登记的 offer 预先算好 checkInDays 内每个入住日的基础最低价（HotelOffer.calculateMinPrices），查询只是一次数组读取。
+ * 房间某晚价格变化时，通过 房间 → offer 反向索引只重算受影响的 offer，且只重算连住范围覆盖这一晚的入住日。
+ * 价格来源需要在通知前已经反映变更（如 PriceChangeStore 的变更监听在写入可见后回调）；
+ * offer 变更时通过 onOfferChanged 按 offerLoader 重新加载并登记，调用方按 offer 版本读取，版本不一致时不使用物化结果。
+ * 接线见 PricingStateBootstrap.createOfferMinPriceView。
+ * 查询无锁；同一 offer 的重算串行，后开始的重算总是看到更新的价格
+ */
+public class OfferMinPriceView {
+
+    private static final long NO_PRICE = Long.MIN_VALUE;
+
+    private final PriceDataAdapter.RoomPriceQuery priceQuery;
+    private final Function<String, HotelOffer> offerLoader;
+    private final DateRange checkInDays;
+    private final long firstDay;
+    private final int dayCount;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> offerNosByRoom = new ConcurrentHashMap<>();
+
+    /**
+     * @param checkInDays 物化的入住日范围，范围外的查询返回 null
+     */
+    public OfferMinPriceView(PriceDataAdapter.RoomPriceQuery priceQuery, DateRange checkInDays) {
+        this(priceQuery, checkInDays, null);
+    }
+
+    /**
+     * @param offerLoader offer 变更后重新加载最新聚合，为 null 时变更的 offer 直接注销
+     */
+    public OfferMinPriceView(PriceDataAdapter.RoomPriceQuery priceQuery,
+                             DateRange checkInDays,
+                             Function<String, HotelOffer> offerLoader) {
+        this.priceQuery = priceQuery;
+        this.offerLoader = offerLoader;
+        this.checkInDays = checkInDays;
+        this.firstDay = checkInDays.getStartDate().toEpochDay();
+        this.dayCount = Math.toIntExact(Math.max(0L, checkInDays.getEndDate().toEpochDay() - firstDay + 1));
+    }
+
+    /**
+     * 登记（或用新版本替换）offer 并计算整个入住日范围
+     */
+    public synchronized void register(HotelOffer hotelOffer) {
+        unregister(hotelOffer.getOfferNo());
+        Entry entry = new Entry(hotelOffer, new AtomicLongArray(dayCount));
+        for (int i = 0; i < dayCount; i++) {
+            entry.minPrices.set(i, NO_PRICE);
+        }
+        // 先进入反向索引再全量计算，计算期间到达的变更通知会在其后重算，不会丢失
+        entries.put(hotelOffer.getOfferNo(), entry);
+        for (String roomNo : hotelOffer.getRoomNoList()) {
+            offerNosByRoom.computeIfAbsent(roomNo, key -> ConcurrentHashMap.newKeySet()).add(hotelOffer.getOfferNo());
+        }
+        recompute(entry, checkInDays);
+    }
+
+    public synchronized void unregister(String offerNo) {
+        Entry entry = entries.remove(offerNo);
+        if (entry == null) {
+            return;
+        }
+        for (String roomNo : entry.hotelOffer.getRoomNoList()) {
+            Set<String> offerNos = offerNosByRoom.get(roomNo);
+            if (offerNos != null) {
+                offerNos.remove(offerNo);
+                if (offerNos.isEmpty()) {
+                    offerNosByRoom.remove(roomNo);
+                }
+            }
+        }
+    }
+
+    /**
+     * 房间 night 这一晚的价格已变化，重算引用该房间的 offer 中受影响的入住日
+     */
+    public void onRoomPriceChanged(String roomNo, LocalDate night) {
+        Set<String> offerNos = offerNosByRoom.get(roomNo);
+        if (offerNos == null) {
+            return;
+        }
+        for (String offerNo : offerNos) {
+            Entry entry = entries.get(offerNo);
+            if (entry != null) {
+                recompute(entry, entry.hotelOffer.checkInDaysCoveringNight(night));
+            }
+        }
+    }
+
+    /**
+     * 已登记的 offer 发生变更：重新加载后按新版本登记；加载不到或加载到的版本低于 version（如读到延迟的副本）时注销
+     */
+    public void onOfferChanged(String offerNo, long version) {
+        if (!isRegistered(offerNo)) {
+            return;
+        }
+        HotelOffer changed = offerLoader == null ? null : offerLoader.apply(offerNo);
+        if (changed == null || (changed.getVersion() == null ? 0L : changed.getVersion()) < version) {
+            unregister(offerNo);
+        } else {
+            register(changed);
+        }
+    }
+
+    /**
+     * 只在登记的版本与调用方持有的 offer 版本一致时返回物化结果，否则返回 null 由调用方现算
+     */
+    public Money getMinPrice(String offerNo, Long version, LocalDate checkInDay) {
+        Entry entry = entries.get(offerNo);
+        if (entry == null || !Objects.equals(entry.hotelOffer.getVersion(), version)) {
+            return null;
+        }
+        return getMinPrice(offerNo, checkInDay);
+    }
+
+    /**
+     * 物化的基础最低价；offer 未登记、入住日在范围外、不可入住或缺少价格时返回 null
+     */
+    public Money getMinPrice(String offerNo, LocalDate checkInDay) {
+        Entry entry = entries.get(offerNo);
+        long offset = checkInDay.toEpochDay() - firstDay;
+        if (entry == null || offset < 0 || offset >= dayCount) {
+            return null;
+        }
+        long minPrice = entry.minPrices.get((int) offset);
+        return minPrice == NO_PRICE ? null : Money.ofMinor(minPrice);
+    }
+
+    public boolean isRegistered(String offerNo) {
+        return entries.containsKey(offerNo);
+    }
+
+    public DateRange getCheckInDays() {
+        return checkInDays;
+    }
+
+    /**
+     * 物化使用的价格来源，未命中时按同一来源现算，两条路径结果一致
+     */
+    public PriceDataAdapter.RoomPriceQuery getPriceQuery() {
+        return priceQuery;
+    }
+
+    /**
+     * 重算 days 与物化范围的交集，没有结果的入住日记为无价格
+     */
+    private void recompute(Entry entry, DateRange days) {
+        long from = Math.max(days.getStartDate().toEpochDay(), firstDay);
+        long to = Math.min(days.getEndDate().toEpochDay(), firstDay + dayCount - 1);
+        if (from > to) {
+            return;
+        }
+
+        synchronized (entry) {
+            Map<LocalDate, Money> minPrices = entry.hotelOffer.calculateMinPrices(
+                    DateRange.of(LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(to)), priceQuery);
+            for (long day = from; day <= to; day++) {
+                Money minPrice = minPrices.get(LocalDate.ofEpochDay(day));
+                entry.minPrices.set((int) (day - firstDay), minPrice == null ? NO_PRICE : minPrice.getMinorUnits());
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final HotelOffer hotelOffer;
+        private final AtomicLongArray minPrices;
+
+        private Entry(HotelOffer hotelOffer, AtomicLongArray minPrices) {
+            this.hotelOffer = hotelOffer;
+            this.minPrices = minPrices;
+        }
+    }
+}
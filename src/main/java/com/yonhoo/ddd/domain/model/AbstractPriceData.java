@@ -2,10 +2,17 @@ package com.yonhoo.ddd.domain.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.function.BiConsumer;
 
 public abstract class AbstractPriceData {
 
-    public BigDecimal getMinPriceByDay(LocalDate day) {
+    public Money getMinPriceByDay(LocalDate day) {
         return null;
     }
+
+    /**
+     * 遍历所有（日期，价格）条目，供 RoomPriceCalendar 等索引结构一次性构建使用
+     */
+    public void forEachDailyPrice(BiConsumer<LocalDate, BigDecimal> consumer) {
+    }
 }
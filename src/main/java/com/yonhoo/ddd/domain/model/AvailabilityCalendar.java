@@ -0,0 +1,285 @@
+package com.yonhoo.ddd.domain.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 可入住日历
+ * 由 Validity 编译而来：游玩窗口为 [firstDay, lastDay]（epoch day，未配置的一端不设限），
+ * 不可售日期区间排序合并后写入按 epoch day 偏移的位图（1 = 可入住）。
+ * 位图只覆盖不可售日期所在的区间（窗口两端都有界时覆盖整个窗口），覆盖范围外、窗口内的日期都可入住。
+ * 单日判断 O(1)；查找下一个可入住 / 不可入住日按 64 天一个字扫描，不再逐日遍历不可售区间列表
+ */
+public final class AvailabilityCalendar {
+
+    private static final long UNBOUNDED_START = LocalDate.MIN.toEpochDay();
+    private static final long UNBOUNDED_END = LocalDate.MAX.toEpochDay();
+
+    private static final AvailabilityCalendar UNRESTRICTED =
+            new AvailabilityCalendar(UNBOUNDED_START, UNBOUNDED_END, 0L, -1L, new long[0]);
+    private static final AvailabilityCalendar NONE =
+            new AvailabilityCalendar(0L, -1L, 0L, -1L, new long[0]);
+
+    private final long firstDay;
+    private final long lastDay;
+    /**
+     * 位图覆盖 [baseDay, coveredLastDay]，第 i 位对应 baseDay + i；覆盖范围之后的位恒为 0
+     */
+    private final long baseDay;
+    private final long coveredLastDay;
+    private final long[] words;
+
+    private AvailabilityCalendar(long firstDay, long lastDay, long baseDay, long coveredLastDay, long[] words) {
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.baseDay = baseDay;
+        this.coveredLastDay = coveredLastDay;
+        this.words = words;
+    }
+
+    /**
+     * 所有日期都可入住
+     */
+    public static AvailabilityCalendar unrestricted() {
+        return UNRESTRICTED;
+    }
+
+    /**
+     * 没有可入住日期
+     */
+    public static AvailabilityCalendar none() {
+        return NONE;
+    }
+
+    /**
+     * 编译游玩窗口和不可售日期；窗口端点为 null 表示不设限，无效的不可售区间（为 null 或结束早于开始）忽略
+     */
+    static AvailabilityCalendar compile(LocalDate visitingStartDate,
+                                        LocalDate visitingEndDate,
+                                        List<DateRange> blackOutDateRanges) {
+        long firstDay = visitingStartDate == null ? UNBOUNDED_START : visitingStartDate.toEpochDay();
+        long lastDay = visitingEndDate == null ? UNBOUNDED_END : visitingEndDate.toEpochDay();
+        if (lastDay < firstDay) {
+            return NONE;
+        }
+
+        List<long[]> blackOuts = mergeBlackOuts(blackOutDateRanges, firstDay, lastDay);
+        if (blackOuts.isEmpty()) {
+            return new AvailabilityCalendar(firstDay, lastDay, 0L, -1L, new long[0]);
+        }
+
+        long baseDay = visitingStartDate == null ? blackOuts.get(0)[0] : firstDay;
+        long coveredLastDay = visitingEndDate == null ? blackOuts.get(blackOuts.size() - 1)[1] : lastDay;
+        long[] words = new long[Math.toIntExact(((coveredLastDay - baseDay) >> 6) + 1)];
+        setRange(words, 0L, coveredLastDay - baseDay, true);
+        for (long[] blackOut : blackOuts) {
+            setRange(words, blackOut[0] - baseDay, blackOut[1] - baseDay, false);
+        }
+        return new AvailabilityCalendar(firstDay, lastDay, baseDay, coveredLastDay, words);
+    }
+
+    /**
+     * 只保留不早于 earliestDay 的入住日（如提前预订天数），与原日历共享位图
+     */
+    public AvailabilityCalendar from(LocalDate earliestDay) {
+        long earliest = earliestDay.toEpochDay();
+        if (earliest <= firstDay) {
+            return this;
+        }
+        return new AvailabilityCalendar(earliest, lastDay, baseDay, coveredLastDay, words);
+    }
+
+    public boolean isAvailable(LocalDate day) {
+        return isAvailable(day.toEpochDay());
+    }
+
+    /**
+     * [from, to] 内第一个可入住日，没有时返回 null
+     */
+    public LocalDate nextAvailableDay(LocalDate from, LocalDate to) {
+        long day = nextAvailableDay(from.toEpochDay(), to.toEpochDay());
+        return day > to.toEpochDay() ? null : LocalDate.ofEpochDay(day);
+    }
+
+    /**
+     * [from, to] 内第一个不可入住日，没有时返回 null
+     */
+    public LocalDate nextUnavailableDay(LocalDate from, LocalDate to) {
+        long day = nextUnavailableDay(from.toEpochDay(), to.toEpochDay());
+        return day > to.toEpochDay() ? null : LocalDate.ofEpochDay(day);
+    }
+
+    /**
+     * [from, to] 内可入住的天数
+     */
+    public int countAvailableDays(LocalDate from, LocalDate to) {
+        long start = Math.max(from.toEpochDay(), firstDay);
+        long end = Math.min(to.toEpochDay(), lastDay);
+        if (end < start) {
+            return 0;
+        }
+
+        long count = 0;
+        // 覆盖范围之前、之后的部分全部可入住
+        if (start < baseDay) {
+            count += Math.min(end, baseDay - 1) - start + 1;
+        }
+        if (end > coveredLastDay) {
+            count += end - Math.max(start, coveredLastDay + 1) + 1;
+        }
+
+        long coveredStart = Math.max(start, baseDay);
+        long coveredEnd = Math.min(end, coveredLastDay);
+        if (coveredStart <= coveredEnd) {
+            long fromBit = coveredStart - baseDay;
+            long toBit = coveredEnd - baseDay;
+            int fromWord = (int) (fromBit >> 6);
+            int toWord = (int) (toBit >> 6);
+            for (int i = fromWord; i <= toWord; i++) {
+                long word = words[i];
+                if (i == fromWord) {
+                    word &= -1L << fromBit;
+                }
+                if (i == toWord) {
+                    word &= -1L >>> (63 - (toBit & 63));
+                }
+                count += Long.bitCount(word);
+            }
+        }
+        return Math.toIntExact(count);
+    }
+
+    /**
+     * 把 dateRange 拆成连续可入住的区间，按日期升序
+     */
+    public List<DateRange> availableRanges(DateRange dateRange) {
+        long end = dateRange.getEndDate().toEpochDay();
+        List<DateRange> ranges = new ArrayList<>();
+        long start = nextAvailableDay(dateRange.getStartDate().toEpochDay(), end);
+        while (start <= end) {
+            long unavailable = nextUnavailableDay(start, end);
+            ranges.add(DateRange.of(LocalDate.ofEpochDay(start), LocalDate.ofEpochDay(Math.min(unavailable, end + 1) - 1)));
+            if (unavailable > end) {
+                break;
+            }
+            start = nextAvailableDay(unavailable + 1, end);
+        }
+        return ranges;
+    }
+
+    private boolean isAvailable(long day) {
+        if (day < firstDay || day > lastDay) {
+            return false;
+        }
+        if (day < baseDay || day > coveredLastDay) {
+            return true;
+        }
+        long bit = day - baseDay;
+        return (words[(int) (bit >> 6)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * 没有时返回大于 to 的值
+     */
+    private long nextAvailableDay(long from, long to) {
+        long day = Math.max(from, firstDay);
+        long end = Math.min(to, lastDay);
+        if (day > end) {
+            return to + 1;
+        }
+        if (day < baseDay || day > coveredLastDay) {
+            return day;
+        }
+
+        long bit = day - baseDay;
+        int index = (int) (bit >> 6);
+        long word = words[index] & (-1L << bit);
+        while (word == 0 && ++index < words.length) {
+            word = words[index];
+        }
+        // 覆盖范围内已无可入住日，紧接覆盖范围之后的一天在窗口内即可入住
+        long next = word == 0 ? coveredLastDay + 1 : baseDay + ((long) index << 6) + Long.numberOfTrailingZeros(word);
+        return next <= end ? next : to + 1;
+    }
+
+    /**
+     * 没有时返回大于 to 的值
+     */
+    private long nextUnavailableDay(long from, long to) {
+        if (from > to) {
+            return to + 1;
+        }
+        if (from < firstDay || from > lastDay) {
+            return from;
+        }
+
+        long day = Math.max(from, baseDay);
+        if (day <= coveredLastDay) {
+            long bit = day - baseDay;
+            int index = (int) (bit >> 6);
+            long word = ~words[index] & (-1L << bit);
+            while (word == 0 && ++index < words.length) {
+                word = ~words[index];
+            }
+            if (word != 0) {
+                long next = baseDay + ((long) index << 6) + Long.numberOfTrailingZeros(word);
+                // 覆盖范围之后的位恒为 0，取反后的命中可能落在覆盖范围之外
+                if (next <= coveredLastDay) {
+                    return next <= to ? next : to + 1;
+                }
+            }
+        }
+        // 窗口内剩余日期都可入住
+        return lastDay < to ? lastDay + 1 : to + 1;
+    }
+
+    /**
+     * 排序并合并相交或相邻的不可售区间，裁剪到游玩窗口内
+     */
+    private static List<long[]> mergeBlackOuts(List<DateRange> blackOutDateRanges, long firstDay, long lastDay) {
+        List<long[]> merged = new ArrayList<>();
+        if (blackOutDateRanges == null || blackOutDateRanges.isEmpty()) {
+            return merged;
+        }
+
+        List<long[]> ranges = new ArrayList<>(blackOutDateRanges.size());
+        for (DateRange range : blackOutDateRanges) {
+            if (range == null || range.getStartDate() == null || range.getEndDate() == null) {
+                continue;
+            }
+            long start = Math.max(range.getStartDate().toEpochDay(), firstDay);
+            long end = Math.min(range.getEndDate().toEpochDay(), lastDay);
+            if (start <= end) {
+                ranges.add(new long[]{start, end});
+            }
+        }
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    private static void setRange(long[] words, long fromBit, long toBit, boolean value) {
+        int fromWord = (int) (fromBit >> 6);
+        int toWord = (int) (toBit >> 6);
+        for (int i = fromWord; i <= toWord; i++) {
+            long mask = -1L;
+            if (i == fromWord) {
+                mask &= -1L << fromBit;
+            }
+            if (i == toWord) {
+                mask &= -1L >>> (63 - (toBit & 63));
+            }
+            words[i] = value ? words[i] | mask : words[i] & ~mask;
+        }
+    }
+}
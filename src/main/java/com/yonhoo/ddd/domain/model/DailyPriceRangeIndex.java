@@ -0,0 +1,189 @@
+package com.yonhoo.ddd.domain.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 每日价格区间索引
+ * 覆盖 [firstDay, firstDay + dayCount) 的连续日期，以 epoch day 偏移为下标建两棵自底向上的线段树，
+ * 节点保存区间内最低价 / 最高价所在的下标（同价取较早的日期），没有价格的日期不参与比较。
+ * 任意日期区间的最低价、最高价及其日期 O(log n)，单日改价 O(log n)，建树 O(n)。
+ * 不是线程安全的，并发读写需要调用方同步
+ */
+public final class DailyPriceRangeIndex {
+
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    private static final int NONE = -1;
+
+    private final long firstDay;
+    private final long[] prices;
+    private final int leafOffset;
+    private final int[] minAt;
+    private final int[] maxAt;
+
+    private DailyPriceRangeIndex(long firstDay, long[] prices) {
+        this.firstDay = firstDay;
+        this.prices = prices;
+        int leaves = 1;
+        while (leaves < prices.length) {
+            leaves <<= 1;
+        }
+        this.leafOffset = leaves;
+        this.minAt = new int[2 * leaves];
+        this.maxAt = new int[2 * leaves];
+        Arrays.fill(minAt, NONE);
+        Arrays.fill(maxAt, NONE);
+        for (int i = 0; i < prices.length; i++) {
+            if (prices[i] != NO_PRICE) {
+                minAt[leaves + i] = i;
+                maxAt[leaves + i] = i;
+            }
+        }
+        for (int node = leaves - 1; node > 0; node--) {
+            minAt[node] = lower(minAt[2 * node], minAt[2 * node + 1]);
+            maxAt[node] = higher(maxAt[2 * node], maxAt[2 * node + 1]);
+        }
+    }
+
+    /**
+     * 按日期升序（可以有空缺）的每日价格建索引，空缺的日期视为没有价格
+     */
+    public static DailyPriceRangeIndex of(List<DailyPriceInfo> dailyPrices) {
+        if (dailyPrices.isEmpty()) {
+            return new DailyPriceRangeIndex(0L, new long[0]);
+        }
+        long firstDay = dailyPrices.get(0).getDate().toEpochDay();
+        long lastDay = dailyPrices.get(dailyPrices.size() - 1).getDate().toEpochDay();
+        long[] prices = new long[Math.toIntExact(lastDay - firstDay + 1)];
+        Arrays.fill(prices, NO_PRICE);
+        for (DailyPriceInfo dailyPrice : dailyPrices) {
+            prices[(int) (dailyPrice.getDate().toEpochDay() - firstDay)] = Money.of(dailyPrice.getFinalPrice()).getMinorUnits();
+        }
+        return new DailyPriceRangeIndex(firstDay, prices);
+    }
+
+    /**
+     * pricesInMinorUnits[i] 为 firstDay + i 的价格（分），Long.MIN_VALUE 表示没有价格；数组被复制
+     */
+    public static DailyPriceRangeIndex of(LocalDate firstDay, long[] pricesInMinorUnits) {
+        return new DailyPriceRangeIndex(firstDay.toEpochDay(), pricesInMinorUnits.clone());
+    }
+
+    /**
+     * 更新一天的价格，price 为 null 表示当天不再有价格；日期必须在索引范围内
+     */
+    public void update(LocalDate day, Money price) {
+        long offset = day.toEpochDay() - firstDay;
+        if (offset < 0 || offset >= prices.length) {
+            throw new RuntimeException("day out of price index range: " + day);
+        }
+        int index = (int) offset;
+        prices[index] = price == null ? NO_PRICE : price.getMinorUnits();
+
+        int node = leafOffset + index;
+        minAt[node] = price == null ? NONE : index;
+        maxAt[node] = minAt[node];
+        for (node >>= 1; node > 0; node >>= 1) {
+            minAt[node] = lower(minAt[2 * node], minAt[2 * node + 1]);
+            maxAt[node] = higher(maxAt[2 * node], maxAt[2 * node + 1]);
+        }
+    }
+
+    /**
+     * 区间内价格最低的日期（同价取最早），没有价格时返回 null
+     */
+    public LocalDate findCheapestDay(DateRange dateRange) {
+        return dayOf(query(dateRange, minAt, true));
+    }
+
+    /**
+     * 区间内价格最高的日期（同价取最早），没有价格时返回 null
+     */
+    public LocalDate findMostExpensiveDay(DateRange dateRange) {
+        return dayOf(query(dateRange, maxAt, false));
+    }
+
+    /**
+     * 区间内的最低价，没有价格时返回 null
+     */
+    public Money findMinPrice(DateRange dateRange) {
+        return priceOf(query(dateRange, minAt, true));
+    }
+
+    /**
+     * 区间内的最高价，没有价格时返回 null
+     */
+    public Money findMaxPrice(DateRange dateRange) {
+        return priceOf(query(dateRange, maxAt, false));
+    }
+
+    /**
+     * 索引覆盖的日期范围，空索引返回 null
+     */
+    public DateRange getDateRange() {
+        return prices.length == 0
+                ? null
+                : DateRange.of(LocalDate.ofEpochDay(firstDay), LocalDate.ofEpochDay(firstDay + prices.length - 1));
+    }
+
+    /**
+     * 左右两端分别累积，保证同价时取较早的下标
+     */
+    private int query(DateRange dateRange, int[] tree, boolean lowest) {
+        long from = Math.max(dateRange.getStartDate().toEpochDay() - firstDay, 0L);
+        long to = Math.min(dateRange.getEndDate().toEpochDay() - firstDay, prices.length - 1L);
+        if (from > to) {
+            return NONE;
+        }
+
+        int left = NONE;
+        int right = NONE;
+        int l = leafOffset + (int) from;
+        int r = leafOffset + (int) to + 1;
+        while (l < r) {
+            if ((l & 1) == 1) {
+                left = lowest ? lower(left, tree[l]) : higher(left, tree[l]);
+                l++;
+            }
+            if ((r & 1) == 1) {
+                r--;
+                right = lowest ? lower(tree[r], right) : higher(tree[r], right);
+            }
+            l >>= 1;
+            r >>= 1;
+        }
+        return lowest ? lower(left, right) : higher(left, right);
+    }
+
+    /**
+     * 价格较低的下标，同价取 a（a 在 b 之前）
+     */
+    private int lower(int a, int b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        return prices[b] < prices[a] ? b : a;
+    }
+
+    private int higher(int a, int b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        return prices[b] > prices[a] ? b : a;
+    }
+
+    private LocalDate dayOf(int index) {
+        return index == NONE ? null : LocalDate.ofEpochDay(firstDay + index);
+    }
+
+    private Money priceOf(int index) {
+        return index == NONE ? null : Money.ofMinor(prices[index]);
+    }
+}
@@ -1,6 +1,7 @@
 package com.yonhoo.ddd.domain.model;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,20 +17,25 @@ public class HolidayPricing {
     private DateRange holidayPeriod;
     private PricingAdjustmentType adjustmentType;
     private BigDecimal adjustmentValue;
+    private long adjustmentBasisPoints;
+    private Money fixedPrice;
 
     public boolean isApplicableDate(LocalDate targetDate) {
         return (holidayDates != null && holidayDates.contains(targetDate)) ||
                (holidayPeriod != null && holidayPeriod.contains(targetDate));
     }
 
-    public BigDecimal adjustPrice(BigDecimal originalPrice) {
+    public Money adjustPrice(Money originalPrice) {
+        if (adjustmentValue == null) {
+            throw new RuntimeException("adjustment value is not configured: " + holidayId);
+        }
         switch (adjustmentType) {
             case MARKUP:
-                return originalPrice.multiply(BigDecimal.ONE.add(adjustmentValue.divide(BigDecimal.valueOf(100))));
+                return originalPrice.applyBasisPoints(Money.BASIS_POINTS + adjustmentBasisPoints, RoundingMode.HALF_UP);
             case DISCOUNT:
-                return originalPrice.multiply(BigDecimal.ONE.subtract(adjustmentValue.divide(BigDecimal.valueOf(100))));
+                return originalPrice.applyBasisPoints(Money.BASIS_POINTS - adjustmentBasisPoints, RoundingMode.HALF_UP);
             case FIXED_PRICE:
-                return adjustmentValue;
+                return fixedPrice;
             default:
                 return originalPrice;
         }
@@ -51,6 +57,41 @@ public class HolidayPricing {
     public void setHolidayName(String holidayName) {
         this.holidayName = holidayName;
     }
+
+    public List<LocalDate> getHolidayDates() {
+        return holidayDates;
+    }
+
+    public void setHolidayDates(List<LocalDate> holidayDates) {
+        this.holidayDates = holidayDates;
+    }
+
+    public DateRange getHolidayPeriod() {
+        return holidayPeriod;
+    }
+
+    public void setHolidayPeriod(DateRange holidayPeriod) {
+        this.holidayPeriod = holidayPeriod;
+    }
+
+    public PricingAdjustmentType getAdjustmentType() {
+        return adjustmentType;
+    }
+
+    public void setAdjustmentType(PricingAdjustmentType adjustmentType) {
+        this.adjustmentType = adjustmentType;
+    }
+
+    public BigDecimal getAdjustmentValue() {
+        return adjustmentValue;
+    }
+
+    public void setAdjustmentValue(BigDecimal adjustmentValue) {
+        this.adjustmentValue = adjustmentValue;
+        // 配置时一次性换算，定价时只做整数运算；未配置的取值到定价时才报错，不影响按字段逐个装配
+        this.adjustmentBasisPoints = adjustmentValue == null ? 0L : Money.toBasisPoints(adjustmentValue);
+        this.fixedPrice = adjustmentValue == null ? null : Money.of(adjustmentValue);
+    }
 }
 
 /**
@@ -65,7 +106,7 @@ class FlashSaleActivity {
     private AtomicInteger totalQuota;
     private AtomicInteger usedQuota;
     private BigDecimal discountPercentage;
-    private BigDecimal maxDiscountAmount;
+    private Money maxDiscountAmount;
 
     public boolean isActive(LocalDateTime currentTime, LocalDate targetDate) {
         return currentTime.isAfter(startTime) && 
@@ -77,11 +118,11 @@ class FlashSaleActivity {
         return usedQuota.get() < totalQuota.get();
     }
 
-    public BigDecimal calculateSalePrice(BigDecimal originalPrice) {
-        BigDecimal discountAmount = originalPrice.multiply(discountPercentage)
-                .divide(BigDecimal.valueOf(100));
+    public Money calculateSalePrice(Money originalPrice) {
+        Money discountAmount = originalPrice.applyBasisPoints(
+                Money.toBasisPoints(discountPercentage), RoundingMode.HALF_UP);
         
-        if (maxDiscountAmount != null && discountAmount.compareTo(maxDiscountAmount) > 0) {
+        if (maxDiscountAmount != null && discountAmount.isGreaterThan(maxDiscountAmount)) {
             discountAmount = maxDiscountAmount;
         }
         
@@ -127,14 +168,16 @@ class SeasonalPricing {
         return seasonPeriod.contains(targetDate);
     }
 
-    public BigDecimal adjustPrice(BigDecimal originalPrice) {
+    public Money adjustPrice(Money originalPrice) {
         switch (adjustmentType) {
             case MARKUP:
-                return originalPrice.multiply(BigDecimal.ONE.add(adjustmentValue.divide(BigDecimal.valueOf(100))));
+                return originalPrice.applyBasisPoints(
+                        Money.BASIS_POINTS + Money.toBasisPoints(adjustmentValue), RoundingMode.HALF_UP);
             case DISCOUNT:
-                return originalPrice.multiply(BigDecimal.ONE.subtract(adjustmentValue.divide(BigDecimal.valueOf(100))));
+                return originalPrice.applyBasisPoints(
+                        Money.BASIS_POINTS - Money.toBasisPoints(adjustmentValue), RoundingMode.HALF_UP);
             case FIXED_PRICE:
-                return adjustmentValue;
+                return Money.of(adjustmentValue);
             default:
                 return originalPrice;
         }
@@ -1,7 +1,8 @@
 package com.yonhoo.ddd.domain.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -12,6 +13,7 @@ import java.util.Map;
  */
 public class HotelOffer {
     String offerNo;
+    Long version;                         // 聚合版本号，每次保存递增
     HotelProduct products;
     List<PriceRule> priceRuleList;
     Validity validity;
@@ -26,6 +28,20 @@ public class HotelOffer {
         return validity.validateCheckInDayIsAvailable(checkInDay);
     }
 
+    /**
+     * 验证在 bookingTime 下单时指定日期是否可以入住（含销售期、上架期、提前预订天数）
+     */
+    public boolean isAvailableForCheckIn(LocalDate checkInDay, LocalDateTime bookingTime) {
+        return getAvailabilityCalendar(bookingTime).isAvailable(checkInDay);
+    }
+
+    /**
+     * 在 bookingTime 下单时的可入住日历，批量和日历定价据此跳过不可入住的日期
+     */
+    public AvailabilityCalendar getAvailabilityCalendar(LocalDateTime bookingTime) {
+        return validity == null ? AvailabilityCalendar.unrestricted() : validity.compileAvailability(bookingTime);
+    }
+
     /**
      * 验证用户上下文是否符合该优惠的限制条件
      */
@@ -69,43 +85,124 @@ public class HotelOffer {
      * 计算最低价格（核心业务方法）
      * 接受外部价格数据，但内部计算逻辑完全封装
      */
-    public BigDecimal calculateMinPrice(LocalDate checkInDay, Map<String, ? extends AbstractPriceData> roomPriceData) {
+    public Money calculateMinPrice(LocalDate checkInDay, Map<String, ? extends AbstractPriceData> roomPriceData) {
         // 内部业务逻辑完全封装，外部无需知道PriceRule、HotelProduct等细节
-        return priceRuleList.stream().map(priceRule -> {
-                    DateRange occupationDateRange = products.minOccupationDateRange(checkInDay);
-                    return occupationDateRange.toStream()
-                            .map(calculatedDay -> products.getHotelProducts().stream().map(room ->
-                                            priceRule.getPrice(calculatedDay, roomPriceData.get(room.getRoomNo()).getMinPriceByDay(calculatedDay)))
-                                    .min(BigDecimal::compareTo)
-                                    .orElse(BigDecimal.ZERO))
-                            .reduce(BigDecimal::add)
-                            .orElseThrow(() -> new RuntimeException("price is not available"));
-                })
-                .min(BigDecimal::compareTo)
-                .orElseThrow(() -> new RuntimeException("price is not available"));
+        return calculateMinPrice(checkInDay, PriceDataAdapter.adaptToPriceQuery(roomPriceData));
+    }
+
+    /**
+     * 计算最低价格 - 使用预先构建的价格查询器（如批量加载的 RoomPriceCalendar）
+     * 与 Map 版本语义一致：任何房间缺少价格数据都视为价格不可用
+     */
+    public Money calculateMinPrice(LocalDate checkInDay, PriceDataAdapter.RoomPriceQuery priceQuery) {
+        return OccupationPricing.calculateMinTotalPrice(
+                priceRuleList,
+                products.minOccupationDateRange(checkInDay),
+                products.getHotelProducts(),
+                priceQuery,
+                CustomerChoice.SINGLE,
+                false);
+    }
+
+    /**
+     * 价格日历 - 计算一段入住日期内每个入住日的最低价格
+     * 与逐日调用 calculateMinPrice 结果一致，但相邻入住日共享的晚只计算一次；
+     * 不可入住（游玩窗口外、不可售日期）和缺少价格数据的入住日不出现在结果中
+     *
+     * @return 入住日期 → 最低价格，按日期升序
+     */
+    public Map<LocalDate, Money> calculateMinPrices(DateRange checkInDays, PriceDataAdapter.RoomPriceQuery priceQuery) {
+        return calculateMinPrices(checkInDays, null, priceQuery);
+    }
+
+    /**
+     * 同上，按 bookingTime 下单时的可入住日历过滤（销售期、上架期、提前预订天数）；
+     * 按连续可入住的入住日区间分段计算，不可入住的入住日不再查询其连住晚的价格
+     */
+    public Map<LocalDate, Money> calculateMinPrices(DateRange checkInDays,
+                                                    LocalDateTime bookingTime,
+                                                    PriceDataAdapter.RoomPriceQuery priceQuery) {
+        Map<LocalDate, Money> minPrices = new LinkedHashMap<>();
+        if (checkInDays.getEndDate().isBefore(checkInDays.getStartDate())) {
+            return minPrices;
+        }
+
+        for (DateRange availableDays : getAvailabilityCalendar(bookingTime).availableRanges(checkInDays)) {
+            int checkInDayCount = (int) (availableDays.getEndDate().toEpochDay() - availableDays.getStartDate().toEpochDay() + 1);
+            long[] minTotals = OccupationPricing.calculateMinTotalPrices(
+                    priceRuleList,
+                    availableDays.getStartDate(),
+                    checkInDayCount,
+                    products.getNumberOfNights().getMinNight(),
+                    products.getHotelProducts(),
+                    priceQuery,
+                    CustomerChoice.SINGLE,
+                    false);
+
+            LocalDate checkInDay = availableDays.getStartDate();
+            for (long minTotal : minTotals) {
+                if (minTotal != OccupationPricing.NO_PRICE) {
+                    minPrices.put(checkInDay, Money.ofMinor(minTotal));
+                }
+                checkInDay = checkInDay.plusDays(1);
+            }
+        }
+        return minPrices;
+    }
+
+    /**
+     * 连住价格 - 计算同一入住日连住 minNight 到 maxNight 每种晚数的最低价格
+     * 一次查询、一次按晚累加得到全部晚数，代替按晚数逐个调用 calculateMinPrice；
+     * 缺少价格数据的晚数不出现在结果中（不做可入住校验）
+     *
+     * @return 连住晚数 → 最低价格，按晚数升序
+     */
+    public Map<Integer, Money> calculateStayPrices(LocalDate checkInDay, PriceDataAdapter.RoomPriceQuery priceQuery) {
+        NumberOfNights numberOfNights = products.getNumberOfNights();
+        int minNight = numberOfNights.getMinNight();
+        int maxNight = Math.max(numberOfNights.getMaxNight(), minNight);
+
+        long[] minTotals = OccupationPricing.calculateMinTotalPricesByStayLength(
+                priceRuleList,
+                checkInDay,
+                minNight,
+                maxNight,
+                products.getHotelProducts(),
+                priceQuery,
+                CustomerChoice.SINGLE,
+                false);
+
+        Map<Integer, Money> stayPrices = new LinkedHashMap<>();
+        for (int i = 0; i < minTotals.length; i++) {
+            if (minTotals[i] != OccupationPricing.NO_PRICE) {
+                stayPrices.put(minNight + i, Money.ofMinor(minTotals[i]));
+            }
+        }
+        return stayPrices;
     }
 
     /**
      * 使用适配器的计算方法 - 更纯粹的领域概念
      * 展示如何进一步增强防腐层
      */
-    public BigDecimal calculateMinPriceWithAdapter(LocalDate checkInDay, 
-                                                   PriceDataAdapter.RoomPriceQuery priceQuery) {
+    public Money calculateMinPriceWithAdapter(LocalDate checkInDay,
+                                              PriceDataAdapter.RoomPriceQuery priceQuery) {
         // 使用领域友好的价格查询接口，而不是直接依赖外部数据结构
-        return priceRuleList.stream().map(priceRule -> {
-                    DateRange occupationDateRange = products.minOccupationDateRange(checkInDay);
-                    return occupationDateRange.toStream()
-                            .map(calculatedDay -> products.getHotelProducts().stream()
-                                    .filter(room -> priceQuery.hasDataForRoom(room.getRoomNo()))
-                                    .map(room -> priceRule.getPrice(calculatedDay, 
-                                                    priceQuery.queryRoomMinPrice(room.getRoomNo(), calculatedDay)))
-                                    .min(BigDecimal::compareTo)
-                                    .orElse(BigDecimal.ZERO))
-                            .reduce(BigDecimal::add)
-                            .orElseThrow(() -> new RuntimeException("price is not available"));
-                })
-                .min(BigDecimal::compareTo)
-                .orElseThrow(() -> new RuntimeException("price is not available"));
+        return OccupationPricing.calculateMinTotalPrice(
+                priceRuleList,
+                products.minOccupationDateRange(checkInDay),
+                products.getHotelProducts(),
+                priceQuery,
+                CustomerChoice.SINGLE,
+                true);
+    }
+
+    /**
+     * 最短连住范围覆盖 night 这一晚的入住日区间，某晚价格变化时只有这些入住日的最低价需要重算
+     */
+    public DateRange checkInDaysCoveringNight(LocalDate night) {
+        int minNight = products.getNumberOfNights().getMinNight();
+        return DateRange.of(night.minusDays(Math.max(minNight, 1) - 1L), night);
     }
 
     /**
@@ -117,7 +214,7 @@ public class HotelOffer {
 
     // === 保持原有方法的向后兼容（标记为遗留代码）===
     @Deprecated
-    public BigDecimal getMinPriceV1(LocalDate checkInDay, Map<String, ? extends AbstractPriceData> roomPriceData) {
+    public Money getMinPriceV1(LocalDate checkInDay, Map<String, ? extends AbstractPriceData> roomPriceData) {
         // 建议使用 calculateMinPrice() 方法
         return calculateMinPrice(checkInDay, roomPriceData);
     }
@@ -139,14 +236,34 @@ public class HotelOffer {
         this.offerNo = offerNo;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public HotelProduct getProducts() {
+        return products;
+    }
+
     public void setProducts(HotelProduct products) {
         this.products = products;
     }
 
+    public List<PriceRule> getPriceRuleList() {
+        return priceRuleList;
+    }
+
     public void setPriceRuleList(List<PriceRule> priceRuleList) {
         this.priceRuleList = priceRuleList;
     }
 
+    public Validity getValidity() {
+        return validity;
+    }
+
     public void setValidity(Validity validity) {
         this.validity = validity;
     }
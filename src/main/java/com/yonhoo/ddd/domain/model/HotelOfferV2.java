@@ -1,10 +1,7 @@
 package com.yonhoo.ddd.domain.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
-import java.util.function.BinaryOperator;
 
 /**
  * 酒店产品聚合根V2
@@ -12,6 +9,7 @@ import java.util.function.BinaryOperator;
  */
 public class HotelOfferV2 {
     String offerNo;
+    Long version;  // 聚合版本号，每次保存递增
     HotelProduct products;
     CustomerChoice customerChoice;
     List<PriceRule> priceRuleList;
@@ -28,19 +26,14 @@ public class HotelOfferV2 {
      * 计算最低价格（核心业务方法）
      * 支持客户选择策略，内部逻辑完全封装
      */
-    public BigDecimal calculateMinPrice(LocalDate checkInDay, PriceDataAdapter.RoomPriceQuery priceQuery) {
-        return priceRuleList.stream().map(priceRule -> {
-                    DateRange occupationDateRange = products.minOccupationDateRange(checkInDay);
-                    return occupationDateRange.toStream()
-                            .map(calculatedDay -> products.getHotelProducts().stream().map(room ->
-                                            priceRule.getPrice(calculatedDay, priceQuery.queryRoomMinPrice(room.getRoomNo(), calculatedDay)))
-                                    .reduce(getMinimalPriceCalculateMethod(customerChoice))
-                                    .orElse(BigDecimal.ZERO))
-                            .reduce(BigDecimal::add)
-                            .orElseThrow(() -> new RuntimeException("price is not available"));
-                })
-                .min(BigDecimal::compareTo)
-                .orElseThrow(() -> new RuntimeException("price is not available"));
+    public Money calculateMinPrice(LocalDate checkInDay, PriceDataAdapter.RoomPriceQuery priceQuery) {
+        return OccupationPricing.calculateMinTotalPrice(
+                priceRuleList,
+                products.minOccupationDateRange(checkInDay),
+                products.getHotelProducts(),
+                priceQuery,
+                customerChoice,
+                false);
     }
 
     /**
@@ -50,17 +43,6 @@ public class HotelOfferV2 {
         return products.hotelProducts.stream().map(RoomInfo::getRoomNo).toList();
     }
 
-    /**
-     * 根据客户选择确定价格计算方法（内部策略）
-     */
-    private BinaryOperator<BigDecimal> getMinimalPriceCalculateMethod(CustomerChoice customerChoice) {
-        if (customerChoice == CustomerChoice.FIXED) {
-            return BigDecimal::add;
-        } else {
-            return BigDecimal::min;
-        }
-    }
-
     // === 基础的 Getters and Setters ===
     public CustomerChoice getCustomerChoice() {
         return customerChoice;
@@ -78,14 +60,34 @@ public class HotelOfferV2 {
         this.offerNo = offerNo;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public HotelProduct getProducts() {
+        return products;
+    }
+
     public void setProducts(HotelProduct products) {
         this.products = products;
     }
 
+    public List<PriceRule> getPriceRuleList() {
+        return priceRuleList;
+    }
+
     public void setPriceRuleList(List<PriceRule> priceRuleList) {
         this.priceRuleList = priceRuleList;
     }
 
+    public Validity getValidity() {
+        return validity;
+    }
+
     public void setValidity(Validity validity) {
         this.validity = validity;
     }
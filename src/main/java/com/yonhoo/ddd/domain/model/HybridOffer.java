@@ -3,11 +3,14 @@ package com.yonhoo.ddd.domain.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BinaryOperator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 
@@ -15,6 +18,14 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class HybridOffer {
 
+    private static final Money NO_TICKET_PRICE = Money.ofMajor(Integer.MAX_VALUE);
+
+    /**
+     * 酒店分支（价格规则 × 房间 × 晚）和门票分支（价格规则 × 门票 × 入住日）的计算量都达到该值才并发计算，
+     * 小套餐的线程切换开销高于计算本身
+     */
+    static final long CONCURRENT_BRANCH_THRESHOLD = 4_096L;
+
     private ProductGroups productGroups;
 
     private String offerNo;
@@ -26,38 +37,160 @@ public class HybridOffer {
 
     private CustomerChoice customerChoice;
 
-    public BigDecimal getMinPriceV3(LocalDate checkInDay, PriceDataAdapter.HybridPriceQuery priceQuery) {
+    public Money getMinPriceV3(LocalDate checkInDay, PriceDataAdapter.HybridPriceQuery priceQuery) {
+        return getMinPriceV3(checkInDay, priceQuery, null);
+    }
+
+    /**
+     * 酒店和门票两个分支互不依赖：executor 不为 null 且两个分支的计算量都达到 CONCURRENT_BRANCH_THRESHOLD 时，
+     * 门票分支提交到 executor，酒店分支在当前线程计算，耗时取决于较慢的分支；否则依次计算。
+     * 两种方式结果和异常一致
+     */
+    public Money getMinPriceV3(LocalDate checkInDay, PriceDataAdapter.HybridPriceQuery priceQuery, Executor executor) {
         if (!validity.validateCheckInDayIsAvailable(checkInDay)) {
             throw new RuntimeException("checkInDay is not available");
         }
 
         HotelProduct hotelProduct = productGroups.getHotelProduct();
+        DateRange occupationDateRange = hotelProduct.minOccupationDateRange(checkInDay);
+        long nights = occupationDateRange.getEndDate().toEpochDay() - occupationDateRange.getStartDate().toEpochDay() + 1;
 
-        BigDecimal hotelPrice = priceRuleList.stream().map(priceRule -> {
+        CompletableFuture<long[]> attractionBranch = forkAttractionBranch(checkInDay, 1, priceQuery, executor,
+                (long) priceRuleList.size() * hotelProduct.getHotelProducts().size() * nights);
 
-            DateRange occupationDateRange = hotelProduct.minOccupationDateRange(checkInDay);
-            return occupationDateRange.toStream().map(calculatedDay -> hotelProduct.getHotelProducts()
-                            .stream().map(room -> priceRule.getPrice(calculatedDay, priceQuery.queryRoomMinPrice(room.getRoomNo(), calculatedDay)))
-                            .reduce(getMinimalPriceCalculateMethod(customerChoice))
-                            .orElse(BigDecimal.ZERO))
-                    .reduce(BigDecimal::add)
-                    .orElseThrow(() -> new RuntimeException("price is not available"));
+        Money hotelPrice = OccupationPricing.calculateMinTotalPrice(
+                priceRuleList,
+                occupationDateRange,
+                hotelProduct.getHotelProducts(),
+                priceQuery,
+                customerChoice,
+                false);
+
+        long[] attractionPrices = attractionBranch == null
+                ? calculateMinAttractionPrices(checkInDay, 1, priceQuery)
+                : join(attractionBranch);
+
+        return hotelPrice.add(Money.ofMinor(attractionPrices[0]));
+    }
 
-        }).min(BigDecimal::compareTo).orElseThrow(() -> new RuntimeException("price is not available"));
+    /**
+     * 价格日历 - 计算一段入住日期内每个入住日的最低组合价格，与逐日调用 getMinPriceV3 结果一致：
+     * 酒店部分按滑动窗口计算（相邻入住日共享的晚只计算一次），每个门票每天的价格只查询一次，供所有价格规则复用；
+     * 不可入住和酒店缺少价格数据的入住日不出现在结果中。executor 的用法同 getMinPriceV3
+     *
+     * @return 入住日期 → 最低价格，按日期升序
+     */
+    public Map<LocalDate, Money> getMinPricesV3(DateRange checkInDays,
+                                                PriceDataAdapter.HybridPriceQuery priceQuery,
+                                                Executor executor) {
+        HotelProduct hotelProduct = productGroups.getHotelProduct();
+        int nights = hotelProduct.getNumberOfNights().getMinNight();
 
-        AttractionProduct attractionProduct = productGroups.getAttractionProduct();
+        Map<LocalDate, Money> minPrices = new LinkedHashMap<>();
+        if (checkInDays.getEndDate().isBefore(checkInDays.getStartDate())) {
+            return minPrices;
+        }
 
-        BigDecimal attractionPrice = priceRuleList.stream()
-                .map(priceRule -> attractionProduct.getProductItemList()
-                        .stream().map(ticket -> priceRule.getPrice(checkInDay, priceQuery.queryTicketMinPrice(ticket.getProductNumber(), checkInDay)))
-                        .reduce(getMinimalPriceCalculateMethod(customerChoice))
-                        .orElse(BigDecimal.valueOf(Integer.MAX_VALUE)))
-                .min(BigDecimal::compareTo)
-                .orElseThrow(() -> new RuntimeException("price is not available"));
+        for (DateRange availableDays : validity.compileAvailability().availableRanges(checkInDays)) {
+            LocalDate firstCheckInDay = availableDays.getStartDate();
+            int checkInDayCount = (int) (availableDays.getEndDate().toEpochDay() - firstCheckInDay.toEpochDay() + 1);
+
+            CompletableFuture<long[]> attractionBranch = forkAttractionBranch(firstCheckInDay, checkInDayCount, priceQuery, executor,
+                    (long) priceRuleList.size() * hotelProduct.getHotelProducts().size() * (checkInDayCount + nights - 1));
+
+            long[] hotelPrices = OccupationPricing.calculateMinTotalPrices(
+                    priceRuleList,
+                    firstCheckInDay,
+                    checkInDayCount,
+                    nights,
+                    hotelProduct.getHotelProducts(),
+                    priceQuery,
+                    customerChoice,
+                    false);
+
+            long[] attractionPrices = attractionBranch == null
+                    ? calculateMinAttractionPrices(firstCheckInDay, checkInDayCount, priceQuery)
+                    : join(attractionBranch);
+
+            LocalDate checkInDay = firstCheckInDay;
+            for (int i = 0; i < checkInDayCount; i++, checkInDay = checkInDay.plusDays(1)) {
+                if (hotelPrices[i] != OccupationPricing.NO_PRICE) {
+                    minPrices.put(checkInDay, Money.ofMinor(Math.addExact(hotelPrices[i], attractionPrices[i])));
+                }
+            }
+        }
+        return minPrices;
+    }
 
-        return hotelPrice.add(attractionPrice);
+    /**
+     * 满足并发条件时把门票分支提交到 executor，否则返回 null 由调用方在酒店分支之后计算（保持原有的异常顺序）
+     */
+    private CompletableFuture<long[]> forkAttractionBranch(LocalDate firstCheckInDay,
+                                                           int checkInDayCount,
+                                                           PriceDataAdapter.HybridPriceQuery priceQuery,
+                                                           Executor executor,
+                                                           long hotelWork) {
+        long attractionWork = (long) priceRuleList.size()
+                * productGroups.getAttractionProduct().getProductItemList().size() * checkInDayCount;
+        if (executor == null || Math.min(hotelWork, attractionWork) < CONCURRENT_BRANCH_THRESHOLD) {
+            return null;
+        }
+        return CompletableFuture.supplyAsync(
+                () -> calculateMinAttractionPrices(firstCheckInDay, checkInDayCount, priceQuery), executor);
     }
 
+    private static long[] join(CompletableFuture<long[]> branch) {
+        try {
+            return branch.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 每个入住日门票部分的最低价格（分），下标 i 对应 firstCheckInDay + i
+     * 每个 (门票, 日期) 的价格只查询一次，所有价格规则和入住日共用
+     */
+    private long[] calculateMinAttractionPrices(LocalDate firstCheckInDay,
+                                                int checkInDayCount,
+                                                PriceDataAdapter.HybridPriceQuery priceQuery) {
+        if (priceRuleList.isEmpty()) {
+            throw new RuntimeException("price is not available");
+        }
+
+        long[] minPrices = new long[checkInDayCount];
+        List<TicketItem> tickets = productGroups.getAttractionProduct().getProductItemList();
+        if (tickets.isEmpty()) {
+            Arrays.fill(minPrices, NO_TICKET_PRICE.getMinorUnits());
+            return minPrices;
+        }
+
+        long[][] ticketPrices = new long[tickets.size()][checkInDayCount];
+        LocalDate day = firstCheckInDay;
+        for (int d = 0; d < checkInDayCount; d++, day = day.plusDays(1)) {
+            for (int t = 0; t < tickets.size(); t++) {
+                ticketPrices[t][d] = priceQuery.queryTicketMinPriceInMinorUnits(tickets.get(t).getProductId(), day);
+            }
+        }
+
+        boolean sum = customerChoice == CustomerChoice.FIXED;
+        Arrays.fill(minPrices, Long.MAX_VALUE);
+        for (PriceRule priceRule : priceRuleList) {
+            day = firstCheckInDay;
+            for (int d = 0; d < checkInDayCount; d++, day = day.plusDays(1)) {
+                long rulePrice = sum ? 0L : Long.MAX_VALUE;
+                for (long[] prices : ticketPrices) {
+                    long ticketPrice = priceRule.getPriceInMinorUnits(day, prices[d]);
+                    rulePrice = sum ? Math.addExact(rulePrice, ticketPrice) : Math.min(rulePrice, ticketPrice);
+                }
+                minPrices[d] = Math.min(minPrices[d], rulePrice);
+            }
+        }
+        return minPrices;
+    }
 
     public List<String> getHotelRoomList() {
         return productGroups.getHotelProduct().getHotelProducts().stream().map(RoomInfo::getRoomNo).collect(Collectors.toList());
@@ -66,13 +199,4 @@ public class HybridOffer {
     public List<String> getAttractionTicketList() {
         return productGroups.getAttractionProduct().getProductItemList().stream().map(TicketItem::getProductNumber).collect(Collectors.toList());
     }
-
-
-    private BinaryOperator<BigDecimal> getMinimalPriceCalculateMethod(CustomerChoice customerChoice) {
-        if (customerChoice == CustomerChoice.FIXED) {
-            return BigDecimal::add;
-        } else {
-            return BigDecimal::min;
-        }
-    }
 }
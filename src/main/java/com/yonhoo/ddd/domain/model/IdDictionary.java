@@ -0,0 +1,70 @@
+package com.yonhoo.ddd.domain.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 标识字典
+ * 在加载时为房间号、门票产品号分配从 0 开始连续的 int id，之后计价内层循环按 id 访问价格，
+ * 不再对 String 做 hash / equals。id 一经分配不会回收，同一名称在进程内始终得到同一个 id。
+ * 读（lookup / nameOf）无锁，分配新 id 时加锁
+ */
+public final class IdDictionary {
+
+    public static final IdDictionary ROOMS = new IdDictionary();
+    public static final IdDictionary TICKETS = new IdDictionary();
+
+    /**
+     * 名称不在字典中
+     */
+    public static final int NO_ID = -1;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+    private int size;
+
+    /**
+     * 名称对应的 id，第一次出现时分配新 id
+     */
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            String[] current = names;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            // 先写名称再发布 id，拿到 id 的线程一定能读到名称
+            current[size] = name;
+            names = current;
+            ids.put(name, size);
+            return size++;
+        }
+    }
+
+    /**
+     * 名称对应的 id，不分配，不存在时返回 NO_ID
+     */
+    public int lookup(String name) {
+        Integer id = ids.get(name);
+        return id == null ? NO_ID : id;
+    }
+
+    public String nameOf(int id) {
+        String[] current = names;
+        if (id < 0 || id >= current.length || current[id] == null) {
+            throw new RuntimeException("unknown id: " + id);
+        }
+        return current[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,99 @@
+package com.yonhoo.ddd.domain.model;
+
+import java.util.Arrays;
+
+/**
+ * int → int 开放寻址哈希表（线性探测，容量为 2 的幂，负载因子 1/2）
+ * 键为 IdDictionary 分配的非负 id，避免 Map<String, Integer> 的字符串 hash 和装箱。
+ * 不是线程安全的：加载时构建，构建完成后安全发布即可并发只读
+ */
+public final class IntIntHashMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * 放入键值，返回旧值，没有旧值时返回 missingValue
+     */
+    public int put(int key, int value, int missingValue) {
+        if (key < 0) {
+            throw new RuntimeException("key must not be negative: " + key);
+        }
+        int slot = slotOf(key);
+        if (keys[slot] == key) {
+            int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+        return missingValue;
+    }
+
+    public int get(int key, int missingValue) {
+        if (key < 0) {
+            return missingValue;
+        }
+        int slot = slotOf(key);
+        return keys[slot] == key ? values[slot] : missingValue;
+    }
+
+    public boolean containsKey(int key) {
+        return key >= 0 && keys[slotOf(key)] == key;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 键所在的槽，或者探测到的第一个空槽
+     */
+    private int slotOf(int key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * 连续 id 直接取模会聚成一段，乘黄金分割常数打散
+     */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+}
@@ -1,6 +1,5 @@
 package com.yonhoo.ddd.domain.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,13 +22,13 @@ public class MarketingPricingStrategy {
     /**
      * 计算营销策略价格
      */
-    public BigDecimal calculateMarketingPrice(BigDecimal basePrice, LocalDate targetDate, MarketingContext context) {
+    public Money calculateMarketingPrice(Money basePrice, LocalDate targetDate, MarketingContext context) {
         // 验证策略是否激活和在有效期内
         if (!isEffective(targetDate)) {
             return basePrice;
         }
 
-        BigDecimal finalPrice = basePrice;
+        Money finalPrice = basePrice;
 
         // 根据策略类型应用不同的定价逻辑
         switch (strategyType) {
@@ -50,7 +49,7 @@ public class MarketingPricingStrategy {
         return finalPrice;
     }
 
-    private BigDecimal applyHolidayPricing(BigDecimal price, LocalDate targetDate) {
+    private Money applyHolidayPricing(Money price, LocalDate targetDate) {
         return holidayPricings.stream()
                 .filter(holiday -> holiday.isApplicableDate(targetDate))
                 .findFirst()
@@ -58,7 +57,7 @@ public class MarketingPricingStrategy {
                 .orElse(price);
     }
 
-    private BigDecimal applyFlashSaleActivity(BigDecimal price, LocalDate targetDate, MarketingContext context) {
+    private Money applyFlashSaleActivity(Money price, LocalDate targetDate, MarketingContext context) {
         LocalDateTime now = context.getCurrentTime();
         
         return flashSaleActivities.stream()
@@ -69,7 +68,7 @@ public class MarketingPricingStrategy {
                 .orElse(price);
     }
 
-    private BigDecimal applySeasonalPricing(BigDecimal price, LocalDate targetDate) {
+    private Money applySeasonalPricing(Money price, LocalDate targetDate) {
         return seasonalPricings.stream()
                 .filter(seasonal -> seasonal.isInSeason(targetDate))
                 .findFirst()
@@ -77,8 +76,8 @@ public class MarketingPricingStrategy {
                 .orElse(price);
     }
 
-    private BigDecimal applyCombinedStrategy(BigDecimal price, LocalDate targetDate, MarketingContext context) {
-        BigDecimal finalPrice = price;
+    private Money applyCombinedStrategy(Money price, LocalDate targetDate, MarketingContext context) {
+        Money finalPrice = price;
         
         // 优先级：限时活动 > 节假日 > 季节性
         finalPrice = applyFlashSaleActivity(finalPrice, targetDate, context);
@@ -183,6 +182,14 @@ public class MarketingPricingStrategy {
         this.effectivePeriod = effectivePeriod;
     }
 
+    public List<HolidayPricing> getHolidayPricings() {
+        return holidayPricings;
+    }
+
+    public void setHolidayPricings(List<HolidayPricing> holidayPricings) {
+        this.holidayPricings = holidayPricings;
+    }
+
     public PriorityLevel getPriorityLevel() {
         return priorityLevel;
     }
@@ -0,0 +1,166 @@
+package com.yonhoo.ddd.domain.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 营销策略有效期索引
+ * 每个优先级一棵隐式区间树：策略按生效开始日排序存放在数组中，数组的二分结构即平衡树，
+ * 每个节点额外记录子树内最大的结束日用于剪枝。单日（stabbing）和日期区间重叠查询都是 O(log n + k)，
+ * 与策略总数无关；按优先级从高到低依次查询各棵树，返回结果天然有序，无需再排序。
+ * 只索引激活且有有效期的策略，查询结果均满足 isEffective
+ */
+public final class MarketingStrategyIndex {
+
+    private static final MarketingStrategyIndex EMPTY = new MarketingStrategyIndex(new PriorityTree[0], 0);
+
+    /**
+     * 按优先级从高到低排列，空的优先级不建树
+     */
+    private final PriorityTree[] trees;
+    private final int size;
+
+    private MarketingStrategyIndex(PriorityTree[] trees, int size) {
+        this.trees = trees;
+        this.size = size;
+    }
+
+    public static MarketingStrategyIndex of(List<MarketingPricingStrategy> strategies) {
+        if (strategies == null || strategies.isEmpty()) {
+            return EMPTY;
+        }
+
+        PriorityLevel[] levels = PriorityLevel.values();
+        List<List<Entry>> buckets = new ArrayList<>(levels.length);
+        for (int i = 0; i < levels.length; i++) {
+            buckets.add(new ArrayList<>());
+        }
+
+        int size = 0;
+        for (MarketingPricingStrategy strategy : strategies) {
+            DateRange period = strategy.getEffectivePeriod();
+            if (!strategy.isActive() || period == null || period.getEndDate().isBefore(period.getStartDate())) {
+                continue;
+            }
+            buckets.get(strategy.getPriorityLevel().ordinal())
+                    .add(new Entry(strategy, period.getStartDate().toEpochDay(), period.getEndDate().toEpochDay()));
+            size++;
+        }
+
+        List<PriorityTree> trees = new ArrayList<>();
+        for (int ordinal = levels.length - 1; ordinal >= 0; ordinal--) {
+            if (!buckets.get(ordinal).isEmpty()) {
+                trees.add(PriorityTree.of(buckets.get(ordinal)));
+            }
+        }
+        return new MarketingStrategyIndex(trees.toArray(new PriorityTree[0]), size);
+    }
+
+    /**
+     * 查询在指定日期有效的策略，按优先级从高到低排列，同一优先级内按生效开始日升序
+     */
+    public List<MarketingPricingStrategy> findEffective(LocalDate targetDate) {
+        long day = targetDate.toEpochDay();
+        return findOverlapping(day, day);
+    }
+
+    /**
+     * 查询有效期与 [startDate, endDate] 有交集的策略，排序规则同 findEffective
+     */
+    public List<MarketingPricingStrategy> findOverlapping(LocalDate startDate, LocalDate endDate) {
+        return findOverlapping(startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private List<MarketingPricingStrategy> findOverlapping(long fromDay, long toDay) {
+        if (size == 0 || toDay < fromDay) {
+            return List.of();
+        }
+
+        List<MarketingPricingStrategy> result = new ArrayList<>();
+        for (PriorityTree tree : trees) {
+            tree.collect(fromDay, toDay, result);
+        }
+        return result;
+    }
+
+    private record Entry(MarketingPricingStrategy strategy, long startDay, long endDay) {
+    }
+
+    /**
+     * 同一优先级的隐式区间树，节点 mid = (lo + hi) >>> 1
+     */
+    private static final class PriorityTree {
+        private final MarketingPricingStrategy[] strategies;
+        private final long[] startDays;
+        private final long[] endDays;
+        private final long[] maxEndDays;
+
+        private PriorityTree(int size) {
+            this.strategies = new MarketingPricingStrategy[size];
+            this.startDays = new long[size];
+            this.endDays = new long[size];
+            this.maxEndDays = new long[size];
+        }
+
+        private static PriorityTree of(List<Entry> entries) {
+            entries.sort((e1, e2) -> Long.compare(e1.startDay(), e2.startDay()));
+
+            PriorityTree tree = new PriorityTree(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                tree.strategies[i] = entry.strategy();
+                tree.startDays[i] = entry.startDay();
+                tree.endDays[i] = entry.endDay();
+            }
+            tree.buildMaxEnd(0, entries.size() - 1);
+            return tree;
+        }
+
+        private long buildMaxEnd(int lo, int hi) {
+            if (lo > hi) {
+                return Long.MIN_VALUE;
+            }
+            int mid = (lo + hi) >>> 1;
+            long maxEnd = Math.max(endDays[mid], Math.max(buildMaxEnd(lo, mid - 1), buildMaxEnd(mid + 1, hi)));
+            maxEndDays[mid] = maxEnd;
+            return maxEnd;
+        }
+
+        private void collect(long fromDay, long toDay, List<MarketingPricingStrategy> result) {
+            collect(0, strategies.length - 1, fromDay, toDay, result);
+        }
+
+        /**
+         * 中序遍历，命中结果按生效开始日升序追加
+         */
+        private void collect(int lo, int hi, long fromDay, long toDay, List<MarketingPricingStrategy> result) {
+            if (lo > hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            // 子树内所有策略都在查询区间开始前结束
+            if (maxEndDays[mid] < fromDay) {
+                return;
+            }
+
+            collect(lo, mid - 1, fromDay, toDay, result);
+            // 右侧策略开始得更晚，不可能再有交集
+            if (startDays[mid] > toDay) {
+                return;
+            }
+            if (endDays[mid] >= fromDay) {
+                result.add(strategies[mid]);
+            }
+            collect(mid + 1, hi, fromDay, toDay, result);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.yonhoo.ddd.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 金额值对象
+ * 以 long 存储最小货币单位（分），定价热路径上只做整数运算，
+ * 只有在 PricingResult 等对外边界才转换为 BigDecimal
+ */
+public final class Money implements Comparable<Money> {
+
+    /**
+     * 小数位数：1 元 = 100 分
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * 基点分母：1% = 100 bp
+     */
+    public static final long BASIS_POINTS = 10_000L;
+
+    public static final Money ZERO = new Money(0L);
+    public static final Money ONE = new Money(100L);
+
+    private static final long MINOR_PER_MAJOR = 100L;
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0L ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money ofMajor(long majorUnits) {
+        return ofMinor(Math.multiplyExact(majorUnits, MINOR_PER_MAJOR));
+    }
+
+    /**
+     * 从外部 BigDecimal 转换，默认四舍五入到分
+     */
+    public static Money of(BigDecimal amount) {
+        return of(amount, RoundingMode.HALF_UP);
+    }
+
+    public static Money of(BigDecimal amount, RoundingMode roundingMode) {
+        return ofMinor(toMinorUnits(amount, roundingMode));
+    }
+
+    /**
+     * 将 BigDecimal 金额换算为分，供只需要原始 long 的调用方使用
+     */
+    public static long toMinorUnits(BigDecimal amount, RoundingMode roundingMode) {
+        return amount.setScale(SCALE, roundingMode).unscaledValue().longValueExact();
+    }
+
+    /**
+     * 将百分比（如 15 表示 15%）换算为基点
+     */
+    public static long toBasisPoints(BigDecimal percentage) {
+        return percentage.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money add(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money subtract(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money multiply(long factor) {
+        return ofMinor(Math.multiplyExact(minorUnits, factor));
+    }
+
+    /**
+     * 按比例缩放：this * numerator / denominator，结果按指定舍入模式保留到分
+     */
+    public Money multiplyByRate(long numerator, long denominator, RoundingMode roundingMode) {
+        return ofMinor(divide(Math.multiplyExact(minorUnits, numerator), denominator, roundingMode));
+    }
+
+    /**
+     * 按基点缩放：10000 bp 表示原价
+     */
+    public Money applyBasisPoints(long basisPoints, RoundingMode roundingMode) {
+        return ofMinor(applyBasisPoints(minorUnits, basisPoints, roundingMode));
+    }
+
+    /**
+     * 分为单位的基点缩放，供热点路径直接在 long 上运算
+     */
+    public static long applyBasisPoints(long minorUnits, long basisPoints, RoundingMode roundingMode) {
+        return divide(Math.multiplyExact(minorUnits, basisPoints), BASIS_POINTS, roundingMode);
+    }
+
+    public Money min(Money other) {
+        return minorUnits <= other.minorUnits ? this : other;
+    }
+
+    public Money max(Money other) {
+        return minorUnits >= other.minorUnits ? this : other;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return minorUnits > other.minorUnits;
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0L;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0L;
+    }
+
+    /**
+     * 对外边界转换
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * 带舍入模式的整数除法，语义与 BigDecimal.divide(divisor, 0, roundingMode) 一致
+     */
+    public static long divide(long dividend, long divisor, RoundingMode roundingMode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0L) {
+            return quotient;
+        }
+
+        int signum = ((dividend ^ divisor) >> 63) == 0L ? 1 : -1;
+        long absRemainder = Math.abs(remainder);
+        long absDivisor = Math.abs(divisor);
+        int halfComparison = Long.compare(absRemainder, absDivisor - absRemainder);
+
+        boolean increment = switch (roundingMode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> signum > 0;
+            case FLOOR -> signum < 0;
+            case HALF_UP -> halfComparison >= 0;
+            case HALF_DOWN -> halfComparison > 0;
+            case HALF_EVEN -> halfComparison > 0 || (halfComparison == 0 && (quotient & 1L) != 0L);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+
+        return increment ? quotient + signum : quotient;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        return minorUnits == ((Money) o).minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
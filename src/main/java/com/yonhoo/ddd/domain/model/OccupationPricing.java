@@ -0,0 +1,328 @@
+package com.yonhoo.ddd.domain.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 入住期间价格计算
+ * HotelOffer、HotelOfferV2、HybridOffer 共用的 房间 × 晚 × 价格规则 归约逻辑，
+ * 全程以分（long）累加，不在嵌套循环中创建 Stream 和中间金额对象；
+ * 每晚跨房间的最小值 / 求和以及跨晚求和由 PriceKernel 完成（标量或向量实现，见 PricingKernels）
+ */
+final class OccupationPricing {
+
+    /**
+     * 标记该入住日没有完整的价格数据
+     */
+    static final long NO_PRICE = Long.MIN_VALUE;
+
+    private OccupationPricing() {
+    }
+
+    /**
+     * 对每条价格规则计算入住期间总价，返回其中最低的总价
+     * 分支定界：先用每晚的房间底价（SINGLE 取最低房价，FIXED 取最低房价 × 房间数）算出每条规则的下界，
+     * 按下界从低到高计算规则；下界不低于当前最优总价的规则直接跳过，
+     * 逐晚累加时 已累加价格 + 剩余晚下界 不低于当前最优总价也立即停止。
+     * 下界成立的前提是价格规则对单价单调不减（见 PriceRule），此时结果与逐条规则完整计算一致
+     *
+     * @param skipRoomsWithoutData 为 true 时跳过没有价格数据的房间，否则由 priceQuery 抛出异常
+     */
+    static Money calculateMinTotalPrice(List<PriceRule> priceRuleList,
+                                        DateRange occupationDateRange,
+                                        List<RoomInfo> rooms,
+                                        PriceDataAdapter.RoomPriceQuery priceQuery,
+                                        CustomerChoice customerChoice,
+                                        boolean skipRoomsWithoutData) {
+        if (priceRuleList.isEmpty() || occupationDateRange.getEndDate().isBefore(occupationDateRange.getStartDate())) {
+            throw new RuntimeException("price is not available");
+        }
+
+        LocalDate firstNight = occupationDateRange.getStartDate();
+        int nights = Math.toIntExact(occupationDateRange.getEndDate().toEpochDay() - firstNight.toEpochDay() + 1);
+        RoomPrices roomPrices = queryRoomPrices(firstNight, nights, rooms, priceQuery, skipRoomsWithoutData, false);
+        boolean sum = customerChoice == CustomerChoice.FIXED;
+
+        if (priceRuleList.size() == 1) {
+            return Money.ofMinor(calculateTotal(priceRuleList.get(0), firstNight, nights, roomPrices, sum, null, Long.MAX_VALUE));
+        }
+
+        long[][] nightBounds = calculateNightBounds(priceRuleList, firstNight, nights, roomPrices, sum);
+        int[] order = orderByLowerBound(nightBounds);
+
+        long minTotal = Long.MAX_VALUE;
+        for (int rule : order) {
+            long[] bounds = nightBounds[rule];
+            if (bounds[nights] >= minTotal) {
+                // 之后的规则下界只会更高
+                break;
+            }
+            long total = calculateTotal(priceRuleList.get(rule), firstNight, nights, roomPrices, sum, bounds, minTotal);
+            if (total != NO_PRICE) {
+                minTotal = total;
+            }
+        }
+        return Money.ofMinor(minTotal);
+    }
+
+    /**
+     * 计算一条规则的入住期间总价；bounds 不为 null 时，确定无法低于 bestTotal 就停止并返回 NO_PRICE
+     */
+    private static long calculateTotal(PriceRule priceRule,
+                                       LocalDate firstNight,
+                                       int nights,
+                                       RoomPrices roomPrices,
+                                       boolean sum,
+                                       long[] bounds,
+                                       long bestTotal) {
+        LocalDate day = firstNight;
+        if (bounds == null) {
+            long[] nightPrices = new long[nights];
+            for (int night = 0; night < nights; night++, day = day.plusDays(1)) {
+                nightPrices[night] = roomPrices.nightPrice(priceRule, day, night, sum);
+            }
+            return roomPrices.kernel.sum(nightPrices, nights);
+        }
+
+        long total = 0L;
+        long remainingBound = bounds[nights];
+        for (int night = 0; night < nights; night++, day = day.plusDays(1)) {
+            total = Math.addExact(total, roomPrices.nightPrice(priceRule, day, night, sum));
+            remainingBound -= bounds[night];
+            if (total + remainingBound >= bestTotal) {
+                return NO_PRICE;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 每条规则每晚的价格下界，最后一个元素是整个入住期间的下界之和
+     */
+    private static long[][] calculateNightBounds(List<PriceRule> priceRuleList,
+                                                 LocalDate firstNight,
+                                                 int nights,
+                                                 RoomPrices roomPrices,
+                                                 boolean sum) {
+        int pricedRooms = roomPrices.roomCount;
+        long[][] nightBounds = new long[priceRuleList.size()][nights + 1];
+        for (int rule = 0; rule < priceRuleList.size(); rule++) {
+            PriceRule priceRule = priceRuleList.get(rule);
+            long[] bounds = nightBounds[rule];
+            LocalDate day = firstNight;
+            for (int night = 0; night < nights; night++, day = day.plusDays(1)) {
+                long floor = pricedRooms == 0 ? 0L : priceRule.getPriceInMinorUnits(day, roomPrices.nightFloors[night]);
+                bounds[night] = sum ? Math.multiplyExact(floor, pricedRooms) : floor;
+            }
+            bounds[nights] = roomPrices.kernel.sum(bounds, nights);
+        }
+        return nightBounds;
+    }
+
+    /**
+     * 按整个入住期间的下界升序排列规则下标（规则数通常只有几十条，插入排序即可）
+     */
+    private static int[] orderByLowerBound(long[][] nightBounds) {
+        int[] order = new int[nightBounds.length];
+        for (int i = 0; i < order.length; i++) {
+            int rule = i;
+            long bound = nightBounds[rule][nightBounds[rule].length - 1];
+            int j = i - 1;
+            while (j >= 0 && nightBounds[order[j]][nightBounds[order[j]].length - 1] > bound) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = rule;
+        }
+        return order;
+    }
+
+    /**
+     * 价格日历：计算连续 checkInDayCount 个入住日、每次入住 nights 晚的最低总价
+     * 相邻入住日共享 nights - 1 晚，所以先把每个房间每晚的价格只查询一次，再按价格规则算出每晚价格，
+     * 最后用滑动窗口求和（加入新的一晚、减去移出的一晚），总成本与逐晚定价一次相当，而不是 入住日数 × 晚数。
+     * 结果与逐日调用 calculateMinTotalPrice 一致；缺少价格数据的入住日为 NO_PRICE，而不是抛出异常
+     *
+     * @return 下标 i 对应 firstCheckInDay + i
+     */
+    static long[] calculateMinTotalPrices(List<PriceRule> priceRuleList,
+                                          LocalDate firstCheckInDay,
+                                          int checkInDayCount,
+                                          int nights,
+                                          List<RoomInfo> rooms,
+                                          PriceDataAdapter.RoomPriceQuery priceQuery,
+                                          CustomerChoice customerChoice,
+                                          boolean skipRoomsWithoutData) {
+        if (priceRuleList.isEmpty() || nights <= 0) {
+            throw new RuntimeException("price is not available");
+        }
+
+        int nightCount = checkInDayCount + nights - 1;
+        RoomPrices roomPrices = queryRoomPrices(firstCheckInDay, nightCount, rooms, priceQuery, skipRoomsWithoutData, true);
+
+        long[] minTotals = new long[checkInDayCount];
+        Arrays.fill(minTotals, NO_PRICE);
+        long[] nightPrices = new long[nightCount];
+        boolean sum = customerChoice == CustomerChoice.FIXED;
+
+        for (PriceRule priceRule : priceRuleList) {
+            LocalDate day = firstCheckInDay;
+            for (int night = 0; night < nightCount; night++, day = day.plusDays(1)) {
+                nightPrices[night] = roomPrices.nightPrice(priceRule, day, night, sum);
+            }
+
+            long windowTotal = 0L;
+            int missingNights = 0;
+            for (int night = 0; night < nightCount; night++) {
+                if (nightPrices[night] == NO_PRICE) {
+                    missingNights++;
+                } else {
+                    windowTotal = Math.addExact(windowTotal, nightPrices[night]);
+                }
+
+                int leaving = night - nights;
+                if (leaving >= 0) {
+                    if (nightPrices[leaving] == NO_PRICE) {
+                        missingNights--;
+                    } else {
+                        windowTotal -= nightPrices[leaving];
+                    }
+                }
+
+                int checkIn = night - nights + 1;
+                if (checkIn >= 0 && missingNights == 0
+                        && (minTotals[checkIn] == NO_PRICE || windowTotal < minTotals[checkIn])) {
+                    minTotals[checkIn] = windowTotal;
+                }
+            }
+        }
+        return minTotals;
+    }
+
+    /**
+     * 连住价格矩阵：同一入住日连住 minNight..maxNight 晚的最低总价
+     * 房间价格只查询 maxNight 晚一次，每条价格规则按晚累加前缀和，第 n 晚的前缀和就是连住 n 晚的总价，
+     * 一次遍历得到所有连住长度；结果与逐个长度调用 calculateMinTotalPrice 一致。
+     * 连住期间出现缺价的晚后，更长的连住都为 NO_PRICE
+     *
+     * @return 下标 i 对应连住 minNight + i 晚
+     */
+    static long[] calculateMinTotalPricesByStayLength(List<PriceRule> priceRuleList,
+                                                      LocalDate checkInDay,
+                                                      int minNight,
+                                                      int maxNight,
+                                                      List<RoomInfo> rooms,
+                                                      PriceDataAdapter.RoomPriceQuery priceQuery,
+                                                      CustomerChoice customerChoice,
+                                                      boolean skipRoomsWithoutData) {
+        if (priceRuleList.isEmpty() || minNight <= 0 || maxNight < minNight) {
+            throw new RuntimeException("price is not available");
+        }
+
+        RoomPrices roomPrices = queryRoomPrices(checkInDay, maxNight, rooms, priceQuery, skipRoomsWithoutData, true);
+        long[] minTotals = new long[maxNight - minNight + 1];
+        Arrays.fill(minTotals, NO_PRICE);
+        boolean sum = customerChoice == CustomerChoice.FIXED;
+
+        for (PriceRule priceRule : priceRuleList) {
+            long prefixTotal = 0L;
+            LocalDate day = checkInDay;
+            for (int night = 0; night < maxNight; night++, day = day.plusDays(1)) {
+                long nightPrice = roomPrices.nightPrice(priceRule, day, night, sum);
+                if (nightPrice == NO_PRICE) {
+                    break;
+                }
+                prefixTotal = Math.addExact(prefixTotal, nightPrice);
+
+                int stay = night + 1 - minNight;
+                if (stay >= 0 && (minTotals[stay] == NO_PRICE || prefixTotal < minTotals[stay])) {
+                    minTotals[stay] = prefixTotal;
+                }
+            }
+        }
+        return minTotals;
+    }
+
+    /**
+     * 每个房间每晚的外部最低价只查询一次，与价格规则无关；跳过的房间不占列
+     * 按 晚 → 房间 的顺序查询，与逐晚定价时 priceQuery 抛出异常的顺序一致
+     *
+     * @param markMissing 为 true 时缺少数据的晚记为 NO_PRICE，否则直接抛出 priceQuery 的异常
+     */
+    private static RoomPrices queryRoomPrices(LocalDate firstNight,
+                                              int nightCount,
+                                              List<RoomInfo> rooms,
+                                              PriceDataAdapter.RoomPriceQuery priceQuery,
+                                              boolean skipRoomsWithoutData,
+                                              boolean markMissing) {
+        int[] roomIds = new int[rooms.size()];
+        int roomCount = 0;
+        for (RoomInfo room : rooms) {
+            if (!skipRoomsWithoutData || priceQuery.hasDataForRoom(room.getRoomId())) {
+                roomIds[roomCount++] = room.getRoomId();
+            }
+        }
+
+        long[][] byNight = new long[nightCount][roomCount];
+        LocalDate day = firstNight;
+        for (int night = 0; night < nightCount; night++, day = day.plusDays(1)) {
+            long[] prices = byNight[night];
+            for (int r = 0; r < prices.length; r++) {
+                try {
+                    prices[r] = priceQuery.queryRoomMinPriceInMinorUnits(roomIds[r], day);
+                } catch (RuntimeException e) {
+                    if (!markMissing) {
+                        throw e;
+                    }
+                    prices[r] = NO_PRICE;
+                }
+            }
+        }
+        return new RoomPrices(byNight, roomCount, PricingKernels.current());
+    }
+
+    /**
+     * 入住期间的房间价格：晚 × 房间，每晚一行连续存放，每晚的最低房价（底价）只归约一次
+     */
+    private static final class RoomPrices {
+        private final long[][] byNight;
+        /**
+         * 任一房间缺价时为 NO_PRICE（long 最小值），没有房间时为 Long.MAX_VALUE
+         */
+        private final long[] nightFloors;
+        private final long[] rulePrices;
+        private final int roomCount;
+        private final PriceKernel kernel;
+
+        private RoomPrices(long[][] byNight, int roomCount, PriceKernel kernel) {
+            this.byNight = byNight;
+            this.roomCount = roomCount;
+            this.kernel = kernel;
+            this.rulePrices = new long[roomCount];
+            this.nightFloors = new long[byNight.length];
+            for (int night = 0; night < byNight.length; night++) {
+                nightFloors[night] = kernel.min(byNight[night], roomCount);
+            }
+        }
+
+        /**
+         * 计算某条价格规则下某一晚的价格：FIXED 为所有房间之和，其余为房间最低价；没有房间时为 0，
+         * 任一房间缺价时为 NO_PRICE
+         */
+        private long nightPrice(PriceRule priceRule, LocalDate day, int night, boolean sum) {
+            if (roomCount == 0) {
+                return 0L;
+            }
+            if (nightFloors[night] == NO_PRICE) {
+                return NO_PRICE;
+            }
+
+            long[] prices = byNight[night];
+            for (int r = 0; r < roomCount; r++) {
+                rulePrices[r] = priceRule.getPriceInMinorUnits(day, prices[r]);
+            }
+            return sum ? kernel.sum(rulePrices, roomCount) : kernel.min(rulePrices, roomCount);
+        }
+    }
+}
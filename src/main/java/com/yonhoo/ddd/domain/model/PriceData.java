@@ -3,7 +3,7 @@ package com.yonhoo.ddd.domain.model;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.function.BiConsumer;
 
 public class PriceData extends AbstractPriceData {
     private LocalDate date;
@@ -13,11 +13,25 @@ public class PriceData extends AbstractPriceData {
     private List<PricePair> pricePairs;
 
     @Override
-    public BigDecimal getMinPriceByDay(LocalDate day) {
-        return pricePairs.stream().filter(item -> day.isEqual(item.getDay()))
-                .map(PricePair::getPrice)
-                .min(BigDecimal::compareTo)
-                .orElseThrow(() -> new RuntimeException("no available price"));
+    public Money getMinPriceByDay(LocalDate day) {
+        BigDecimal minPrice = null;
+        for (PricePair pricePair : pricePairs) {
+            if (day.isEqual(pricePair.getDay())
+                    && (minPrice == null || pricePair.getPrice().compareTo(minPrice) < 0)) {
+                minPrice = pricePair.getPrice();
+            }
+        }
+        if (minPrice == null) {
+            throw new RuntimeException("no available price");
+        }
+        return Money.of(minPrice);
+    }
+
+    @Override
+    public void forEachDailyPrice(BiConsumer<LocalDate, BigDecimal> consumer) {
+        for (PricePair pricePair : pricePairs) {
+            consumer.accept(pricePair.getDay(), pricePair.getPrice());
+        }
     }
 
     public LocalDate getDate() {
@@ -1,7 +1,7 @@
 package com.yonhoo.ddd.domain.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.Map;
 
 /**
@@ -16,7 +16,7 @@ public class PriceDataAdapter {
     public static RoomPriceQuery adaptToPriceQuery(Map<String, ? extends AbstractPriceData> externalPriceData) {
         return new RoomPriceQuery() {
             @Override
-            public BigDecimal queryRoomMinPrice(String roomNo, LocalDate day) {
+            public Money queryRoomMinPrice(String roomNo, LocalDate day) {
                 AbstractPriceData priceData = externalPriceData.get(roomNo);
                 if (priceData == null) {
                     throw new RuntimeException("No price data found for room: " + roomNo);
@@ -35,19 +35,55 @@ public class PriceDataAdapter {
      * 聚合根内部使用的价格查询接口 - 领域概念
      */
     public interface RoomPriceQuery {
-        BigDecimal queryRoomMinPrice(String roomNo, LocalDate day);
+        Money queryRoomMinPrice(String roomNo, LocalDate day);
 
         boolean hasDataForRoom(String roomNo);
-    }
 
+        /**
+         * 以分为单位查询房间某日最低价，索引型实现（如 RoomPriceCalendar）应覆盖此方法以避免创建对象
+         */
+        default long queryRoomMinPriceInMinorUnits(String roomNo, LocalDate day) {
+            return queryRoomMinPrice(roomNo, day).getMinorUnits();
+        }
 
-    public interface HybridPriceQuery {
-        BigDecimal queryRoomMinPrice(String roomNo, LocalDate day);
+        /**
+         * 按 IdDictionary.ROOMS 分配的房间 id 查询某日最低价（分），按 id 建索引的实现应覆盖以避免字符串 hash
+         */
+        default long queryRoomMinPriceInMinorUnits(int roomId, LocalDate day) {
+            return queryRoomMinPriceInMinorUnits(IdDictionary.ROOMS.nameOf(roomId), day);
+        }
 
-        boolean hasDataForRoom(String roomNo);
+        default boolean hasDataForRoom(int roomId) {
+            return hasDataForRoom(IdDictionary.ROOMS.nameOf(roomId));
+        }
 
-        BigDecimal queryTicketMinPrice(String roomNo, LocalDate day);
+        /**
+         * 查询房间某日 time 时刻生效的价格，供当日入住、延迟退房等按时刻售卖的产品使用；
+         * 没有分时价格的实现退化为当天最低价
+         */
+        default Money queryRoomPriceAt(String roomNo, LocalDate day, LocalTime time) {
+            return queryRoomMinPrice(roomNo, day);
+        }
+
+        /**
+         * 查询房间某日 [from, to] 时间窗内生效过的最低价；没有分时价格的实现退化为当天最低价
+         */
+        default Money queryRoomMinPriceBetween(String roomNo, LocalDate day, LocalTime from, LocalTime to) {
+            return queryRoomMinPrice(roomNo, day);
+        }
+    }
+
+
+    public interface HybridPriceQuery extends RoomPriceQuery {
+        Money queryTicketMinPrice(String roomNo, LocalDate day);
 
         boolean hasDataForTicket(String roomNo);
+
+        /**
+         * 按 IdDictionary.TICKETS 分配的产品 id 查询门票某日最低价（分）
+         */
+        default long queryTicketMinPriceInMinorUnits(int ticketId, LocalDate day) {
+            return queryTicketMinPrice(IdDictionary.TICKETS.nameOf(ticketId), day).getMinorUnits();
+        }
     }
 } 
\ No newline at end of file
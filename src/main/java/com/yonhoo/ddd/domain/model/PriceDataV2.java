@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 public class PriceDataV2 extends AbstractPriceData {
 
@@ -29,15 +30,31 @@ public class PriceDataV2 extends AbstractPriceData {
     }
 
     @Override
-    public BigDecimal getMinPriceByDay(LocalDate day) {
-        return timingPriceList.stream()
-                .filter(timingPrice -> timingPrice.getDay().isEqual(day))
-                .map(TimingPrice::getPrice)
-                .min(BigDecimal::compareTo)
-                .orElseThrow(() -> new IllegalStateException("price is invalid"));
+    public Money getMinPriceByDay(LocalDate day) {
+        BigDecimal minPrice = null;
+        for (TimingPrice timingPrice : timingPriceList) {
+            if (timingPrice.getDay().isEqual(day)
+                    && (minPrice == null || timingPrice.getPrice().compareTo(minPrice) < 0)) {
+                minPrice = timingPrice.getPrice();
+            }
+        }
+        if (minPrice == null) {
+            throw new IllegalStateException("price is invalid");
+        }
+        return Money.of(minPrice);
+    }
+
+    @Override
+    public void forEachDailyPrice(BiConsumer<LocalDate, BigDecimal> consumer) {
+        for (TimingPrice timingPrice : timingPriceList) {
+            consumer.accept(timingPrice.getDay(), timingPrice.getPrice());
+        }
     }
 
-    private class TimingPrice {
+    /**
+     * 分时价格：day 当天自 timing 起生效的价格，直到当天下一个分时价格
+     */
+    public static class TimingPrice {
         private BigDecimal price;
         private LocalTime timing;
 
@@ -0,0 +1,19 @@
+package com.yonhoo.ddd.domain.model;
+
+/**
+ * 房间 × 晚 归约内核
+ * OccupationPricing 把 每晚各房间的价格、每晚的价格 放在原始类型数组中，最小值和求和都交给内核完成，
+ * 由 PricingKernels 在标量实现和向量实现之间切换
+ */
+interface PriceKernel {
+
+    /**
+     * values[0, length) 的最小值，length 为 0 时返回 Long.MAX_VALUE
+     */
+    long min(long[] values, int length);
+
+    /**
+     * values[0, length) 之和，length 为 0 时返回 0
+     */
+    long sum(long[] values, int length);
+}
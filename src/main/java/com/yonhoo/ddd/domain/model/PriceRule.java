@@ -1,6 +1,5 @@
 package com.yonhoo.ddd.domain.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,10 +10,29 @@ public class PriceRule {
     Boolean defaultPriceFlag;
     LocalDateTime createdTime;
     List<DiscountDefinition> productPriceDefinitions;
+    Long version;                         // 规则版本号，与 priceRuleId 一起决定编译结果能否跨实例共享
 
+    /**
+     * productPriceDefinitions 编译后的求值器，首次定价时取得；修改折扣定义、id 或版本时失效
+     */
+    private volatile PriceRuleEvaluator evaluator;
 
-    public BigDecimal getPrice(LocalDate checkInDay, BigDecimal UnitPrice) {
-        return BigDecimal.ONE;
+
+    public Money getPrice(LocalDate checkInDay, Money unitPrice) {
+        return Money.ofMinor(getPriceInMinorUnits(checkInDay, unitPrice.getMinorUnits()));
+    }
+
+    /**
+     * 以分为单位计算价格，供 房间 × 晚 的内层循环直接使用，按 productPriceDefinitions 依次折扣（见 PriceRuleEvaluator）
+     * 约定对单价单调不减（单价越低，规则价格不会更高），最低价计算以此推导每条规则的价格下界
+     */
+    public long getPriceInMinorUnits(LocalDate checkInDay, long unitPrice) {
+        PriceRuleEvaluator compiled = evaluator;
+        if (compiled == null) {
+            compiled = PriceRuleEvaluator.of(this);
+            evaluator = compiled;
+        }
+        return compiled.evaluate(unitPrice);
     }
 
 
@@ -24,6 +42,7 @@ public class PriceRule {
 
     public void setPriceRuleId(Long priceRuleId) {
         this.priceRuleId = priceRuleId;
+        this.evaluator = null;
     }
 
     public String getRuleName() {
@@ -56,5 +75,15 @@ public class PriceRule {
 
     public void setProductPriceDefinitions(List<DiscountDefinition> productPriceDefinitions) {
         this.productPriceDefinitions = productPriceDefinitions;
+        this.evaluator = null;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+        this.evaluator = null;
     }
 }
@@ -0,0 +1,121 @@
+package com.yonhoo.ddd.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 编译后的价格规则
+ * 把 PriceRule 的 DiscountDefinition 列表按顺序展开成两个平行数组：每一步 价格 = max(0, 价格 × 基点系数 + 偏移)，
+ * 百分比折扣只有系数、固定金额折扣只有偏移。求值时不再做类型分派、装箱和 Double 运算，
+ * 每一步都是单调不减的（系数 ≥ 0），满足 OccupationPricing 对价格规则的单调性约定。
+ * <p>
+ * 百分比按基点保存（12.5 → 1250 bp，更细的精度四舍五入），每一步按 HALF_UP 取整到分；
+ * 固定金额按元配置，编译时转换为分；为 null 的折扣项或取值跳过，没有折扣项时价格等于单价
+ */
+public final class PriceRuleEvaluator {
+
+    private static final PriceRuleEvaluator IDENTITY = new PriceRuleEvaluator(null, new long[0], new long[0]);
+
+    /**
+     * priceRuleId → 最新版本的编译结果；同一规则的不同实例（如多个报价分别加载的规则）共用一份
+     */
+    private static final Map<Long, PriceRuleEvaluator> SHARED = new ConcurrentHashMap<>();
+
+    private final Long version;
+    private final long[] factors;
+    private final long[] offsets;
+
+    private PriceRuleEvaluator(Long version, long[] factors, long[] offsets) {
+        this.version = version;
+        this.factors = factors;
+        this.offsets = offsets;
+    }
+
+    /**
+     * 取得规则的编译结果：priceRuleId 和 version 都存在时按 (id, version) 跨实例共享，只有更高的版本才替换共享结果；
+     * 持有旧版本的调用方（如仍在用旧报价的请求）得到不共享的编译结果，不会把共享结果回退到旧版本。
+     * 没有 id 或版本时每次都重新编译，由调用方（PriceRule）缓存在实例上
+     */
+    static PriceRuleEvaluator of(PriceRule priceRule) {
+        Long priceRuleId = priceRule.getPriceRuleId();
+        Long version = priceRule.getVersion();
+        if (priceRuleId == null || version == null) {
+            return compile(priceRule.getProductPriceDefinitions(), null);
+        }
+        PriceRuleEvaluator shared = SHARED.compute(priceRuleId, (id, cached) -> cached != null && cached.version >= version
+                ? cached
+                : compile(priceRule.getProductPriceDefinitions(), version));
+        return version.equals(shared.version) ? shared : compile(priceRule.getProductPriceDefinitions(), version);
+    }
+
+    /**
+     * 规则被修改或删除时清除共享的编译结果
+     */
+    public static void invalidate(Long priceRuleId) {
+        if (priceRuleId != null) {
+            SHARED.remove(priceRuleId);
+        }
+    }
+
+    static PriceRuleEvaluator compile(List<DiscountDefinition> definitions, Long version) {
+        if ((definitions == null || definitions.isEmpty()) && version == null) {
+            return IDENTITY;
+        }
+
+        int steps = 0;
+        long[] factors = new long[definitions == null ? 0 : definitions.size()];
+        long[] offsets = new long[factors.length];
+        for (int i = 0; i < factors.length; i++) {
+            DiscountDefinition definition = definitions.get(i);
+            if (definition == null || definition.getDiscountType() == null || definition.getValue() == null) {
+                continue;
+            }
+
+            BigDecimal value = BigDecimal.valueOf(definition.getValue());
+            switch (definition.getDiscountType()) {
+                case PERCENTAGE -> {
+                    long basisPoints = Money.toBasisPoints(value);
+                    if (basisPoints > Money.BASIS_POINTS) {
+                        throw new RuntimeException("discount percentage exceeds 100: " + definition.getValue());
+                    }
+                    factors[steps] = Money.BASIS_POINTS - basisPoints;
+                    offsets[steps] = 0L;
+                }
+                case FIXED_AMOUNT -> {
+                    factors[steps] = Money.BASIS_POINTS;
+                    offsets[steps] = -Money.toMinorUnits(value, RoundingMode.HALF_UP);
+                }
+            }
+            steps++;
+        }
+
+        if (steps < factors.length) {
+            factors = Arrays.copyOf(factors, steps);
+            offsets = Arrays.copyOf(offsets, steps);
+        }
+        return new PriceRuleEvaluator(version, factors, offsets);
+    }
+
+    /**
+     * 以分为单位计算规则价格
+     */
+    public long evaluate(long unitPrice) {
+        long price = unitPrice;
+        for (int i = 0; i < factors.length; i++) {
+            price = Math.max(0L, Money.applyBasisPoints(price, factors[i], RoundingMode.HALF_UP) + offsets[i]);
+        }
+        return price;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public int getStepCount() {
+        return factors.length;
+    }
+}
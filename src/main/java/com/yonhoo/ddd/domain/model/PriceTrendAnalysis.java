@@ -2,15 +2,18 @@ package com.yonhoo.ddd.domain.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
 /**
  * 价格趋势分析值对象
- * 分析一段时间内的价格变化趋势
+ * 分析一段时间内的价格变化趋势；最低价、最高价和最优日期由每日价格区间索引一次建树得出，
+ * 任意子区间的同类问题（如"本月最便宜的一天"）直接查询索引，不再重新遍历 dailyPrices
  */
 public class PriceTrendAnalysis {
     private List<DailyPriceInfo> dailyPrices;
+    private DailyPriceRangeIndex priceRangeIndex;
     private BigDecimal lowestPrice;
     private BigDecimal highestPrice;
     private LocalDate bestDealDate;
@@ -23,20 +26,28 @@ public class PriceTrendAnalysis {
     private void calculateStatistics() {
         if (dailyPrices.isEmpty()) return;
 
-        this.lowestPrice = dailyPrices.stream()
-                .map(DailyPriceInfo::getFinalPrice)
-                .min(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
+        List<DailyPriceInfo> byDate = new ArrayList<>(dailyPrices);
+        byDate.sort(Comparator.comparing(DailyPriceInfo::getDate));
+        this.priceRangeIndex = DailyPriceRangeIndex.of(byDate);
 
-        this.highestPrice = dailyPrices.stream()
-                .map(DailyPriceInfo::getFinalPrice)
-                .max(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
+        DateRange wholeRange = priceRangeIndex.getDateRange();
+        this.lowestPrice = priceRangeIndex.findMinPrice(wholeRange).toBigDecimal();
+        this.highestPrice = priceRangeIndex.findMaxPrice(wholeRange).toBigDecimal();
+        this.bestDealDate = priceRangeIndex.findCheapestDay(wholeRange);
+    }
+
+    /**
+     * 区间内最终价格最低的日期（同价取最早），区间内没有价格时返回 null
+     */
+    public LocalDate findBestDealDate(DateRange dateRange) {
+        return priceRangeIndex == null ? null : priceRangeIndex.findCheapestDay(dateRange);
+    }
 
-        this.bestDealDate = dailyPrices.stream()
-                .min(Comparator.comparing(DailyPriceInfo::getFinalPrice))
-                .map(DailyPriceInfo::getDate)
-                .orElse(null);
+    /**
+     * 每日最终价格的区间索引，没有每日价格时为 null；某天改价后可直接 update
+     */
+    public DailyPriceRangeIndex getPriceRangeIndex() {
+        return priceRangeIndex;
     }
 
     // Getters
@@ -44,4 +55,4 @@ public class PriceTrendAnalysis {
     public BigDecimal getLowestPrice() { return lowestPrice; }
     public BigDecimal getHighestPrice() { return highestPrice; }
     public LocalDate getBestDealDate() { return bestDealDate; }
-}
\ No newline at end of file
+}
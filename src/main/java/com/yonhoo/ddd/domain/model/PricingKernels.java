@@ -0,0 +1,58 @@
+package com.yonhoo.ddd.domain.model;
+
+/**
+ * 定价归约内核开关
+ * 默认使用标量内核；以 mvn -Pvector 构建（编译向量内核）且 JVM 以 --add-modules jdk.incubator.vector 启动时可以切换到向量内核，
+ * 启动时设置 -Dpricing.kernel=vector 或运行期调用 useVector()。两种内核结果一致，切换对进行中的计算没有影响
+ */
+public final class PricingKernels {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "com.yonhoo.ddd.domain.model.VectorPriceKernel";
+
+    private static volatile PriceKernel kernel = ScalarPriceKernel.INSTANCE;
+
+    static {
+        if ("vector".equalsIgnoreCase(System.getProperty("pricing.kernel"))) {
+            useVector();
+        }
+    }
+
+    private PricingKernels() {
+    }
+
+    /**
+     * 当前 JVM 是否加载了向量 API 模块
+     */
+    public static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * 切换到向量内核；模块不可用或构建时没有编译向量内核时保持标量内核并返回 false
+     */
+    public static boolean useVector() {
+        if (!isVectorAvailable()) {
+            return false;
+        }
+        try {
+            // 反射创建，避免模块缺失时加载向量内核类
+            kernel = (PriceKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            return true;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+    }
+
+    public static void useScalar() {
+        kernel = ScalarPriceKernel.INSTANCE;
+    }
+
+    public static boolean isVectorEnabled() {
+        return !(kernel instanceof ScalarPriceKernel);
+    }
+
+    static PriceKernel current() {
+        return kernel;
+    }
+}
@@ -1,6 +1,7 @@
 package com.yonhoo.ddd.domain.model;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 /**
  * 地域定价实体
@@ -11,19 +12,31 @@ public class RegionPricing {
     private Region targetRegion;
     private PricingAdjustmentType adjustmentType;
     private BigDecimal adjustmentValue;
+    private long adjustmentBasisPoints;
+    private Money fixedPrice;
 
     public boolean matchesRegion(Region region) {
         return this.targetRegion == region;
     }
 
-    public BigDecimal adjustPrice(BigDecimal originalPrice) {
+    public Money adjustPrice(Money originalPrice) {
+        return Money.ofMinor(adjustPriceInMinorUnits(originalPrice.getMinorUnits()));
+    }
+
+    /**
+     * 以分为单位的价格调整，编译后的用户策略决策表直接调用
+     */
+    public long adjustPriceInMinorUnits(long originalPrice) {
+        if (adjustmentValue == null) {
+            throw new RuntimeException("adjustment value is not configured: " + pricingId);
+        }
         switch (adjustmentType) {
             case MARKUP:
-                return originalPrice.multiply(BigDecimal.ONE.add(adjustmentValue.divide(BigDecimal.valueOf(100))));
+                return Money.applyBasisPoints(originalPrice, Money.BASIS_POINTS + adjustmentBasisPoints, RoundingMode.HALF_UP);
             case DISCOUNT:
-                return originalPrice.multiply(BigDecimal.ONE.subtract(adjustmentValue.divide(BigDecimal.valueOf(100))));
+                return Money.applyBasisPoints(originalPrice, Money.BASIS_POINTS - adjustmentBasisPoints, RoundingMode.HALF_UP);
             case FIXED_PRICE:
-                return adjustmentValue;
+                return fixedPrice.getMinorUnits();
             default:
                 return originalPrice;
         }
@@ -60,5 +73,8 @@ public class RegionPricing {
 
     public void setAdjustmentValue(BigDecimal adjustmentValue) {
         this.adjustmentValue = adjustmentValue;
+        // 配置时一次性换算，定价时只做整数运算；未配置的取值到定价时才报错，不影响按字段逐个装配
+        this.adjustmentBasisPoints = adjustmentValue == null ? 0L : Money.toBasisPoints(adjustmentValue);
+        this.fixedPrice = adjustmentValue == null ? null : Money.of(adjustmentValue);
     }
 }
\ No newline at end of file
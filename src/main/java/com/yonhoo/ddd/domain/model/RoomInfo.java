@@ -6,6 +6,10 @@ public class RoomInfo {
     String roomNo;
     String hotelName;
     String roomType;
+    /**
+     * 房间号在 IdDictionary.ROOMS 中的 id，首次使用时解析
+     */
+    private int roomId = IdDictionary.NO_ID;
 
 
     public String getRoomNo() {
@@ -14,6 +18,16 @@ public class RoomInfo {
 
     public void setRoomNo(String roomNo) {
         this.roomNo = roomNo;
+        this.roomId = IdDictionary.NO_ID;
+    }
+
+    public int getRoomId() {
+        int id = roomId;
+        if (id == IdDictionary.NO_ID) {
+            id = IdDictionary.ROOMS.idOf(roomNo);
+            roomId = id;
+        }
+        return id;
     }
 
     public String getHotelName() {
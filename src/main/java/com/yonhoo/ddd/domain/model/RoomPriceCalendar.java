@@ -0,0 +1,122 @@
+package com.yonhoo.ddd.domain.model;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 房间价格日历
+ * 在仓储加载时一次性把外部价格数据压缩为 房间 × 日期 的最低价矩阵（long[]，单位：分），
+ * 之后每次 房间-日 查询都是 O(1) 的数组访问，不再扫描 pricePairs / timingPriceList。
+ * 行号按 IdDictionary.ROOMS 的房间 id 存放在开放寻址表中，按 id 查询不做字符串 hash
+ */
+public final class RoomPriceCalendar implements PriceDataAdapter.RoomPriceQuery {
+
+    /**
+     * 标记该房间当天没有价格
+     */
+    private static final long NO_PRICE = Long.MIN_VALUE;
+
+    private static final int NO_ROW = -1;
+
+    private final IntIntHashMap roomRows;
+    private final long baseEpochDay;
+    private final int dayCount;
+    private final long[] minPrices;
+
+    private RoomPriceCalendar(IntIntHashMap roomRows, long baseEpochDay, int dayCount, long[] minPrices) {
+        this.roomRows = roomRows;
+        this.baseEpochDay = baseEpochDay;
+        this.dayCount = dayCount;
+        this.minPrices = minPrices;
+    }
+
+    /**
+     * 从外部价格数据构建日历，同一房间同一天有多个价格时取最低价
+     */
+    public static RoomPriceCalendar of(Map<String, ? extends AbstractPriceData> roomPriceData) {
+        long[] dayBounds = {Long.MAX_VALUE, Long.MIN_VALUE};
+        roomPriceData.values().forEach(priceData -> priceData.forEachDailyPrice((day, price) -> {
+            dayBounds[0] = Math.min(dayBounds[0], day.toEpochDay());
+            dayBounds[1] = Math.max(dayBounds[1], day.toEpochDay());
+        }));
+
+        IntIntHashMap roomRows = new IntIntHashMap(roomPriceData.size());
+        roomPriceData.keySet().forEach(roomNo -> roomRows.put(IdDictionary.ROOMS.idOf(roomNo), roomRows.size(), NO_ROW));
+
+        if (dayBounds[0] > dayBounds[1]) {
+            return new RoomPriceCalendar(roomRows, 0L, 0, new long[0]);
+        }
+
+        long baseEpochDay = dayBounds[0];
+        int dayCount = Math.toIntExact(dayBounds[1] - baseEpochDay + 1);
+        long[] minPrices = new long[Math.multiplyExact(roomRows.size(), dayCount)];
+        Arrays.fill(minPrices, NO_PRICE);
+
+        roomPriceData.forEach((roomNo, priceData) -> {
+            int rowOffset = roomRows.get(IdDictionary.ROOMS.idOf(roomNo), NO_ROW) * dayCount;
+            priceData.forEachDailyPrice((day, price) -> {
+                int slot = rowOffset + (int) (day.toEpochDay() - baseEpochDay);
+                long minorUnits = Money.toMinorUnits(price, RoundingMode.HALF_UP);
+                if (minPrices[slot] == NO_PRICE || minorUnits < minPrices[slot]) {
+                    minPrices[slot] = minorUnits;
+                }
+            });
+        });
+
+        return new RoomPriceCalendar(roomRows, baseEpochDay, dayCount, minPrices);
+    }
+
+    @Override
+    public Money queryRoomMinPrice(String roomNo, LocalDate day) {
+        return Money.ofMinor(queryRoomMinPriceInMinorUnits(roomNo, day));
+    }
+
+    @Override
+    public long queryRoomMinPriceInMinorUnits(String roomNo, LocalDate day) {
+        int room = roomRows.get(IdDictionary.ROOMS.lookup(roomNo), NO_ROW);
+        if (room == NO_ROW) {
+            throw new RuntimeException("No price data found for room: " + roomNo);
+        }
+        return minPriceAt(room, day);
+    }
+
+    @Override
+    public long queryRoomMinPriceInMinorUnits(int roomId, LocalDate day) {
+        int room = roomRows.get(roomId, NO_ROW);
+        if (room == NO_ROW) {
+            throw new RuntimeException("No price data found for room: " + IdDictionary.ROOMS.nameOf(roomId));
+        }
+        return minPriceAt(room, day);
+    }
+
+    private long minPriceAt(int room, LocalDate day) {
+        long dayOffset = day.toEpochDay() - baseEpochDay;
+        long price = dayOffset >= 0 && dayOffset < dayCount
+                ? minPrices[room * dayCount + (int) dayOffset]
+                : NO_PRICE;
+        if (price == NO_PRICE) {
+            throw new RuntimeException("no available price");
+        }
+        return price;
+    }
+
+    @Override
+    public boolean hasDataForRoom(String roomNo) {
+        return roomRows.containsKey(IdDictionary.ROOMS.lookup(roomNo));
+    }
+
+    @Override
+    public boolean hasDataForRoom(int roomId) {
+        return roomRows.containsKey(roomId);
+    }
+
+    public int getRoomCount() {
+        return roomRows.size();
+    }
+
+    public int getDayCount() {
+        return dayCount;
+    }
+}
@@ -0,0 +1,30 @@
+package com.yonhoo.ddd.domain.model;
+
+/**
+ * 标量内核，求和溢出时抛出 ArithmeticException
+ */
+final class ScalarPriceKernel implements PriceKernel {
+
+    static final ScalarPriceKernel INSTANCE = new ScalarPriceKernel();
+
+    private ScalarPriceKernel() {
+    }
+
+    @Override
+    public long min(long[] values, int length) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < length; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    @Override
+    public long sum(long[] values, int length) {
+        long sum = 0L;
+        for (int i = 0; i < length; i++) {
+            sum = Math.addExact(sum, values[i]);
+        }
+        return sum;
+    }
+}
@@ -1,6 +1,5 @@
 package com.yonhoo.ddd.domain.model;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,8 +8,8 @@ import java.util.List;
  * 包含策略选择过程的详细信息
  */
 public class StrategyAnalysisResult {
-    private BigDecimal basePrice;
-    private BigDecimal finalPrice;
+    private Money basePrice;
+    private Money finalPrice;
     private UserContext userContext;
     private UserPricingStrategy selectedStrategy;
     private String message;
@@ -20,7 +19,7 @@ public class StrategyAnalysisResult {
         this.strategyResults = new ArrayList<>();
     }
 
-    public void addStrategyResult(UserPricingStrategy strategy, BigDecimal price) {
+    public void addStrategyResult(UserPricingStrategy strategy, Money price) {
         strategyResults.add(new StrategyResult(strategy, price));
     }
 
@@ -31,11 +30,11 @@ public class StrategyAnalysisResult {
     }
 
     // Getters and setters
-    public BigDecimal getBasePrice() { return basePrice; }
-    public void setBasePrice(BigDecimal basePrice) { this.basePrice = basePrice; }
+    public Money getBasePrice() { return basePrice; }
+    public void setBasePrice(Money basePrice) { this.basePrice = basePrice; }
 
-    public BigDecimal getFinalPrice() { return finalPrice; }
-    public void setFinalPrice(BigDecimal finalPrice) { this.finalPrice = finalPrice; }
+    public Money getFinalPrice() { return finalPrice; }
+    public void setFinalPrice(Money finalPrice) { this.finalPrice = finalPrice; }
 
     public UserContext getUserContext() { return userContext; }
     public void setUserContext(UserContext userContext) { this.userContext = userContext; }
@@ -54,14 +53,14 @@ public class StrategyAnalysisResult {
      */
     public static class StrategyResult {
         private UserPricingStrategy strategy;
-        private BigDecimal calculatedPrice;
+        private Money calculatedPrice;
 
-        public StrategyResult(UserPricingStrategy strategy, BigDecimal calculatedPrice) {
+        public StrategyResult(UserPricingStrategy strategy, Money calculatedPrice) {
             this.strategy = strategy;
             this.calculatedPrice = calculatedPrice;
         }
 
         public UserPricingStrategy getStrategy() { return strategy; }
-        public BigDecimal getCalculatedPrice() { return calculatedPrice; }
+        public Money getCalculatedPrice() { return calculatedPrice; }
     }
 }
\ No newline at end of file
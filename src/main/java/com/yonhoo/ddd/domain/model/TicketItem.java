@@ -11,6 +11,10 @@ public class TicketItem {
     String name;
     String description;
     BigDecimal unitPrice;
+    /**
+     * 产品号在 IdDictionary.TICKETS 中的 id，首次使用时解析
+     */
+    private int productId = IdDictionary.NO_ID;
 
 
     public String getProductNumber() {
@@ -19,6 +23,16 @@ public class TicketItem {
 
     public void setProductNumber(String productNumber) {
         this.productNumber = productNumber;
+        this.productId = IdDictionary.NO_ID;
+    }
+
+    public int getProductId() {
+        int id = productId;
+        if (id == IdDictionary.NO_ID) {
+            id = IdDictionary.TICKETS.idOf(productNumber);
+            productId = id;
+        }
+        return id;
     }
 
     public String getTicketCode() {
@@ -0,0 +1,201 @@
+package com.yonhoo.ddd.domain.model;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分时价格索引
+ * 每个房间把 timingPriceList 按（日期，时刻）排序后压平成 秒数 / 价格（分）两个数组，dayStart 记录每天的起止下标，
+ * 一个分时价格从它的时刻起生效，直到当天下一个分时价格。
+ * 某时刻生效价 O(log n) 二分；时间窗最低价二分定位窗口后只比较窗口内的条目；当天最低价预先算好 O(1)
+ */
+public final class TimingPriceIndex implements PriceDataAdapter.RoomPriceQuery {
+
+    private static final long NO_PRICE = Long.MIN_VALUE;
+
+    private final Map<String, RoomTimings> rooms;
+
+    private TimingPriceIndex(Map<String, RoomTimings> rooms) {
+        this.rooms = rooms;
+    }
+
+    /**
+     * 从 V2 价格数据构建索引，同一房间同一天同一时刻有多个价格时取最低价
+     */
+    public static TimingPriceIndex of(Map<String, PriceDataV2> roomPriceData) {
+        Map<String, RoomTimings> rooms = new HashMap<>(roomPriceData.size() * 2);
+        roomPriceData.forEach((roomNo, priceData) -> rooms.put(roomNo, RoomTimings.of(priceData.getTimingPriceList())));
+        return new TimingPriceIndex(rooms);
+    }
+
+    @Override
+    public Money queryRoomMinPrice(String roomNo, LocalDate day) {
+        return Money.ofMinor(queryRoomMinPriceInMinorUnits(roomNo, day));
+    }
+
+    @Override
+    public long queryRoomMinPriceInMinorUnits(String roomNo, LocalDate day) {
+        RoomTimings timings = roomTimings(roomNo);
+        int dayOffset = timings.dayOffset(day);
+        return checkPrice(dayOffset < 0 ? NO_PRICE : timings.dayMin[dayOffset]);
+    }
+
+    @Override
+    public Money queryRoomPriceAt(String roomNo, LocalDate day, LocalTime time) {
+        return Money.ofMinor(queryRoomPriceAtInMinorUnits(roomNo, day, time));
+    }
+
+    /**
+     * 当天时刻不晚于 time 的最后一个分时价格；time 早于当天第一个分时价格时没有生效价
+     */
+    public long queryRoomPriceAtInMinorUnits(String roomNo, LocalDate day, LocalTime time) {
+        RoomTimings timings = roomTimings(roomNo);
+        int dayOffset = timings.dayOffset(day);
+        if (dayOffset < 0) {
+            return checkPrice(NO_PRICE);
+        }
+        int lo = timings.dayStart[dayOffset];
+        int at = timings.lastAtOrBefore(lo, timings.dayStart[dayOffset + 1], time.toSecondOfDay());
+        return checkPrice(at < lo ? NO_PRICE : timings.prices[at]);
+    }
+
+    @Override
+    public Money queryRoomMinPriceBetween(String roomNo, LocalDate day, LocalTime from, LocalTime to) {
+        return Money.ofMinor(queryRoomMinPriceBetweenInMinorUnits(roomNo, day, from, to));
+    }
+
+    /**
+     * [from, to] 内生效过的最低价：from 时刻的生效价，以及时刻落在 (from, to] 内的分时价格
+     */
+    public long queryRoomMinPriceBetweenInMinorUnits(String roomNo, LocalDate day, LocalTime from, LocalTime to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("invalid time window: " + from + " - " + to);
+        }
+        RoomTimings timings = roomTimings(roomNo);
+        int dayOffset = timings.dayOffset(day);
+        if (dayOffset < 0) {
+            return checkPrice(NO_PRICE);
+        }
+        int lo = timings.dayStart[dayOffset];
+        int hi = timings.dayStart[dayOffset + 1];
+        int first = Math.max(timings.lastAtOrBefore(lo, hi, from.toSecondOfDay()), lo);
+        int last = timings.lastAtOrBefore(lo, hi, to.toSecondOfDay());
+
+        long minPrice = NO_PRICE;
+        for (int i = first; i <= last; i++) {
+            if (minPrice == NO_PRICE || timings.prices[i] < minPrice) {
+                minPrice = timings.prices[i];
+            }
+        }
+        return checkPrice(minPrice);
+    }
+
+    @Override
+    public boolean hasDataForRoom(String roomNo) {
+        return rooms.containsKey(roomNo);
+    }
+
+    private RoomTimings roomTimings(String roomNo) {
+        RoomTimings timings = rooms.get(roomNo);
+        if (timings == null) {
+            throw new RuntimeException("No price data found for room: " + roomNo);
+        }
+        return timings;
+    }
+
+    private static long checkPrice(long price) {
+        if (price == NO_PRICE) {
+            throw new RuntimeException("no available price");
+        }
+        return price;
+    }
+
+    /**
+     * 单个房间的分时价格，第 d 天的条目位于 [dayStart[d], dayStart[d + 1])，按秒数升序且秒数不重复
+     */
+    private static final class RoomTimings {
+        private final long firstDay;
+        private final int[] dayStart;
+        private final int[] seconds;
+        private final long[] prices;
+        private final long[] dayMin;
+
+        private RoomTimings(long firstDay, int[] dayStart, int[] seconds, long[] prices, long[] dayMin) {
+            this.firstDay = firstDay;
+            this.dayStart = dayStart;
+            this.seconds = seconds;
+            this.prices = prices;
+            this.dayMin = dayMin;
+        }
+
+        private static RoomTimings of(List<PriceDataV2.TimingPrice> timingPriceList) {
+            if (timingPriceList == null || timingPriceList.isEmpty()) {
+                return new RoomTimings(0L, new int[1], new int[0], new long[0], new long[0]);
+            }
+            List<PriceDataV2.TimingPrice> sorted = new ArrayList<>(timingPriceList);
+            sorted.sort(Comparator.comparing(PriceDataV2.TimingPrice::getDay)
+                    .thenComparing(PriceDataV2.TimingPrice::getTiming));
+
+            long firstDay = sorted.get(0).getDay().toEpochDay();
+            int dayCount = Math.toIntExact(sorted.get(sorted.size() - 1).getDay().toEpochDay() - firstDay + 1);
+            int[] dayStart = new int[dayCount + 1];
+            int[] seconds = new int[sorted.size()];
+            long[] prices = new long[sorted.size()];
+            long[] dayMin = new long[dayCount];
+
+            int size = 0;
+            int dayOffset = -1;
+            for (PriceDataV2.TimingPrice timingPrice : sorted) {
+                int offset = (int) (timingPrice.getDay().toEpochDay() - firstDay);
+                int second = timingPrice.getTiming().toSecondOfDay();
+                long price = Money.toMinorUnits(timingPrice.getPrice(), RoundingMode.HALF_UP);
+                while (dayOffset < offset) {
+                    dayOffset++;
+                    dayStart[dayOffset] = size;
+                    dayMin[dayOffset] = NO_PRICE;
+                }
+                if (size > dayStart[offset] && seconds[size - 1] == second) {
+                    prices[size - 1] = Math.min(prices[size - 1], price);
+                } else {
+                    seconds[size] = second;
+                    prices[size] = price;
+                    size++;
+                }
+                if (dayMin[offset] == NO_PRICE || price < dayMin[offset]) {
+                    dayMin[offset] = price;
+                }
+            }
+            dayStart[dayCount] = size;
+            return new RoomTimings(firstDay, dayStart, seconds, prices, dayMin);
+        }
+
+        /**
+         * 不在范围内返回 -1
+         */
+        private int dayOffset(LocalDate day) {
+            long offset = day.toEpochDay() - firstDay;
+            return offset >= 0 && offset < dayMin.length ? (int) offset : -1;
+        }
+
+        /**
+         * [lo, hi) 中秒数不大于 second 的最后一个下标，没有时返回 lo - 1
+         */
+        private int lastAtOrBefore(int lo, int hi, int second) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (seconds[mid] <= second) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo - 1;
+        }
+    }
+}
@@ -11,36 +11,47 @@ public class UserLevelDiscount {
     private UserLevel targetLevel;
     private DiscountType discountType;
     private BigDecimal discountValue;
-    private BigDecimal maxDiscountAmount;
-    private BigDecimal minOrderAmount;
+    private long discountBasisPoints;
+    private Money fixedDiscountAmount;
+    private Money maxDiscountAmount;
+    private Money minOrderAmount;
 
     public boolean matchesLevel(UserLevel userLevel) {
         return this.targetLevel == userLevel;
     }
 
-    public BigDecimal applyDiscount(BigDecimal originalPrice) {
-        if (originalPrice.compareTo(minOrderAmount) < 0) {
+    public Money applyDiscount(Money originalPrice) {
+        return Money.ofMinor(applyDiscountInMinorUnits(originalPrice.getMinorUnits()));
+    }
+
+    /**
+     * 以分为单位的折扣计算，编译后的用户策略决策表直接调用
+     */
+    public long applyDiscountInMinorUnits(long originalPrice) {
+        if (minOrderAmount != null && originalPrice < minOrderAmount.getMinorUnits()) {
             return originalPrice;
         }
+        if (discountValue == null) {
+            throw new RuntimeException("discount value is not configured: " + discountId);
+        }
 
-        BigDecimal discountAmount;
+        long discountAmount;
         
         switch (discountType) {
             case PERCENTAGE:
-                discountAmount = originalPrice.multiply(discountValue).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-                if (maxDiscountAmount != null && discountAmount.compareTo(maxDiscountAmount) > 0) {
-                    discountAmount = maxDiscountAmount;
+                discountAmount = Money.applyBasisPoints(originalPrice, discountBasisPoints, RoundingMode.HALF_UP);
+                if (maxDiscountAmount != null && discountAmount > maxDiscountAmount.getMinorUnits()) {
+                    discountAmount = maxDiscountAmount.getMinorUnits();
                 }
                 break;
             case FIXED_AMOUNT:
-                discountAmount = discountValue;
+                discountAmount = fixedDiscountAmount.getMinorUnits();
                 break;
             default:
                 return originalPrice;
         }
 
-        BigDecimal finalPrice = originalPrice.subtract(discountAmount);
-        return finalPrice.max(BigDecimal.ZERO);
+        return Math.max(originalPrice - discountAmount, 0L);
     }
 
     // Getters and Setters
@@ -74,21 +85,24 @@ public class UserLevelDiscount {
 
     public void setDiscountValue(BigDecimal discountValue) {
         this.discountValue = discountValue;
+        // 配置时一次性换算，定价时只做整数运算；未配置的取值到定价时才报错，不影响按字段逐个装配
+        this.discountBasisPoints = discountValue == null ? 0L : Money.toBasisPoints(discountValue);
+        this.fixedDiscountAmount = discountValue == null ? null : Money.of(discountValue);
     }
 
-    public BigDecimal getMaxDiscountAmount() {
+    public Money getMaxDiscountAmount() {
         return maxDiscountAmount;
     }
 
-    public void setMaxDiscountAmount(BigDecimal maxDiscountAmount) {
+    public void setMaxDiscountAmount(Money maxDiscountAmount) {
         this.maxDiscountAmount = maxDiscountAmount;
     }
 
-    public BigDecimal getMinOrderAmount() {
+    public Money getMinOrderAmount() {
         return minOrderAmount;
     }
 
-    public void setMinOrderAmount(BigDecimal minOrderAmount) {
+    public void setMinOrderAmount(Money minOrderAmount) {
         this.minOrderAmount = minOrderAmount;
     }
 } 
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.yonhoo.ddd.domain.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,20 +26,20 @@ public class UserPricingStrategy {
     /**
      * 计算用户策略折扣
      */
-    public BigDecimal calculateUserDiscount(BigDecimal basePrice, UserContext userContext) {
+    public Money calculateUserDiscount(Money basePrice, UserContext userContext) {
         return calculateUserDiscount(basePrice, userContext, LocalDateTime.now());
     }
 
     /**
      * 计算用户策略折扣（带时间参数）
      */
-    public BigDecimal calculateUserDiscount(BigDecimal basePrice, UserContext userContext, LocalDateTime currentTime) {
+    public Money calculateUserDiscount(Money basePrice, UserContext userContext, LocalDateTime currentTime) {
         // 验证策略是否激活和在有效期内
         if (!isEffectiveAt(currentTime)) {
             return basePrice;
         }
 
-        BigDecimal finalPrice = basePrice;
+        Money finalPrice = basePrice;
         
         // 按优先级应用策略
         if (priorityRule.shouldApplyUserLevel()) {
@@ -58,7 +57,7 @@ public class UserPricingStrategy {
         return finalPrice;
     }
 
-    private BigDecimal applyUserLevelDiscount(BigDecimal price, UserLevel userLevel) {
+    private Money applyUserLevelDiscount(Money price, UserLevel userLevel) {
         return userLevelDiscounts.stream()
                 .filter(discount -> discount.matchesLevel(userLevel))
                 .findFirst()
@@ -66,7 +65,7 @@ public class UserPricingStrategy {
                 .orElse(price);
     }
 
-    private BigDecimal applyRegionPricing(BigDecimal price, Region region) {
+    private Money applyRegionPricing(Money price, Region region) {
         return regionPricings.stream()
                 .filter(pricing -> pricing.matchesRegion(region))
                 .findFirst()
@@ -74,7 +73,7 @@ public class UserPricingStrategy {
                 .orElse(price);
     }
 
-    private BigDecimal applyChannelPricing(BigDecimal price, Channel channel) {
+    private Money applyChannelPricing(Money price, Channel channel) {
         return channelPricings.stream()
                 .filter(pricing -> pricing.matchesChannel(channel))
                 .findFirst()
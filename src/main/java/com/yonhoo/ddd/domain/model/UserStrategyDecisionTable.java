@@ -0,0 +1,252 @@
+package com.yonhoo.ddd.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * 用户策略决策表
+ * 会员等级、地域、渠道都是小枚举（5 × 5 × 5 = 125 种组合），把激活的策略集合按枚举序号预编译成稠密表：
+ * 每个单元格保存适用于该组合的策略，以及按 PriorityRule 预先解析好的折扣链（等级折扣 → 地域调价 → 渠道调价）。
+ * 定价时只剩一次数组访问、有效期判断和整数运算，不再遍历 userLevelDiscounts / regionPricings / channelPricings
+ */
+public final class UserStrategyDecisionTable {
+
+    private static final int REGION_COUNT = Region.values().length;
+    private static final int CHANNEL_COUNT = Channel.values().length;
+
+    private static final UserStrategyDecisionTable EMPTY = new UserStrategyDecisionTable(emptyCells(), 0);
+
+    /**
+     * 单元格内的策略保持编译时的顺序
+     */
+    private final CompiledStrategy[][] cells;
+    private final int strategyCount;
+
+    private UserStrategyDecisionTable(CompiledStrategy[][] cells, int strategyCount) {
+        this.cells = cells;
+        this.strategyCount = strategyCount;
+    }
+
+    /**
+     * 编译策略集合，未激活的策略不进入决策表；有效期仍在定价时按检查时间判断
+     */
+    public static UserStrategyDecisionTable compile(List<UserPricingStrategy> strategies) {
+        if (strategies == null || strategies.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<UserPricingStrategy> activeStrategies = strategies.stream()
+                .filter(UserPricingStrategy::isActive)
+                .toList();
+
+        CompiledStrategy[][] cells = emptyCells();
+        List<CompiledStrategy> cell = new ArrayList<>(activeStrategies.size());
+        for (UserLevel userLevel : UserLevel.values()) {
+            for (Region region : Region.values()) {
+                for (Channel channel : Channel.values()) {
+                    cell.clear();
+                    for (UserPricingStrategy strategy : activeStrategies) {
+                        CompiledStrategy compiled = CompiledStrategy.compile(strategy, userLevel, region, channel);
+                        if (compiled != null) {
+                            cell.add(compiled);
+                        }
+                    }
+                    cells[cellIndex(userLevel, region, channel)] = cell.toArray(new CompiledStrategy[0]);
+                }
+            }
+        }
+        return new UserStrategyDecisionTable(cells, activeStrategies.size());
+    }
+
+    /**
+     * 最优价格：所有有效策略中价格最低者，没有更低价格时返回原价
+     */
+    public long selectBestPrice(long basePrice, UserContext userContext, LocalDateTime checkTime) {
+        return selectBestPrice(basePrice, userContext, checkTime, null);
+    }
+
+    /**
+     * 同上，每计算一个候选策略价格回调一次 candidateSink（为 null 时不回调）
+     */
+    public long selectBestPrice(long basePrice, UserContext userContext, LocalDateTime checkTime,
+                                ObjLongConsumer<UserPricingStrategy> candidateSink) {
+        long bestPrice = basePrice;
+        for (CompiledStrategy compiled : cell(userContext)) {
+            if (compiled.strategy.isEffectiveAt(checkTime)) {
+                long price = compiled.apply(basePrice);
+                if (candidateSink != null) {
+                    candidateSink.accept(compiled.strategy, price);
+                }
+                bestPrice = Math.min(bestPrice, price);
+            }
+        }
+        return bestPrice;
+    }
+
+    /**
+     * 最高优先级：同优先级取编译顺序中的第一个
+     */
+    public long selectHighestPriorityPrice(long basePrice, UserContext userContext, LocalDateTime checkTime) {
+        return selectHighestPriorityPrice(basePrice, userContext, checkTime, null);
+    }
+
+    public long selectHighestPriorityPrice(long basePrice, UserContext userContext, LocalDateTime checkTime,
+                                           ObjLongConsumer<UserPricingStrategy> candidateSink) {
+        CompiledStrategy selected = null;
+        for (CompiledStrategy compiled : cell(userContext)) {
+            if (compiled.strategy.isEffectiveAt(checkTime)
+                    && (selected == null || compiled.priorityLevel > selected.priorityLevel)) {
+                selected = compiled;
+            }
+        }
+        return selected == null ? basePrice : applySelected(selected, basePrice, candidateSink);
+    }
+
+    /**
+     * 第一个适用策略
+     */
+    public long selectFirstApplicablePrice(long basePrice, UserContext userContext, LocalDateTime checkTime) {
+        return selectFirstApplicablePrice(basePrice, userContext, checkTime, null);
+    }
+
+    public long selectFirstApplicablePrice(long basePrice, UserContext userContext, LocalDateTime checkTime,
+                                           ObjLongConsumer<UserPricingStrategy> candidateSink) {
+        for (CompiledStrategy compiled : cell(userContext)) {
+            if (compiled.strategy.isEffectiveAt(checkTime)) {
+                return applySelected(compiled, basePrice, candidateSink);
+            }
+        }
+        return basePrice;
+    }
+
+    /**
+     * 适用于该用户的策略（不含有效期判断），顺序与编译时一致
+     */
+    public List<UserPricingStrategy> getCandidateStrategies(UserContext userContext) {
+        CompiledStrategy[] cell = cell(userContext);
+        List<UserPricingStrategy> candidates = new ArrayList<>(cell.length);
+        for (CompiledStrategy compiled : cell) {
+            candidates.add(compiled.strategy);
+        }
+        return candidates;
+    }
+
+    public int getStrategyCount() {
+        return strategyCount;
+    }
+
+    private static long applySelected(CompiledStrategy selected, long basePrice,
+                                      ObjLongConsumer<UserPricingStrategy> candidateSink) {
+        long price = selected.apply(basePrice);
+        if (candidateSink != null) {
+            candidateSink.accept(selected.strategy, price);
+        }
+        return price;
+    }
+
+    private CompiledStrategy[] cell(UserContext userContext) {
+        return cells[cellIndex(userContext.getUserLevel(), userContext.getRegion(), userContext.getChannel())];
+    }
+
+    private static int cellIndex(UserLevel userLevel, Region region, Channel channel) {
+        return (userLevel.ordinal() * REGION_COUNT + region.ordinal()) * CHANNEL_COUNT + channel.ordinal();
+    }
+
+    private static CompiledStrategy[][] emptyCells() {
+        CompiledStrategy[][] cells = new CompiledStrategy[UserLevel.values().length * REGION_COUNT * CHANNEL_COUNT][];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new CompiledStrategy[0];
+        }
+        return cells;
+    }
+
+    /**
+     * 某个 (等级, 地域, 渠道) 组合下预先解析好的策略折扣链，不参与的环节为 null
+     */
+    private static final class CompiledStrategy {
+        private final UserPricingStrategy strategy;
+        private final int priorityLevel;
+        private final UserLevelDiscount userLevelDiscount;
+        private final RegionPricing regionPricing;
+        private final ChannelPricing channelPricing;
+
+        private CompiledStrategy(UserPricingStrategy strategy,
+                                 UserLevelDiscount userLevelDiscount,
+                                 RegionPricing regionPricing,
+                                 ChannelPricing channelPricing) {
+            this.strategy = strategy;
+            this.priorityLevel = strategy.getStrategyPriority() == null ? 0 : strategy.getStrategyPriority().getLevel();
+            this.userLevelDiscount = userLevelDiscount;
+            this.regionPricing = regionPricing;
+            this.channelPricing = channelPricing;
+        }
+
+        /**
+         * 与 isApplicableForUser / calculateUserDiscount 一致：任一维度命中即适用，
+         * 每个维度取第一个命中的配置，是否参与计算由 PriorityRule 决定；null 列表视为空
+         */
+        private static CompiledStrategy compile(UserPricingStrategy strategy,
+                                                UserLevel userLevel,
+                                                Region region,
+                                                Channel channel) {
+            UserLevelDiscount userLevelDiscount = null;
+            if (strategy.getUserLevelDiscounts() != null) {
+                for (UserLevelDiscount discount : strategy.getUserLevelDiscounts()) {
+                    if (discount.matchesLevel(userLevel)) {
+                        userLevelDiscount = discount;
+                        break;
+                    }
+                }
+            }
+
+            RegionPricing regionPricing = null;
+            if (strategy.getRegionPricings() != null) {
+                for (RegionPricing pricing : strategy.getRegionPricings()) {
+                    if (pricing.matchesRegion(region)) {
+                        regionPricing = pricing;
+                        break;
+                    }
+                }
+            }
+
+            ChannelPricing channelPricing = null;
+            if (strategy.getChannelPricings() != null) {
+                for (ChannelPricing pricing : strategy.getChannelPricings()) {
+                    if (pricing.matchesChannel(channel)) {
+                        channelPricing = pricing;
+                        break;
+                    }
+                }
+            }
+
+            if (userLevelDiscount == null && regionPricing == null && channelPricing == null) {
+                return null;
+            }
+
+            PriorityRule priorityRule = strategy.getPriorityRule();
+            boolean applyUserLevel = priorityRule != null && priorityRule.shouldApplyUserLevel();
+            boolean applyRegion = priorityRule != null && priorityRule.shouldApplyRegion();
+            boolean applyChannel = priorityRule != null && priorityRule.shouldApplyChannel();
+            return new CompiledStrategy(strategy,
+                    applyUserLevel ? userLevelDiscount : null,
+                    applyRegion ? regionPricing : null,
+                    applyChannel ? channelPricing : null);
+        }
+
+        private long apply(long basePrice) {
+            long price = basePrice;
+            if (userLevelDiscount != null) {
+                price = userLevelDiscount.applyDiscountInMinorUnits(price);
+            }
+            if (regionPricing != null) {
+                price = regionPricing.adjustPriceInMinorUnits(price);
+            }
+            if (channelPricing != null) {
+                price = channelPricing.adjustPriceInMinorUnits(price);
+            }
+            return price;
+        }
+    }
+}
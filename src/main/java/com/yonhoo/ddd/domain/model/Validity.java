@@ -14,9 +14,65 @@ public class Validity {
     private Integer advanceBookingDays;
     private List<DateRange> blackOutDateRanges;
 
-
+    /**
+     * 游玩窗口和不可售日期编译后的日历，修改这些字段时失效；
+     * 直接修改 blackOutDateRanges 列表内容不会触发重新编译，需要重新 set
+     */
+    private volatile AvailabilityCalendar availabilityCalendar;
+
+    /**
+     * 入住日是否在游玩窗口内且不在不可售日期中（与下单时间无关）
+     */
     public boolean validateCheckInDayIsAvailable(LocalDate checkInDay) {
-        return true;
+        return compileAvailability().isAvailable(checkInDay);
+    }
+
+    /**
+     * 在 bookingTime 下单时入住日是否可入住：额外要求处于销售期和上架期内，且满足提前预订天数
+     */
+    public boolean validateCheckInDayIsAvailable(LocalDate checkInDay, LocalDateTime bookingTime) {
+        return compileAvailability(bookingTime).isAvailable(checkInDay);
+    }
+
+    /**
+     * 可入住日历（只含游玩窗口和不可售日期），首次使用时编译并缓存
+     */
+    public AvailabilityCalendar compileAvailability() {
+        AvailabilityCalendar calendar = availabilityCalendar;
+        if (calendar == null) {
+            calendar = AvailabilityCalendar.compile(visitingStartDate, visitingEndDate, blackOutDateRanges);
+            availabilityCalendar = calendar;
+        }
+        return calendar;
+    }
+
+    /**
+     * 在 bookingTime 下单时的可入住日历；不在销售期或上架期内时没有可入住日期，
+     * 配置了提前预订天数时入住日不早于 下单日 + advanceBookingDays。bookingTime 为 null 时等同 compileAvailability()
+     */
+    public AvailabilityCalendar compileAvailability(LocalDateTime bookingTime) {
+        AvailabilityCalendar calendar = compileAvailability();
+        if (bookingTime == null) {
+            return calendar;
+        }
+        if (!isOnSaleAt(bookingTime)) {
+            return AvailabilityCalendar.none();
+        }
+        if (advanceBookingDays != null) {
+            return calendar.from(bookingTime.toLocalDate().plusDays(advanceBookingDays));
+        }
+        return calendar;
+    }
+
+    /**
+     * 是否处于销售期和上架期内，未配置的边界不设限
+     */
+    public boolean isOnSaleAt(LocalDateTime bookingTime) {
+        LocalDate bookingDay = bookingTime.toLocalDate();
+        return (salesStartDate == null || !bookingDay.isBefore(salesStartDate))
+                && (salesEndDate == null || !bookingDay.isAfter(salesEndDate))
+                && (publishTime == null || !bookingTime.isBefore(publishTime))
+                && (unpublishTime == null || bookingTime.isBefore(unpublishTime));
     }
 
     public LocalDate getSalesStartDate() {
@@ -41,6 +97,7 @@ public class Validity {
 
     public void setVisitingStartDate(LocalDate visitingStartDate) {
         this.visitingStartDate = visitingStartDate;
+        this.availabilityCalendar = null;
     }
 
     public LocalDate getVisitingEndDate() {
@@ -49,6 +106,7 @@ public class Validity {
 
     public void setVisitingEndDate(LocalDate visitingEndDate) {
         this.visitingEndDate = visitingEndDate;
+        this.availabilityCalendar = null;
     }
 
     public LocalDateTime getPublishTime() {
@@ -81,5 +139,6 @@ public class Validity {
 
     public void setBlackOutDateRanges(List<DateRange> blackOutDateRanges) {
         this.blackOutDateRanges = blackOutDateRanges;
+        this.availabilityCalendar = null;
     }
 }
@@ -0,0 +1,53 @@
+package com.yonhoo.ddd.domain.model;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 基于 jdk.incubator.vector 的向量内核，按平台首选宽度（AVX2 下 4 个 long，AVX-512 下 8 个）逐段归约，尾部走标量。
+ * 只在 mvn -Pvector 构建时编译，需要以 --add-modules jdk.incubator.vector 启动，只由 PricingKernels 在模块可用时反射创建。
+ * 求和按车道累加，只在合并车道和尾部时检查溢出；以分计价的房价之和远达不到 long 上限
+ */
+final class VectorPriceKernel implements PriceKernel {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public long min(long[] values, int length) {
+        int i = 0;
+        long min = Long.MAX_VALUE;
+        int upperBound = SPECIES.loopBound(length);
+        if (upperBound > 0) {
+            LongVector lanes = LongVector.broadcast(SPECIES, Long.MAX_VALUE);
+            for (; i < upperBound; i += SPECIES.length()) {
+                lanes = lanes.min(LongVector.fromArray(SPECIES, values, i));
+            }
+            min = lanes.reduceLanes(VectorOperators.MIN);
+        }
+        for (; i < length; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    @Override
+    public long sum(long[] values, int length) {
+        int i = 0;
+        long sum = 0L;
+        int upperBound = SPECIES.loopBound(length);
+        if (upperBound > 0) {
+            LongVector lanes = LongVector.zero(SPECIES);
+            for (; i < upperBound; i += SPECIES.length()) {
+                lanes = lanes.add(LongVector.fromArray(SPECIES, values, i));
+            }
+            for (int lane = 0; lane < SPECIES.length(); lane++) {
+                sum = Math.addExact(sum, lanes.lane(lane));
+            }
+        }
+        for (; i < length; i++) {
+            sum = Math.addExact(sum, values[i]);
+        }
+        return sum;
+    }
+}
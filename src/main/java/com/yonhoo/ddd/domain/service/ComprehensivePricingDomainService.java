@@ -4,10 +4,12 @@ import com.yonhoo.ddd.domain.model.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 
 /**
  * 综合定价领域服务
@@ -36,29 +38,185 @@ public class ComprehensivePricingDomainService {
             List<UserPricingStrategy> userPricingStrategies,
             List<MarketingPricingStrategy> marketingPricingStrategies) {
 
+        return calculateFinalPrice(hotelOffer, checkInDay, roomPriceData, userContext, marketingContext,
+                userPricingStrategies, MarketingStrategyIndex.of(marketingPricingStrategies));
+    }
+
+    /**
+     * 同上，直接使用预先构建（如仓储缓存）的营销策略有效期索引，单日调用不再每次重建索引
+     */
+    public static PricingResult calculateFinalPrice(
+            HotelOffer hotelOffer,
+            LocalDate checkInDay,
+            Map<String, ? extends AbstractPriceData> roomPriceData,
+            UserContext userContext,
+            MarketingContext marketingContext,
+            List<UserPricingStrategy> userPricingStrategies,
+            MarketingStrategyIndex marketingStrategyIndex) {
+
+        if (!hotelOffer.isAvailableForCheckIn(checkInDay, marketingContext.getCurrentTime())) {
+            throw new RuntimeException("checkInDay is not available");
+        }
+
         // 1. 计算基础价格 (HotelOffer)
-        BigDecimal basePrice = HotelPricingDomainService.calculateMinPrice(
+        Money basePrice = HotelPricingDomainService.calculateMinPrice(
             hotelOffer, checkInDay, roomPriceData);
 
         // 2. 应用用户策略定价
-        BigDecimal userDiscountedPrice = applyUserPricingStrategies(
+        Money userDiscountedPrice = applyUserPricingStrategies(
             basePrice, userContext, userPricingStrategies);
 
         // 3. 应用营销策略定价
-        BigDecimal marketingPrice = applyMarketingPricingStrategies(
-            userDiscountedPrice, checkInDay, marketingContext, marketingPricingStrategies);
+        Money marketingPrice = applyMarketingPricingStrategies(
+            userDiscountedPrice, checkInDay, marketingContext,
+            marketingStrategyIndex.findEffective(checkInDay));
 
         // 4. 构建定价结果
         return buildPricingResult(basePrice, userDiscountedPrice, marketingPrice, 
             checkInDay, userContext, marketingContext);
     }
 
+    /**
+     * 批量计算一个酒店产品在多个入住日的综合最终价格
+     * 用户策略只按用户筛选一次、营销策略只建一次有效期索引，基础价格由价格日历一次算出（相邻入住日共享的晚只算一次），
+     * 每天只重新计算策略价格；不可入住的日期不出现在结果中
+     *
+     * @param checkInDays 入住日期范围
+     * @param priceQuery 批量加载的价格查询器（如 RoomPriceCalendar）
+     * @return 入住日期 → 定价结果，按日期升序
+     */
+    public static Map<LocalDate, PricingResult> calculateFinalPrices(
+            HotelOffer hotelOffer,
+            DateRange checkInDays,
+            PriceDataAdapter.RoomPriceQuery priceQuery,
+            UserContext userContext,
+            MarketingContext marketingContext,
+            List<UserPricingStrategy> userPricingStrategies,
+            List<MarketingPricingStrategy> marketingPricingStrategies) {
+
+        return calculateFinalPrices(hotelOffer, checkInDays, priceQuery, userContext, marketingContext,
+                userPricingStrategies, MarketingStrategyIndex.of(marketingPricingStrategies));
+    }
+
+    /**
+     * 同上，直接使用预先构建（如仓储缓存）的营销策略有效期索引
+     */
+    public static Map<LocalDate, PricingResult> calculateFinalPrices(
+            HotelOffer hotelOffer,
+            DateRange checkInDays,
+            PriceDataAdapter.RoomPriceQuery priceQuery,
+            UserContext userContext,
+            MarketingContext marketingContext,
+            List<UserPricingStrategy> userPricingStrategies,
+            MarketingStrategyIndex marketingStrategyIndex) {
+
+        List<UserPricingStrategy> applicableUserStrategies = UserPricingStrategySelector.filterApplicableStrategies(
+                userContext, userPricingStrategies, marketingContext.getCurrentTime());
+        return calculateFinalPrices(hotelOffer, checkInDays, priceQuery, userContext, marketingContext,
+                basePrice -> UserPricingStrategySelector.selectUserPrice(
+                        basePrice,
+                        userContext,
+                        applicableUserStrategies,
+                        UserPricingStrategySelector.SelectionMode.BEST_PRICE,
+                        marketingContext.getCurrentTime()),
+                marketingStrategyIndex, false);
+    }
+
+    /**
+     * 同上，用户策略和营销策略都使用预先构建（如仓储缓存）的决策表和有效期索引
+     */
+    public static Map<LocalDate, PricingResult> calculateFinalPrices(
+            HotelOffer hotelOffer,
+            DateRange checkInDays,
+            PriceDataAdapter.RoomPriceQuery priceQuery,
+            UserContext userContext,
+            MarketingContext marketingContext,
+            UserStrategyDecisionTable userStrategyDecisionTable,
+            MarketingStrategyIndex marketingStrategyIndex) {
+
+        return calculateFinalPrices(hotelOffer, checkInDays, priceQuery, userContext, marketingContext,
+                decisionTablePricing(userContext, marketingContext, userStrategyDecisionTable),
+                marketingStrategyIndex, false);
+    }
+
+    /**
+     * 单个入住日的综合最终价格，不可入住或缺少价格数据时返回 null（排名类查询跳过该 offer，而不是整体失败）
+     */
+    public static PricingResult calculateFinalPriceIfAvailable(
+            HotelOffer hotelOffer,
+            LocalDate checkInDay,
+            PriceDataAdapter.RoomPriceQuery priceQuery,
+            UserContext userContext,
+            MarketingContext marketingContext,
+            UserStrategyDecisionTable userStrategyDecisionTable,
+            MarketingStrategyIndex marketingStrategyIndex) {
+
+        return calculateFinalPrices(hotelOffer, DateRange.of(checkInDay, checkInDay), priceQuery, userContext, marketingContext,
+                decisionTablePricing(userContext, marketingContext, userStrategyDecisionTable),
+                marketingStrategyIndex, true).get(checkInDay);
+    }
+
+    private static UnaryOperator<Money> decisionTablePricing(
+            UserContext userContext,
+            MarketingContext marketingContext,
+            UserStrategyDecisionTable userStrategyDecisionTable) {
+
+        return basePrice -> UserPricingStrategySelector.selectUserPrice(
+                basePrice,
+                userContext,
+                userStrategyDecisionTable,
+                UserPricingStrategySelector.SelectionMode.BEST_PRICE,
+                marketingContext.getCurrentTime());
+    }
+
+    /**
+     * @param skipMissingPrices 为 true 时可入住但缺少价格数据的入住日不出现在结果中，否则抛出异常
+     */
+    private static Map<LocalDate, PricingResult> calculateFinalPrices(
+            HotelOffer hotelOffer,
+            DateRange checkInDays,
+            PriceDataAdapter.RoomPriceQuery priceQuery,
+            UserContext userContext,
+            MarketingContext marketingContext,
+            UnaryOperator<Money> userPricing,
+            MarketingStrategyIndex marketingStrategyIndex,
+            boolean skipMissingPrices) {
+
+        LocalDateTime bookingTime = marketingContext.getCurrentTime();
+        AvailabilityCalendar availabilityCalendar = hotelOffer.getAvailabilityCalendar(bookingTime);
+        Map<LocalDate, Money> basePrices = hotelOffer.calculateMinPrices(checkInDays, bookingTime, priceQuery);
+
+        Map<LocalDate, PricingResult> results = new LinkedHashMap<>();
+        LocalDate lastCheckInDay = checkInDays.getEndDate();
+        for (LocalDate checkInDay = availabilityCalendar.nextAvailableDay(checkInDays.getStartDate(), lastCheckInDay);
+             checkInDay != null;
+             checkInDay = availabilityCalendar.nextAvailableDay(checkInDay.plusDays(1), lastCheckInDay)) {
+
+            Money basePrice = basePrices.get(checkInDay);
+            if (basePrice == null) {
+                if (skipMissingPrices) {
+                    continue;
+                }
+                throw new RuntimeException("no available price");
+            }
+
+            Money userDiscountedPrice = userPricing.apply(basePrice);
+
+            Money marketingPrice = applyMarketingPricingStrategies(
+                    userDiscountedPrice, checkInDay, marketingContext, marketingStrategyIndex.findEffective(checkInDay));
+
+            results.put(checkInDay, buildPricingResult(basePrice, userDiscountedPrice, marketingPrice,
+                    checkInDay, userContext, marketingContext));
+        }
+        return results;
+    }
+
     /**
      * 应用用户定价策略
      * 使用策略选择器来管理多策略选择逻辑
      */
-    private static BigDecimal applyUserPricingStrategies(
-            BigDecimal basePrice, 
+    private static Money applyUserPricingStrategies(
+            Money basePrice, 
             UserContext userContext, 
             List<UserPricingStrategy> strategies) {
 
@@ -72,32 +230,27 @@ public class ComprehensivePricingDomainService {
     }
 
     /**
-     * 应用营销定价策略
+     * 应用营销定价策略（策略来自有效期索引：均在入住日有效，且已按优先级排序）
      */
-    private static BigDecimal applyMarketingPricingStrategies(
-            BigDecimal userDiscountedPrice,
+    private static Money applyMarketingPricingStrategies(
+            Money userDiscountedPrice,
             LocalDate checkInDay,
             MarketingContext marketingContext,
             List<MarketingPricingStrategy> strategies) {
 
-        if (strategies == null || strategies.isEmpty()) {
+        if (strategies.isEmpty()) {
             return userDiscountedPrice;
         }
 
-        // 按优先级排序策略
-        strategies.sort((s1, s2) -> Integer.compare(s2.getPriorityLevel().getLevel(), s1.getPriorityLevel().getLevel()));
-
-        BigDecimal bestMarketingPrice = userDiscountedPrice;
+        Money bestMarketingPrice = userDiscountedPrice;
 
         // 应用营销策略，选择最优价格
         for (MarketingPricingStrategy strategy : strategies) {
-            if (strategy.isEffective(checkInDay)) {
-                BigDecimal strategyPrice = strategy.calculateMarketingPrice(
-                    userDiscountedPrice, checkInDay, marketingContext);
-                
-                if (strategyPrice.compareTo(bestMarketingPrice) < 0) {
-                    bestMarketingPrice = strategyPrice;
-                }
+            Money strategyPrice = strategy.calculateMarketingPrice(
+                userDiscountedPrice, checkInDay, marketingContext);
+
+            if (strategyPrice.compareTo(bestMarketingPrice) < 0) {
+                bestMarketingPrice = strategyPrice;
             }
         }
 
@@ -108,27 +261,28 @@ public class ComprehensivePricingDomainService {
      * 构建定价结果
      */
     private static PricingResult buildPricingResult(
-            BigDecimal basePrice,
-            BigDecimal userDiscountedPrice, 
-            BigDecimal finalPrice,
+            Money basePrice,
+            Money userDiscountedPrice,
+            Money finalPrice,
             LocalDate checkInDay,
             UserContext userContext,
             MarketingContext marketingContext) {
 
+        // 定价结果是对外边界，在这里才转换为 BigDecimal
         PricingResult result = new PricingResult();
-        result.setBasePrice(basePrice);
-        result.setUserDiscountedPrice(userDiscountedPrice);
-        result.setFinalPrice(finalPrice);
+        result.setBasePrice(basePrice.toBigDecimal());
+        result.setUserDiscountedPrice(userDiscountedPrice.toBigDecimal());
+        result.setFinalPrice(finalPrice.toBigDecimal());
         
         // 计算折扣金额
-        result.setUserDiscountAmount(basePrice.subtract(userDiscountedPrice));
-        result.setMarketingDiscountAmount(userDiscountedPrice.subtract(finalPrice));
-        result.setTotalDiscountAmount(basePrice.subtract(finalPrice));
+        result.setUserDiscountAmount(basePrice.subtract(userDiscountedPrice).toBigDecimal());
+        result.setMarketingDiscountAmount(userDiscountedPrice.subtract(finalPrice).toBigDecimal());
+        result.setTotalDiscountAmount(basePrice.subtract(finalPrice).toBigDecimal());
         
         // 计算折扣率
-        if (basePrice.compareTo(BigDecimal.ZERO) > 0) {
+        if (basePrice.isPositive()) {
             BigDecimal discountRate = result.getTotalDiscountAmount()
-                    .divide(basePrice, 4, java.math.RoundingMode.HALF_UP)
+                    .divide(result.getBasePrice(), 4, java.math.RoundingMode.HALF_UP)
                     .multiply(BigDecimal.valueOf(100));
             result.setDiscountRate(discountRate);
         }
@@ -143,32 +297,69 @@ public class ComprehensivePricingDomainService {
 
     /**
      * 检查价格变化趋势（用于动态定价建议）
+     * 基础价格来自价格日历（滑动窗口），365 天的趋势与逐晚定价一次的成本相当；
+     * 不可入住或缺少价格数据的日期不出现在结果中
+     *
+     * @param priceQuery 覆盖整个分析区间（含最后一个入住日的连住晚）的价格查询器
      */
     public static PriceTrendAnalysis analyzePriceTrend(
             HotelOffer hotelOffer,
             DateRange dateRange,
+            PriceDataAdapter.RoomPriceQuery priceQuery,
             UserContext userContext,
+            MarketingContext marketingContext,
             List<UserPricingStrategy> userStrategies,
             List<MarketingPricingStrategy> marketingStrategies) {
 
-        List<DailyPriceInfo> dailyPrices = new ArrayList<>();
-        
-        dateRange.toStream().forEach(date -> {
-            // 这里需要模拟获取每日价格数据的逻辑
-            // 在实际应用中，这可能需要调用外部服务
-            MarketingContext context = new MarketingContext(
-                date.atStartOfDay(), 
-                "trend-analysis", 
-                1, 
-                "PRICE_ANALYSIS_SYSTEM"
-            );
-            
-            // 简化示例：使用固定的价格数据进行趋势分析
-            // 实际场景中需要获取真实的每日价格数据
+        // 基础价格只包含可入住的日期
+        Map<LocalDate, Money> basePrices = hotelOffer.calculateMinPrices(dateRange, marketingContext.getCurrentTime(), priceQuery);
+        List<UserPricingStrategy> applicableUserStrategies = UserPricingStrategySelector.filterApplicableStrategies(
+                userContext, userStrategies, marketingContext.getCurrentTime());
+        MarketingStrategyIndex marketingStrategyIndex = MarketingStrategyIndex.of(marketingStrategies);
+
+        List<DailyPriceInfo> dailyPrices = new ArrayList<>(basePrices.size());
+        basePrices.forEach((date, basePrice) -> {
+            Money userDiscountedPrice = UserPricingStrategySelector.selectUserPrice(
+                    basePrice,
+                    userContext,
+                    applicableUserStrategies,
+                    UserPricingStrategySelector.SelectionMode.BEST_PRICE,
+                    marketingContext.getCurrentTime());
+
+            Money finalPrice = userDiscountedPrice;
+            MarketingPricingStrategy appliedStrategy = null;
+            for (MarketingPricingStrategy strategy : marketingStrategyIndex.findEffective(date)) {
+                Money strategyPrice = strategy.calculateMarketingPrice(userDiscountedPrice, date, marketingContext);
+                if (strategyPrice.compareTo(finalPrice) < 0) {
+                    finalPrice = strategyPrice;
+                    appliedStrategy = strategy;
+                }
+            }
+
+            PricingType pricingType;
+            if (appliedStrategy != null) {
+                pricingType = pricingTypeOf(appliedStrategy, date, marketingContext);
+            } else if (userDiscountedPrice.isLessThan(basePrice)) {
+                pricingType = PricingType.USER_DISCOUNT;
+            } else {
+                pricingType = PricingType.STANDARD;
+            }
+
+            dailyPrices.add(new DailyPriceInfo(date, basePrice.toBigDecimal(), finalPrice.toBigDecimal(), pricingType));
         });
 
         return new PriceTrendAnalysis(dailyPrices);
     }
-}
 
- 
\ No newline at end of file
+    /**
+     * 生效营销策略对应的定价类型，组合策略按实际命中的活动判断
+     */
+    private static PricingType pricingTypeOf(MarketingPricingStrategy strategy, LocalDate date, MarketingContext context) {
+        return switch (strategy.getStrategyType()) {
+            case HOLIDAY_PRICING -> PricingType.HOLIDAY;
+            case FLASH_SALE -> PricingType.FLASH_SALE;
+            case SEASONAL_PRICING -> PricingType.SEASONAL;
+            case COMBINED -> strategy.getBestPricingType(date, context);
+        };
+    }
+}
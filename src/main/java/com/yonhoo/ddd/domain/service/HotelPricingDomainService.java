@@ -2,7 +2,6 @@ package com.yonhoo.ddd.domain.service;
 
 import com.yonhoo.ddd.domain.model.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Map;
 
@@ -17,7 +16,7 @@ public class HotelPricingDomainService {
      * 计算酒店最低价格 - 标准版本
      * 通过聚合根的业务方法进行协调，不暴露内部细节
      */
-    public static BigDecimal calculateMinPrice(HotelOffer hotelOffer,
+    public static Money calculateMinPrice(HotelOffer hotelOffer,
                                                LocalDate checkInDay,
                                                Map<String, ? extends AbstractPriceData> roomPriceData) {
 
@@ -30,10 +29,24 @@ public class HotelPricingDomainService {
         return hotelOffer.calculateMinPrice(checkInDay, roomPriceData);
     }
 
+    /**
+     * 计算酒店最低价格 - 使用预先构建的价格查询器（如 PriceChangeStore）
+     */
+    public static Money calculateMinPrice(HotelOffer hotelOffer,
+                                          LocalDate checkInDay,
+                                          PriceDataAdapter.RoomPriceQuery priceQuery) {
+
+        if (!hotelOffer.isAvailableForCheckIn(checkInDay)) {
+            throw new RuntimeException("checkInDay is not available");
+        }
+
+        return hotelOffer.calculateMinPrice(checkInDay, priceQuery);
+    }
+
     /**
      * 计算酒店最低价格 - V2版本（支持客户选择策略）
      */
-    public static BigDecimal calculateMinPriceV2(HotelOfferV2 hotelOffer,
+    public static Money calculateMinPriceV2(HotelOfferV2 hotelOffer,
                                                  LocalDate checkInDay,
                                                  Map<String, ? extends AbstractPriceData> roomPriceData) {
 
@@ -46,4 +59,18 @@ public class HotelPricingDomainService {
         // 委托给聚合根的业务方法
         return hotelOffer.calculateMinPrice(checkInDay, priceQuery);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 计算酒店最低价格 - V2版本，使用预先构建的价格查询器（如 RoomPriceCalendar）
+     */
+    public static Money calculateMinPriceV2(HotelOfferV2 hotelOffer,
+                                            LocalDate checkInDay,
+                                            PriceDataAdapter.RoomPriceQuery priceQuery) {
+
+        if (!hotelOffer.isAvailableForCheckIn(checkInDay)) {
+            throw new RuntimeException("checkInDay is not available");
+        }
+
+        return hotelOffer.calculateMinPrice(checkInDay, priceQuery);
+    }
+}
@@ -0,0 +1,130 @@
+package com.yonhoo.ddd.domain.service;
+
+import com.yonhoo.ddd.domain.model.Money;
+import com.yonhoo.ddd.domain.model.UserContext;
+import com.yonhoo.ddd.domain.model.UserPricingStrategy;
+
+import java.util.Arrays;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * 一次用户策略选择的决策记录
+ * 记录选择模式、参与计算的候选策略及其价格（单位：分）、最终选中的策略和耗时；
+ * 只在注册了 PricingDecisionListener 或做策略分析时才会创建
+ */
+public final class PricingDecision {
+    private final UserPricingStrategySelector.SelectionMode mode;
+    private final UserContext userContext;
+    private final long basePrice;
+    private final long finalPrice;
+    private final UserPricingStrategy[] candidates;
+    private final long[] candidatePrices;
+    private final UserPricingStrategy selectedStrategy;
+    private final long elapsedNanos;
+
+    private PricingDecision(UserPricingStrategySelector.SelectionMode mode,
+                            UserContext userContext,
+                            long basePrice,
+                            long finalPrice,
+                            UserPricingStrategy[] candidates,
+                            long[] candidatePrices,
+                            UserPricingStrategy selectedStrategy,
+                            long elapsedNanos) {
+        this.mode = mode;
+        this.userContext = userContext;
+        this.basePrice = basePrice;
+        this.finalPrice = finalPrice;
+        this.candidates = candidates;
+        this.candidatePrices = candidatePrices;
+        this.selectedStrategy = selectedStrategy;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public UserPricingStrategySelector.SelectionMode getMode() {
+        return mode;
+    }
+
+    public UserContext getUserContext() {
+        return userContext;
+    }
+
+    public Money getBasePrice() {
+        return Money.ofMinor(basePrice);
+    }
+
+    public Money getFinalPrice() {
+        return Money.ofMinor(finalPrice);
+    }
+
+    public int getCandidateCount() {
+        return candidates.length;
+    }
+
+    public UserPricingStrategy getCandidate(int index) {
+        return candidates[index];
+    }
+
+    public Money getCandidatePrice(int index) {
+        return Money.ofMinor(candidatePrices[index]);
+    }
+
+    /**
+     * 选中的策略；没有策略改变价格（最优价格模式）或没有适用策略时为 null
+     */
+    public UserPricingStrategy getSelectedStrategy() {
+        return selectedStrategy;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 决策记录收集器，选择过程中每计算一个候选策略价格回调一次
+     */
+    static final class Recorder implements ObjLongConsumer<UserPricingStrategy> {
+        private final long startNanos = System.nanoTime();
+        private UserPricingStrategy[] candidates;
+        private long[] candidatePrices;
+        private int candidateCount;
+
+        Recorder(int expectedCandidates) {
+            int capacity = Math.max(expectedCandidates, 1);
+            this.candidates = new UserPricingStrategy[capacity];
+            this.candidatePrices = new long[capacity];
+        }
+
+        @Override
+        public void accept(UserPricingStrategy strategy, long price) {
+            if (candidateCount == candidates.length) {
+                candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                candidatePrices = Arrays.copyOf(candidatePrices, candidateCount * 2);
+            }
+            candidates[candidateCount] = strategy;
+            candidatePrices[candidateCount] = price;
+            candidateCount++;
+        }
+
+        /**
+         * 选中的策略是第一个价格等于最终价格的候选；最优价格模式下最终价格未低于原价则视为未选中
+         */
+        PricingDecision finish(UserPricingStrategySelector.SelectionMode mode,
+                               UserContext userContext,
+                               long basePrice,
+                               long finalPrice) {
+            UserPricingStrategy selectedStrategy = null;
+            boolean selectable = mode != UserPricingStrategySelector.SelectionMode.BEST_PRICE || finalPrice < basePrice;
+            for (int i = 0; selectable && i < candidateCount; i++) {
+                if (candidatePrices[i] == finalPrice) {
+                    selectedStrategy = candidates[i];
+                    break;
+                }
+            }
+            return new PricingDecision(mode, userContext, basePrice, finalPrice,
+                    Arrays.copyOf(candidates, candidateCount),
+                    Arrays.copyOf(candidatePrices, candidateCount),
+                    selectedStrategy,
+                    System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.yonhoo.ddd.domain.service;
+
+/**
+ * 定价决策监听器
+ * 通过 UserPricingStrategySelector.setDecisionListener 注册；未注册时选择器不构建任何决策记录。
+ * 每个决策先调用一次 shouldRecord，返回 true 时才构建记录并回调 onDecision，采样丢弃的决策不产生任何分配。
+ * 两个方法都在定价线程上同步调用，实现必须无阻塞（如写入无锁环形缓冲区后异步消费）
+ */
+@FunctionalInterface
+public interface PricingDecisionListener {
+
+    /**
+     * 是否记录即将发生的这个决策，默认全部记录
+     */
+    default boolean shouldRecord() {
+        return true;
+    }
+
+    void onDecision(PricingDecision decision);
+}
@@ -19,7 +19,7 @@ public class StrategyComparisonExample {
         System.out.println();
 
         // 基础场景设置
-        BigDecimal basePrice = new BigDecimal("1000.00");
+        Money basePrice = Money.of(new BigDecimal("1000.00"));
         UserContext diamondUser = new UserContext("user001", UserLevel.DIAMOND, Region.NORTH_CHINA, Channel.MOBILE_APP, "VIP001");
         UserContext bronzeUser = new UserContext("user002", UserLevel.BRONZE, Region.SOUTH_CHINA, Channel.OFFICIAL_WEBSITE, "REG002");
 
@@ -41,18 +41,18 @@ public class StrategyComparisonExample {
     /**
      * 分析用户策略的影响
      */
-    private static void analyzeUserStrategyImpact(BigDecimal basePrice, UserContext diamondUser, UserContext bronzeUser, List<UserPricingStrategy> strategies) {
+    private static void analyzeUserStrategyImpact(Money basePrice, UserContext diamondUser, UserContext bronzeUser, List<UserPricingStrategy> strategies) {
         System.out.println("📊 用户策略分析:");
         System.out.println("特点: 基于用户属性的长期稳定定价");
         System.out.println();
 
         // 钻石用户定价
-        BigDecimal diamondPrice = UserPricingStrategySelector.calculateBestUserPrice(
+        Money diamondPrice = UserPricingStrategySelector.calculateBestUserPrice(
                 basePrice, diamondUser, strategies, UserPricingStrategySelector.SelectionMode.BEST_PRICE
         );
         
         // 青铜用户定价
-        BigDecimal bronzePrice = UserPricingStrategySelector.calculateBestUserPrice(
+        Money bronzePrice = UserPricingStrategySelector.calculateBestUserPrice(
                 basePrice, bronzeUser, strategies, UserPricingStrategySelector.SelectionMode.BEST_PRICE
         );
 
@@ -67,7 +67,7 @@ public class StrategyComparisonExample {
     /**
      * 分析营销策略的影响  
      */
-    private static void analyzeMarketingStrategyImpact(BigDecimal basePrice, UserContext user, List<MarketingPricingStrategy> strategies) {
+    private static void analyzeMarketingStrategyImpact(Money basePrice, UserContext user, List<MarketingPricingStrategy> strategies) {
         System.out.println("🎯 营销策略分析:");
         System.out.println("特点: 基于市场活动的短期促销定价");
         System.out.println();
@@ -79,10 +79,10 @@ public class StrategyComparisonExample {
         MarketingContext holidayContext = new MarketingContext(LocalDateTime.of(2024, 12, 25, 10, 0), "session002", 2, "mobile");
 
         // 正常日期价格
-        BigDecimal normalPrice = applyMarketingStrategies(basePrice, normalDay, normalContext, strategies);
+        Money normalPrice = applyMarketingStrategies(basePrice, normalDay, normalContext, strategies);
         
         // 节假日价格  
-        BigDecimal holidayPrice = applyMarketingStrategies(basePrice, holidayDay, holidayContext, strategies);
+        Money holidayPrice = applyMarketingStrategies(basePrice, holidayDay, holidayContext, strategies);
 
         System.out.println("平常日期价格: " + normalPrice + " (调整: " + 
                           normalPrice.subtract(basePrice) + "元)");
@@ -95,7 +95,7 @@ public class StrategyComparisonExample {
     /**
      * 演示综合定价流程
      */
-    private static void demonstrateComprehensivePricing(BigDecimal basePrice, UserContext user, 
+    private static void demonstrateComprehensivePricing(Money basePrice, UserContext user, 
                                                        List<UserPricingStrategy> userStrategies, 
                                                        List<MarketingPricingStrategy> marketingStrategies) {
         System.out.println("🔄 综合定价流程演示:");
@@ -106,7 +106,7 @@ public class StrategyComparisonExample {
         System.out.println("步骤1 - 基础价格: " + basePrice);
 
         // 步骤2: 应用用户策略
-        BigDecimal userPrice = UserPricingStrategySelector.calculateBestUserPrice(
+        Money userPrice = UserPricingStrategySelector.calculateBestUserPrice(
                 basePrice, user, userStrategies, UserPricingStrategySelector.SelectionMode.BEST_PRICE
         );
         System.out.println("步骤2 - 用户策略后: " + userPrice + " (用户折扣: " + 
@@ -115,25 +115,25 @@ public class StrategyComparisonExample {
         // 步骤3: 应用营销策略 
         LocalDate targetDate = LocalDate.of(2024, 12, 25); // 节假日
         MarketingContext context = new MarketingContext(LocalDateTime.now(), "session001", 1, "mobile");
-        BigDecimal finalPrice = applyMarketingStrategies(userPrice, targetDate, context, marketingStrategies);
+        Money finalPrice = applyMarketingStrategies(userPrice, targetDate, context, marketingStrategies);
         
         System.out.println("步骤3 - 营销策略后: " + finalPrice + " (营销调整: " + 
                           finalPrice.subtract(userPrice) + "元)");
         System.out.println("总优惠金额: " + basePrice.subtract(finalPrice) + "元");
         System.out.println("最终折扣率: " + 
-                          basePrice.subtract(finalPrice).multiply(new BigDecimal("100"))
-                                  .divide(basePrice, 2, java.math.RoundingMode.HALF_UP) + "%");
+                          basePrice.subtract(finalPrice).toBigDecimal().multiply(new BigDecimal("100"))
+                                  .divide(basePrice.toBigDecimal(), 2, java.math.RoundingMode.HALF_UP) + "%");
     }
 
     /**
      * 模拟营销策略应用（简化版）
      */
-    private static BigDecimal applyMarketingStrategies(BigDecimal basePrice, LocalDate targetDate, 
+    private static Money applyMarketingStrategies(Money basePrice, LocalDate targetDate, 
                                                       MarketingContext context, List<MarketingPricingStrategy> strategies) {
         // 这里简化处理，实际应该调用 MarketingPricingStrategy.calculateMarketingPrice
         if (targetDate.getMonthValue() == 12 && targetDate.getDayOfMonth() == 25) {
             // 圣诞节加价20%
-            return basePrice.multiply(new BigDecimal("1.2"));
+            return basePrice.applyBasisPoints(12_000L, java.math.RoundingMode.HALF_UP);
         }
         return basePrice;
     }
@@ -153,14 +153,14 @@ public class StrategyComparisonExample {
         diamondDiscount.setTargetLevel(UserLevel.DIAMOND);
         diamondDiscount.setDiscountType(DiscountType.PERCENTAGE);
         diamondDiscount.setDiscountValue(new BigDecimal("15"));
-        diamondDiscount.setMinOrderAmount(BigDecimal.ZERO);
+        diamondDiscount.setMinOrderAmount(Money.ZERO);
 
         // 青铜会员5%折扣
         UserLevelDiscount bronzeDiscount = new UserLevelDiscount();
         bronzeDiscount.setTargetLevel(UserLevel.BRONZE);
         bronzeDiscount.setDiscountType(DiscountType.PERCENTAGE);
         bronzeDiscount.setDiscountValue(new BigDecimal("5"));
-        bronzeDiscount.setMinOrderAmount(BigDecimal.ZERO);
+        bronzeDiscount.setMinOrderAmount(Money.ZERO);
 
         memberStrategy.setUserLevelDiscounts(Arrays.asList(diamondDiscount, bronzeDiscount));
 
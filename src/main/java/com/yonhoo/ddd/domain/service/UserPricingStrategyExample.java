@@ -15,7 +15,7 @@ public class UserPricingStrategyExample {
 
     public static void demonstrateStrategySelection() {
         // 基础价格
-        BigDecimal basePrice = new BigDecimal("1000.00");
+        Money basePrice = Money.of(new BigDecimal("1000.00"));
         
         // 用户上下文：钻石会员，华北地区，移动端
         UserContext userContext = new UserContext(
@@ -37,7 +37,7 @@ public class UserPricingStrategyExample {
 
         // 1. 最优价格策略（默认）
         System.out.println("1. 最优价格策略选择:");
-        BigDecimal bestPrice = UserPricingStrategySelector.calculateBestUserPrice(
+        Money bestPrice = UserPricingStrategySelector.calculateBestUserPrice(
                 basePrice, userContext, strategies, 
                 UserPricingStrategySelector.SelectionMode.BEST_PRICE
         );
@@ -46,7 +46,7 @@ public class UserPricingStrategyExample {
 
         // 2. 最高优先级策略
         System.out.println("2. 最高优先级策略选择:");
-        BigDecimal priorityPrice = UserPricingStrategySelector.calculateBestUserPrice(
+        Money priorityPrice = UserPricingStrategySelector.calculateBestUserPrice(
                 basePrice, userContext, strategies, 
                 UserPricingStrategySelector.SelectionMode.HIGHEST_PRIORITY
         );
@@ -55,7 +55,7 @@ public class UserPricingStrategyExample {
 
         // 3. 第一个适用策略
         System.out.println("3. 第一个适用策略选择:");
-        BigDecimal firstPrice = UserPricingStrategySelector.calculateBestUserPrice(
+        Money firstPrice = UserPricingStrategySelector.calculateBestUserPrice(
                 basePrice, userContext, strategies, 
                 UserPricingStrategySelector.SelectionMode.FIRST_APPLICABLE
         );
@@ -85,7 +85,7 @@ public class UserPricingStrategyExample {
      * 演示时效性功能
      */
     private static void demonstrateTimeEffectiveness() {
-        BigDecimal basePrice = new BigDecimal("1000.00");
+        Money basePrice = Money.of(new BigDecimal("1000.00"));
         UserContext userContext = new UserContext(
                 "user123", UserLevel.DIAMOND, Region.NORTH_CHINA, Channel.MOBILE_APP, "VIP001"
         );
@@ -95,7 +95,7 @@ public class UserPricingStrategyExample {
 
         System.out.println("当前时间策略测试:");
         LocalDateTime now = LocalDateTime.now();
-        BigDecimal currentPrice = UserPricingStrategySelector.calculateBestUserPrice(
+        Money currentPrice = UserPricingStrategySelector.calculateBestUserPrice(
                 basePrice, userContext, timeBasedStrategies, 
                 UserPricingStrategySelector.SelectionMode.BEST_PRICE, now
         );
@@ -104,7 +104,7 @@ public class UserPricingStrategyExample {
         System.out.println();
         System.out.println("未来时间策略测试:");
         LocalDateTime futureTime = now.plusDays(3); // 3天后
-        BigDecimal futurePrice = UserPricingStrategySelector.calculateBestUserPrice(
+        Money futurePrice = UserPricingStrategySelector.calculateBestUserPrice(
                 basePrice, userContext, timeBasedStrategies, 
                 UserPricingStrategySelector.SelectionMode.BEST_PRICE, futureTime
         );
@@ -113,7 +113,7 @@ public class UserPricingStrategyExample {
         System.out.println();
         System.out.println("过期时间策略测试:");
         LocalDateTime pastTime = now.minusDays(10); // 10天前
-        BigDecimal pastPrice = UserPricingStrategySelector.calculateBestUserPrice(
+        Money pastPrice = UserPricingStrategySelector.calculateBestUserPrice(
                 basePrice, userContext, timeBasedStrategies, 
                 UserPricingStrategySelector.SelectionMode.BEST_PRICE, pastTime
         );
@@ -133,7 +133,7 @@ public class UserPricingStrategyExample {
         diamondDiscount.setTargetLevel(UserLevel.DIAMOND);
         diamondDiscount.setDiscountType(DiscountType.PERCENTAGE);
         diamondDiscount.setDiscountValue(new BigDecimal("10")); // 10%折扣
-        diamondDiscount.setMinOrderAmount(BigDecimal.ZERO);
+        diamondDiscount.setMinOrderAmount(Money.ZERO);
         
         regularStrategy.setUserLevelDiscounts(Arrays.asList(diamondDiscount));
 
@@ -153,7 +153,7 @@ public class UserPricingStrategyExample {
         springDiamondDiscount.setTargetLevel(UserLevel.DIAMOND);
         springDiamondDiscount.setDiscountType(DiscountType.PERCENTAGE);
         springDiamondDiscount.setDiscountValue(new BigDecimal("15")); // 15%折扣
-        springDiamondDiscount.setMinOrderAmount(BigDecimal.ZERO);
+        springDiamondDiscount.setMinOrderAmount(Money.ZERO);
         
         springStrategy.setUserLevelDiscounts(Arrays.asList(springDiamondDiscount));
 
@@ -200,7 +200,7 @@ public class UserPricingStrategyExample {
         expiredDiscount.setTargetLevel(UserLevel.DIAMOND);
         expiredDiscount.setDiscountType(DiscountType.PERCENTAGE);
         expiredDiscount.setDiscountValue(new BigDecimal("25")); // 25%折扣
-        expiredDiscount.setMinOrderAmount(BigDecimal.ZERO);
+        expiredDiscount.setMinOrderAmount(Money.ZERO);
         expiredStrategy.setUserLevelDiscounts(Arrays.asList(expiredDiscount));
 
         // 策略2：当前有效的策略
@@ -218,7 +218,7 @@ public class UserPricingStrategyExample {
         currentDiscount.setTargetLevel(UserLevel.DIAMOND);
         currentDiscount.setDiscountType(DiscountType.PERCENTAGE);
         currentDiscount.setDiscountValue(new BigDecimal("15")); // 15%折扣
-        currentDiscount.setMinOrderAmount(BigDecimal.ZERO);
+        currentDiscount.setMinOrderAmount(Money.ZERO);
         currentStrategy.setUserLevelDiscounts(Arrays.asList(currentDiscount));
 
         // 策略3：未来才生效的策略
@@ -236,7 +236,7 @@ public class UserPricingStrategyExample {
         futureDiscount.setTargetLevel(UserLevel.DIAMOND);
         futureDiscount.setDiscountType(DiscountType.PERCENTAGE);
         futureDiscount.setDiscountValue(new BigDecimal("30")); // 30%折扣
-        futureDiscount.setMinOrderAmount(BigDecimal.ZERO);
+        futureDiscount.setMinOrderAmount(Money.ZERO);
         futureStrategy.setUserLevelDiscounts(Arrays.asList(futureDiscount));
 
         return Arrays.asList(expiredStrategy, currentStrategy, futureStrategy);
@@ -2,7 +2,6 @@ package com.yonhoo.ddd.domain.service;
 
 import com.yonhoo.ddd.domain.model.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
@@ -23,11 +22,23 @@ public class UserPricingStrategySelector {
         FIRST_APPLICABLE   // 选择第一个适用的策略
     }
 
+    /**
+     * 决策监听器，为 null 时选择过程不记录任何信息
+     */
+    private static volatile PricingDecisionListener decisionListener;
+
+    /**
+     * 注册决策监听器，传入 null 关闭决策记录
+     */
+    public static void setDecisionListener(PricingDecisionListener listener) {
+        decisionListener = listener;
+    }
+
     /**
      * 根据选择模式计算最终用户价格（当前时间）
      */
-    public static BigDecimal calculateBestUserPrice(
-            BigDecimal basePrice,
+    public static Money calculateBestUserPrice(
+            Money basePrice,
             UserContext userContext,
             List<UserPricingStrategy> strategies,
             SelectionMode mode) {
@@ -37,77 +48,145 @@ public class UserPricingStrategySelector {
     /**
      * 根据选择模式计算最终用户价格（指定时间）
      */
-    public static BigDecimal calculateBestUserPrice(
-            BigDecimal basePrice,
+    public static Money calculateBestUserPrice(
+            Money basePrice,
             UserContext userContext,
             List<UserPricingStrategy> strategies,
             SelectionMode mode,
             LocalDateTime checkTime) {
 
+        return selectUserPrice(basePrice, userContext,
+                filterApplicableStrategies(userContext, strategies, checkTime), mode, checkTime);
+    }
+
+    /**
+     * 过滤出适用且在有效期内的策略
+     * 结果只与用户和时间有关，批量定价时每个用户只需计算一次
+     */
+    public static List<UserPricingStrategy> filterApplicableStrategies(
+            UserContext userContext,
+            List<UserPricingStrategy> strategies,
+            LocalDateTime checkTime) {
+
         if (strategies == null || strategies.isEmpty()) {
-            return basePrice;
+            return List.of();
         }
 
-        // 过滤出适用且在有效期内的策略
-        List<UserPricingStrategy> applicableStrategies = strategies.stream()
+        return strategies.stream()
                 .filter(strategy -> strategy.isApplicableForUser(userContext, checkTime))
                 .toList();
+    }
+
+    /**
+     * 在已过滤的适用策略中按选择模式计算用户价格
+     */
+    public static Money selectUserPrice(
+            Money basePrice,
+            UserContext userContext,
+            List<UserPricingStrategy> applicableStrategies,
+            SelectionMode mode,
+            LocalDateTime checkTime) {
 
         if (applicableStrategies.isEmpty()) {
             return basePrice;
         }
 
+        PricingDecisionListener listener = decisionListener;
+        if (listener == null || !listener.shouldRecord()) {
+            return select(basePrice, userContext, applicableStrategies, mode, checkTime, null);
+        }
+
+        PricingDecision.Recorder recorder = new PricingDecision.Recorder(applicableStrategies.size());
+        Money userPrice = select(basePrice, userContext, applicableStrategies, mode, checkTime, recorder);
+        listener.onDecision(recorder.finish(mode, userContext, basePrice.getMinorUnits(), userPrice.getMinorUnits()));
+        return userPrice;
+    }
+
+    /**
+     * 使用预编译的决策表按选择模式计算用户价格
+     * 结果与 calculateBestUserPrice 一致，但不再逐个策略遍历折扣配置
+     */
+    public static Money selectUserPrice(
+            Money basePrice,
+            UserContext userContext,
+            UserStrategyDecisionTable decisionTable,
+            SelectionMode mode,
+            LocalDateTime checkTime) {
+
+        long price = basePrice.getMinorUnits();
+        PricingDecisionListener listener = decisionListener;
+        if (listener != null && !listener.shouldRecord()) {
+            listener = null;
+        }
+        PricingDecision.Recorder recorder = listener == null ? null : new PricingDecision.Recorder(0);
+
+        long userPrice = switch (mode) {
+            case BEST_PRICE -> decisionTable.selectBestPrice(price, userContext, checkTime, recorder);
+            case HIGHEST_PRIORITY -> decisionTable.selectHighestPriorityPrice(price, userContext, checkTime, recorder);
+            case FIRST_APPLICABLE -> decisionTable.selectFirstApplicablePrice(price, userContext, checkTime, recorder);
+        };
+
+        if (listener != null) {
+            listener.onDecision(recorder.finish(mode, userContext, price, userPrice));
+        }
+        return userPrice == price ? basePrice : Money.ofMinor(userPrice);
+    }
+
+    private static Money select(
+            Money basePrice,
+            UserContext userContext,
+            List<UserPricingStrategy> strategies,
+            SelectionMode mode,
+            LocalDateTime checkTime,
+            PricingDecision.Recorder recorder) {
+
         return switch (mode) {
-            case BEST_PRICE -> selectByBestPrice(basePrice, userContext, applicableStrategies, checkTime);
-            case HIGHEST_PRIORITY -> selectByHighestPriority(basePrice, userContext, applicableStrategies, checkTime);
-            case FIRST_APPLICABLE -> selectFirstApplicable(basePrice, userContext, applicableStrategies, checkTime);
+            case BEST_PRICE -> selectByBestPrice(basePrice, userContext, strategies, checkTime, recorder);
+            case HIGHEST_PRIORITY -> selectByHighestPriority(basePrice, userContext, strategies, checkTime, recorder);
+            case FIRST_APPLICABLE -> selectFirstApplicable(basePrice, userContext, strategies, checkTime, recorder);
         };
     }
 
     /**
      * 选择最优价格策略（价格最低）
      */
-    private static BigDecimal selectByBestPrice(
-            BigDecimal basePrice,
+    private static Money selectByBestPrice(
+            Money basePrice,
             UserContext userContext,
             List<UserPricingStrategy> strategies,
-            LocalDateTime checkTime) {
+            LocalDateTime checkTime,
+            PricingDecision.Recorder recorder) {
 
-        BigDecimal bestPrice = basePrice;
-        UserPricingStrategy bestStrategy = null;
+        Money bestPrice = basePrice;
 
         for (UserPricingStrategy strategy : strategies) {
-            BigDecimal strategyPrice = strategy.calculateUserDiscount(basePrice, userContext, checkTime);
+            Money strategyPrice = strategy.calculateUserDiscount(basePrice, userContext, checkTime);
+            record(recorder, strategy, strategyPrice);
             if (strategyPrice.compareTo(bestPrice) < 0) {
                 bestPrice = strategyPrice;
-                bestStrategy = strategy;
             }
         }
 
-        System.out.println("选择策略: " + (bestStrategy != null ? bestStrategy.getStrategyName() : "无")
-                + ", 最终价格: " + bestPrice
-                + (bestStrategy != null ? ", 剩余有效时间: " + bestStrategy.getRemainingValidHours() + "小时" : ""));
         return bestPrice;
     }
 
     /**
      * 选择最高优先级策略
      */
-    private static BigDecimal selectByHighestPriority(
-            BigDecimal basePrice,
+    private static Money selectByHighestPriority(
+            Money basePrice,
             UserContext userContext,
             List<UserPricingStrategy> strategies,
-            LocalDateTime checkTime) {
+            LocalDateTime checkTime,
+            PricingDecision.Recorder recorder) {
 
         Optional<UserPricingStrategy> highestPriorityStrategy = strategies.stream()
                 .max(Comparator.comparing((UserPricingStrategy s) -> s.getStrategyPriority().getLevel()));
 
         if (highestPriorityStrategy.isPresent()) {
             UserPricingStrategy strategy = highestPriorityStrategy.get();
-            BigDecimal finalPrice = strategy.calculateUserDiscount(basePrice, userContext, checkTime);
-            System.out.println("选择最高优先级策略: " + strategy.getStrategyName()
-                    + " (优先级: " + strategy.getStrategyPriority() + "), 最终价格: " + finalPrice
-                    + ", 剩余有效时间: " + strategy.getRemainingValidHours() + "小时");
+            Money finalPrice = strategy.calculateUserDiscount(basePrice, userContext, checkTime);
+            record(recorder, strategy, finalPrice);
             return finalPrice;
         }
 
@@ -117,29 +196,35 @@ public class UserPricingStrategySelector {
     /**
      * 选择第一个适用的策略
      */
-    private static BigDecimal selectFirstApplicable(
-            BigDecimal basePrice,
+    private static Money selectFirstApplicable(
+            Money basePrice,
             UserContext userContext,
             List<UserPricingStrategy> strategies,
-            LocalDateTime checkTime) {
+            LocalDateTime checkTime,
+            PricingDecision.Recorder recorder) {
 
         UserPricingStrategy firstStrategy = strategies.get(0);
-        BigDecimal finalPrice = firstStrategy.calculateUserDiscount(basePrice, userContext, checkTime);
-        System.out.println("选择第一个适用策略: " + firstStrategy.getStrategyName()
-                + ", 最终价格: " + finalPrice
-                + ", 剩余有效时间: " + firstStrategy.getRemainingValidHours() + "小时");
+        Money finalPrice = firstStrategy.calculateUserDiscount(basePrice, userContext, checkTime);
+        record(recorder, firstStrategy, finalPrice);
         return finalPrice;
     }
 
+    private static void record(PricingDecision.Recorder recorder, UserPricingStrategy strategy, Money price) {
+        if (recorder != null) {
+            recorder.accept(strategy, price.getMinorUnits());
+        }
+    }
+
     /**
      * 获取策略详细分析结果
+     * 与定价共用同一份决策记录：按最优价格模式选择一次，候选价格和选中策略都取自决策记录
      */
-    public static com.yonhoo.ddd.domain.model.StrategyAnalysisResult analyzeStrategies(
-            BigDecimal basePrice,
+    public static StrategyAnalysisResult analyzeStrategies(
+            Money basePrice,
             UserContext userContext,
             List<UserPricingStrategy> strategies) {
 
-        com.yonhoo.ddd.domain.model.StrategyAnalysisResult result = new com.yonhoo.ddd.domain.model.StrategyAnalysisResult();
+        StrategyAnalysisResult result = new StrategyAnalysisResult();
         result.setBasePrice(basePrice);
         result.setUserContext(userContext);
 
@@ -150,19 +235,24 @@ public class UserPricingStrategySelector {
             return result;
         }
 
-        // 分析所有适用策略
-        strategies.stream()
-                .filter(strategy -> strategy.isApplicableForUser(userContext))
-                .filter(UserPricingStrategy::isActive)
-                .forEach(strategy -> {
-                    BigDecimal strategyPrice = strategy.calculateUserDiscount(basePrice, userContext);
-                    result.addStrategyResult(strategy, strategyPrice);
-                });
-
-        // 选择最优价格
-        BigDecimal bestPrice = selectByBestPrice(basePrice, userContext, result.getApplicableStrategies(), LocalDateTime.now());
-        result.setFinalPrice(bestPrice);
+        LocalDateTime checkTime = LocalDateTime.now();
+        List<UserPricingStrategy> applicableStrategies = filterApplicableStrategies(userContext, strategies, checkTime);
 
+        PricingDecision.Recorder recorder = new PricingDecision.Recorder(applicableStrategies.size());
+        Money bestPrice = selectByBestPrice(basePrice, userContext, applicableStrategies, checkTime, recorder);
+        PricingDecision decision = recorder.finish(
+                SelectionMode.BEST_PRICE, userContext, basePrice.getMinorUnits(), bestPrice.getMinorUnits());
+
+        PricingDecisionListener listener = decisionListener;
+        if (listener != null && listener.shouldRecord()) {
+            listener.onDecision(decision);
+        }
+
+        for (int i = 0; i < decision.getCandidateCount(); i++) {
+            result.addStrategyResult(decision.getCandidate(i), decision.getCandidatePrice(i));
+        }
+        result.setFinalPrice(bestPrice);
+        result.setSelectedStrategy(decision.getSelectedStrategy());
         return result;
     }
-}
\ No newline at end of file
+}
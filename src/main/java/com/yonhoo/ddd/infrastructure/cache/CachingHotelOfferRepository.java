@@ -0,0 +1,283 @@
+package com.yonhoo.ddd.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.yonhoo.ddd.domain.model.HotelOffer;
+import com.yonhoo.ddd.domain.model.HotelOfferV2;
+import com.yonhoo.ddd.repository.HotelOfferRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * 产品仓储缓存装饰器
+ * 一级：进程内有界缓存（Caffeine，W-TinyLFU 准入 + 按条目数淘汰）
+ * 二级：可选的堆外序列化缓存，一级淘汰的条目降级到二级，二级命中后重新提升到一级
+ * 失效：保存或收到变更事件时直接移除两级缓存中的条目；变更版本记为水位线，只用于拒绝回源时拿到的旧版本（如读到延迟的副本），
+ * 水位线在 WATERMARK_RETENTION 后过期，数量也有上限，不随产品目录无限增长
+ */
+public class CachingHotelOfferRepository implements HotelOfferRepository {
+
+    private static final Duration WATERMARK_RETENTION = Duration.ofMinutes(10);
+    private static final long MAXIMUM_WATERMARKS = 100_000L;
+    private static final int GENERATION_STRIPES = 1024;
+    private static final Duration NEVER_EXPIRE = Duration.ofNanos(Long.MAX_VALUE);
+
+    private final HotelOfferRepository delegate;
+    private final VersionedTier<HotelOffer> offerTier;
+    private final VersionedTier<HotelOfferV2> offerV2Tier;
+
+    private final LongAdder memoryHitCount = new LongAdder();
+    private final LongAdder offHeapHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+
+    private volatile ObjLongConsumer<String> changeListener;
+
+    public CachingHotelOfferRepository(HotelOfferRepository delegate, long maximumSize) {
+        this(delegate, maximumSize, null, null);
+    }
+
+    /**
+     * @param offerOffHeapStore   HotelOffer 的堆外层，为 null 时不启用
+     * @param offerV2OffHeapStore HotelOfferV2 的堆外层，为 null 时不启用
+     */
+    public CachingHotelOfferRepository(HotelOfferRepository delegate,
+                                       long maximumSize,
+                                       OffHeapOfferStore<HotelOffer> offerOffHeapStore,
+                                       OffHeapOfferStore<HotelOfferV2> offerV2OffHeapStore) {
+        this.delegate = delegate;
+        this.offerTier = new VersionedTier<>(maximumSize, offerOffHeapStore, HotelOffer::getVersion);
+        this.offerV2Tier = new VersionedTier<>(maximumSize, offerV2OffHeapStore, HotelOfferV2::getVersion);
+    }
+
+    @Override
+    public HotelOffer queryHotelOfferByOfferNo(String offerNo) {
+        return offerTier.get(offerNo, delegate::queryHotelOfferByOfferNo);
+    }
+
+    @Override
+    public HotelOfferV2 queryHotelOfferV2ByOfferNo(String offerNo) {
+        return offerV2Tier.get(offerNo, delegate::queryHotelOfferV2ByOfferNo);
+    }
+
+    @Override
+    public void saveOffer(HotelOffer hotelOffer) {
+        delegate.saveOffer(hotelOffer);
+        offerTier.onChanged(hotelOffer.getOfferNo(), versionOf(hotelOffer.getVersion()));
+        notifyChanged(hotelOffer.getOfferNo(), versionOf(hotelOffer.getVersion()));
+    }
+
+    @Override
+    public void saveOfferV2(HotelOfferV2 hotelOffer) {
+        delegate.saveOfferV2(hotelOffer);
+        offerV2Tier.onChanged(hotelOffer.getOfferNo(), versionOf(hotelOffer.getVersion()));
+    }
+
+    /**
+     * 外部变更事件（其他实例保存、后台修改）入口
+     * 缓存条目直接失效，水位线保留期内的加载只接受不低于 version 的聚合
+     */
+    public void onOfferChanged(String offerNo, long version) {
+        offerTier.onChanged(offerNo, version);
+        offerV2Tier.onChanged(offerNo, version);
+        notifyChanged(offerNo, version);
+    }
+
+    /**
+     * HotelOffer 保存或收到变更事件、缓存失效后在调用线程回调 (offerNo, version)（如物化视图重新登记），为 null 时取消
+     */
+    public void setChangeListener(ObjLongConsumer<String> changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * 一级缓存中仍然有效的产品，用于写检查点；检查点预热的条目不算在内，否则会在 ttl 之外被一次次写回检查点
+     */
+    public List<HotelOffer> cachedOffers() {
+        return offerTier.cached();
+    }
+
+    public List<HotelOfferV2> cachedOffersV2() {
+        return offerV2Tier.cached();
+    }
+
+    /**
+     * 把检查点中恢复的产品放入一级缓存；版本低于变更水位线的直接丢弃，不计入命中统计。
+     * 检查点之后的变更可能没有收到，预热的条目只在 ttl 内有效，过期后回源，也不会降级到二级缓存
+     */
+    public void warmUp(Collection<HotelOffer> offers, Duration ttl) {
+        offers.forEach(offer -> offerTier.warmUp(offer.getOfferNo(), offer, ttl));
+    }
+
+    public void warmUpV2(Collection<HotelOfferV2> offers, Duration ttl) {
+        offers.forEach(offer -> offerV2Tier.warmUp(offer.getOfferNo(), offer, ttl));
+    }
+
+    public OfferCacheStats getStats() {
+        return new OfferCacheStats(
+                memoryHitCount.sum(),
+                offHeapHitCount.sum(),
+                missCount.sum(),
+                evictionCount.sum() + offerTier.offHeapEvictionCount() + offerV2Tier.offHeapEvictionCount(),
+                invalidationCount.sum());
+    }
+
+    private void notifyChanged(String offerNo, long version) {
+        ObjLongConsumer<String> listener = changeListener;
+        if (listener != null) {
+            listener.accept(offerNo, version);
+        }
+    }
+
+    private static long versionOf(Long version) {
+        return version == null ? 0L : version;
+    }
+
+    /**
+     * 单一聚合类型的两级缓存
+     * generations 按 offerNo 分段计数，每次变更递增所在分段，回源、二级缓存提升和降级期间所在分段发生过变更的结果不会留在缓存中，避免旧值覆盖新值；
+     * 分段数固定，同段其他产品的变更只会让这次加载结果不进缓存。
+     * 回源或二级缓存提升的条目不过期，只有预热的条目带 ttl；warmed 记录仍是预热值的条目
+     */
+    private final class VersionedTier<T> {
+
+        private final Cache<String, T> memory;
+        private final Policy.VarExpiration<String, T> expiration;
+        private final Set<String> warmed = ConcurrentHashMap.newKeySet();
+        private final OffHeapOfferStore<T> offHeap;
+        private final ToLongFunction<T> versionOf;
+        private final Cache<String, Long> minimumVersions = Caffeine.newBuilder()
+                .expireAfterWrite(WATERMARK_RETENTION)
+                .maximumSize(MAXIMUM_WATERMARKS)
+                .executor(Runnable::run)
+                .build();
+        private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+        private VersionedTier(long maximumSize, OffHeapOfferStore<T> offHeap, Function<T, Long> version) {
+            this.offHeap = offHeap;
+            this.versionOf = offer -> versionOf(version.apply(offer));
+            this.memory = Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfter(Expiry.<String, T>writing((offerNo, offer) -> NEVER_EXPIRE))
+                    .executor(Runnable::run)
+                    .<String, T>evictionListener((offerNo, offer, cause) -> {
+                        if (cause.wasEvicted()) {
+                            evictionCount.increment();
+                            boolean warm = offerNo != null && warmed.remove(offerNo);
+                            if (offHeap != null && cause == RemovalCause.SIZE && !warm && offerNo != null && offer != null) {
+                                demote(offerNo, offer);
+                            }
+                        }
+                    })
+                    .build();
+            this.expiration = memory.policy().expireVariably().orElseThrow();
+        }
+
+        private T get(String offerNo, Function<String, T> loader) {
+            T cached = memory.getIfPresent(offerNo);
+            if (cached != null && isCurrent(offerNo, cached)) {
+                memoryHitCount.increment();
+                return cached;
+            }
+
+            int stripe = stripe(offerNo);
+            if (offHeap != null) {
+                long generation = generations.get(stripe);
+                T restored = offHeap.get(offerNo);
+                if (restored != null && isCurrent(offerNo, restored)) {
+                    offHeapHitCount.increment();
+                    offHeap.invalidate(offerNo);
+                    warmed.remove(offerNo);
+                    memory.put(offerNo, restored);
+                    if (generations.get(stripe) != generation) {
+                        memory.invalidate(offerNo);
+                    }
+                    return restored;
+                }
+            }
+
+            missCount.increment();
+            long generation = generations.get(stripe);
+            T loaded = loader.apply(offerNo);
+            if (loaded != null && isCurrent(offerNo, loaded)) {
+                warmed.remove(offerNo);
+                memory.put(offerNo, loaded);
+                if (generations.get(stripe) != generation) {
+                    memory.invalidate(offerNo);
+                }
+            }
+            return loaded;
+        }
+
+        private void demote(String offerNo, T offer) {
+            int stripe = stripe(offerNo);
+            long generation = generations.get(stripe);
+            if (isCurrent(offerNo, offer)) {
+                offHeap.put(offerNo, offer);
+                if (generations.get(stripe) != generation) {
+                    offHeap.invalidate(offerNo);
+                }
+            }
+        }
+
+        private List<T> cached() {
+            List<T> offers = new ArrayList<>(memory.asMap().size());
+            memory.asMap().forEach((offerNo, offer) -> {
+                if (!warmed.contains(offerNo) && isCurrent(offerNo, offer)) {
+                    offers.add(offer);
+                }
+            });
+            return offers;
+        }
+
+        private void warmUp(String offerNo, T offer, Duration ttl) {
+            if (isCurrent(offerNo, offer) && expiration.putIfAbsent(offerNo, offer, ttl) == null) {
+                warmed.add(offerNo);
+            }
+        }
+
+        /**
+         * 版本号可能缺失（记为 0）或与缓存中相同，不能靠版本比较判断是否过期，条目总是直接移除
+         */
+        private void onChanged(String offerNo, long version) {
+            minimumVersions.asMap().merge(offerNo, version, Math::max);
+            generations.incrementAndGet(stripe(offerNo));
+
+            if (memory.asMap().remove(offerNo) != null) {
+                invalidationCount.increment();
+            }
+            warmed.remove(offerNo);
+            if (offHeap != null) {
+                offHeap.invalidate(offerNo);
+            }
+        }
+
+        private boolean isCurrent(String offerNo, T offer) {
+            Long minimumVersion = minimumVersions.getIfPresent(offerNo);
+            return minimumVersion == null || versionOf.applyAsLong(offer) >= minimumVersion;
+        }
+
+        private int stripe(String offerNo) {
+            int hash = offerNo.hashCode();
+            return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+        }
+
+        private long offHeapEvictionCount() {
+            return offHeap == null ? 0L : offHeap.getEvictionCount();
+        }
+    }
+}
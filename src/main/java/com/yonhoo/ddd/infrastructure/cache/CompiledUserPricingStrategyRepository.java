@@ -0,0 +1,68 @@
+package com.yonhoo.ddd.infrastructure.cache;
+
+import com.yonhoo.ddd.domain.model.UserContext;
+import com.yonhoo.ddd.domain.model.UserPricingStrategy;
+import com.yonhoo.ddd.domain.model.UserStrategyDecisionTable;
+import com.yonhoo.ddd.repository.UserPricingStrategyRepository;
+
+import java.util.List;
+
+/**
+ * 用户策略仓储决策表装饰器
+ * 激活策略集合只编译一次，所有用户共用同一张决策表；策略保存或删除后在下次查询时重新编译
+ */
+public class CompiledUserPricingStrategyRepository implements UserPricingStrategyRepository {
+
+    private final UserPricingStrategyRepository delegate;
+    private volatile UserStrategyDecisionTable decisionTable;
+
+    public CompiledUserPricingStrategyRepository(UserPricingStrategyRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<UserPricingStrategy> queryApplicableStrategies(UserContext userContext) {
+        return delegate.queryApplicableStrategies(userContext);
+    }
+
+    @Override
+    public UserPricingStrategy queryStrategyById(String strategyId) {
+        return delegate.queryStrategyById(strategyId);
+    }
+
+    @Override
+    public List<UserPricingStrategy> queryActiveStrategies() {
+        return delegate.queryActiveStrategies();
+    }
+
+    @Override
+    public UserStrategyDecisionTable queryDecisionTable() {
+        UserStrategyDecisionTable table = decisionTable;
+        if (table == null) {
+            synchronized (this) {
+                table = decisionTable;
+                if (table == null) {
+                    table = delegate.queryDecisionTable();
+                    decisionTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    @Override
+    public void saveStrategy(UserPricingStrategy strategy) {
+        delegate.saveStrategy(strategy);
+        invalidate();
+    }
+
+    @Override
+    public void deleteStrategy(String strategyId) {
+        delegate.deleteStrategy(strategyId);
+        invalidate();
+    }
+
+    private synchronized void invalidate() {
+        decisionTable = null;
+    }
+}
@@ -0,0 +1,146 @@
+package com.yonhoo.ddd.infrastructure.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 扁平二进制布局的写入器
+ * 子对象先写、父对象后写，写入时返回对象在缓冲区中的绝对偏移；最后写根表并回填文件头。
+ * 文件头：[int magic][short formatVersion][short 0][int rootOffset]，偏移 0 因此不会是合法对象，用来表示字段缺失。
+ * 表：[int fieldCount][int slot × fieldCount][内联值...]，slot 为字段值的绝对偏移，0 表示缺失；
+ * 字符串：[int 字节数][UTF-8]；向量：[int 元素个数][int 元素偏移...]
+ */
+final class FlatBufferWriter {
+
+    static final int HEADER_BYTES = 12;
+
+    private static final int ABSENT = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+
+    private ByteBuffer buffer;
+
+    FlatBufferWriter(int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(Math.max(initialCapacity, 64));
+        buffer.position(HEADER_BYTES);
+    }
+
+    /**
+     * 写入字符串，null 返回 0
+     */
+    int string(String value) {
+        if (value == null) {
+            return 0;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureRemaining(Integer.BYTES + bytes.length);
+        int offset = buffer.position();
+        buffer.putInt(bytes.length).put(bytes);
+        return offset;
+    }
+
+    /**
+     * 写入对象偏移向量（元素为表或字符串），null 返回 0
+     */
+    int vector(int[] offsets) {
+        if (offsets == null) {
+            return 0;
+        }
+        ensureRemaining(Integer.BYTES * (offsets.length + 1));
+        int offset = buffer.position();
+        buffer.putInt(offsets.length);
+        for (int element : offsets) {
+            buffer.putInt(element);
+        }
+        return offset;
+    }
+
+    Table startTable(int fieldCount) {
+        return new Table(fieldCount);
+    }
+
+    /**
+     * 回填文件头并返回 [0, 已写字节数) 的只读视图
+     */
+    ByteBuffer finish(int magic, short formatVersion, int rootOffset) {
+        buffer.putInt(0, magic);
+        buffer.putShort(4, formatVersion);
+        buffer.putShort(6, (short) 0);
+        buffer.putInt(8, rootOffset);
+        return buffer.flip().asReadOnlyBuffer();
+    }
+
+    private void ensureRemaining(int bytes) {
+        if (buffer.remaining() < bytes) {
+            int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+            grown.put(buffer.flip());
+            buffer = grown;
+        }
+    }
+
+    /**
+     * 一张表的字段值，end() 时一次写出
+     */
+    final class Table {
+        private final byte[] kinds;
+        private final long[] values;
+
+        private Table(int fieldCount) {
+            this.kinds = new byte[fieldCount];
+            this.values = new long[fieldCount];
+        }
+
+        Table putInt(int field, int value) {
+            kinds[field] = INT;
+            values[field] = value;
+            return this;
+        }
+
+        Table putInt(int field, Integer value) {
+            return value == null ? this : putInt(field, value.intValue());
+        }
+
+        Table putLong(int field, long value) {
+            kinds[field] = LONG;
+            values[field] = value;
+            return this;
+        }
+
+        Table putLong(int field, Long value) {
+            return value == null ? this : putLong(field, value.longValue());
+        }
+
+        /**
+         * 引用已写入的字符串、表或向量，offset 为 0 时字段缺失
+         */
+        Table putOffset(int field, int offset) {
+            return offset == 0 ? this : putInt(field, offset);
+        }
+
+        int end() {
+            int fieldCount = kinds.length;
+            int valueBytes = 0;
+            for (byte kind : kinds) {
+                valueBytes += kind == LONG ? Long.BYTES : kind == INT ? Integer.BYTES : 0;
+            }
+            ensureRemaining(Integer.BYTES * (fieldCount + 1) + valueBytes);
+
+            int offset = buffer.position();
+            int valueOffset = offset + Integer.BYTES * (fieldCount + 1);
+            buffer.putInt(fieldCount);
+            for (byte kind : kinds) {
+                buffer.putInt(kind == ABSENT ? 0 : valueOffset);
+                valueOffset += kind == LONG ? Long.BYTES : kind == INT ? Integer.BYTES : 0;
+            }
+            for (int field = 0; field < fieldCount; field++) {
+                if (kinds[field] == LONG) {
+                    buffer.putLong(values[field]);
+                } else if (kinds[field] == INT) {
+                    buffer.putInt((int) values[field]);
+                }
+            }
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.yonhoo.ddd.infrastructure.cache;
+
+import com.yonhoo.ddd.domain.model.AttractionProduct;
+import com.yonhoo.ddd.domain.model.DateRange;
+import com.yonhoo.ddd.domain.model.DiscountDefinition;
+import com.yonhoo.ddd.domain.model.HotelOffer;
+import com.yonhoo.ddd.domain.model.HotelOfferV2;
+import com.yonhoo.ddd.domain.model.HotelProduct;
+import com.yonhoo.ddd.domain.model.HybridOffer;
+import com.yonhoo.ddd.domain.model.PriceRule;
+import com.yonhoo.ddd.domain.model.ProductGroups;
+import com.yonhoo.ddd.domain.model.QuantityRange;
+import com.yonhoo.ddd.domain.model.RoomInfo;
+import com.yonhoo.ddd.domain.model.TicketItem;
+import com.yonhoo.ddd.domain.model.Validity;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 产品聚合的扁平二进制编解码器
+ * HotelOffer / HotelOfferV2 / HybridOffer 共用一种布局（V2 多一个 customerChoice 字段，HybridOffer 的酒店产品写在同一个
+ * products 字段、另加门票产品 attraction 字段），写出后可以用 FlatOfferView 原地按字段读取，
+ * 不必还原整个对象图。只追加字段不改 FORMAT_VERSION；删改字段含义时必须升级版本号，旧版本数据解码时报错。
+ * 价格规则只保存数据字段，覆盖了定价方法的 PriceRule 子类无法还原，编码时直接拒绝
+ */
+public final class FlatOfferCodecs {
+
+    static final int MAGIC = 0x464F4652;
+    static final short FORMAT_VERSION = 1;
+
+    static final int OFFER_NO = 0;
+    static final int VERSION = 1;
+    static final int PRODUCTS = 2;
+    static final int PRICE_RULES = 3;
+    static final int VALIDITY = 4;
+    static final int CHANNELS = 5;
+    static final int USER_LEVELS = 6;
+    static final int REGIONS = 7;
+    static final int CUSTOMER_CHOICE = 8;
+    static final int ATTRACTION = 9;
+    private static final int OFFER_FIELDS = 10;
+
+    static final int ADVANCE_BOOKING_DAY = 0;
+    static final int MIN_NIGHT = 1;
+    static final int MAX_NIGHT = 2;
+    static final int ROOMS = 3;
+    private static final int PRODUCT_FIELDS = 4;
+
+    static final int ROOM_NO = 0;
+    static final int HOTEL_NAME = 1;
+    static final int ROOM_TYPE = 2;
+    private static final int ROOM_FIELDS = 3;
+
+    static final int RULE_ID = 0;
+    static final int RULE_NAME = 1;
+    static final int DEFAULT_PRICE_FLAG = 2;
+    static final int CREATED_SECOND = 3;
+    static final int CREATED_NANO = 4;
+    static final int DISCOUNTS = 5;
+    static final int RULE_VERSION = 6;
+    private static final int RULE_FIELDS = 7;
+
+    static final int DISCOUNT_TYPE = 0;
+    static final int DISCOUNT_VALUE_BITS = 1;
+    private static final int DISCOUNT_FIELDS = 2;
+
+    static final int SALES_START = 0;
+    static final int SALES_END = 1;
+    static final int VISITING_START = 2;
+    static final int VISITING_END = 3;
+    static final int PUBLISH_SECOND = 4;
+    static final int PUBLISH_NANO = 5;
+    static final int UNPUBLISH_SECOND = 6;
+    static final int UNPUBLISH_NANO = 7;
+    static final int ADVANCE_BOOKING_DAYS = 8;
+    static final int BLACK_OUTS = 9;
+    private static final int VALIDITY_FIELDS = 10;
+
+    static final int RANGE_START = 0;
+    static final int RANGE_END = 1;
+    private static final int RANGE_FIELDS = 2;
+
+    static final int QUANTITY_RANGE = 0;
+    static final int TICKETS = 1;
+    private static final int ATTRACTION_FIELDS = 2;
+
+    static final int QUANTITY_MIN = 0;
+    static final int QUANTITY_MAX = 1;
+    private static final int QUANTITY_FIELDS = 2;
+
+    static final int PRODUCT_NUMBER = 0;
+    static final int TICKET_CODE = 1;
+    static final int THEME_PARKS = 2;
+    static final int TICKET_NAME = 3;
+    static final int TICKET_DESCRIPTION = 4;
+    static final int UNIT_PRICE = 5;
+    private static final int TICKET_FIELDS = 6;
+
+    private static final int INITIAL_CAPACITY = 512;
+
+    private FlatOfferCodecs() {
+    }
+
+    public static OfferCodec<HotelOffer> hotelOffer() {
+        return new OfferCodec<>() {
+            @Override
+            public ByteBuffer encode(HotelOffer offer) {
+                FlatBufferWriter writer = new FlatBufferWriter(INITIAL_CAPACITY);
+                int offerNo = writer.string(offer.getOfferNo());
+                int products = writeProduct(writer, offer.getProducts());
+                int priceRules = writePriceRules(writer, offer.getPriceRuleList());
+                int validity = writeValidity(writer, offer.getValidity());
+                int channels = writeNames(writer, offer.getChannels());
+                int userLevels = writeNames(writer, offer.getSupportedUserLevels());
+                int regions = writeNames(writer, offer.getSupportedRegions());
+                int root = writer.startTable(OFFER_FIELDS)
+                        .putOffset(OFFER_NO, offerNo)
+                        .putLong(VERSION, offer.getVersion())
+                        .putOffset(PRODUCTS, products)
+                        .putOffset(PRICE_RULES, priceRules)
+                        .putOffset(VALIDITY, validity)
+                        .putOffset(CHANNELS, channels)
+                        .putOffset(USER_LEVELS, userLevels)
+                        .putOffset(REGIONS, regions)
+                        .end();
+                return writer.finish(MAGIC, FORMAT_VERSION, root);
+            }
+
+            @Override
+            public HotelOffer decode(ByteBuffer buffer) {
+                return FlatOfferView.wrap(buffer).toHotelOffer();
+            }
+        };
+    }
+
+    public static OfferCodec<HotelOfferV2> hotelOfferV2() {
+        return new OfferCodec<>() {
+            @Override
+            public ByteBuffer encode(HotelOfferV2 offer) {
+                FlatBufferWriter writer = new FlatBufferWriter(INITIAL_CAPACITY);
+                int offerNo = writer.string(offer.getOfferNo());
+                int products = writeProduct(writer, offer.getProducts());
+                int priceRules = writePriceRules(writer, offer.getPriceRuleList());
+                int validity = writeValidity(writer, offer.getValidity());
+                int customerChoice = writer.string(offer.getCustomerChoice() == null ? null : offer.getCustomerChoice().name());
+                int root = writer.startTable(OFFER_FIELDS)
+                        .putOffset(OFFER_NO, offerNo)
+                        .putLong(VERSION, offer.getVersion())
+                        .putOffset(PRODUCTS, products)
+                        .putOffset(PRICE_RULES, priceRules)
+                        .putOffset(VALIDITY, validity)
+                        .putOffset(CUSTOMER_CHOICE, customerChoice)
+                        .end();
+                return writer.finish(MAGIC, FORMAT_VERSION, root);
+            }
+
+            @Override
+            public HotelOfferV2 decode(ByteBuffer buffer) {
+                return FlatOfferView.wrap(buffer).toHotelOfferV2();
+            }
+        };
+    }
+
+    /**
+     * productGroups 为 null 时酒店和门票产品都不写出，解码后也为 null
+     */
+    public static OfferCodec<HybridOffer> hybridOffer() {
+        return new OfferCodec<>() {
+            @Override
+            public ByteBuffer encode(HybridOffer offer) {
+                ProductGroups productGroups = offer.getProductGroups();
+                FlatBufferWriter writer = new FlatBufferWriter(INITIAL_CAPACITY);
+                int offerNo = writer.string(offer.getOfferNo());
+                int products = productGroups == null ? 0 : writeProduct(writer, productGroups.getHotelProduct());
+                int attraction = productGroups == null ? 0 : writeAttraction(writer, productGroups.getAttractionProduct());
+                int priceRules = writePriceRules(writer, offer.getPriceRuleList());
+                int validity = writeValidity(writer, offer.getValidity());
+                int customerChoice = writer.string(offer.getCustomerChoice() == null ? null : offer.getCustomerChoice().name());
+                int root = writer.startTable(OFFER_FIELDS)
+                        .putOffset(OFFER_NO, offerNo)
+                        .putOffset(PRODUCTS, products)
+                        .putOffset(ATTRACTION, attraction)
+                        .putOffset(PRICE_RULES, priceRules)
+                        .putOffset(VALIDITY, validity)
+                        .putOffset(CUSTOMER_CHOICE, customerChoice)
+                        .end();
+                return writer.finish(MAGIC, FORMAT_VERSION, root);
+            }
+
+            @Override
+            public HybridOffer decode(ByteBuffer buffer) {
+                return FlatOfferView.wrap(buffer).toHybridOffer();
+            }
+        };
+    }
+
+    private static int writeProduct(FlatBufferWriter writer, HotelProduct product) {
+        if (product == null) {
+            return 0;
+        }
+        int[] rooms = null;
+        if (product.getHotelProducts() != null) {
+            rooms = new int[product.getHotelProducts().size()];
+            for (int i = 0; i < rooms.length; i++) {
+                RoomInfo room = product.getHotelProducts().get(i);
+                int roomNo = writer.string(room.getRoomNo());
+                int hotelName = writer.string(room.getHotelName());
+                int roomType = writer.string(room.getRoomType());
+                rooms[i] = writer.startTable(ROOM_FIELDS)
+                        .putOffset(ROOM_NO, roomNo)
+                        .putOffset(HOTEL_NAME, hotelName)
+                        .putOffset(ROOM_TYPE, roomType)
+                        .end();
+            }
+        }
+        int roomVector = writer.vector(rooms);
+
+        FlatBufferWriter.Table table = writer.startTable(PRODUCT_FIELDS)
+                .putInt(ADVANCE_BOOKING_DAY, product.getAdvanceBookingDay())
+                .putOffset(ROOMS, roomVector);
+        if (product.getNumberOfNights() != null) {
+            table.putInt(MIN_NIGHT, product.getNumberOfNights().getMinNight())
+                    .putInt(MAX_NIGHT, product.getNumberOfNights().getMaxNight());
+        }
+        return table.end();
+    }
+
+    private static int writeAttraction(FlatBufferWriter writer, AttractionProduct attraction) {
+        if (attraction == null) {
+            return 0;
+        }
+        int quantityRange = 0;
+        if (attraction.getValidQuantityRange() != null) {
+            quantityRange = writer.startTable(QUANTITY_FIELDS)
+                    .putInt(QUANTITY_MIN, attraction.getValidQuantityRange().getMin())
+                    .putInt(QUANTITY_MAX, attraction.getValidQuantityRange().getMax())
+                    .end();
+        }
+        int[] tickets = null;
+        if (attraction.getProductItemList() != null) {
+            tickets = new int[attraction.getProductItemList().size()];
+            for (int i = 0; i < tickets.length; i++) {
+                TicketItem ticket = attraction.getProductItemList().get(i);
+                int productNumber = writer.string(ticket.getProductNumber());
+                int ticketCode = writer.string(ticket.getTicketCode());
+                int themeParks = writeStrings(writer, ticket.getThemeParks());
+                int name = writer.string(ticket.getName());
+                int description = writer.string(ticket.getDescription());
+                // BigDecimal.toString 保留 scale，解码后 equals 原值
+                int unitPrice = writer.string(ticket.getUnitPrice() == null ? null : ticket.getUnitPrice().toString());
+                tickets[i] = writer.startTable(TICKET_FIELDS)
+                        .putOffset(PRODUCT_NUMBER, productNumber)
+                        .putOffset(TICKET_CODE, ticketCode)
+                        .putOffset(THEME_PARKS, themeParks)
+                        .putOffset(TICKET_NAME, name)
+                        .putOffset(TICKET_DESCRIPTION, description)
+                        .putOffset(UNIT_PRICE, unitPrice)
+                        .end();
+            }
+        }
+        int ticketVector = writer.vector(tickets);
+        return writer.startTable(ATTRACTION_FIELDS)
+                .putOffset(QUANTITY_RANGE, quantityRange)
+                .putOffset(TICKETS, ticketVector)
+                .end();
+    }
+
+    private static int writeStrings(FlatBufferWriter writer, Collection<String> values) {
+        if (values == null) {
+            return 0;
+        }
+        int[] strings = new int[values.size()];
+        int i = 0;
+        for (String value : values) {
+            strings[i++] = writer.string(value);
+        }
+        return writer.vector(strings);
+    }
+
+    private static int writePriceRules(FlatBufferWriter writer, List<PriceRule> priceRules) {
+        if (priceRules == null) {
+            return 0;
+        }
+        int[] rules = new int[priceRules.size()];
+        for (int i = 0; i < rules.length; i++) {
+            PriceRule priceRule = priceRules.get(i);
+            if (priceRule.getClass() != PriceRule.class) {
+                throw new RuntimeException("price rule is not serializable: " + priceRule.getClass().getName());
+            }
+            int ruleName = writer.string(priceRule.getRuleName());
+            int discounts = writeDiscounts(writer, priceRule.getProductPriceDefinitions());
+            FlatBufferWriter.Table table = writer.startTable(RULE_FIELDS)
+                    .putLong(RULE_ID, priceRule.getPriceRuleId())
+                    .putOffset(RULE_NAME, ruleName)
+                    .putOffset(DISCOUNTS, discounts)
+                    .putLong(RULE_VERSION, priceRule.getVersion());
+            if (priceRule.getDefaultPriceFlag() != null) {
+                table.putInt(DEFAULT_PRICE_FLAG, priceRule.getDefaultPriceFlag() ? 1 : 0);
+            }
+            putDateTime(table, CREATED_SECOND, CREATED_NANO, priceRule.getCreatedTime());
+            rules[i] = table.end();
+        }
+        return writer.vector(rules);
+    }
+
+    private static int writeDiscounts(FlatBufferWriter writer, List<DiscountDefinition> definitions) {
+        if (definitions == null) {
+            return 0;
+        }
+        int[] discounts = new int[definitions.size()];
+        for (int i = 0; i < discounts.length; i++) {
+            DiscountDefinition definition = definitions.get(i);
+            int type = writer.string(definition.getDiscountType() == null ? null : definition.getDiscountType().name());
+            FlatBufferWriter.Table table = writer.startTable(DISCOUNT_FIELDS).putOffset(DISCOUNT_TYPE, type);
+            if (definition.getValue() != null) {
+                table.putLong(DISCOUNT_VALUE_BITS, Double.doubleToLongBits(definition.getValue()));
+            }
+            discounts[i] = table.end();
+        }
+        return writer.vector(discounts);
+    }
+
+    private static int writeValidity(FlatBufferWriter writer, Validity validity) {
+        if (validity == null) {
+            return 0;
+        }
+        int[] blackOuts = null;
+        if (validity.getBlackOutDateRanges() != null) {
+            blackOuts = new int[validity.getBlackOutDateRanges().size()];
+            for (int i = 0; i < blackOuts.length; i++) {
+                DateRange range = validity.getBlackOutDateRanges().get(i);
+                blackOuts[i] = writer.startTable(RANGE_FIELDS)
+                        .putLong(RANGE_START, epochDay(range.getStartDate()))
+                        .putLong(RANGE_END, epochDay(range.getEndDate()))
+                        .end();
+            }
+        }
+        int blackOutVector = writer.vector(blackOuts);
+
+        FlatBufferWriter.Table table = writer.startTable(VALIDITY_FIELDS)
+                .putLong(SALES_START, epochDay(validity.getSalesStartDate()))
+                .putLong(SALES_END, epochDay(validity.getSalesEndDate()))
+                .putLong(VISITING_START, epochDay(validity.getVisitingStartDate()))
+                .putLong(VISITING_END, epochDay(validity.getVisitingEndDate()))
+                .putInt(ADVANCE_BOOKING_DAYS, validity.getAdvanceBookingDays())
+                .putOffset(BLACK_OUTS, blackOutVector);
+        putDateTime(table, PUBLISH_SECOND, PUBLISH_NANO, validity.getPublishTime());
+        putDateTime(table, UNPUBLISH_SECOND, UNPUBLISH_NANO, validity.getUnpublishTime());
+        return table.end();
+    }
+
+    /**
+     * 枚举按名称保存，调整枚举顺序不影响已写出的数据
+     */
+    private static int writeNames(FlatBufferWriter writer, List<? extends Enum<?>> values) {
+        if (values == null) {
+            return 0;
+        }
+        int[] names = new int[values.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = writer.string(values.get(i).name());
+        }
+        return writer.vector(names);
+    }
+
+    private static void putDateTime(FlatBufferWriter.Table table, int secondField, int nanoField, LocalDateTime dateTime) {
+        if (dateTime != null) {
+            table.putLong(secondField, dateTime.toEpochSecond(ZoneOffset.UTC))
+                    .putInt(nanoField, dateTime.getNano());
+        }
+    }
+
+    private static Long epochDay(LocalDate day) {
+        return day == null ? null : day.toEpochDay();
+    }
+}
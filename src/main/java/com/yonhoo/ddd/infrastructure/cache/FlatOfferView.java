@@ -0,0 +1,285 @@
+package com.yonhoo.ddd.infrastructure.cache;
+
+import com.yonhoo.ddd.domain.model.AttractionProduct;
+import com.yonhoo.ddd.domain.model.Channel;
+import com.yonhoo.ddd.domain.model.CustomerChoice;
+import com.yonhoo.ddd.domain.model.DateRange;
+import com.yonhoo.ddd.domain.model.DiscountDefinition;
+import com.yonhoo.ddd.domain.model.DiscountType;
+import com.yonhoo.ddd.domain.model.HotelOffer;
+import com.yonhoo.ddd.domain.model.HotelOfferV2;
+import com.yonhoo.ddd.domain.model.HotelProduct;
+import com.yonhoo.ddd.domain.model.HybridOffer;
+import com.yonhoo.ddd.domain.model.NumberOfNights;
+import com.yonhoo.ddd.domain.model.PriceRule;
+import com.yonhoo.ddd.domain.model.ProductGroups;
+import com.yonhoo.ddd.domain.model.QuantityRange;
+import com.yonhoo.ddd.domain.model.Region;
+import com.yonhoo.ddd.domain.model.RoomInfo;
+import com.yonhoo.ddd.domain.model.TicketItem;
+import com.yonhoo.ddd.domain.model.UserLevel;
+import com.yonhoo.ddd.domain.model.Validity;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.yonhoo.ddd.infrastructure.cache.FlatOfferCodecs.*;
+
+/**
+ * FlatOfferCodecs 编码结果的原地只读视图
+ * 每个 getter 直接从 buffer 读取对应字段，不还原对象图；需要完整聚合时再调用 toHotelOffer / toHotelOfferV2 / toHybridOffer
+ */
+public final class FlatOfferView {
+
+    private final FlatTable offer;
+
+    private FlatOfferView(FlatTable offer) {
+        this.offer = offer;
+    }
+
+    /**
+     * buffer 从当前 position 开始为一份完整编码；不修改 buffer 的 position
+     */
+    public static FlatOfferView wrap(ByteBuffer buffer) {
+        return new FlatOfferView(FlatTable.root(buffer, MAGIC, FORMAT_VERSION));
+    }
+
+    public String getOfferNo() {
+        return offer.getString(OFFER_NO);
+    }
+
+    public Long getVersion() {
+        return offer.getLongOrNull(VERSION);
+    }
+
+    public CustomerChoice getCustomerChoice() {
+        String customerChoice = offer.getString(CUSTOMER_CHOICE);
+        return customerChoice == null ? null : CustomerChoice.valueOf(customerChoice);
+    }
+
+    public List<String> getRoomNoList() {
+        FlatTable product = offer.getTable(PRODUCTS);
+        if (product == null) {
+            return null;
+        }
+        int roomCount = product.getVectorSize(ROOMS);
+        if (roomCount < 0) {
+            return null;
+        }
+        List<String> roomNos = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            roomNos.add(product.getTableAt(ROOMS, i).getString(ROOM_NO));
+        }
+        return roomNos;
+    }
+
+    public int getPriceRuleCount() {
+        return Math.max(offer.getVectorSize(PRICE_RULES), 0);
+    }
+
+    /**
+     * HybridOffer 门票产品的产品号，没有门票产品时返回 null
+     */
+    public List<String> getTicketProductNumberList() {
+        FlatTable attraction = offer.getTable(ATTRACTION);
+        if (attraction == null) {
+            return null;
+        }
+        int ticketCount = attraction.getVectorSize(TICKETS);
+        if (ticketCount < 0) {
+            return null;
+        }
+        List<String> productNumbers = new ArrayList<>(ticketCount);
+        for (int i = 0; i < ticketCount; i++) {
+            productNumbers.add(attraction.getTableAt(TICKETS, i).getString(PRODUCT_NUMBER));
+        }
+        return productNumbers;
+    }
+
+    public HotelOffer toHotelOffer() {
+        HotelOffer hotelOffer = new HotelOffer();
+        hotelOffer.setOfferNo(getOfferNo());
+        hotelOffer.setVersion(getVersion());
+        hotelOffer.setProducts(readProduct(offer.getTable(PRODUCTS)));
+        hotelOffer.setPriceRuleList(readPriceRules());
+        hotelOffer.setValidity(readValidity(offer.getTable(VALIDITY)));
+        hotelOffer.setChannels(readNames(offer, CHANNELS, Channel::valueOf));
+        hotelOffer.setSupportedUserLevels(readNames(offer, USER_LEVELS, UserLevel::valueOf));
+        hotelOffer.setSupportedRegions(readNames(offer, REGIONS, Region::valueOf));
+        return hotelOffer;
+    }
+
+    public HotelOfferV2 toHotelOfferV2() {
+        HotelOfferV2 hotelOffer = new HotelOfferV2();
+        hotelOffer.setOfferNo(getOfferNo());
+        hotelOffer.setVersion(getVersion());
+        hotelOffer.setProducts(readProduct(offer.getTable(PRODUCTS)));
+        hotelOffer.setPriceRuleList(readPriceRules());
+        hotelOffer.setValidity(readValidity(offer.getTable(VALIDITY)));
+        hotelOffer.setCustomerChoice(getCustomerChoice());
+        return hotelOffer;
+    }
+
+    /**
+     * 酒店和门票产品都缺失时 productGroups 为 null
+     */
+    public HybridOffer toHybridOffer() {
+        HotelProduct hotelProduct = readProduct(offer.getTable(PRODUCTS));
+        AttractionProduct attractionProduct = readAttraction(offer.getTable(ATTRACTION));
+        ProductGroups productGroups = hotelProduct == null && attractionProduct == null
+                ? null
+                : new ProductGroups(hotelProduct, attractionProduct);
+        return new HybridOffer(productGroups, getOfferNo(), readPriceRules(), readValidity(offer.getTable(VALIDITY)),
+                getCustomerChoice());
+    }
+
+    private static HotelProduct readProduct(FlatTable table) {
+        if (table == null) {
+            return null;
+        }
+        HotelProduct product = new HotelProduct();
+        product.setAdvanceBookingDay(table.getIntOrNull(ADVANCE_BOOKING_DAY));
+        if (table.has(MIN_NIGHT)) {
+            NumberOfNights numberOfNights = new NumberOfNights();
+            numberOfNights.setMinNight(table.getInt(MIN_NIGHT, 0));
+            numberOfNights.setMaxNight(table.getInt(MAX_NIGHT, 0));
+            product.setNumberOfNights(numberOfNights);
+        }
+        int roomCount = table.getVectorSize(ROOMS);
+        if (roomCount >= 0) {
+            List<RoomInfo> rooms = new ArrayList<>(roomCount);
+            for (int i = 0; i < roomCount; i++) {
+                FlatTable roomTable = table.getTableAt(ROOMS, i);
+                RoomInfo room = new RoomInfo();
+                room.setRoomNo(roomTable.getString(ROOM_NO));
+                room.setHotelName(roomTable.getString(HOTEL_NAME));
+                room.setRoomType(roomTable.getString(ROOM_TYPE));
+                rooms.add(room);
+            }
+            product.setHotelProducts(rooms);
+        }
+        return product;
+    }
+
+    private static AttractionProduct readAttraction(FlatTable table) {
+        if (table == null) {
+            return null;
+        }
+        AttractionProduct attraction = new AttractionProduct();
+        FlatTable quantityRange = table.getTable(QUANTITY_RANGE);
+        if (quantityRange != null) {
+            QuantityRange range = new QuantityRange(0, 0);
+            range.setMin(quantityRange.getIntOrNull(QUANTITY_MIN));
+            range.setMax(quantityRange.getIntOrNull(QUANTITY_MAX));
+            attraction.setValidQuantityRange(range);
+        }
+        int ticketCount = table.getVectorSize(TICKETS);
+        if (ticketCount >= 0) {
+            List<TicketItem> tickets = new ArrayList<>(ticketCount);
+            for (int i = 0; i < ticketCount; i++) {
+                FlatTable ticketTable = table.getTableAt(TICKETS, i);
+                TicketItem ticket = new TicketItem();
+                ticket.setProductNumber(ticketTable.getString(PRODUCT_NUMBER));
+                ticket.setTicketCode(ticketTable.getString(TICKET_CODE));
+                ticket.setThemeParks(readNames(ticketTable, THEME_PARKS, Function.identity()));
+                ticket.setName(ticketTable.getString(TICKET_NAME));
+                ticket.setDescription(ticketTable.getString(TICKET_DESCRIPTION));
+                String unitPrice = ticketTable.getString(UNIT_PRICE);
+                ticket.setUnitPrice(unitPrice == null ? null : new BigDecimal(unitPrice));
+                tickets.add(ticket);
+            }
+            attraction.setProductItemList(tickets);
+        }
+        return attraction;
+    }
+
+    private List<PriceRule> readPriceRules() {
+        int ruleCount = offer.getVectorSize(PRICE_RULES);
+        if (ruleCount < 0) {
+            return null;
+        }
+        List<PriceRule> priceRules = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            FlatTable table = offer.getTableAt(PRICE_RULES, i);
+            PriceRule priceRule = new PriceRule();
+            priceRule.setPriceRuleId(table.getLongOrNull(RULE_ID));
+            priceRule.setRuleName(table.getString(RULE_NAME));
+            priceRule.setDefaultPriceFlag(table.has(DEFAULT_PRICE_FLAG) ? table.getInt(DEFAULT_PRICE_FLAG, 0) != 0 : null);
+            priceRule.setCreatedTime(readDateTime(table, CREATED_SECOND, CREATED_NANO));
+            priceRule.setProductPriceDefinitions(readDiscounts(table));
+            priceRule.setVersion(table.getLongOrNull(RULE_VERSION));
+            priceRules.add(priceRule);
+        }
+        return priceRules;
+    }
+
+    private static List<DiscountDefinition> readDiscounts(FlatTable rule) {
+        int discountCount = rule.getVectorSize(DISCOUNTS);
+        if (discountCount < 0) {
+            return null;
+        }
+        List<DiscountDefinition> definitions = new ArrayList<>(discountCount);
+        for (int i = 0; i < discountCount; i++) {
+            FlatTable table = rule.getTableAt(DISCOUNTS, i);
+            DiscountDefinition definition = new DiscountDefinition();
+            String type = table.getString(DISCOUNT_TYPE);
+            definition.setDiscountType(type == null ? null : DiscountType.valueOf(type));
+            Long valueBits = table.getLongOrNull(DISCOUNT_VALUE_BITS);
+            definition.setValue(valueBits == null ? null : Double.longBitsToDouble(valueBits));
+            definitions.add(definition);
+        }
+        return definitions;
+    }
+
+    private static Validity readValidity(FlatTable table) {
+        if (table == null) {
+            return null;
+        }
+        Validity validity = new Validity();
+        validity.setSalesStartDate(readDay(table, SALES_START));
+        validity.setSalesEndDate(readDay(table, SALES_END));
+        validity.setVisitingStartDate(readDay(table, VISITING_START));
+        validity.setVisitingEndDate(readDay(table, VISITING_END));
+        validity.setPublishTime(readDateTime(table, PUBLISH_SECOND, PUBLISH_NANO));
+        validity.setUnpublishTime(readDateTime(table, UNPUBLISH_SECOND, UNPUBLISH_NANO));
+        validity.setAdvanceBookingDays(table.getIntOrNull(ADVANCE_BOOKING_DAYS));
+        int blackOutCount = table.getVectorSize(BLACK_OUTS);
+        if (blackOutCount >= 0) {
+            List<DateRange> blackOuts = new ArrayList<>(blackOutCount);
+            for (int i = 0; i < blackOutCount; i++) {
+                FlatTable range = table.getTableAt(BLACK_OUTS, i);
+                blackOuts.add(new DateRange(readDay(range, RANGE_START), readDay(range, RANGE_END)));
+            }
+            validity.setBlackOutDateRanges(blackOuts);
+        }
+        return validity;
+    }
+
+    private static <E> List<E> readNames(FlatTable table, int field, Function<String, E> valueOf) {
+        int count = table.getVectorSize(field);
+        if (count < 0) {
+            return null;
+        }
+        List<E> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(valueOf.apply(table.getStringAt(field, i)));
+        }
+        return values;
+    }
+
+    private static LocalDate readDay(FlatTable table, int field) {
+        Long epochDay = table.getLongOrNull(field);
+        return epochDay == null ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static LocalDateTime readDateTime(FlatTable table, int secondField, int nanoField) {
+        Long second = table.getLongOrNull(secondField);
+        return second == null ? null : LocalDateTime.ofEpochSecond(second, table.getInt(nanoField, 0), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,104 @@
+package com.yonhoo.ddd.infrastructure.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * FlatBufferWriter 写出的表的只读访问器
+ * 只做绝对位置读取，不修改 buffer 的 position，多个线程可以共享同一个 buffer。
+ * 字段号超出表中记录的字段数时视为缺失，旧数据可以被追加了字段的新版本读取
+ */
+final class FlatTable {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int fieldCount;
+
+    private FlatTable(ByteBuffer buffer, int offset) {
+        if (offset < FlatBufferWriter.HEADER_BYTES || offset > buffer.limit() - Integer.BYTES) {
+            throw new RuntimeException("corrupted flat buffer: table offset " + offset);
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        this.fieldCount = buffer.getInt(offset);
+    }
+
+    /**
+     * 校验文件头并返回根表；buffer 从当前 position 开始视为一份完整的数据
+     */
+    static FlatTable root(ByteBuffer buffer, int magic, short formatVersion) {
+        ByteBuffer data = buffer.slice();
+        if (data.remaining() < FlatBufferWriter.HEADER_BYTES || data.getInt(0) != magic) {
+            throw new RuntimeException("not a flat offer buffer");
+        }
+        if (data.getShort(4) != formatVersion) {
+            throw new RuntimeException("unsupported flat offer format version: " + data.getShort(4));
+        }
+        return new FlatTable(data, data.getInt(8));
+    }
+
+    boolean has(int field) {
+        return slot(field) != 0;
+    }
+
+    int getInt(int field, int missing) {
+        int slot = slot(field);
+        return slot == 0 ? missing : buffer.getInt(slot);
+    }
+
+    Integer getIntOrNull(int field) {
+        int slot = slot(field);
+        return slot == 0 ? null : buffer.getInt(slot);
+    }
+
+    long getLong(int field, long missing) {
+        int slot = slot(field);
+        return slot == 0 ? missing : buffer.getLong(slot);
+    }
+
+    Long getLongOrNull(int field) {
+        int slot = slot(field);
+        return slot == 0 ? null : buffer.getLong(slot);
+    }
+
+    String getString(int field) {
+        int slot = slot(field);
+        return slot == 0 ? null : stringAt(buffer.getInt(slot));
+    }
+
+    FlatTable getTable(int field) {
+        int slot = slot(field);
+        return slot == 0 ? null : new FlatTable(buffer, buffer.getInt(slot));
+    }
+
+    /**
+     * 向量字段的元素个数，字段缺失时返回 -1
+     */
+    int getVectorSize(int field) {
+        int slot = slot(field);
+        return slot == 0 ? -1 : buffer.getInt(buffer.getInt(slot));
+    }
+
+    FlatTable getTableAt(int field, int index) {
+        return new FlatTable(buffer, elementOffset(field, index));
+    }
+
+    String getStringAt(int field, int index) {
+        return stringAt(elementOffset(field, index));
+    }
+
+    private int elementOffset(int field, int index) {
+        int vector = buffer.getInt(slot(field));
+        return buffer.getInt(vector + Integer.BYTES * (index + 1));
+    }
+
+    private String stringAt(int position) {
+        byte[] bytes = new byte[buffer.getInt(position)];
+        buffer.get(position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int slot(int field) {
+        return field < fieldCount ? buffer.getInt(offset + Integer.BYTES * (field + 1)) : 0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.yonhoo.ddd.infrastructure.cache;
+
+import com.yonhoo.ddd.domain.model.MarketingPricingStrategy;
+import com.yonhoo.ddd.domain.model.MarketingStrategyIndex;
+import com.yonhoo.ddd.domain.model.StrategyType;
+import com.yonhoo.ddd.repository.MarketingPricingStrategyRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 营销策略仓储索引装饰器
+ * 每个产品的策略只加载一次并建成有效期索引，按日期、按日期范围的查询都由索引回答，
+ * 不再扫描每个策略的 effectivePeriod；策略保存或删除后丢弃全部索引（策略与产品是多对多关系）
+ */
+public class IndexedMarketingPricingStrategyRepository implements MarketingPricingStrategyRepository {
+
+    private final MarketingPricingStrategyRepository delegate;
+    private final ConcurrentMap<String, MarketingStrategyIndex> indexes = new ConcurrentHashMap<>();
+
+    public IndexedMarketingPricingStrategyRepository(MarketingPricingStrategyRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<MarketingPricingStrategy> queryEffectiveStrategies(LocalDate targetDate, String offerNo) {
+        return queryStrategyIndexByOfferNo(offerNo).findEffective(targetDate);
+    }
+
+    @Override
+    public List<MarketingPricingStrategy> queryStrategiesInDateRange(LocalDate startDate, LocalDate endDate, String offerNo) {
+        return queryStrategyIndexByOfferNo(offerNo).findOverlapping(startDate, endDate);
+    }
+
+    @Override
+    public List<MarketingPricingStrategy> queryStrategiesByOfferNo(String offerNo) {
+        return delegate.queryStrategiesByOfferNo(offerNo);
+    }
+
+    @Override
+    public MarketingStrategyIndex queryStrategyIndexByOfferNo(String offerNo) {
+        return indexes.computeIfAbsent(offerNo, delegate::queryStrategyIndexByOfferNo);
+    }
+
+    @Override
+    public MarketingPricingStrategy queryStrategyById(String strategyId) {
+        return delegate.queryStrategyById(strategyId);
+    }
+
+    @Override
+    public List<MarketingPricingStrategy> queryActiveStrategies() {
+        return delegate.queryActiveStrategies();
+    }
+
+    @Override
+    public List<MarketingPricingStrategy> queryStrategiesByType(StrategyType strategyType) {
+        return delegate.queryStrategiesByType(strategyType);
+    }
+
+    @Override
+    public void saveStrategy(MarketingPricingStrategy strategy) {
+        delegate.saveStrategy(strategy);
+        indexes.clear();
+    }
+
+    @Override
+    public void deleteStrategy(String strategyId) {
+        delegate.deleteStrategy(strategyId);
+        indexes.clear();
+    }
+}
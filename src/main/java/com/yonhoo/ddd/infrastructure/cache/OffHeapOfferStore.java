@@ -0,0 +1,103 @@
+package com.yonhoo.ddd.infrastructure.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 堆外缓存层
+ * 以序列化字节保存在 direct ByteBuffer 中，按总字节数限制容量，超出时淘汰最久未访问的条目
+ */
+public class OffHeapOfferStore<T> {
+
+    private final OfferCodec<T> codec;
+    private final long capacityBytes;
+    private final LinkedHashMap<String, ByteBuffer> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder evictionCount = new LongAdder();
+    private long usedBytes;
+
+    public OffHeapOfferStore(OfferCodec<T> codec, long capacityBytes) {
+        this.codec = codec;
+        this.capacityBytes = capacityBytes;
+    }
+
+    public T get(String offerNo) {
+        ByteBuffer buffer;
+        synchronized (this) {
+            ByteBuffer stored = entries.get(offerNo);
+            if (stored == null) {
+                return null;
+            }
+            buffer = stored.duplicate();
+        }
+        return codec.decode(buffer);
+    }
+
+    /**
+     * 不解码，直接在缓存的字节上读取（如用 FlatOfferView 只读版本号或房间列表）
+     */
+    public <R> R peek(String offerNo, Function<ByteBuffer, R> reader) {
+        ByteBuffer buffer;
+        synchronized (this) {
+            ByteBuffer stored = entries.get(offerNo);
+            if (stored == null) {
+                return null;
+            }
+            buffer = stored.duplicate();
+        }
+        return reader.apply(buffer);
+    }
+
+    public void put(String offerNo, T offer) {
+        ByteBuffer encoded = codec.encode(offer);
+        int size = encoded.remaining();
+        if (size > capacityBytes) {
+            invalidate(offerNo);
+            return;
+        }
+
+        ByteBuffer offHeap = ByteBuffer.allocateDirect(size);
+        offHeap.put(encoded).flip();
+
+        synchronized (this) {
+            ByteBuffer previous = entries.put(offerNo, offHeap.asReadOnlyBuffer());
+            if (previous != null) {
+                usedBytes -= previous.capacity();
+            }
+            usedBytes += size;
+
+            Iterator<Map.Entry<String, ByteBuffer>> eldest = entries.entrySet().iterator();
+            while (usedBytes > capacityBytes && eldest.hasNext()) {
+                Map.Entry<String, ByteBuffer> entry = eldest.next();
+                if (entry.getKey().equals(offerNo)) {
+                    continue;
+                }
+                usedBytes -= entry.getValue().capacity();
+                eldest.remove();
+                evictionCount.increment();
+            }
+        }
+    }
+
+    public synchronized void invalidate(String offerNo) {
+        ByteBuffer removed = entries.remove(offerNo);
+        if (removed != null) {
+            usedBytes -= removed.capacity();
+        }
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+}
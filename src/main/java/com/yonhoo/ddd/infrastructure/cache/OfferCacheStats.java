@@ -0,0 +1,36 @@
+package com.yonhoo.ddd.infrastructure.cache;
+
+/**
+ * 产品缓存统计快照
+ */
+public class OfferCacheStats {
+    private final long memoryHitCount;
+    private final long offHeapHitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long invalidationCount;
+
+    public OfferCacheStats(long memoryHitCount, long offHeapHitCount, long missCount,
+                           long evictionCount, long invalidationCount) {
+        this.memoryHitCount = memoryHitCount;
+        this.offHeapHitCount = offHeapHitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.invalidationCount = invalidationCount;
+    }
+
+    public long getHitCount() {
+        return memoryHitCount + offHeapHitCount;
+    }
+
+    public double getHitRate() {
+        long requestCount = getHitCount() + missCount;
+        return requestCount == 0 ? 1.0 : (double) getHitCount() / requestCount;
+    }
+
+    public long getMemoryHitCount() { return memoryHitCount; }
+    public long getOffHeapHitCount() { return offHeapHitCount; }
+    public long getMissCount() { return missCount; }
+    public long getEvictionCount() { return evictionCount; }
+    public long getInvalidationCount() { return invalidationCount; }
+}
@@ -0,0 +1,14 @@
+package com.yonhoo.ddd.infrastructure.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 聚合序列化编解码器
+ * 堆外缓存层只保存字节，编码结果必须包含聚合版本号
+ */
+public interface OfferCodec<T> {
+
+    ByteBuffer encode(T offer);
+
+    T decode(ByteBuffer buffer);
+}
@@ -0,0 +1,148 @@
+package com.yonhoo.ddd.infrastructure.store;
+
+import com.yonhoo.ddd.domain.model.AbstractPriceData;
+import com.yonhoo.ddd.domain.model.Money;
+import com.yonhoo.ddd.domain.model.PriceData;
+import com.yonhoo.ddd.domain.model.PriceDataAdapter;
+import com.yonhoo.ddd.domain.model.PriceDataV2;
+import com.yonhoo.ddd.domain.model.PricePair;
+import com.yonhoo.ddd.repository.PriceDataRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 基于内存映射快照文件的价格仓储
+ * 房间价格查询直接返回当前快照（MappedPriceSnapshot），不构建 Map / PriceData 对象图；
+ * 新快照由 publish 或外部进程原子重命名到 snapshotFile，调用 refresh 后切换，进行中的计算继续使用旧快照。
+ * 快照只保存每天的最低价，V2（分时价格）查询交给 delegate
+ */
+public class MappedPriceDataRepository implements PriceDataRepository {
+
+    private final Path snapshotFile;
+    private final PriceDataRepository delegate;
+    private volatile LoadedSnapshot current;
+
+    /**
+     * @param delegate V2 价格数据的来源，为 null 时 V2 查询抛出异常
+     */
+    public MappedPriceDataRepository(Path snapshotFile, PriceDataRepository delegate) {
+        this.snapshotFile = snapshotFile;
+        this.delegate = delegate;
+    }
+
+    /**
+     * 写出新快照并立即切换
+     */
+    public void publish(Map<String, ? extends AbstractPriceData> roomPriceData) {
+        MappedPriceSnapshot.write(snapshotFile, roomPriceData);
+        refresh();
+    }
+
+    /**
+     * 快照文件被替换（文件标识、修改时间或大小变化）时重新映射；返回是否切换了快照。
+     * 每次调用都会读取文件属性，由定时任务或快照发布通知调用，而不是每次查询都调用
+     */
+    public synchronized boolean refresh() {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(snapshotFile, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("price snapshot not found: " + snapshotFile, e);
+        }
+
+        LoadedSnapshot loaded = current;
+        if (loaded != null && loaded.isSameFile(attributes)) {
+            return false;
+        }
+        current = new LoadedSnapshot(MappedPriceSnapshot.open(snapshotFile),
+                attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+        return true;
+    }
+
+    /**
+     * 当前快照，首次使用时映射
+     */
+    public MappedPriceSnapshot snapshot() {
+        LoadedSnapshot loaded = current;
+        if (loaded == null) {
+            refresh();
+            loaded = current;
+        }
+        return loaded.snapshot;
+    }
+
+    @Override
+    public PriceDataAdapter.RoomPriceQuery queryRoomPriceQueryByRoomList(List<String> roomList) {
+        return snapshot();
+    }
+
+    /**
+     * 兼容需要堆上 PriceData 的调用方：每个房间每天一个最低价，快照中没有的房间不出现在结果中
+     */
+    @Override
+    public Map<String, PriceData> queryPriceDataByRoomList(List<String> roomList) {
+        MappedPriceSnapshot snapshot = snapshot();
+        Map<String, PriceData> priceDataMap = new HashMap<>(roomList.size() * 2);
+        for (String roomNo : roomList) {
+            if (!snapshot.hasDataForRoom(roomNo)) {
+                continue;
+            }
+            List<PricePair> pricePairs = new ArrayList<>(snapshot.getDayCount());
+            snapshot.forEachDailyPrice(roomNo, (day, minorUnits) ->
+                    pricePairs.add(new PricePair(day, Money.ofMinor(minorUnits).toBigDecimal())));
+
+            PriceData priceData = new PriceData();
+            priceData.setRoomNo(roomNo);
+            priceData.setPricePairs(pricePairs);
+            priceDataMap.put(roomNo, priceData);
+        }
+        return priceDataMap;
+    }
+
+    @Override
+    public Map<String, PriceDataV2> queryPriceDataV2ByRoomList(List<String> roomList) {
+        return requireDelegate().queryPriceDataV2ByRoomList(roomList);
+    }
+
+    @Override
+    public Map<String, PriceDataV2> queryPriceDataV2ByTicketList(List<String> roomList) {
+        return requireDelegate().queryPriceDataV2ByTicketList(roomList);
+    }
+
+    private PriceDataRepository requireDelegate() {
+        if (delegate == null) {
+            throw new RuntimeException("V2 price data is not available from the mapped price snapshot");
+        }
+        return delegate;
+    }
+
+    private static final class LoadedSnapshot {
+        private final MappedPriceSnapshot snapshot;
+        private final Object fileKey;
+        private final FileTime lastModifiedTime;
+        private final long size;
+
+        private LoadedSnapshot(MappedPriceSnapshot snapshot, Object fileKey, FileTime lastModifiedTime, long size) {
+            this.snapshot = snapshot;
+            this.fileKey = fileKey;
+            this.lastModifiedTime = lastModifiedTime;
+            this.size = size;
+        }
+
+        private boolean isSameFile(BasicFileAttributes attributes) {
+            return Objects.equals(fileKey, attributes.fileKey())
+                    && lastModifiedTime.equals(attributes.lastModifiedTime())
+                    && size == attributes.size();
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.yonhoo.ddd.infrastructure.store;
+
+import com.yonhoo.ddd.domain.model.AbstractPriceData;
+import com.yonhoo.ddd.domain.model.IdDictionary;
+import com.yonhoo.ddd.domain.model.IntIntHashMap;
+import com.yonhoo.ddd.domain.model.Money;
+import com.yonhoo.ddd.domain.model.PriceDataAdapter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.RoundingMode;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 内存映射的房间价格快照
+ * 文件布局（大端）：
+ * <pre>
+ * 0   int   MAGIC
+ * 4   int   FORMAT_VERSION
+ * 8   long  baseEpochDay
+ * 16  int   dayCount
+ * 20  int   roomCount
+ * 24  int   dataOffset
+ * 28  int   保留
+ * 32  房间索引：roomCount 个 [int 字节数][UTF-8 房间号]，顺序即行号
+ *     按 8 字节对齐后从 dataOffset 开始为 roomCount × dayCount 个定长 long（分），无价格为 Long.MIN_VALUE
+ * </pre>
+ * 打开时只把房间索引解析到堆上（行号按 IdDictionary.ROOMS 的房间 id 存放），价格查询直接按偏移读取映射缓冲区，不复制数据；
+ * 同一主机上的多个 JVM 映射同一个文件时共用操作系统页缓存。快照不可变，可以被多个线程同时读取
+ */
+public final class MappedPriceSnapshot implements PriceDataAdapter.RoomPriceQuery {
+
+    private static final int MAGIC = 0x50524331;            // "PRC1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    private static final int NO_ROW = -1;
+
+    private final MappedByteBuffer buffer;
+    private final IntIntHashMap roomRows;
+    private final List<String> roomNos;
+    private final long baseEpochDay;
+    private final int dayCount;
+    private final int dataOffset;
+
+    private MappedPriceSnapshot(MappedByteBuffer buffer, List<String> roomNos, long baseEpochDay, int dayCount, int dataOffset) {
+        this.buffer = buffer;
+        this.roomNos = roomNos;
+        this.baseEpochDay = baseEpochDay;
+        this.dayCount = dayCount;
+        this.dataOffset = dataOffset;
+        this.roomRows = new IntIntHashMap(roomNos.size());
+        for (String roomNo : roomNos) {
+            roomRows.put(IdDictionary.ROOMS.idOf(roomNo), roomRows.size(), NO_ROW);
+        }
+    }
+
+    /**
+     * 只读映射快照文件；映射建立后即关闭文件通道，文件被重命名替换后已映射的旧快照仍然可读
+     */
+    public static MappedPriceSnapshot open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new RuntimeException("invalid price snapshot size: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                throw new RuntimeException("unsupported price snapshot: " + file);
+            }
+
+            long baseEpochDay = buffer.getLong(8);
+            int dayCount = buffer.getInt(16);
+            int roomCount = buffer.getInt(20);
+            int dataOffset = buffer.getInt(24);
+            if ((long) dataOffset + (long) roomCount * dayCount * Long.BYTES != size) {
+                throw new RuntimeException("truncated price snapshot: " + file);
+            }
+
+            List<String> roomNos = new ArrayList<>(roomCount);
+            int position = HEADER_BYTES;
+            byte[] bytes = new byte[0];
+            for (int i = 0; i < roomCount; i++) {
+                int length = buffer.getInt(position);
+                if (bytes.length < length) {
+                    bytes = new byte[length];
+                }
+                buffer.get(position + Integer.BYTES, bytes, 0, length);
+                roomNos.add(new String(bytes, 0, length, StandardCharsets.UTF_8));
+                position += Integer.BYTES + length;
+            }
+            return new MappedPriceSnapshot(buffer, Collections.unmodifiableList(roomNos), baseEpochDay, dayCount, dataOffset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to open price snapshot " + file, e);
+        }
+    }
+
+    /**
+     * 把价格数据写成快照：同目录下写临时文件并刷盘，再原子重命名为 target，
+     * 读者要么看到完整的旧快照，要么看到完整的新快照。同一房间同一天有多个价格时取最低价
+     */
+    public static void write(Path target, Map<String, ? extends AbstractPriceData> roomPriceData) {
+        long[] dayBounds = {Long.MAX_VALUE, Long.MIN_VALUE};
+        roomPriceData.values().forEach(priceData -> priceData.forEachDailyPrice((day, price) -> {
+            dayBounds[0] = Math.min(dayBounds[0], day.toEpochDay());
+            dayBounds[1] = Math.max(dayBounds[1], day.toEpochDay());
+        }));
+        long baseEpochDay = dayBounds[0] > dayBounds[1] ? 0L : dayBounds[0];
+        int dayCount = dayBounds[0] > dayBounds[1] ? 0 : Math.toIntExact(dayBounds[1] - dayBounds[0] + 1);
+
+        // 房间索引和价格行按同一顺序写出
+        List<Map.Entry<String, ? extends AbstractPriceData>> rooms = new ArrayList<>(roomPriceData.entrySet());
+        List<String> roomNos = rooms.stream().map(Map.Entry::getKey).toList();
+        write(target, roomNos, baseEpochDay, dayCount, (room, row) ->
+                rooms.get(room).getValue().forEachDailyPrice((day, price) -> {
+                    int slot = (int) (day.toEpochDay() - baseEpochDay);
+                    long minorUnits = Money.toMinorUnits(price, RoundingMode.HALF_UP);
+                    if (row[slot] == NO_PRICE || minorUnits < row[slot]) {
+                        row[slot] = minorUnits;
+                    }
+                }));
+    }
+
+    /**
+     * 逐行写出快照，rowFiller 填充第 room 行（已预置为无价格），覆盖 [baseEpochDay, baseEpochDay + dayCount)
+     */
+    static void write(Path target, List<String> roomNos, long baseEpochDay, int dayCount, RowFiller rowFiller) {
+        List<byte[]> encodedRoomNos = new ArrayList<>(roomNos.size());
+        long indexBytes = 0;
+        for (String roomNo : roomNos) {
+            byte[] bytes = roomNo.getBytes(StandardCharsets.UTF_8);
+            encodedRoomNos.add(bytes);
+            indexBytes += Integer.BYTES + bytes.length;
+        }
+        long dataOffset = (HEADER_BYTES + indexBytes + Long.BYTES - 1) & -Long.BYTES;
+        long size = dataOffset + (long) roomNos.size() * dayCount * Long.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new RuntimeException("price snapshot too large: " + size + " bytes");
+        }
+
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(baseEpochDay);
+                out.writeInt(dayCount);
+                out.writeInt(roomNos.size());
+                out.writeInt((int) dataOffset);
+                out.writeInt(0);
+                for (byte[] roomNo : encodedRoomNos) {
+                    out.writeInt(roomNo.length);
+                    out.write(roomNo);
+                }
+                for (long i = HEADER_BYTES + indexBytes; i < dataOffset; i++) {
+                    out.writeByte(0);
+                }
+
+                long[] row = new long[dayCount];
+                for (int room = 0; room < roomNos.size(); room++) {
+                    Arrays.fill(row, NO_PRICE);
+                    rowFiller.fill(room, row);
+                    for (long price : row) {
+                        out.writeLong(price);
+                    }
+                }
+                out.flush();
+                file.getFD().sync();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to write price snapshot " + target, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // 临时文件清理失败不影响已发布的快照
+                }
+            }
+        }
+    }
+
+    @Override
+    public Money queryRoomMinPrice(String roomNo, LocalDate day) {
+        return Money.ofMinor(queryRoomMinPriceInMinorUnits(roomNo, day));
+    }
+
+    @Override
+    public long queryRoomMinPriceInMinorUnits(String roomNo, LocalDate day) {
+        int room = roomRows.get(IdDictionary.ROOMS.lookup(roomNo), NO_ROW);
+        if (room == NO_ROW) {
+            throw new RuntimeException("No price data found for room: " + roomNo);
+        }
+        return checkPrice(priceAt(room, day.toEpochDay() - baseEpochDay));
+    }
+
+    @Override
+    public long queryRoomMinPriceInMinorUnits(int roomId, LocalDate day) {
+        int room = roomRows.get(roomId, NO_ROW);
+        if (room == NO_ROW) {
+            throw new RuntimeException("No price data found for room: " + IdDictionary.ROOMS.nameOf(roomId));
+        }
+        return checkPrice(priceAt(room, day.toEpochDay() - baseEpochDay));
+    }
+
+    @Override
+    public boolean hasDataForRoom(String roomNo) {
+        return roomRows.containsKey(IdDictionary.ROOMS.lookup(roomNo));
+    }
+
+    @Override
+    public boolean hasDataForRoom(int roomId) {
+        return roomRows.containsKey(roomId);
+    }
+
+    /**
+     * 遍历某个房间有价格的日期，供需要堆上 PriceData 的旧接口使用
+     */
+    public void forEachDailyPrice(String roomNo, DailyPriceConsumer consumer) {
+        int room = roomRows.get(IdDictionary.ROOMS.lookup(roomNo), NO_ROW);
+        if (room == NO_ROW) {
+            return;
+        }
+        for (int offset = 0; offset < dayCount; offset++) {
+            long price = priceAt(room, offset);
+            if (price != NO_PRICE) {
+                consumer.accept(LocalDate.ofEpochDay(baseEpochDay + offset), price);
+            }
+        }
+    }
+
+    /**
+     * 把某个房间 [fromEpochDay, fromEpochDay + row.length) 的价格复制到 row，范围外或无价格的日期为 Long.MIN_VALUE
+     */
+    void readRow(int roomId, long fromEpochDay, long[] row) {
+        int room = roomRows.get(roomId, NO_ROW);
+        for (int i = 0; i < row.length; i++) {
+            row[i] = room == NO_ROW ? NO_PRICE : priceAt(room, fromEpochDay + i - baseEpochDay);
+        }
+    }
+
+    long getBaseEpochDay() {
+        return baseEpochDay;
+    }
+
+    public List<String> getRoomNos() {
+        return roomNos;
+    }
+
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    private static long checkPrice(long price) {
+        if (price == NO_PRICE) {
+            throw new RuntimeException("no available price");
+        }
+        return price;
+    }
+
+    private long priceAt(int room, long dayOffset) {
+        if (dayOffset < 0 || dayOffset >= dayCount) {
+            return NO_PRICE;
+        }
+        return buffer.getLong(dataOffset + (int) (((long) room * dayCount + dayOffset) * Long.BYTES));
+    }
+
+    @FunctionalInterface
+    interface RowFiller {
+        void fill(int room, long[] row);
+    }
+
+    @FunctionalInterface
+    public interface DailyPriceConsumer {
+        void accept(LocalDate day, long minorUnits);
+    }
+}
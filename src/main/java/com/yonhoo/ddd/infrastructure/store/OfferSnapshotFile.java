@@ -0,0 +1,123 @@
+package com.yonhoo.ddd.infrastructure.store;
+
+import com.yonhoo.ddd.infrastructure.cache.OfferCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 产品检查点文件
+ * 布局：[int magic][int formatVersion][int count][int 0][long 偏移 × (count + 1)][编码后的产品...]，
+ * 第 i 个产品占 [offset[i], offset[i + 1])。读取时整体只读映射，按偏移表切片后在调用方给定的线程池上并行解码
+ */
+final class OfferSnapshotFile {
+
+    private static final int MAGIC = 0x4F464631;            // "OFF1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    private OfferSnapshotFile() {
+    }
+
+    /**
+     * 同目录下写临时文件并刷盘，再原子重命名为 target
+     */
+    static <T> void write(Path target, List<T> offers, OfferCodec<T> codec) {
+        List<ByteBuffer> encoded = new ArrayList<>(offers.size());
+        long dataOffset = HEADER_BYTES + (long) Long.BYTES * (offers.size() + 1);
+        long size = dataOffset;
+        for (T offer : offers) {
+            ByteBuffer buffer = codec.encode(offer);
+            encoded.add(buffer);
+            size += buffer.remaining();
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new RuntimeException("offer snapshot too large: " + size + " bytes");
+        }
+
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(encoded.size());
+                out.writeInt(0);
+                long offset = dataOffset;
+                for (ByteBuffer buffer : encoded) {
+                    out.writeLong(offset);
+                    offset += buffer.remaining();
+                }
+                out.writeLong(offset);
+                for (ByteBuffer buffer : encoded) {
+                    byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    out.write(bytes);
+                }
+                out.flush();
+                file.getFD().sync();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to write offer snapshot " + target, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // 临时文件清理失败不影响已发布的检查点
+                }
+            }
+        }
+    }
+
+    /**
+     * 映射文件并在 pool 上并行解码全部产品，顺序与写入时一致
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> read(Path file, OfferCodec<T> codec, ForkJoinPool pool) {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new RuntimeException("invalid offer snapshot size: " + size);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to open offer snapshot " + file, e);
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new RuntimeException("unsupported offer snapshot: " + file);
+        }
+
+        int count = buffer.getInt(8);
+        long indexEnd = HEADER_BYTES + (long) Long.BYTES * (count + 1);
+        if (count < 0 || indexEnd > buffer.limit() || buffer.getLong(HEADER_BYTES + Long.BYTES * count) != buffer.limit()) {
+            throw new RuntimeException("truncated offer snapshot: " + file);
+        }
+
+        Object[] offers = new Object[count];
+        // parallelSetAll 在 pool 的工作线程内拆分的子任务留在 pool 中执行
+        pool.submit(() -> Arrays.parallelSetAll(offers, i -> {
+            int from = (int) buffer.getLong(HEADER_BYTES + Long.BYTES * i);
+            int to = (int) buffer.getLong(HEADER_BYTES + Long.BYTES * (i + 1));
+            return codec.decode(buffer.slice(from, to - from));
+        })).join();
+        return (List<T>) Arrays.asList(offers);
+    }
+}
@@ -0,0 +1,45 @@
+package com.yonhoo.ddd.infrastructure.store;
+
+import java.time.LocalDate;
+
+/**
+ * 一条房间日价变更：覆盖该房间当天的最低价，minorUnits 为 Long.MIN_VALUE 表示当天关闭（无价格）
+ */
+public final class PriceChange {
+
+    public static final long CLOSED = Long.MIN_VALUE;
+
+    private final String roomNo;
+    private final long epochDay;
+    private final long minorUnits;
+
+    public PriceChange(String roomNo, LocalDate day, long minorUnits) {
+        this(roomNo, day.toEpochDay(), minorUnits);
+    }
+
+    PriceChange(String roomNo, long epochDay, long minorUnits) {
+        this.roomNo = roomNo;
+        this.epochDay = epochDay;
+        this.minorUnits = minorUnits;
+    }
+
+    public static PriceChange closed(String roomNo, LocalDate day) {
+        return new PriceChange(roomNo, day, CLOSED);
+    }
+
+    public String getRoomNo() {
+        return roomNo;
+    }
+
+    public LocalDate getDay() {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    long getEpochDay() {
+        return epochDay;
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+}
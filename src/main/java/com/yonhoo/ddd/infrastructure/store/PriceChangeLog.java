@@ -0,0 +1,171 @@
+package com.yonhoo.ddd.infrastructure.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 价格变更日志段：只追加写，一个文件对应一段
+ * 记录布局（大端）：
+ * <pre>
+ * 0   int   payload 字节数
+ * 4   int   payload 的 CRC32
+ * 8   long  epochDay
+ * 16  long  价格（分），Long.MIN_VALUE 表示关闭
+ * 24  UTF-8 房间号
+ * </pre>
+ * 重放时遇到不完整或校验失败的记录即认为是写入中断留下的尾部，截断后继续追加。
+ * 只有持有者线程写入，不是线程安全的
+ */
+final class PriceChangeLog implements Closeable {
+
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int FIXED_PAYLOAD_BYTES = 16;
+    private static final int MAX_ROOM_NO_BYTES = 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean syncEachAppend;
+
+    private PriceChangeLog(Path file, FileChannel channel, boolean syncEachAppend) {
+        this.file = file;
+        this.channel = channel;
+        this.syncEachAppend = syncEachAppend;
+    }
+
+    /**
+     * 打开日志段（不存在时创建），先把已有的完整记录按写入顺序交给 replay
+     *
+     * @param syncEachAppend 每次追加后是否 force 到磁盘；为 false 时依赖页缓存，进程崩溃不丢数据，掉电可能丢失最近的变更
+     */
+    static PriceChangeLog open(Path file, boolean syncEachAppend, Consumer<PriceChange> replay) {
+        try {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long validBytes = replay(channel, replay);
+            if (validBytes < channel.size()) {
+                channel.truncate(validBytes);
+            }
+            channel.position(validBytes);
+            return new PriceChangeLog(file, channel, syncEachAppend);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to open price change log " + file, e);
+        }
+    }
+
+    /**
+     * 一批变更编码到一个缓冲区，一次写入
+     */
+    void append(List<PriceChange> changes) {
+        byte[][] roomNos = new byte[changes.size()][];
+        int bytes = 0;
+        for (int i = 0; i < changes.size(); i++) {
+            roomNos[i] = changes.get(i).getRoomNo().getBytes(StandardCharsets.UTF_8);
+            if (roomNos[i].length > MAX_ROOM_NO_BYTES) {
+                throw new RuntimeException("room number too long: " + changes.get(i).getRoomNo());
+            }
+            bytes += RECORD_HEADER_BYTES + FIXED_PAYLOAD_BYTES + roomNos[i].length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < changes.size(); i++) {
+            PriceChange change = changes.get(i);
+            int recordStart = buffer.position();
+            int payloadStart = recordStart + RECORD_HEADER_BYTES;
+            buffer.position(payloadStart);
+            buffer.putLong(change.getEpochDay());
+            buffer.putLong(change.getMinorUnits());
+            buffer.put(roomNos[i]);
+
+            crc.reset();
+            crc.update(buffer.array(), payloadStart, buffer.position() - payloadStart);
+            buffer.putInt(recordStart, buffer.position() - payloadStart);
+            buffer.putInt(recordStart + Integer.BYTES, (int) crc.getValue());
+        }
+        buffer.flip();
+
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (syncEachAppend) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to append to price change log " + file, e);
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to close price change log " + file, e);
+        }
+    }
+
+    /**
+     * 关闭并删除日志段，段内的变更已经合并进快照
+     */
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to delete price change log " + file, e);
+        }
+    }
+
+    /**
+     * 返回完整记录的总字节数
+     */
+    private static long replay(FileChannel channel, Consumer<PriceChange> replay) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new RuntimeException("price change log too large: " + size + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // 读满为止
+        }
+        buffer.flip();
+
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+            int recordStart = buffer.position();
+            int payloadBytes = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (payloadBytes < FIXED_PAYLOAD_BYTES || payloadBytes > FIXED_PAYLOAD_BYTES + MAX_ROOM_NO_BYTES
+                    || payloadBytes > buffer.remaining()) {
+                return recordStart;
+            }
+            crc.reset();
+            crc.update(buffer.array(), buffer.position(), payloadBytes);
+            if ((int) crc.getValue() != checksum) {
+                return recordStart;
+            }
+
+            long epochDay = buffer.getLong();
+            long minorUnits = buffer.getLong();
+            byte[] roomNo = new byte[payloadBytes - FIXED_PAYLOAD_BYTES];
+            buffer.get(roomNo);
+            replay.accept(new PriceChange(new String(roomNo, StandardCharsets.UTF_8), epochDay, minorUnits));
+        }
+        return buffer.position();
+    }
+}
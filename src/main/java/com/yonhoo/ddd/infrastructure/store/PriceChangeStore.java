@@ -0,0 +1,528 @@
+package com.yonhoo.ddd.infrastructure.store;
+
+import com.yonhoo.ddd.domain.model.IdDictionary;
+import com.yonhoo.ddd.domain.model.Money;
+import com.yonhoo.ddd.domain.model.PriceDataAdapter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 日志结构的房间价格存储
+ * 变更先追加到价格变更日志（PriceChangeLog），再写入内存增量表；读取时依次查活跃增量、冻结增量和不可变的基础快照（MappedPriceSnapshot），
+ * 增量中的价格覆盖快照中的价格。压缩时冻结当前增量并切换到新的日志段，把冻结增量和旧快照合并写出新快照，原子切换后删除冻结的日志段。
+ * 重启时打开快照并重放残留的日志段，快照写出后、日志段删除前崩溃只会重复覆盖相同的价格。
+ * 增量表和快照都按 IdDictionary.ROOMS 的房间 id 索引，按 id 查询不做字符串 hash 和装箱。
+ * 读取无锁，可以被多个线程同时调用；写入和压缩各自串行
+ */
+public class PriceChangeStore implements PriceDataAdapter.RoomPriceQuery, Closeable {
+
+    static final String SNAPSHOT_FILE = "prices.snapshot";
+    private static final String LOG_PREFIX = "prices-";
+    private static final String LOG_SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean syncEachAppend;
+    private final int compactionThreshold;
+
+    private final Object writeLock = new Object();
+    private final Object compactionLock = new Object();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+
+    private volatile State state;
+    /**
+     * 内容与 state.active 对应，由 writeLock 保护
+     */
+    private PriceChangeLog activeLog;
+    private long nextSegment;
+    /**
+     * 内容与 state.frozen 对应，由 compactionLock 保护
+     */
+    private final List<PriceChangeLog> sealedLogs = new ArrayList<>();
+
+    private ScheduledExecutorService compactor;
+    private volatile RuntimeException lastCompactionFailure;
+    private volatile Consumer<List<PriceChange>> changeListener;
+
+    private PriceChangeStore(Path directory, boolean syncEachAppend, int compactionThreshold) {
+        this.directory = directory;
+        this.syncEachAppend = syncEachAppend;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * 打开目录下的快照和日志段，目录为空时从空快照开始
+     *
+     * @param compactionThreshold 增量条目数达到该值时由后台压缩任务合并
+     */
+    public static PriceChangeStore open(Path directory, boolean syncEachAppend, int compactionThreshold) {
+        PriceChangeStore store = new PriceChangeStore(directory, syncEachAppend, compactionThreshold);
+        store.recover();
+        return store;
+    }
+
+    /**
+     * 追加一批变更，返回时已写入日志并对读取可见
+     */
+    public void apply(List<PriceChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        int deltaSize;
+        synchronized (writeLock) {
+            if (activeLog == null) {
+                throw new RuntimeException("price change store is closed");
+            }
+            activeLog.append(changes);
+            DeltaTable active = state.active;
+            for (PriceChange change : changes) {
+                active.put(IdDictionary.ROOMS.idOf(change.getRoomNo()), change.getEpochDay(), change.getMinorUnits());
+            }
+            deltaSize = active.size();
+        }
+        Consumer<List<PriceChange>> listener = changeListener;
+        if (listener != null) {
+            listener.accept(changes);
+        }
+        if (deltaSize >= compactionThreshold) {
+            scheduleCompaction();
+        }
+    }
+
+    public void apply(PriceChange change) {
+        apply(List.of(change));
+    }
+
+    /**
+     * 变更写入并对读取可见后在写入线程回调（如物化视图的增量维护），为 null 时取消
+     */
+    public void setChangeListener(Consumer<List<PriceChange>> changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * 后台按 interval 检查增量大小，超过阈值时压缩；写入越过阈值时也会提前触发
+     */
+    public synchronized void startCompactor(Duration interval) {
+        if (compactor != null) {
+            return;
+        }
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "price-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 把当前增量合并进新快照；没有增量时返回 false。
+     * 合并失败时冻结的增量和日志段保留，下次压缩连同新的增量一起合并
+     */
+    public boolean compact() {
+        synchronized (compactionLock) {
+            State frozenState;
+            synchronized (writeLock) {
+                State current = state;
+                if (current.active.size() == 0 && current.frozen == null) {
+                    return false;
+                }
+                if (current.active.size() > 0) {
+                    if (activeLog == null) {
+                        throw new RuntimeException("price change store is closed");
+                    }
+                    sealedLogs.add(activeLog);
+                    activeLog = PriceChangeLog.open(segmentFile(nextSegment++), syncEachAppend, change -> {
+                    });
+                }
+                DeltaTable frozen = current.frozen == null ? current.active : current.frozen.overlay(current.active);
+                frozenState = new State(current.base, new DeltaTable(), frozen);
+                state = frozenState;
+            }
+
+            MappedPriceSnapshot merged = writeMerged(frozenState.base, frozenState.frozen);
+            synchronized (writeLock) {
+                state = new State(merged, state.active, null);
+            }
+            for (PriceChangeLog sealedLog : sealedLogs) {
+                sealedLog.delete();
+            }
+            sealedLogs.clear();
+            return true;
+        }
+    }
+
+    /**
+     * 当前基础快照（不含增量）
+     */
+    public MappedPriceSnapshot getBaseSnapshot() {
+        return state.base;
+    }
+
+    /**
+     * 尚未合并进快照的增量条目数
+     */
+    public int getDeltaSize() {
+        State current = state;
+        return current.active.size() + (current.frozen == null ? 0 : current.frozen.size());
+    }
+
+    /**
+     * 最近一次后台压缩失败的原因，成功后清空
+     */
+    public RuntimeException getLastCompactionFailure() {
+        return lastCompactionFailure;
+    }
+
+    @Override
+    public Money queryRoomMinPrice(String roomNo, LocalDate day) {
+        return Money.ofMinor(queryRoomMinPriceInMinorUnits(roomNo, day));
+    }
+
+    @Override
+    public long queryRoomMinPriceInMinorUnits(String roomNo, LocalDate day) {
+        int roomId = IdDictionary.ROOMS.lookup(roomNo);
+        if (roomId == IdDictionary.NO_ID) {
+            throw new RuntimeException("No price data found for room: " + roomNo);
+        }
+        return queryRoomMinPriceInMinorUnits(roomId, day);
+    }
+
+    @Override
+    public long queryRoomMinPriceInMinorUnits(int roomId, LocalDate day) {
+        State current = state;
+        long epochDay = day.toEpochDay();
+        long price = current.active.get(roomId, epochDay);
+        if (price == DeltaTable.NO_DELTA && current.frozen != null) {
+            price = current.frozen.get(roomId, epochDay);
+        }
+        if (price == DeltaTable.NO_DELTA) {
+            if (current.base.hasDataForRoom(roomId)) {
+                return current.base.queryRoomMinPriceInMinorUnits(roomId, day);
+            }
+            if (!current.hasDelta(roomId)) {
+                throw new RuntimeException("No price data found for room: " + IdDictionary.ROOMS.nameOf(roomId));
+            }
+        }
+        if (price == DeltaTable.NO_DELTA || price == PriceChange.CLOSED) {
+            throw new RuntimeException("no available price");
+        }
+        return price;
+    }
+
+    @Override
+    public boolean hasDataForRoom(String roomNo) {
+        int roomId = IdDictionary.ROOMS.lookup(roomNo);
+        return roomId != IdDictionary.NO_ID && hasDataForRoom(roomId);
+    }
+
+    @Override
+    public boolean hasDataForRoom(int roomId) {
+        State current = state;
+        return current.base.hasDataForRoom(roomId) || current.hasDelta(roomId);
+    }
+
+    /**
+     * 停止后台压缩并关闭日志段；未合并的增量留在日志中，下次打开时重放
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (compactor != null) {
+                compactor.shutdownNow();
+                compactor = null;
+            }
+        }
+        synchronized (compactionLock) {
+            synchronized (writeLock) {
+                if (activeLog != null) {
+                    activeLog.close();
+                    activeLog = null;
+                }
+            }
+            sealedLogs.forEach(PriceChangeLog::close);
+            sealedLogs.clear();
+        }
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to create price store directory " + directory, e);
+        }
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        if (Files.notExists(snapshotFile)) {
+            MappedPriceSnapshot.write(snapshotFile, List.of(), 0L, 0, (room, row) -> {
+            });
+        }
+
+        // 残留的日志段按编号顺序重放，后写的覆盖先写的
+        DeltaTable recovered = new DeltaTable();
+        for (long segment : existingSegments()) {
+            sealedLogs.add(PriceChangeLog.open(segmentFile(segment), syncEachAppend,
+                    change -> recovered.put(IdDictionary.ROOMS.idOf(change.getRoomNo()), change.getEpochDay(), change.getMinorUnits())));
+            nextSegment = segment + 1;
+        }
+        state = new State(MappedPriceSnapshot.open(snapshotFile), new DeltaTable(), recovered.size() == 0 ? null : recovered);
+        activeLog = PriceChangeLog.open(segmentFile(nextSegment++), syncEachAppend, change -> {
+        });
+    }
+
+    private List<Long> existingSegments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(LOG_PREFIX) && name.endsWith(LOG_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(LOG_PREFIX.length(), name.length() - LOG_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to list price change logs in " + directory, e);
+        }
+    }
+
+    private Path segmentFile(long segment) {
+        return directory.resolve(String.format("%s%016d%s", LOG_PREFIX, segment, LOG_SUFFIX));
+    }
+
+    /**
+     * 旧快照的每一行覆盖上增量后写出新快照，日期范围扩展到增量涉及的日期
+     */
+    private MappedPriceSnapshot writeMerged(MappedPriceSnapshot base, DeltaTable delta) {
+        Set<String> roomNos = new LinkedHashSet<>(base.getRoomNos());
+        long[] dayBounds = {
+                base.getDayCount() == 0 ? Long.MAX_VALUE : base.getBaseEpochDay(),
+                base.getDayCount() == 0 ? Long.MIN_VALUE : base.getBaseEpochDay() + base.getDayCount() - 1
+        };
+        delta.forEach((roomId, day, price) -> {
+            roomNos.add(IdDictionary.ROOMS.nameOf(roomId));
+            dayBounds[0] = Math.min(dayBounds[0], day);
+            dayBounds[1] = Math.max(dayBounds[1], day);
+        });
+        long baseEpochDay = dayBounds[0] > dayBounds[1] ? 0L : dayBounds[0];
+        int dayCount = dayBounds[0] > dayBounds[1] ? 0 : Math.toIntExact(dayBounds[1] - dayBounds[0] + 1);
+
+        int[] roomIds = roomNos.stream().mapToInt(IdDictionary.ROOMS::idOf).toArray();
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        MappedPriceSnapshot.write(snapshotFile, new ArrayList<>(roomNos), baseEpochDay, dayCount, (room, row) -> {
+            base.readRow(roomIds[room], baseEpochDay, row);
+            delta.forEachDay(roomIds[room], (day, price) -> row[(int) (day - baseEpochDay)] = price);
+        });
+        return MappedPriceSnapshot.open(snapshotFile);
+    }
+
+    private void scheduleCompaction() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = compactor;
+        }
+        if (executor != null && compactionScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                compactionScheduled.set(false);
+                compactIfNeeded();
+            });
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (getDeltaSize() < compactionThreshold) {
+            return;
+        }
+        try {
+            compact();
+            lastCompactionFailure = null;
+        } catch (RuntimeException e) {
+            lastCompactionFailure = e;
+        }
+    }
+
+    /**
+     * 读取路径上的一组表，整体替换
+     */
+    private static final class State {
+        private final MappedPriceSnapshot base;
+        private final DeltaTable active;
+        private final DeltaTable frozen;
+
+        private State(MappedPriceSnapshot base, DeltaTable active, DeltaTable frozen) {
+            this.base = base;
+            this.active = active;
+            this.frozen = frozen;
+        }
+
+        private boolean hasDelta(int roomId) {
+            return active.hasRoom(roomId) || (frozen != null && frozen.hasRoom(roomId));
+        }
+    }
+
+    /**
+     * 房间 id → (epochDay → 价格) 的增量表：按房间 id 直接寻址的数组，每个房间一段按日期偏移寻址的稠密 long 数组，
+     * 查询只有两次数组访问，没有 hash 和装箱。只在 writeLock 下写入，冻结后不再修改；
+     * 扩容时复制出新数组写好后再整体发布，读者要么看到旧数组要么看到新数组
+     */
+    private static final class DeltaTable {
+        /**
+         * 该房间该日没有增量；CLOSED 是 Long.MIN_VALUE，价格不会达到 Long.MAX_VALUE
+         */
+        private static final long NO_DELTA = Long.MAX_VALUE;
+        private static final int INITIAL_DAYS = 8;
+
+        private volatile AtomicReferenceArray<RoomDelta> rooms = new AtomicReferenceArray<>(16);
+        private final AtomicInteger size = new AtomicInteger();
+
+        private void put(int roomId, long epochDay, long minorUnits) {
+            AtomicReferenceArray<RoomDelta> current = rooms;
+            if (roomId >= current.length()) {
+                AtomicReferenceArray<RoomDelta> grown = new AtomicReferenceArray<>(Math.max(current.length() * 2, roomId + 1));
+                for (int i = 0; i < current.length(); i++) {
+                    grown.set(i, current.get(i));
+                }
+                rooms = grown;
+                current = grown;
+            }
+            RoomDelta room = current.get(roomId);
+            if (room == null) {
+                room = new RoomDelta(epochDay);
+                current.set(roomId, room);
+            }
+            if (room.put(epochDay, minorUnits) == NO_DELTA) {
+                size.incrementAndGet();
+            }
+        }
+
+        private long get(int roomId, long epochDay) {
+            RoomDelta room = room(roomId);
+            return room == null ? NO_DELTA : room.get(epochDay);
+        }
+
+        private boolean hasRoom(int roomId) {
+            return room(roomId) != null;
+        }
+
+        private int size() {
+            return size.get();
+        }
+
+        private void forEach(DeltaConsumer consumer) {
+            AtomicReferenceArray<RoomDelta> current = rooms;
+            for (int roomId = 0; roomId < current.length(); roomId++) {
+                int id = roomId;
+                forEachDay(id, (day, price) -> consumer.accept(id, day, price));
+            }
+        }
+
+        private void forEachDay(int roomId, DayConsumer consumer) {
+            RoomDelta room = room(roomId);
+            if (room == null) {
+                return;
+            }
+            RoomDays days = room.days;
+            for (int i = 0; i < days.prices.length(); i++) {
+                long price = days.prices.get(i);
+                if (price != NO_DELTA) {
+                    consumer.accept(days.firstDay + i, price);
+                }
+            }
+        }
+
+        private RoomDelta room(int roomId) {
+            AtomicReferenceArray<RoomDelta> current = rooms;
+            return roomId >= 0 && roomId < current.length() ? current.get(roomId) : null;
+        }
+
+        /**
+         * 复制本表并用 newer 覆盖，两张表都不再修改时调用
+         */
+        private DeltaTable overlay(DeltaTable newer) {
+            DeltaTable merged = new DeltaTable();
+            this.forEach(merged::put);
+            newer.forEach(merged::put);
+            return merged;
+        }
+
+        /**
+         * 单个房间的增量，日期范围不够时向增长方向至少翻倍
+         */
+        private static final class RoomDelta {
+            private volatile RoomDays days;
+
+            private RoomDelta(long firstDay) {
+                this.days = RoomDays.empty(firstDay, INITIAL_DAYS);
+            }
+
+            private long put(long epochDay, long minorUnits) {
+                RoomDays current = days;
+                long offset = epochDay - current.firstDay;
+                if (offset < 0 || offset >= current.prices.length()) {
+                    RoomDays grown = current.grow(epochDay);
+                    grown.prices.set((int) (epochDay - grown.firstDay), minorUnits);
+                    days = grown;
+                    return NO_DELTA;
+                }
+                return current.prices.getAndSet((int) offset, minorUnits);
+            }
+
+            private long get(long epochDay) {
+                RoomDays current = days;
+                long offset = epochDay - current.firstDay;
+                return offset < 0 || offset >= current.prices.length() ? NO_DELTA : current.prices.get((int) offset);
+            }
+        }
+
+        private static final class RoomDays {
+            private final long firstDay;
+            private final AtomicLongArray prices;
+
+            private RoomDays(long firstDay, AtomicLongArray prices) {
+                this.firstDay = firstDay;
+                this.prices = prices;
+            }
+
+            private static RoomDays empty(long firstDay, int dayCount) {
+                long[] prices = new long[dayCount];
+                Arrays.fill(prices, NO_DELTA);
+                return new RoomDays(firstDay, new AtomicLongArray(prices));
+            }
+
+            private RoomDays grow(long epochDay) {
+                long lastDay = firstDay + prices.length() - 1;
+                long newFirstDay = epochDay < firstDay ? Math.min(epochDay, firstDay - prices.length()) : firstDay;
+                long newLastDay = epochDay > lastDay ? Math.max(epochDay, lastDay + prices.length()) : lastDay;
+                RoomDays grown = empty(newFirstDay, Math.toIntExact(newLastDay - newFirstDay + 1));
+                for (int i = 0; i < prices.length(); i++) {
+                    grown.prices.set((int) (firstDay - newFirstDay) + i, prices.get(i));
+                }
+                return grown;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface DeltaConsumer {
+        void accept(int roomId, long epochDay, long minorUnits);
+    }
+
+    @FunctionalInterface
+    private interface DayConsumer {
+        void accept(long epochDay, long minorUnits);
+    }
+}
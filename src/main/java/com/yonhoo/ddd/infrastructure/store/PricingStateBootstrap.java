@@ -0,0 +1,250 @@
+package com.yonhoo.ddd.infrastructure.store;
+
+import com.yonhoo.ddd.application.OfferMinPriceView;
+import com.yonhoo.ddd.domain.model.DateRange;
+import com.yonhoo.ddd.domain.model.HotelOffer;
+import com.yonhoo.ddd.domain.model.HotelOfferV2;
+import com.yonhoo.ddd.infrastructure.cache.CachingHotelOfferRepository;
+import com.yonhoo.ddd.infrastructure.cache.FlatOfferCodecs;
+import com.yonhoo.ddd.infrastructure.cache.OfferCodec;
+import com.yonhoo.ddd.repository.MarketingPricingStrategyRepository;
+
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 节点启动时的计价状态恢复
+ * 运行期定期把一级缓存中的产品写成检查点（FlatOfferCodecs 编码），价格增量由 PriceChangeStore 压缩进快照；
+ * 启动时并行完成：映射价格快照并重放变更日志追平、映射产品检查点并行解码后预热缓存，随后预热营销策略索引。
+ * 全部完成前 isReady 为 false，调用方据此挡住流量。
+ * 产品检查点只是缓存预热，损坏时按冷启动继续（记录在 getCheckpointFailure）；价格状态恢复失败则保持未就绪。
+ * 节点停机期间（检查点之后）的产品变更收不到变更事件，预热的产品只在 warmUpTtl 内直接使用，过期后回源取最新版本；
+ * 预热的产品也不会再写进新的检查点，避免旧值在多次重启之间一直流转。
+ * 恢复的各个阶段和检查点的并行解码都跑在自有的 restoreExecutor 上，不占用公共 ForkJoinPool，close 时一并关闭
+ */
+public class PricingStateBootstrap implements Closeable {
+
+    static final String OFFER_CHECKPOINT_FILE = "offers.checkpoint";
+    static final String OFFER_V2_CHECKPOINT_FILE = "offers-v2.checkpoint";
+    static final Duration DEFAULT_WARM_UP_TTL = Duration.ofMinutes(5);
+
+    private final Path directory;
+    private final CachingHotelOfferRepository offerRepository;
+    private final MarketingPricingStrategyRepository strategyRepository;
+    private final int compactionThreshold;
+    private final Duration warmUpTtl;
+    private final ForkJoinPool restoreExecutor;
+    private final CountDownLatch restored = new CountDownLatch(1);
+
+    private volatile PriceChangeStore priceStore;
+    private volatile RuntimeException restoreFailure;
+    private volatile RuntimeException checkpointFailure;
+    private volatile int restoredOfferCount;
+    private ScheduledExecutorService checkpointer;
+
+    /**
+     * @param strategyRepository 恢复后按产品预热策略索引（如 IndexedMarketingPricingStrategyRepository），为 null 时跳过
+     */
+    public PricingStateBootstrap(Path directory,
+                                 CachingHotelOfferRepository offerRepository,
+                                 MarketingPricingStrategyRepository strategyRepository,
+                                 int compactionThreshold) {
+        this(directory, offerRepository, strategyRepository, compactionThreshold, DEFAULT_WARM_UP_TTL);
+    }
+
+    /**
+     * @param warmUpTtl 检查点中恢复的产品在缓存中的有效期，过期后回源
+     */
+    public PricingStateBootstrap(Path directory,
+                                 CachingHotelOfferRepository offerRepository,
+                                 MarketingPricingStrategyRepository strategyRepository,
+                                 int compactionThreshold,
+                                 Duration warmUpTtl) {
+        this(directory, offerRepository, strategyRepository, compactionThreshold, warmUpTtl,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param warmUpTtl          检查点中恢复的产品在缓存中的有效期，过期后回源
+     * @param restoreParallelism 恢复线程数，阻塞等待子任务的线程由 ForkJoinPool 临时补偿
+     */
+    public PricingStateBootstrap(Path directory,
+                                 CachingHotelOfferRepository offerRepository,
+                                 MarketingPricingStrategyRepository strategyRepository,
+                                 int compactionThreshold,
+                                 Duration warmUpTtl,
+                                 int restoreParallelism) {
+        this.directory = directory;
+        this.offerRepository = offerRepository;
+        this.strategyRepository = strategyRepository;
+        this.compactionThreshold = compactionThreshold;
+        this.warmUpTtl = warmUpTtl;
+        this.restoreExecutor = new ForkJoinPool(restoreParallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("pricing-restore-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * 从本地快照恢复，成功后进入就绪状态；重复调用直接返回
+     */
+    public synchronized void restore() {
+        if (priceStore != null) {
+            return;
+        }
+        CompletableFuture<PriceChangeStore> prices = CompletableFuture.supplyAsync(
+                () -> PriceChangeStore.open(directory, false, compactionThreshold), restoreExecutor);
+        try {
+            CompletableFuture<List<HotelOffer>> offers = CompletableFuture.supplyAsync(
+                    () -> readCheckpoint(OFFER_CHECKPOINT_FILE, FlatOfferCodecs.hotelOffer()), restoreExecutor);
+            CompletableFuture<List<HotelOfferV2>> offersV2 = CompletableFuture.supplyAsync(
+                    () -> readCheckpoint(OFFER_V2_CHECKPOINT_FILE, FlatOfferCodecs.hotelOfferV2()), restoreExecutor);
+
+            PriceChangeStore store = prices.join();
+            offerRepository.warmUp(offers.join(), warmUpTtl);
+            offerRepository.warmUpV2(offersV2.join(), warmUpTtl);
+            if (strategyRepository != null) {
+                // 在 restoreExecutor 内执行的并行流使用该池而不是公共池
+                restoreExecutor.submit(() -> Stream.concat(offers.join().stream().map(HotelOffer::getOfferNo),
+                                offersV2.join().stream().map(HotelOfferV2::getOfferNo))
+                        .distinct()
+                        .parallel()
+                        .forEach(strategyRepository::queryStrategyIndexByOfferNo)).join();
+            }
+            restoredOfferCount = offers.join().size() + offersV2.join().size();
+            priceStore = store;
+            restoreFailure = null;
+            restored.countDown();
+        } catch (RuntimeException e) {
+            restoreFailure = e instanceof CompletionException && e.getCause() instanceof RuntimeException cause ? cause : e;
+            prices.thenAccept(PriceChangeStore::close);
+            throw restoreFailure;
+        }
+    }
+
+    /**
+     * 在后台线程恢复，调用方通过 isReady / awaitReady 等待
+     */
+    public CompletableFuture<Void> restoreAsync() {
+        return CompletableFuture.runAsync(this::restore, restoreExecutor);
+    }
+
+    public boolean isReady() {
+        return restored.getCount() == 0;
+    }
+
+    public boolean awaitReady(Duration timeout) throws InterruptedException {
+        return restored.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 恢复后的价格状态，未就绪时抛出异常
+     */
+    public PriceChangeStore getPriceStore() {
+        PriceChangeStore store = priceStore;
+        if (store == null) {
+            throw new RuntimeException("pricing state is not restored");
+        }
+        return store;
+    }
+
+    /**
+     * 基于恢复后的价格状态创建 offer 最低价物化视图并接好增量维护：
+     * 价格变更经 PriceChangeStore 的变更监听重算受影响的入住日，产品保存或变更事件经缓存仓储的变更监听重新登记。
+     * 两个仓储各只有一个变更监听，同一时间只能维护一个视图
+     */
+    public OfferMinPriceView createOfferMinPriceView(DateRange checkInDays) {
+        PriceChangeStore store = getPriceStore();
+        OfferMinPriceView view = new OfferMinPriceView(store, checkInDays, offerRepository::queryHotelOfferByOfferNo);
+        store.setChangeListener(changes -> changes.forEach(change -> view.onRoomPriceChanged(change.getRoomNo(), change.getDay())));
+        offerRepository.setChangeListener(view::onOfferChanged);
+        return view;
+    }
+
+    /**
+     * 写一次检查点：一级缓存中的产品写成检查点文件，价格增量压缩进快照
+     */
+    public void checkpoint() {
+        PriceChangeStore store = getPriceStore();
+        OfferSnapshotFile.write(directory.resolve(OFFER_CHECKPOINT_FILE), offerRepository.cachedOffers(), FlatOfferCodecs.hotelOffer());
+        OfferSnapshotFile.write(directory.resolve(OFFER_V2_CHECKPOINT_FILE), offerRepository.cachedOffersV2(), FlatOfferCodecs.hotelOfferV2());
+        store.compact();
+    }
+
+    /**
+     * 后台按 interval 写检查点；单次失败不影响下一次
+     */
+    public synchronized void startCheckpointer(Duration interval) {
+        if (checkpointer != null) {
+            return;
+        }
+        checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pricing-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointer.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (RuntimeException e) {
+                checkpointFailure = e;
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public RuntimeException getRestoreFailure() {
+        return restoreFailure;
+    }
+
+    /**
+     * 最近一次读取或写入产品检查点的失败
+     */
+    public RuntimeException getCheckpointFailure() {
+        return checkpointFailure;
+    }
+
+    public int getRestoredOfferCount() {
+        return restoredOfferCount;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (checkpointer != null) {
+                checkpointer.shutdownNow();
+                checkpointer = null;
+            }
+        }
+        restoreExecutor.shutdownNow();
+        PriceChangeStore store = priceStore;
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private <T> List<T> readCheckpoint(String fileName, OfferCodec<T> codec) {
+        Path file = directory.resolve(fileName);
+        if (Files.notExists(file)) {
+            return List.of();
+        }
+        try {
+            return OfferSnapshotFile.read(file, codec, restoreExecutor);
+        } catch (RuntimeException e) {
+            checkpointFailure = e;
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.yonhoo.ddd.infrastructure.trace;
+
+import com.yonhoo.ddd.domain.service.PricingDecision;
+import com.yonhoo.ddd.domain.service.PricingDecisionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 定价决策环形缓冲区
+ * 采样在 shouldRecord 中完成（一次 getAndIncrement），丢弃的决策在定价路径上不构建记录；
+ * 保留的决策写入时只做一次 getAndIncrement 和一次 getAndSet，无锁、不阻塞；
+ * 缓冲区满时覆盖最旧的记录并计入 droppedCount，保证定价路径永远不会因为消费慢而等待。
+ * 读取方可以随时 snapshot 采样，或由后台线程周期性 drainTo 导出
+ */
+public class PricingDecisionRingBuffer implements PricingDecisionListener {
+
+    private final AtomicReferenceArray<PricingDecision> slots;
+    private final int mask;
+    private final int sampleInterval;
+    private final AtomicLong decisionCount = new AtomicLong();
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final LongAdder droppedCount = new LongAdder();
+    private long readSequence;
+
+    public PricingDecisionRingBuffer(int capacity) {
+        this(capacity, 1);
+    }
+
+    /**
+     * @param capacity       容量，向上取整为 2 的幂
+     * @param sampleInterval 每 sampleInterval 个决策保留一个，1 表示全部保留
+     */
+    public PricingDecisionRingBuffer(int capacity, int sampleInterval) {
+        if (capacity <= 0 || sampleInterval <= 0) {
+            throw new RuntimeException("capacity and sampleInterval must be positive");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(Math.max(size, 1));
+        this.mask = slots.length() - 1;
+        this.sampleInterval = sampleInterval;
+    }
+
+    @Override
+    public boolean shouldRecord() {
+        return decisionCount.getAndIncrement() % sampleInterval == 0;
+    }
+
+    /**
+     * 写入一条已采样的决策
+     */
+    @Override
+    public void onDecision(PricingDecision decision) {
+        PricingDecision overwritten = slots.getAndSet(slotIndex(writeSequence.getAndIncrement()), decision);
+        if (overwritten != null) {
+            droppedCount.increment();
+        }
+    }
+
+    /**
+     * 取出当前所有记录交给 consumer，单个消费者调用（内部同步，不影响写入方）
+     * 尽力而为：导出时仍在写入的记录留在缓冲区，可能被后续写入覆盖
+     *
+     * @return 导出的记录数
+     */
+    public synchronized int drainTo(Consumer<PricingDecision> consumer) {
+        long written = writeSequence.get();
+        long from = Math.max(readSequence, written - slots.length());
+        int drained = 0;
+        for (long sequence = from; sequence < written; sequence++) {
+            PricingDecision decision = slots.getAndSet(slotIndex(sequence), null);
+            if (decision != null) {
+                consumer.accept(decision);
+                drained++;
+            }
+        }
+        readSequence = written;
+        return drained;
+    }
+
+    /**
+     * 采样当前缓冲区内容，不移除记录
+     */
+    public List<PricingDecision> snapshot() {
+        List<PricingDecision> decisions = new ArrayList<>();
+        for (int i = 0; i < slots.length(); i++) {
+            PricingDecision decision = slots.get(i);
+            if (decision != null) {
+                decisions.add(decision);
+            }
+        }
+        return decisions;
+    }
+
+    /**
+     * 经过采样判断的决策总数，含被丢弃的
+     */
+    public long getDecisionCount() {
+        return decisionCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    private int slotIndex(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
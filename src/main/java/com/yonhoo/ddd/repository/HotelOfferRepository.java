@@ -4,10 +4,36 @@ package com.yonhoo.ddd.repository;
 import com.yonhoo.ddd.domain.model.HotelOffer;
 import com.yonhoo.ddd.domain.model.HotelOfferV2;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public interface HotelOfferRepository {
     HotelOffer queryHotelOfferByOfferNo(String offerNo);
 
     HotelOfferV2 queryHotelOfferV2ByOfferNo(String offerNo);
 
+    /**
+     * 保存或更新产品，实现方负责递增聚合版本号
+     */
+    void saveOffer(HotelOffer hotelOffer);
+
+    void saveOfferV2(HotelOfferV2 hotelOffer);
 
+    /**
+     * 批量查询，每个 offerNo 只加载一次；不存在的 offer 不出现在结果中
+     * 默认逐个查询，支持批量读取的实现应覆盖此方法
+     */
+    default Map<String, HotelOffer> queryHotelOffersByOfferNos(Collection<String> offerNos) {
+        Map<String, HotelOffer> hotelOffers = new LinkedHashMap<>();
+        for (String offerNo : offerNos) {
+            if (!hotelOffers.containsKey(offerNo)) {
+                HotelOffer hotelOffer = queryHotelOfferByOfferNo(offerNo);
+                if (hotelOffer != null) {
+                    hotelOffers.put(offerNo, hotelOffer);
+                }
+            }
+        }
+        return hotelOffers;
+    }
 }
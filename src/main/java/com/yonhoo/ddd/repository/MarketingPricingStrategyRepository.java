@@ -1,6 +1,7 @@
 package com.yonhoo.ddd.repository;
 
 import com.yonhoo.ddd.domain.model.MarketingPricingStrategy;
+import com.yonhoo.ddd.domain.model.MarketingStrategyIndex;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -20,6 +21,19 @@ public interface MarketingPricingStrategyRepository {
      */
     List<MarketingPricingStrategy> queryStrategiesInDateRange(LocalDate startDate, LocalDate endDate, String offerNo);
     
+    /**
+     * 查询产品关联的全部策略（不限日期）
+     */
+    List<MarketingPricingStrategy> queryStrategiesByOfferNo(String offerNo);
+
+    /**
+     * 查询产品的策略有效期索引
+     * 默认每次现建，缓存索引的实现应覆盖此方法
+     */
+    default MarketingStrategyIndex queryStrategyIndexByOfferNo(String offerNo) {
+        return MarketingStrategyIndex.of(queryStrategiesByOfferNo(offerNo));
+    }
+    
     /**
      * 根据策略ID查询策略
      */
@@ -2,7 +2,10 @@ package com.yonhoo.ddd.repository;
 
 
 import com.yonhoo.ddd.domain.model.PriceData;
+import com.yonhoo.ddd.domain.model.PriceDataAdapter;
 import com.yonhoo.ddd.domain.model.PriceDataV2;
+import com.yonhoo.ddd.domain.model.RoomPriceCalendar;
+import com.yonhoo.ddd.domain.model.TimingPriceIndex;
 
 import java.util.List;
 import java.util.Map;
@@ -13,4 +16,29 @@ public interface PriceDataRepository {
     Map<String, PriceDataV2> queryPriceDataV2ByRoomList(List<String> roomList);
 
     Map<String, PriceDataV2> queryPriceDataV2ByTicketList(List<String> roomList);
+
+    /**
+     * 加载价格数据并一次性构建房间价格日历
+     */
+    default RoomPriceCalendar queryRoomPriceCalendarByRoomList(List<String> roomList) {
+        return RoomPriceCalendar.of(queryPriceDataByRoomList(roomList));
+    }
+
+    default RoomPriceCalendar queryRoomPriceCalendarV2ByRoomList(List<String> roomList) {
+        return RoomPriceCalendar.of(queryPriceDataV2ByRoomList(roomList));
+    }
+
+    /**
+     * 加载 V2 价格数据并构建分时价格索引，供按时刻计价的产品使用
+     */
+    default TimingPriceIndex queryTimingPriceIndexByRoomList(List<String> roomList) {
+        return TimingPriceIndex.of(queryPriceDataV2ByRoomList(roomList));
+    }
+
+    /**
+     * 房间价格查询器，默认即价格日历；基于文件映射等实现可以直接返回不复制数据的查询视图
+     */
+    default PriceDataAdapter.RoomPriceQuery queryRoomPriceQueryByRoomList(List<String> roomList) {
+        return queryRoomPriceCalendarByRoomList(roomList);
+    }
 }
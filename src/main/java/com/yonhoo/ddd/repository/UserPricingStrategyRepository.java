@@ -2,6 +2,7 @@ package com.yonhoo.ddd.repository;
 
 import com.yonhoo.ddd.domain.model.UserContext;
 import com.yonhoo.ddd.domain.model.UserPricingStrategy;
+import com.yonhoo.ddd.domain.model.UserStrategyDecisionTable;
 
 import java.util.List;
 
@@ -24,6 +25,14 @@ public interface UserPricingStrategyRepository {
      * 查询所有激活的策略
      */
     List<UserPricingStrategy> queryActiveStrategies();
+
+    /**
+     * 查询所有激活策略编译成的决策表
+     * 默认每次现编译，缓存决策表的实现应覆盖此方法
+     */
+    default UserStrategyDecisionTable queryDecisionTable() {
+        return UserStrategyDecisionTable.compile(queryActiveStrategies());
+    }
     
     /**
      * 保存或更新策略
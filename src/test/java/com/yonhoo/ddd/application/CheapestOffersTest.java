@@ -0,0 +1,326 @@
+package com.yonhoo.ddd.application;
+
+import com.yonhoo.ddd.domain.model.Channel;
+import com.yonhoo.ddd.domain.model.DateRange;
+import com.yonhoo.ddd.domain.model.DiscountType;
+import com.yonhoo.ddd.domain.model.HolidayPricing;
+import com.yonhoo.ddd.domain.model.HotelOffer;
+import com.yonhoo.ddd.domain.model.HotelOfferV2;
+import com.yonhoo.ddd.domain.model.HotelProduct;
+import com.yonhoo.ddd.domain.model.MarketingPricingStrategy;
+import com.yonhoo.ddd.domain.model.MarketingStrategyIndex;
+import com.yonhoo.ddd.domain.model.NumberOfNights;
+import com.yonhoo.ddd.domain.model.PriceData;
+import com.yonhoo.ddd.domain.model.PriceDataV2;
+import com.yonhoo.ddd.domain.model.PricePair;
+import com.yonhoo.ddd.domain.model.PriceRule;
+import com.yonhoo.ddd.domain.model.PricingAdjustmentType;
+import com.yonhoo.ddd.domain.model.PricingResult;
+import com.yonhoo.ddd.domain.model.PriorityLevel;
+import com.yonhoo.ddd.domain.model.PriorityRule;
+import com.yonhoo.ddd.domain.model.Region;
+import com.yonhoo.ddd.domain.model.RoomInfo;
+import com.yonhoo.ddd.domain.model.RoomPriceCalendar;
+import com.yonhoo.ddd.domain.model.StrategyType;
+import com.yonhoo.ddd.domain.model.UserContext;
+import com.yonhoo.ddd.domain.model.UserLevel;
+import com.yonhoo.ddd.domain.model.UserLevelDiscount;
+import com.yonhoo.ddd.domain.model.UserPricingStrategy;
+import com.yonhoo.ddd.repository.HotelOfferRepository;
+import com.yonhoo.ddd.repository.MarketingPricingStrategyRepository;
+import com.yonhoo.ddd.repository.PriceDataRepository;
+import com.yonhoo.ddd.repository.UserPricingStrategyRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheapestOffersTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+    private static final int OFFERS = 200;
+
+    private final Map<String, HotelOffer> hotelOffers = new HashMap<>();
+    private final Map<String, PriceData> priceData = new HashMap<>();
+    private final Map<String, Integer> discountPercents = new HashMap<>();
+    private final List<UserPricingStrategy> userStrategies = new ArrayList<>();
+    private final AtomicInteger offerLoads = new AtomicInteger();
+
+    @Test
+    void lowerBoundsPruneTheCatalogWithoutChangingTheAnswer() {
+        List<String> offerNos = catalog();
+
+        ApplicationService applicationService = applicationService();
+        UserContext userContext = new UserContext("u-1", UserLevel.GOLD, Region.EAST_CHINA, Channel.MOBILE_APP, "MEMBER_u-1");
+        List<BigDecimal> expected = expectedFinalPrices(applicationService, offerNos, userContext, 20);
+
+        offerLoads.set(0);
+        Map<String, PricingResult> unpruned = applicationService.calculateCheapestOffers(offerNos, DAY, userContext, 20);
+        assertThat(finalPrices(unpruned)).containsExactlyElementsOf(expected);
+        assertThat(offerLoads).hasValue(OFFERS);
+
+        OfferMinPriceView view = new OfferMinPriceView(RoomPriceCalendar.of(priceData), DateRange.of(DAY, DAY.plusDays(6)));
+        hotelOffers.values().forEach(view::register);
+        applicationService.setOfferMinPriceView(view);
+        applicationService.setMaxTotalDiscountBasisPoints(2_000L);
+
+        offerLoads.set(0);
+        Map<String, PricingResult> pruned = applicationService.calculateCheapestOffers(offerNos, DAY, userContext, 20);
+        assertThat(finalPrices(pruned)).containsExactlyElementsOf(expected);
+        assertThat(pruned).doesNotContainKey("offer-7");
+        assertThat(offerLoads.get()).isLessThan(OFFERS / 2);
+    }
+
+    @Test
+    void defaultLowerBoundsComeFromStrategiesAndPruneTheCatalog() {
+        List<String> offerNos = catalog();
+        userStrategies.add(goldDiscount(15));
+
+        ApplicationService applicationService = applicationService();
+        UserContext userContext = new UserContext("u-1", UserLevel.GOLD, Region.EAST_CHINA, Channel.MOBILE_APP, "MEMBER_u-1");
+        List<BigDecimal> expected = expectedFinalPrices(applicationService, offerNos, userContext, 20);
+
+        OfferMinPriceView view = new OfferMinPriceView(RoomPriceCalendar.of(priceData), DateRange.of(DAY, DAY.plusDays(6)));
+        hotelOffers.values().forEach(view::register);
+        applicationService.setOfferMinPriceView(view);
+
+        offerLoads.set(0);
+        Map<String, PricingResult> pruned = applicationService.calculateCheapestOffers(offerNos, DAY, userContext, 20);
+        assertThat(finalPrices(pruned)).containsExactlyElementsOf(expected);
+        assertThat(pruned).doesNotContainKey("offer-7");
+        assertThat(offerLoads.get()).isLessThan(OFFERS / 2);
+    }
+
+    /**
+     * 200 个 offer，基础价 100 ~ 4100 元，各自 0% ~ 20% 的节假日折扣；offer-7 当天缺价
+     */
+    private List<String> catalog() {
+        SplittableRandom random = new SplittableRandom(31);
+        List<String> offerNos = new ArrayList<>();
+        for (int i = 0; i < OFFERS; i++) {
+            String offerNo = "offer-" + i;
+            offerNos.add(offerNo);
+            hotelOffers.put(offerNo, hotelOffer(offerNo, "room-" + i));
+            priceData.put("room-" + i, priceData("room-" + i, 100_00 + random.nextInt(400_000)));
+            discountPercents.put(offerNo, random.nextInt(21));
+        }
+        priceData.remove("room-7");
+        return offerNos;
+    }
+
+    private List<BigDecimal> expectedFinalPrices(ApplicationService applicationService, List<String> offerNos,
+                                                 UserContext userContext, int k) {
+        List<PricingResult> all = new ArrayList<>();
+        for (String offerNo : offerNos) {
+            Map<String, PricingResult> single = applicationService.calculateCheapestOffers(List.of(offerNo), DAY, userContext, 1);
+            all.addAll(single.values());
+        }
+        return all.stream()
+                .map(PricingResult::getFinalPrice)
+                .sorted(Comparator.naturalOrder())
+                .limit(k)
+                .toList();
+    }
+
+    private static List<BigDecimal> finalPrices(Map<String, PricingResult> results) {
+        return results.values().stream().map(PricingResult::getFinalPrice).toList();
+    }
+
+    private ApplicationService applicationService() {
+        ApplicationService applicationService = new ApplicationService();
+        applicationService.setHotelOfferRepository(new StubHotelOfferRepository());
+        applicationService.setPriceDataRepository(new StubPriceDataRepository());
+        applicationService.setUserPricingStrategyRepository(new StubUserPricingStrategyRepository());
+        applicationService.setMarketingPricingStrategyRepository(new StubMarketingPricingStrategyRepository());
+        return applicationService;
+    }
+
+    private static HotelOffer hotelOffer(String offerNo, String roomNo) {
+        NumberOfNights numberOfNights = new NumberOfNights();
+        numberOfNights.setMinNight(1);
+        numberOfNights.setMaxNight(1);
+        RoomInfo room = new RoomInfo();
+        room.setRoomNo(roomNo);
+        HotelProduct hotelProduct = new HotelProduct();
+        hotelProduct.setNumberOfNights(numberOfNights);
+        hotelProduct.setHotelProducts(List.of(room));
+
+        HotelOffer hotelOffer = new HotelOffer();
+        hotelOffer.setOfferNo(offerNo);
+        hotelOffer.setProducts(hotelProduct);
+        hotelOffer.setPriceRuleList(List.of(new PriceRule() {
+            @Override
+            public long getPriceInMinorUnits(LocalDate checkInDay, long unitPrice) {
+                return unitPrice;
+            }
+        }));
+        return hotelOffer;
+    }
+
+    private static PriceData priceData(String roomNo, long minorUnits) {
+        PriceData priceData = new PriceData();
+        priceData.setRoomNo(roomNo);
+        priceData.setPricePairs(List.of(new PricePair(DAY, BigDecimal.valueOf(minorUnits, 2))));
+        return priceData;
+    }
+
+    /**
+     * 整个入住日打 0% ~ 20% 的节假日折扣
+     */
+    private static UserPricingStrategy goldDiscount(int percent) {
+        UserLevelDiscount discount = new UserLevelDiscount();
+        discount.setTargetLevel(UserLevel.GOLD);
+        discount.setDiscountType(DiscountType.PERCENTAGE);
+        discount.setDiscountValue(BigDecimal.valueOf(percent));
+        PriorityRule priorityRule = new PriorityRule();
+        priorityRule.setApplyUserLevel(true);
+
+        UserPricingStrategy strategy = new UserPricingStrategy();
+        strategy.setStrategyId("gold-" + percent);
+        strategy.setActive(true);
+        strategy.setUserLevelDiscounts(List.of(discount));
+        strategy.setPriorityRule(priorityRule);
+        return strategy;
+    }
+
+    private static MarketingPricingStrategy holidayDiscount(String offerNo, int percent) {
+        HolidayPricing holidayPricing = new HolidayPricing();
+        holidayPricing.setHolidayPeriod(DateRange.of(DAY, DAY));
+        holidayPricing.setAdjustmentType(PricingAdjustmentType.DISCOUNT);
+        holidayPricing.setAdjustmentValue(BigDecimal.valueOf(percent));
+
+        MarketingPricingStrategy strategy = new MarketingPricingStrategy();
+        strategy.setStrategyId("holiday-" + offerNo);
+        strategy.setStrategyType(StrategyType.HOLIDAY_PRICING);
+        strategy.setActive(true);
+        strategy.setPriorityLevel(PriorityLevel.MEDIUM);
+        strategy.setEffectivePeriod(DateRange.of(DAY, DAY));
+        strategy.setHolidayPricings(List.of(holidayPricing));
+        return strategy;
+    }
+
+    private final class StubHotelOfferRepository implements HotelOfferRepository {
+        @Override
+        public HotelOffer queryHotelOfferByOfferNo(String offerNo) {
+            offerLoads.incrementAndGet();
+            return hotelOffers.get(offerNo);
+        }
+
+        @Override
+        public HotelOfferV2 queryHotelOfferV2ByOfferNo(String offerNo) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void saveOffer(HotelOffer hotelOffer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void saveOfferV2(HotelOfferV2 hotelOffer) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class StubPriceDataRepository implements PriceDataRepository {
+        @Override
+        public Map<String, PriceData> queryPriceDataByRoomList(List<String> roomList) {
+            Map<String, PriceData> result = new HashMap<>();
+            roomList.stream().filter(priceData::containsKey).forEach(roomNo -> result.put(roomNo, priceData.get(roomNo)));
+            return result;
+        }
+
+        @Override
+        public Map<String, PriceDataV2> queryPriceDataV2ByRoomList(List<String> roomList) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, PriceDataV2> queryPriceDataV2ByTicketList(List<String> roomList) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class StubUserPricingStrategyRepository implements UserPricingStrategyRepository {
+        @Override
+        public List<UserPricingStrategy> queryApplicableStrategies(UserContext userContext) {
+            return userStrategies;
+        }
+
+        @Override
+        public UserPricingStrategy queryStrategyById(String strategyId) {
+            return null;
+        }
+
+        @Override
+        public List<UserPricingStrategy> queryActiveStrategies() {
+            return userStrategies;
+        }
+
+        @Override
+        public void saveStrategy(UserPricingStrategy strategy) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteStrategy(String strategyId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class StubMarketingPricingStrategyRepository implements MarketingPricingStrategyRepository {
+        @Override
+        public MarketingStrategyIndex queryStrategyIndexByOfferNo(String offerNo) {
+            return MarketingStrategyIndex.of(queryStrategiesByOfferNo(offerNo));
+        }
+
+        @Override
+        public List<MarketingPricingStrategy> queryStrategiesByOfferNo(String offerNo) {
+            return List.of(holidayDiscount(offerNo, discountPercents.get(offerNo)));
+        }
+
+        @Override
+        public List<MarketingPricingStrategy> queryEffectiveStrategies(LocalDate targetDate, String offerNo) {
+            return queryStrategiesByOfferNo(offerNo);
+        }
+
+        @Override
+        public List<MarketingPricingStrategy> queryStrategiesInDateRange(LocalDate startDate, LocalDate endDate, String offerNo) {
+            return queryStrategiesByOfferNo(offerNo);
+        }
+
+        @Override
+        public MarketingPricingStrategy queryStrategyById(String strategyId) {
+            return null;
+        }
+
+        @Override
+        public List<MarketingPricingStrategy> queryActiveStrategies() {
+            return List.of();
+        }
+
+        @Override
+        public List<MarketingPricingStrategy> queryStrategiesByType(StrategyType strategyType) {
+            return List.of();
+        }
+
+        @Override
+        public void saveStrategy(MarketingPricingStrategy strategy) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteStrategy(String strategyId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.yonhoo.ddd.application;
+
+import com.yonhoo.ddd.domain.model.Channel;
+import com.yonhoo.ddd.domain.model.DateRange;
+import com.yonhoo.ddd.domain.model.DiscountType;
+import com.yonhoo.ddd.domain.model.HolidayPricing;
+import com.yonhoo.ddd.domain.model.HotelOffer;
+import com.yonhoo.ddd.domain.model.HotelOfferV2;
+import com.yonhoo.ddd.domain.model.HotelProduct;
+import com.yonhoo.ddd.domain.model.MarketingPricingStrategy;
+import com.yonhoo.ddd.domain.model.MarketingStrategyIndex;
+import com.yonhoo.ddd.domain.model.NumberOfNights;
+import com.yonhoo.ddd.domain.model.PriceData;
+import com.yonhoo.ddd.domain.model.PriceDataV2;
+import com.yonhoo.ddd.domain.model.PricePair;
+import com.yonhoo.ddd.domain.model.PriceRule;
+import com.yonhoo.ddd.domain.model.PricingAdjustmentType;
+import com.yonhoo.ddd.domain.model.PricingResult;
+import com.yonhoo.ddd.domain.model.PriorityLevel;
+import com.yonhoo.ddd.domain.model.PriorityRule;
+import com.yonhoo.ddd.domain.model.Region;
+import com.yonhoo.ddd.domain.model.RoomInfo;
+import com.yonhoo.ddd.domain.model.StrategyType;
+import com.yonhoo.ddd.domain.model.UserContext;
+import com.yonhoo.ddd.domain.model.UserLevel;
+import com.yonhoo.ddd.domain.model.UserLevelDiscount;
+import com.yonhoo.ddd.domain.model.UserPricingStrategy;
+import com.yonhoo.ddd.domain.model.Validity;
+import com.yonhoo.ddd.repository.HotelOfferRepository;
+import com.yonhoo.ddd.repository.MarketingPricingStrategyRepository;
+import com.yonhoo.ddd.repository.PriceDataRepository;
+import com.yonhoo.ddd.repository.UserPricingStrategyRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ComprehensivePricesTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+    private static final DateRange RANGE = DateRange.of(DAY, DAY.plusDays(4));
+
+    private final Map<String, HotelOffer> hotelOffers = new HashMap<>();
+    private final Map<String, PriceData> priceData = new HashMap<>();
+    private final Map<String, List<MarketingPricingStrategy>> marketingStrategies = new HashMap<>();
+    private final AtomicInteger offerLoads = new AtomicInteger();
+    private final AtomicInteger priceDataLoads = new AtomicInteger();
+    private final AtomicInteger userStrategyLoads = new AtomicInteger();
+    private final AtomicInteger marketingStrategyLoads = new AtomicInteger();
+
+    @Test
+    void batchPricesMatchSingleDayPricingAndLoadEachDependencyOnce() {
+        // offer-1：两个房型逐日交替更便宜，DAY+2 有 10% 的节假日折扣
+        hotelOffers.put("offer-1", hotelOffer("offer-1", List.of("room-1", "room-2"), List.of()));
+        priceData.put("room-1", priceData("room-1", 300_00, 310_00, 320_00, 330_00, 340_00));
+        priceData.put("room-2", priceData("room-2", 250_00, 360_00, 270_00, 380_00, 290_00));
+        marketingStrategies.put("offer-1", List.of(holidayDiscount("offer-1", DAY.plusDays(2), 10)));
+        // offer-2：DAY+1 不可售，当天缺价也不影响其余日期
+        hotelOffers.put("offer-2", hotelOffer("offer-2", List.of("room-3"),
+                List.of(DateRange.of(DAY.plusDays(1), DAY.plusDays(1)))));
+        priceData.put("room-3", priceData("room-3", 500_00, null, 520_00, 530_00, 540_00));
+
+        ApplicationService applicationService = applicationService();
+        UserContext userContext = new UserContext("u-1", UserLevel.GOLD, Region.EAST_CHINA, Channel.MOBILE_APP, "MEMBER_u-1");
+
+        // 不存在的 offer 和重复的 offerNo 一起传入
+        List<String> offerNos = List.of("offer-1", "offer-404", "offer-2", "offer-1");
+        Map<String, Map<LocalDate, PricingResult>> expected = expectedPrices(applicationService, offerNos);
+
+        resetLoadCounters();
+        Map<String, Map<LocalDate, PricingResult>> batch =
+                applicationService.calculateComprehensivePrices(offerNos, RANGE, userContext);
+
+        assertThat(batch).containsOnlyKeys("offer-1", "offer-2");
+        assertThat(expected).containsOnlyKeys(batch.keySet());
+        assertThat(batch.get("offer-1")).hasSize(5);
+        assertThat(batch.get("offer-2")).doesNotContainKey(DAY.plusDays(1)).hasSize(4);
+        expected.forEach((offerNo, prices) -> {
+            assertThat(batch.get(offerNo)).containsOnlyKeys(prices.keySet());
+            prices.forEach((day, single) -> assertThat(batch.get(offerNo).get(day))
+                    .usingRecursiveComparison()
+                    .ignoringFields("calculationTime")
+                    .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                    .isEqualTo(single));
+        });
+
+        // offer 去重后各加载一次，价格数据只加载一次，用户策略每个用户只查询一次，营销策略每个 offer 一次
+        assertThat(offerLoads).hasValue(3);
+        assertThat(priceDataLoads).hasValue(1);
+        assertThat(userStrategyLoads).hasValue(1);
+        assertThat(marketingStrategyLoads).hasValue(2);
+    }
+
+    @Test
+    void missingPriceOnAnAvailableDayFailsLikeSingleDayPricing() {
+        hotelOffers.put("offer-1", hotelOffer("offer-1", List.of("room-1"), List.of()));
+        priceData.put("room-1", priceData("room-1", 300_00, 310_00, 320_00, null, 340_00));
+
+        ApplicationService applicationService = applicationService();
+        UserContext userContext = new UserContext("u-1", UserLevel.GOLD, Region.EAST_CHINA, Channel.MOBILE_APP, "MEMBER_u-1");
+
+        assertThatThrownBy(() -> applicationService.calculateComprehensivePrice(
+                "offer-1", DAY.plusDays(3), "u-1", UserLevel.GOLD, Region.EAST_CHINA, Channel.MOBILE_APP, "s-1"))
+                .isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> applicationService.calculateComprehensivePrices(List.of("offer-1"), RANGE, userContext))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("no available price");
+
+        // 缺价日期不在查询范围内时不受影响
+        Map<String, Map<LocalDate, PricingResult>> batch = applicationService.calculateComprehensivePrices(
+                List.of("offer-1"), DateRange.of(DAY, DAY.plusDays(2)), userContext);
+        assertThat(batch.get("offer-1")).hasSize(3);
+    }
+
+    /**
+     * 逐个 offer、逐个入住日走单日综合定价；抛出异常（offer 不存在、不可入住）的日期视为不出现在结果中
+     */
+    private Map<String, Map<LocalDate, PricingResult>> expectedPrices(ApplicationService applicationService,
+                                                                     List<String> offerNos) {
+        Map<String, Map<LocalDate, PricingResult>> expected = new LinkedHashMap<>();
+        for (String offerNo : offerNos) {
+            for (LocalDate day = RANGE.getStartDate(); !day.isAfter(RANGE.getEndDate()); day = day.plusDays(1)) {
+                try {
+                    PricingResult single = applicationService.calculateComprehensivePrice(
+                            offerNo, day, "u-1", UserLevel.GOLD, Region.EAST_CHINA, Channel.MOBILE_APP, "s-1");
+                    expected.computeIfAbsent(offerNo, key -> new LinkedHashMap<>()).put(day, single);
+                } catch (RuntimeException unavailable) {
+                    // 单日定价失败的日期在批量结果中也不应出现
+                }
+            }
+        }
+        return expected;
+    }
+
+    private void resetLoadCounters() {
+        offerLoads.set(0);
+        priceDataLoads.set(0);
+        userStrategyLoads.set(0);
+        marketingStrategyLoads.set(0);
+    }
+
+    private ApplicationService applicationService() {
+        ApplicationService applicationService = new ApplicationService();
+        applicationService.setHotelOfferRepository(new StubHotelOfferRepository());
+        applicationService.setPriceDataRepository(new StubPriceDataRepository());
+        applicationService.setUserPricingStrategyRepository(new StubUserPricingStrategyRepository());
+        applicationService.setMarketingPricingStrategyRepository(new StubMarketingPricingStrategyRepository());
+        return applicationService;
+    }
+
+    private static HotelOffer hotelOffer(String offerNo, List<String> roomNos, List<DateRange> blackOutDateRanges) {
+        NumberOfNights numberOfNights = new NumberOfNights();
+        numberOfNights.setMinNight(1);
+        numberOfNights.setMaxNight(1);
+        List<RoomInfo> rooms = new ArrayList<>();
+        for (String roomNo : roomNos) {
+            RoomInfo room = new RoomInfo();
+            room.setRoomNo(roomNo);
+            rooms.add(room);
+        }
+        HotelProduct hotelProduct = new HotelProduct();
+        hotelProduct.setNumberOfNights(numberOfNights);
+        hotelProduct.setHotelProducts(rooms);
+
+        Validity validity = new Validity();
+        validity.setVisitingStartDate(DAY);
+        validity.setVisitingEndDate(DAY.plusDays(6));
+        validity.setBlackOutDateRanges(blackOutDateRanges);
+
+        HotelOffer hotelOffer = new HotelOffer();
+        hotelOffer.setOfferNo(offerNo);
+        hotelOffer.setProducts(hotelProduct);
+        hotelOffer.setValidity(validity);
+        hotelOffer.setPriceRuleList(List.of(new PriceRule() {
+            @Override
+            public long getPriceInMinorUnits(LocalDate checkInDay, long unitPrice) {
+                return unitPrice;
+            }
+        }));
+        return hotelOffer;
+    }
+
+    /**
+     * 从 DAY 开始逐日的价格（分），null 表示当天缺价
+     */
+    private static PriceData priceData(String roomNo, Integer... minorUnits) {
+        List<PricePair> pricePairs = new ArrayList<>();
+        for (int i = 0; i < minorUnits.length; i++) {
+            if (minorUnits[i] != null) {
+                pricePairs.add(new PricePair(DAY.plusDays(i), BigDecimal.valueOf(minorUnits[i], 2)));
+            }
+        }
+        PriceData priceData = new PriceData();
+        priceData.setRoomNo(roomNo);
+        priceData.setPricePairs(pricePairs);
+        return priceData;
+    }
+
+    private static UserPricingStrategy goldDiscount(int percent) {
+        UserLevelDiscount discount = new UserLevelDiscount();
+        discount.setTargetLevel(UserLevel.GOLD);
+        discount.setDiscountType(DiscountType.PERCENTAGE);
+        discount.setDiscountValue(BigDecimal.valueOf(percent));
+        PriorityRule priorityRule = new PriorityRule();
+        priorityRule.setApplyUserLevel(true);
+
+        UserPricingStrategy strategy = new UserPricingStrategy();
+        strategy.setStrategyId("gold-" + percent);
+        strategy.setActive(true);
+        strategy.setUserLevelDiscounts(List.of(discount));
+        strategy.setPriorityRule(priorityRule);
+        return strategy;
+    }
+
+    private static MarketingPricingStrategy holidayDiscount(String offerNo, LocalDate day, int percent) {
+        HolidayPricing holidayPricing = new HolidayPricing();
+        holidayPricing.setHolidayPeriod(DateRange.of(day, day));
+        holidayPricing.setAdjustmentType(PricingAdjustmentType.DISCOUNT);
+        holidayPricing.setAdjustmentValue(BigDecimal.valueOf(percent));
+
+        MarketingPricingStrategy strategy = new MarketingPricingStrategy();
+        strategy.setStrategyId("holiday-" + offerNo);
+        strategy.setStrategyType(StrategyType.HOLIDAY_PRICING);
+        strategy.setActive(true);
+        strategy.setPriorityLevel(PriorityLevel.MEDIUM);
+        strategy.setEffectivePeriod(DateRange.of(day, day));
+        strategy.setHolidayPricings(List.of(holidayPricing));
+        return strategy;
+    }
+
+    private final class StubHotelOfferRepository implements HotelOfferRepository {
+        @Override
+        public HotelOffer queryHotelOfferByOfferNo(String offerNo) {
+            offerLoads.incrementAndGet();
+            return hotelOffers.get(offerNo);
+        }
+
+        @Override
+        public HotelOfferV2 queryHotelOfferV2ByOfferNo(String offerNo) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void saveOffer(HotelOffer hotelOffer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void saveOfferV2(HotelOfferV2 hotelOffer) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class StubPriceDataRepository implements PriceDataRepository {
+        @Override
+        public Map<String, PriceData> queryPriceDataByRoomList(List<String> roomList) {
+            priceDataLoads.incrementAndGet();
+            Map<String, PriceData> result = new HashMap<>();
+            roomList.stream().filter(priceData::containsKey).forEach(roomNo -> result.put(roomNo, priceData.get(roomNo)));
+            return result;
+        }
+
+        @Override
+        public Map<String, PriceDataV2> queryPriceDataV2ByRoomList(List<String> roomList) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, PriceDataV2> queryPriceDataV2ByTicketList(List<String> roomList) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class StubUserPricingStrategyRepository implements UserPricingStrategyRepository {
+        private final List<UserPricingStrategy> userStrategies = List.of(goldDiscount(15));
+
+        @Override
+        public List<UserPricingStrategy> queryApplicableStrategies(UserContext userContext) {
+            userStrategyLoads.incrementAndGet();
+            return userStrategies;
+        }
+
+        @Override
+        public UserPricingStrategy queryStrategyById(String strategyId) {
+            return null;
+        }
+
+        @Override
+        public List<UserPricingStrategy> queryActiveStrategies() {
+            userStrategyLoads.incrementAndGet();
+            return userStrategies;
+        }
+
+        @Override
+        public void saveStrategy(UserPricingStrategy strategy) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteStrategy(String strategyId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class StubMarketingPricingStrategyRepository implements MarketingPricingStrategyRepository {
+        @Override
+        public MarketingStrategyIndex queryStrategyIndexByOfferNo(String offerNo) {
+            marketingStrategyLoads.incrementAndGet();
+            return MarketingStrategyIndex.of(queryStrategiesByOfferNo(offerNo));
+        }
+
+        @Override
+        public List<MarketingPricingStrategy> queryStrategiesByOfferNo(String offerNo) {
+            return marketingStrategies.getOrDefault(offerNo, List.of());
+        }
+
+        @Override
+        public List<MarketingPricingStrategy> queryEffectiveStrategies(LocalDate targetDate, String offerNo) {
+            return queryStrategiesByOfferNo(offerNo);
+        }
+
+        @Override
+        public List<MarketingPricingStrategy> queryStrategiesInDateRange(LocalDate startDate, LocalDate endDate, String offerNo) {
+            return queryStrategiesByOfferNo(offerNo);
+        }
+
+        @Override
+        public MarketingPricingStrategy queryStrategyById(String strategyId) {
+            return null;
+        }
+
+        @Override
+        public List<MarketingPricingStrategy> queryActiveStrategies() {
+            return List.of();
+        }
+
+        @Override
+        public List<MarketingPricingStrategy> queryStrategiesByType(StrategyType strategyType) {
+            return List.of();
+        }
+
+        @Override
+        public void saveStrategy(MarketingPricingStrategy strategy) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteStrategy(String strategyId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.yonhoo.ddd.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrentLoadScopeTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ExecutorService executor = ConcurrentLoadScope.newPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void dependentTaskReceivesTheResultOfItsDependency() {
+        try (ConcurrentLoadScope scope = new ConcurrentLoadScope(executor)) {
+            CompletableFuture<String> offer = scope.fork("offer", () -> "offer-1", TIMEOUT);
+            CompletableFuture<Integer> rooms = scope.forkAfter(offer, "rooms", String::length, TIMEOUT);
+            CompletableFuture<String> strategies = scope.fork("strategies", () -> "strategies", TIMEOUT);
+
+            scope.join(TIMEOUT);
+
+            assertThat(rooms.join()).isEqualTo(7);
+            assertThat(strategies.join()).isEqualTo("strategies");
+        }
+    }
+
+    @Test
+    void failureInterruptsTheOtherLoads() throws InterruptedException {
+        CountDownLatch slowLoadStarted = new CountDownLatch(1);
+        CountDownLatch slowLoadInterrupted = new CountDownLatch(1);
+
+        try (ConcurrentLoadScope scope = new ConcurrentLoadScope(executor)) {
+            scope.fork("slow", () -> {
+                slowLoadStarted.countDown();
+                try {
+                    Thread.sleep(TIMEOUT.toMillis());
+                } catch (InterruptedException e) {
+                    slowLoadInterrupted.countDown();
+                }
+                return "slow";
+            }, TIMEOUT);
+            // 还没开始执行的任务被取消后不会运行，也就观察不到中断
+            assertThat(slowLoadStarted.await(1, TimeUnit.SECONDS)).isTrue();
+            scope.fork("broken", () -> {
+                throw new IllegalStateException("repository down");
+            }, TIMEOUT);
+
+            assertThatThrownBy(() -> scope.join(TIMEOUT))
+                    .hasMessage("failed to load broken")
+                    .hasRootCauseMessage("repository down");
+        }
+
+        assertThat(slowLoadInterrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void dependentTaskIsCancelledWhenItsDependencyAlreadyFailed() {
+        try (ConcurrentLoadScope scope = new ConcurrentLoadScope(executor)) {
+            CompletableFuture<String> offer = scope.fork("offer", () -> {
+                throw new IllegalStateException("offer not found");
+            }, TIMEOUT);
+            assertThatThrownBy(offer::join).hasRootCauseMessage("offer not found");
+
+            CompletableFuture<Integer> rooms = scope.forkAfter(offer, "rooms", String::length, TIMEOUT);
+
+            assertThatThrownBy(() -> scope.join(TIMEOUT))
+                    .hasMessage("failed to load offer")
+                    .hasRootCauseMessage("offer not found");
+            assertThat(rooms).isCancelled();
+        }
+    }
+
+    @Test
+    void dependentTaskIsCancelledWhenItsDependencyFailsLater() {
+        CompletableFuture<String> offer = new CompletableFuture<>();
+        try (ConcurrentLoadScope scope = new ConcurrentLoadScope(executor)) {
+            CompletableFuture<Integer> rooms = scope.forkAfter(offer, "rooms", String::length, TIMEOUT);
+            offer.completeExceptionally(new IllegalStateException("offer not found"));
+
+            assertThatThrownBy(() -> scope.join(TIMEOUT)).hasMessage("failed to load rooms");
+            assertThat(rooms).isCancelled();
+        }
+    }
+
+    @Test
+    void joinGivesUpAfterItsDeadline() {
+        CompletableFuture<String> neverCompletes = new CompletableFuture<>();
+        try (ConcurrentLoadScope scope = new ConcurrentLoadScope(executor)) {
+            CompletableFuture<Integer> rooms = scope.forkAfter(neverCompletes, "rooms", String::length, TIMEOUT);
+
+            assertThatThrownBy(() -> scope.join(Duration.ofMillis(50)))
+                    .hasMessage("repository load timed out after 50 ms")
+                    .hasCauseInstanceOf(TimeoutException.class);
+            assertThat(rooms).isCancelled();
+        }
+    }
+
+    @Test
+    void slowLoadFailsWithItsOwnTimeout() {
+        try (ConcurrentLoadScope scope = new ConcurrentLoadScope(executor)) {
+            scope.fork("slow", () -> {
+                Thread.sleep(TIMEOUT.toMillis());
+                return "slow";
+            }, Duration.ofMillis(50));
+
+            assertThatThrownBy(() -> scope.join(TIMEOUT))
+                    .hasMessage("failed to load slow")
+                    .hasCauseInstanceOf(TimeoutException.class);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.yonhoo.ddd.application;
+
+import com.yonhoo.ddd.domain.model.DateRange;
+import com.yonhoo.ddd.domain.model.HotelOffer;
+import com.yonhoo.ddd.domain.model.HotelProduct;
+import com.yonhoo.ddd.domain.model.Money;
+import com.yonhoo.ddd.domain.model.NumberOfNights;
+import com.yonhoo.ddd.domain.model.PriceDataAdapter;
+import com.yonhoo.ddd.domain.model.PriceRule;
+import com.yonhoo.ddd.domain.model.RoomInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfferMinPriceViewTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+    private static final DateRange CHECK_IN_DAYS = DateRange.of(DAY, DAY.plusDays(29));
+
+    @Test
+    void incrementalUpdatesMatchRecomputingTheWholeCalendar() {
+        SplittableRandom random = new SplittableRandom(29);
+        MutablePriceQuery priceQuery = new MutablePriceQuery();
+        for (String roomNo : List.of("a", "b", "c", "d")) {
+            for (int night = -2; night < 36; night++) {
+                priceQuery.put(roomNo, DAY.plusDays(night), 100_00L + random.nextInt(50_000));
+            }
+        }
+        List<HotelOffer> hotelOffers = List.of(
+                hotelOffer("offer-1", 3, "a", "b"),
+                hotelOffer("offer-2", 2, "b", "c"),
+                hotelOffer("offer-3", 1, "d"));
+
+        OfferMinPriceView view = new OfferMinPriceView(priceQuery, CHECK_IN_DAYS);
+        hotelOffers.forEach(view::register);
+        assertMatches(view, hotelOffers, priceQuery);
+
+        for (int i = 0; i < 200; i++) {
+            String roomNo = List.of("a", "b", "c", "d").get(random.nextInt(4));
+            LocalDate night = DAY.plusDays(random.nextInt(38) - 2);
+            if (random.nextInt(8) == 0) {
+                priceQuery.remove(roomNo, night);
+            } else {
+                priceQuery.put(roomNo, night, 100_00L + random.nextInt(50_000));
+            }
+
+            priceQuery.queriedRooms.clear();
+            view.onRoomPriceChanged(roomNo, night);
+            if (roomNo.equals("d")) {
+                // 只有 offer-3 引用房间 d，其余 offer 不重算
+                assertThat(priceQuery.queriedRooms).isSubsetOf("d");
+            }
+            assertMatches(view, hotelOffers, priceQuery);
+        }
+
+        view.unregister("offer-3");
+        assertThat(view.getMinPrice("offer-3", DAY)).isNull();
+        assertThat(view.getMinPrice("offer-1", DAY.minusDays(1))).isNull();
+    }
+
+    private static void assertMatches(OfferMinPriceView view, List<HotelOffer> hotelOffers, MutablePriceQuery priceQuery) {
+        for (HotelOffer hotelOffer : hotelOffers) {
+            Map<LocalDate, Money> expected = hotelOffer.calculateMinPrices(CHECK_IN_DAYS, priceQuery);
+            CHECK_IN_DAYS.toStream().forEach(checkInDay ->
+                    assertThat(view.getMinPrice(hotelOffer.getOfferNo(), checkInDay))
+                            .as("%s %s", hotelOffer.getOfferNo(), checkInDay)
+                            .isEqualTo(expected.get(checkInDay)));
+        }
+    }
+
+    private static HotelOffer hotelOffer(String offerNo, int minNight, String... roomNos) {
+        NumberOfNights numberOfNights = new NumberOfNights();
+        numberOfNights.setMinNight(minNight);
+        numberOfNights.setMaxNight(minNight);
+
+        List<RoomInfo> rooms = new ArrayList<>();
+        for (String roomNo : roomNos) {
+            RoomInfo room = new RoomInfo();
+            room.setRoomNo(roomNo);
+            rooms.add(room);
+        }
+        HotelProduct hotelProduct = new HotelProduct();
+        hotelProduct.setNumberOfNights(numberOfNights);
+        hotelProduct.setHotelProducts(rooms);
+
+        HotelOffer hotelOffer = new HotelOffer();
+        hotelOffer.setOfferNo(offerNo);
+        hotelOffer.setProducts(hotelProduct);
+        hotelOffer.setPriceRuleList(List.of(new PriceRule() {
+            @Override
+            public long getPriceInMinorUnits(LocalDate checkInDay, long unitPrice) {
+                return unitPrice;
+            }
+        }));
+        return hotelOffer;
+    }
+
+    /**
+     * 可修改的房间价格，记录被查询的房间
+     */
+    private static final class MutablePriceQuery implements PriceDataAdapter.RoomPriceQuery {
+        private final Map<String, Long> prices = new ConcurrentHashMap<>();
+        private final Set<String> queriedRooms = ConcurrentHashMap.newKeySet();
+
+        private void put(String roomNo, LocalDate day, long minorUnits) {
+            prices.put(roomNo + "@" + day, minorUnits);
+        }
+
+        private void remove(String roomNo, LocalDate day) {
+            prices.remove(roomNo + "@" + day);
+        }
+
+        @Override
+        public Money queryRoomMinPrice(String roomNo, LocalDate day) {
+            return Money.ofMinor(queryRoomMinPriceInMinorUnits(roomNo, day));
+        }
+
+        @Override
+        public long queryRoomMinPriceInMinorUnits(String roomNo, LocalDate day) {
+            queriedRooms.add(roomNo);
+            Long price = prices.get(roomNo + "@" + day);
+            if (price == null) {
+                throw new RuntimeException("no available price");
+            }
+            return price;
+        }
+
+        @Override
+        public boolean hasDataForRoom(String roomNo) {
+            return true;
+        }
+    }
+}
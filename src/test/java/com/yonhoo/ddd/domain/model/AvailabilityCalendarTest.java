@@ -0,0 +1,103 @@
+package com.yonhoo.ddd.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AvailabilityCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+
+    @Test
+    void scansAgreeWithCheckingEveryDayAgainstTheValidity() {
+        SplittableRandom random = new SplittableRandom(13);
+        LocalDate from = DAY.minusDays(20);
+        LocalDate to = DAY.plusDays(400);
+
+        for (int round = 0; round < 200; round++) {
+            Validity validity = new Validity();
+            if (random.nextBoolean()) {
+                validity.setVisitingStartDate(DAY.plusDays(random.nextInt(60)));
+            }
+            if (random.nextBoolean()) {
+                validity.setVisitingEndDate(DAY.plusDays(100 + random.nextInt(300)));
+            }
+            List<DateRange> blackOuts = new ArrayList<>();
+            for (int i = 0; i < random.nextInt(8); i++) {
+                LocalDate start = DAY.plusDays(random.nextInt(380) - 10);
+                blackOuts.add(DateRange.of(start, start.plusDays(random.nextInt(70))));
+            }
+            validity.setBlackOutDateRanges(blackOuts);
+
+            AvailabilityCalendar calendar = validity.compileAvailability();
+            List<DateRange> expectedRanges = new ArrayList<>();
+            int expectedCount = 0;
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                boolean available = isAvailable(validity, day);
+                assertThat(calendar.isAvailable(day)).as("%s", day).isEqualTo(available);
+                assertThat(calendar.nextAvailableDay(day, to)).isEqualTo(next(validity, day, to, true));
+                assertThat(calendar.nextUnavailableDay(day, to)).isEqualTo(next(validity, day, to, false));
+                if (available) {
+                    expectedCount++;
+                    DateRange last = expectedRanges.isEmpty() ? null : expectedRanges.get(expectedRanges.size() - 1);
+                    if (last != null && last.getEndDate().plusDays(1).equals(day)) {
+                        last.setEndDate(day);
+                    } else {
+                        expectedRanges.add(DateRange.of(day, day));
+                    }
+                }
+            }
+
+            assertThat(calendar.countAvailableDays(from, to)).isEqualTo(expectedCount);
+            assertThat(calendar.availableRanges(DateRange.of(from, to)))
+                    .extracting(DateRange::getStartDate, DateRange::getEndDate)
+                    .containsExactlyElementsOf(expectedRanges.stream()
+                            .map(range -> tuple(range.getStartDate(), range.getEndDate()))
+                            .toList());
+        }
+    }
+
+    @Test
+    void bookingTimeAppliesSalesWindowAndAdvanceBookingDays() {
+        Validity validity = new Validity();
+        validity.setSalesStartDate(DAY);
+        validity.setSalesEndDate(DAY.plusDays(30));
+        validity.setAdvanceBookingDays(3);
+        validity.setBlackOutDateRanges(List.of(DateRange.of(DAY.plusDays(4), DAY.plusDays(5))));
+
+        LocalDateTime bookingTime = DAY.atTime(9, 0);
+        assertThat(validity.validateCheckInDayIsAvailable(DAY.plusDays(2), bookingTime)).isFalse();
+        assertThat(validity.validateCheckInDayIsAvailable(DAY.plusDays(3), bookingTime)).isTrue();
+        assertThat(validity.compileAvailability(bookingTime).nextAvailableDay(DAY.plusDays(4), DAY.plusDays(10)))
+                .isEqualTo(DAY.plusDays(6));
+        assertThat(validity.validateCheckInDayIsAvailable(DAY.plusDays(2))).isTrue();
+
+        assertThat(validity.validateCheckInDayIsAvailable(DAY.plusDays(40), DAY.plusDays(31).atStartOfDay())).isFalse();
+    }
+
+    private static boolean isAvailable(Validity validity, LocalDate day) {
+        if (validity.getVisitingStartDate() != null && day.isBefore(validity.getVisitingStartDate())) {
+            return false;
+        }
+        if (validity.getVisitingEndDate() != null && day.isAfter(validity.getVisitingEndDate())) {
+            return false;
+        }
+        return validity.getBlackOutDateRanges().stream().noneMatch(range -> range.contains(day));
+    }
+
+    private static LocalDate next(Validity validity, LocalDate from, LocalDate to, boolean available) {
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (isAvailable(validity, day) == available) {
+                return day;
+            }
+        }
+        return null;
+    }
+}
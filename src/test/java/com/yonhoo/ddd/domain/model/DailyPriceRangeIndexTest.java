@@ -0,0 +1,94 @@
+package com.yonhoo.ddd.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DailyPriceRangeIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+
+    @Test
+    void rangeQueriesAndPointUpdatesMatchScanningEveryDay() {
+        SplittableRandom random = new SplittableRandom(37);
+        int days = 97;
+        Long[] prices = new Long[days];
+        for (int i = 0; i < days; i++) {
+            // 价格区间很窄，制造大量同价；首尾两天有价格以固定索引范围
+            if (i == 0 || i == days - 1 || random.nextInt(6) != 0) {
+                prices[i] = 100_00L + random.nextInt(20) * 100L;
+            }
+        }
+        List<DailyPriceInfo> dailyPrices = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            if (prices[i] != null) {
+                dailyPrices.add(dailyPrice(DAY.plusDays(i), prices[i]));
+            }
+        }
+        DailyPriceRangeIndex index = DailyPriceRangeIndex.of(dailyPrices);
+
+        for (int round = 0; round < 2_000; round++) {
+            if (round % 4 == 0) {
+                int day = random.nextInt(days);
+                prices[day] = random.nextInt(5) == 0 ? null : 100_00L + random.nextInt(20) * 100L;
+                index.update(DAY.plusDays(day), prices[day] == null ? null : Money.ofMinor(prices[day]));
+            }
+
+            int from = random.nextInt(days + 10) - 5;
+            int to = from + random.nextInt(40);
+            DateRange range = DateRange.of(DAY.plusDays(from), DAY.plusDays(to));
+            Integer cheapest = null;
+            Integer mostExpensive = null;
+            for (int day = Math.max(from, 0); day <= Math.min(to, days - 1); day++) {
+                if (prices[day] == null) {
+                    continue;
+                }
+                if (cheapest == null || prices[day] < prices[cheapest]) {
+                    cheapest = day;
+                }
+                if (mostExpensive == null || prices[day] > prices[mostExpensive]) {
+                    mostExpensive = day;
+                }
+            }
+
+            assertThat(index.findCheapestDay(range)).as("%s", range.getStartDate())
+                    .isEqualTo(cheapest == null ? null : DAY.plusDays(cheapest));
+            assertThat(index.findMostExpensiveDay(range))
+                    .isEqualTo(mostExpensive == null ? null : DAY.plusDays(mostExpensive));
+            assertThat(index.findMinPrice(range)).isEqualTo(cheapest == null ? null : Money.ofMinor(prices[cheapest]));
+            assertThat(index.findMaxPrice(range)).isEqualTo(mostExpensive == null ? null : Money.ofMinor(prices[mostExpensive]));
+        }
+
+        assertThatThrownBy(() -> index.update(DAY.minusDays(1), Money.ONE))
+                .hasMessage("day out of price index range: " + DAY.minusDays(1));
+    }
+
+    @Test
+    void trendAnalysisAnswersSubRangesFromItsIndex() {
+        List<DailyPriceInfo> dailyPrices = List.of(
+                dailyPrice(DAY, 300_00L),
+                dailyPrice(DAY.plusDays(1), 120_00L),
+                dailyPrice(DAY.plusDays(3), 120_00L),
+                dailyPrice(DAY.plusDays(4), 500_00L));
+
+        PriceTrendAnalysis analysis = new PriceTrendAnalysis(dailyPrices);
+
+        assertThat(analysis.getLowestPrice()).isEqualByComparingTo("120.00");
+        assertThat(analysis.getHighestPrice()).isEqualByComparingTo("500.00");
+        assertThat(analysis.getBestDealDate()).isEqualTo(DAY.plusDays(1));
+        assertThat(analysis.findBestDealDate(DateRange.of(DAY.plusDays(2), DAY.plusDays(4)))).isEqualTo(DAY.plusDays(3));
+        assertThat(analysis.findBestDealDate(DateRange.of(DAY.plusDays(2), DAY.plusDays(2)))).isNull();
+    }
+
+    private static DailyPriceInfo dailyPrice(LocalDate date, long finalPrice) {
+        BigDecimal price = BigDecimal.valueOf(finalPrice, 2);
+        return new DailyPriceInfo(date, price, price, PricingType.STANDARD);
+    }
+}
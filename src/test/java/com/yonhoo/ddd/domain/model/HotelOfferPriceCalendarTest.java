@@ -0,0 +1,117 @@
+package com.yonhoo.ddd.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HotelOfferPriceCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+
+    @Test
+    void slidingWindowMatchesPricingEachStayFromScratch() {
+        HotelOffer hotelOffer = hotelOffer(3, List.of(rule(0, 0), rule(10, 500)));
+        RoomPriceCalendar calendar = calendar(40, DAY.plusDays(17));
+
+        DateRange checkInDays = DateRange.of(DAY, DAY.plusDays(36));
+        Map<LocalDate, Money> minPrices = hotelOffer.calculateMinPrices(checkInDays, calendar);
+
+        checkInDays.toStream().forEach(checkInDay -> {
+            if (checkInDay.isAfter(DAY.plusDays(14)) && !checkInDay.isAfter(DAY.plusDays(17))) {
+                // 连住期间包含缺价的一晚
+                assertThat(minPrices).doesNotContainKey(checkInDay);
+                assertThatThrownBy(() -> hotelOffer.calculateMinPrice(checkInDay, calendar));
+            } else {
+                assertThat(minPrices.get(checkInDay))
+                        .as(checkInDay.toString())
+                        .isEqualTo(hotelOffer.calculateMinPrice(checkInDay, calendar));
+            }
+        });
+    }
+
+    @Test
+    void stayPricesMatchPricingEachLengthSeparately() {
+        NumberOfNights numberOfNights = new NumberOfNights();
+        numberOfNights.setMinNight(2);
+        numberOfNights.setMaxNight(14);
+        HotelOffer hotelOffer = hotelOffer(numberOfNights, List.of(rule(0, 0), rule(10, 500), rule(5, 0)));
+        RoomPriceCalendar calendar = calendar(40, DAY.plusDays(10));
+
+        Map<Integer, Money> stayPrices = hotelOffer.calculateStayPrices(DAY, calendar);
+
+        // 第 11 晚缺价，只能连住 2..10 晚
+        assertThat(stayPrices).containsOnlyKeys(2, 3, 4, 5, 6, 7, 8, 9, 10);
+        stayPrices.forEach((nights, price) -> {
+            numberOfNights.setMinNight(nights);
+            assertThat(price).as(nights + " nights").isEqualTo(hotelOffer.calculateMinPrice(DAY, calendar));
+        });
+    }
+
+    private static HotelOffer hotelOffer(int minNight, List<PriceRule> priceRules) {
+        NumberOfNights numberOfNights = new NumberOfNights();
+        numberOfNights.setMinNight(minNight);
+        numberOfNights.setMaxNight(minNight);
+        return hotelOffer(numberOfNights, priceRules);
+    }
+
+    private static HotelOffer hotelOffer(NumberOfNights numberOfNights, List<PriceRule> priceRules) {
+        List<RoomInfo> rooms = new ArrayList<>();
+        for (String roomNo : List.of("deluxe", "standard")) {
+            RoomInfo room = new RoomInfo();
+            room.setRoomNo(roomNo);
+            rooms.add(room);
+        }
+
+        HotelProduct hotelProduct = new HotelProduct();
+        hotelProduct.setNumberOfNights(numberOfNights);
+        hotelProduct.setHotelProducts(rooms);
+
+        HotelOffer hotelOffer = new HotelOffer();
+        hotelOffer.setProducts(hotelProduct);
+        hotelOffer.setPriceRuleList(priceRules);
+        return hotelOffer;
+    }
+
+    /**
+     * 按百分比打折，周末加价
+     */
+    private static PriceRule rule(int discountPercent, long weekendMarkup) {
+        return new PriceRule() {
+            @Override
+            public long getPriceInMinorUnits(LocalDate checkInDay, long unitPrice) {
+                long price = unitPrice * (100 - discountPercent) / 100;
+                DayOfWeek dayOfWeek = checkInDay.getDayOfWeek();
+                return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY ? price + weekendMarkup : price;
+            }
+        };
+    }
+
+    private static RoomPriceCalendar calendar(int days, LocalDate missingDay) {
+        SplittableRandom random = new SplittableRandom(42);
+        Map<String, PriceData> priceData = new HashMap<>();
+        for (String roomNo : List.of("deluxe", "standard")) {
+            List<PricePair> pricePairs = new ArrayList<>();
+            for (int i = 0; i < days; i++) {
+                LocalDate day = DAY.plusDays(i);
+                if (!day.equals(missingDay) || roomNo.equals("standard")) {
+                    pricePairs.add(new PricePair(day, BigDecimal.valueOf(200_00L + random.nextInt(500_00), 2)));
+                }
+            }
+            PriceData data = new PriceData();
+            data.setRoomNo(roomNo);
+            data.setPricePairs(pricePairs);
+            priceData.put(roomNo, data);
+        }
+        return RoomPriceCalendar.of(priceData);
+    }
+}
@@ -0,0 +1,128 @@
+package com.yonhoo.ddd.domain.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HybridOfferTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "ticket-branch"));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void calendarMatchesDailyPricesAndQueriesEachTicketDayOnce() {
+        Validity validity = new Validity();
+        validity.setBlackOutDateRanges(List.of(DateRange.of(DAY.plusDays(3), DAY.plusDays(4))));
+        HybridOffer hybridOffer = hybridOffer(3, 3, 4, validity, CustomerChoice.FIXED);
+        CountingQuery priceQuery = new CountingQuery();
+
+        Map<LocalDate, Money> minPrices = hybridOffer.getMinPricesV3(DateRange.of(DAY, DAY.plusDays(9)), priceQuery, null);
+
+        assertThat(minPrices).hasSize(8).doesNotContainKeys(DAY.plusDays(3), DAY.plusDays(4));
+        assertThat(priceQuery.ticketQueries).hasValue(4 * 8);
+        minPrices.forEach((checkInDay, price) ->
+                assertThat(hybridOffer.getMinPriceV3(checkInDay, priceQuery)).as("%s", checkInDay).isEqualTo(price));
+    }
+
+    @Test
+    void largePackagePricesTheTicketBranchConcurrently() {
+        HybridOffer hybridOffer = hybridOffer(80, 64, 64, new Validity(), CustomerChoice.SINGLE);
+        CountingQuery priceQuery = new CountingQuery();
+
+        Money sequential = hybridOffer.getMinPriceV3(DAY, priceQuery);
+        assertThat(priceQuery.ticketThreads).containsOnly(Thread.currentThread().getName());
+
+        priceQuery.ticketThreads.clear();
+        assertThat(hybridOffer.getMinPriceV3(DAY, priceQuery, executor)).isEqualTo(sequential);
+        assertThat(priceQuery.ticketThreads).containsOnly("ticket-branch");
+    }
+
+    private static HybridOffer hybridOffer(int rules, int rooms, int tickets, Validity validity, CustomerChoice customerChoice) {
+        NumberOfNights numberOfNights = new NumberOfNights();
+        numberOfNights.setMinNight(2);
+        numberOfNights.setMaxNight(2);
+
+        List<RoomInfo> roomInfos = new ArrayList<>();
+        for (int i = 0; i < rooms; i++) {
+            RoomInfo room = new RoomInfo();
+            room.setRoomNo("room-" + i);
+            roomInfos.add(room);
+        }
+        HotelProduct hotelProduct = new HotelProduct();
+        hotelProduct.setNumberOfNights(numberOfNights);
+        hotelProduct.setHotelProducts(roomInfos);
+
+        List<TicketItem> ticketItems = new ArrayList<>();
+        for (int i = 0; i < tickets; i++) {
+            TicketItem ticket = new TicketItem();
+            ticket.setProductNumber("ticket-" + i);
+            ticketItems.add(ticket);
+        }
+        AttractionProduct attractionProduct = new AttractionProduct();
+        attractionProduct.setProductItemList(ticketItems);
+
+        List<PriceRule> priceRules = new ArrayList<>();
+        for (int i = 0; i < rules; i++) {
+            int discountPercent = i * 7 % 30;
+            priceRules.add(new PriceRule() {
+                @Override
+                public long getPriceInMinorUnits(LocalDate checkInDay, long unitPrice) {
+                    return unitPrice * (100 - discountPercent) / 100;
+                }
+            });
+        }
+        return new HybridOffer(new ProductGroups(hotelProduct, attractionProduct), "offer-hybrid",
+                priceRules, validity, customerChoice);
+    }
+
+    /**
+     * 价格由编号和日期决定，记录门票查询次数和查询所在线程
+     */
+    private static final class CountingQuery implements PriceDataAdapter.HybridPriceQuery {
+        private final AtomicInteger ticketQueries = new AtomicInteger();
+        private final Set<String> ticketThreads = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public Money queryRoomMinPrice(String roomNo, LocalDate day) {
+            return price(roomNo, day);
+        }
+
+        @Override
+        public boolean hasDataForRoom(String roomNo) {
+            return true;
+        }
+
+        @Override
+        public Money queryTicketMinPrice(String productNumber, LocalDate day) {
+            ticketQueries.incrementAndGet();
+            ticketThreads.add(Thread.currentThread().getName());
+            return price(productNumber, day);
+        }
+
+        @Override
+        public boolean hasDataForTicket(String productNumber) {
+            return true;
+        }
+
+        private static Money price(String productNumber, LocalDate day) {
+            return Money.ofMinor(10_000 + Math.floorMod((productNumber + day).hashCode(), 50_000));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.yonhoo.ddd.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdDictionaryTest {
+
+    @Test
+    void concurrentCallersAgreeOnDenseIds() throws Exception {
+        IdDictionary dictionary = new IdDictionary();
+        Map<String, Integer> seen = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = IntStream.range(0, 4).<Future<?>>mapToObj(t -> executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    String name = "room-" + (i * 7 + t) % 1_000;
+                    int id = dictionary.idOf(name);
+                    Integer previous = seen.putIfAbsent(name, id);
+                    assertThat(previous == null ? id : previous).isEqualTo(id);
+                    assertThat(dictionary.nameOf(id)).isEqualTo(name);
+                }
+            })).toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(dictionary.size()).isEqualTo(1_000);
+        assertThat(seen.values()).containsExactlyInAnyOrderElementsOf(IntStream.range(0, 1_000).boxed().toList());
+        assertThat(dictionary.lookup("room-unknown")).isEqualTo(IdDictionary.NO_ID);
+    }
+
+    @Test
+    void intIntHashMapMatchesHashMap() {
+        SplittableRandom random = new SplittableRandom(43);
+        IntIntHashMap map = new IntIntHashMap(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            int key = random.nextInt(3_000);
+            int value = random.nextInt();
+            assertThat(map.put(key, value, -1)).isEqualTo(expected.getOrDefault(key, -1));
+            expected.put(key, value);
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (int key = -1; key < 3_100; key++) {
+            assertThat(map.get(key, -1)).isEqualTo(expected.getOrDefault(key, -1));
+            assertThat(map.containsKey(key)).isEqualTo(expected.containsKey(key));
+        }
+    }
+}
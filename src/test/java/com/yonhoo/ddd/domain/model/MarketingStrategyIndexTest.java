@@ -0,0 +1,71 @@
+package com.yonhoo.ddd.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarketingStrategyIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+
+    @Test
+    void returnsEffectiveStrategiesByPriority() {
+        MarketingPricingStrategy low = strategy("low", PriorityLevel.LOW, DAY, DAY.plusDays(10), true);
+        MarketingPricingStrategy urgent = strategy("urgent", PriorityLevel.URGENT, DAY.plusDays(2), DAY.plusDays(3), true);
+        MarketingPricingStrategy inactive = strategy("inactive", PriorityLevel.HIGH, DAY, DAY.plusDays(10), false);
+        MarketingPricingStrategy expired = strategy("expired", PriorityLevel.HIGH, DAY.minusDays(5), DAY.minusDays(1), true);
+
+        MarketingStrategyIndex index = MarketingStrategyIndex.of(List.of(low, urgent, inactive, expired));
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.findEffective(DAY.plusDays(2))).containsExactly(urgent, low);
+        assertThat(index.findEffective(DAY)).containsExactly(low);
+        assertThat(index.findOverlapping(DAY.minusDays(3), DAY.minusDays(2))).containsExactly(expired);
+        assertThat(index.findEffective(DAY.plusDays(11))).isEmpty();
+    }
+
+    @Test
+    void answersTheSameAsScanningEveryStrategy() {
+        SplittableRandom random = new SplittableRandom(7);
+        PriorityLevel[] levels = PriorityLevel.values();
+        List<MarketingPricingStrategy> strategies = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            LocalDate start = DAY.plusDays(random.nextInt(90));
+            strategies.add(strategy("s-" + i, levels[random.nextInt(levels.length)],
+                    start, start.plusDays(random.nextInt(20)), true));
+        }
+        MarketingStrategyIndex index = MarketingStrategyIndex.of(strategies);
+
+        for (int offset = -5; offset < 120; offset++) {
+            LocalDate from = DAY.plusDays(offset);
+            LocalDate to = from.plusDays(offset % 4);
+            List<MarketingPricingStrategy> expected = strategies.stream()
+                    .filter(s -> !s.getEffectivePeriod().getStartDate().isAfter(to)
+                            && !s.getEffectivePeriod().getEndDate().isBefore(from))
+                    .sorted(Comparator.comparing((MarketingPricingStrategy s) -> s.getPriorityLevel().getLevel()).reversed()
+                            .thenComparing(s -> s.getEffectivePeriod().getStartDate()))
+                    .toList();
+
+            assertThat(index.findOverlapping(from, to))
+                    .extracting(MarketingPricingStrategy::getPriorityLevel)
+                    .containsExactlyElementsOf(expected.stream().map(MarketingPricingStrategy::getPriorityLevel).toList());
+            assertThat(index.findOverlapping(from, to)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    private static MarketingPricingStrategy strategy(String strategyId, PriorityLevel priorityLevel,
+                                                     LocalDate start, LocalDate end, boolean active) {
+        MarketingPricingStrategy strategy = new MarketingPricingStrategy();
+        strategy.setStrategyId(strategyId);
+        strategy.setPriorityLevel(priorityLevel);
+        strategy.setEffectivePeriod(DateRange.of(start, end));
+        strategy.setActive(active);
+        return strategy;
+    }
+}
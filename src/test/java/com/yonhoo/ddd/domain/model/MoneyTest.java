@@ -0,0 +1,51 @@
+package com.yonhoo.ddd.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void divideMatchesBigDecimalForEveryRoundingMode() {
+        long[] dividends = {-25, -15, -11, -10, -5, 0, 5, 10, 11, 15, 25, 1_999};
+        long[] divisors = {10, -10, 4, 7};
+
+        for (RoundingMode roundingMode : RoundingMode.values()) {
+            if (roundingMode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (long dividend : dividends) {
+                for (long divisor : divisors) {
+                    long expected = BigDecimal.valueOf(dividend)
+                            .divide(BigDecimal.valueOf(divisor), 0, roundingMode)
+                            .longValueExact();
+                    assertThat(Money.divide(dividend, divisor, roundingMode))
+                            .as("%d / %d %s", dividend, divisor, roundingMode)
+                            .isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void unnecessaryRoundingFailsOnlyWhenInexact() {
+        assertThat(Money.divide(20, 10, RoundingMode.UNNECESSARY)).isEqualTo(2);
+        assertThatThrownBy(() -> Money.divide(21, 10, RoundingMode.UNNECESSARY))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void convertsAtTheBigDecimalBoundary() {
+        Money price = Money.of(new BigDecimal("199.995"));
+
+        assertThat(price.getMinorUnits()).isEqualTo(20_000L);
+        assertThat(price.toBigDecimal()).isEqualByComparingTo("200.00");
+        assertThat(price.applyBasisPoints(8_500L, RoundingMode.HALF_UP)).isEqualTo(Money.ofMajor(170));
+        assertThat(Money.toBasisPoints(new BigDecimal("12.5"))).isEqualTo(1_250L);
+    }
+}
@@ -0,0 +1,118 @@
+package com.yonhoo.ddd.domain.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class OccupationPricingTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+
+    @AfterEach
+    void tearDown() {
+        PricingKernels.useScalar();
+    }
+
+    @Test
+    void pruningReturnsTheSameMinimumAsEvaluatingEveryRule() {
+        assertMatchesBruteForce();
+    }
+
+    @Test
+    void vectorKernelReturnsTheSameMinimumAsEvaluatingEveryRule() {
+        assumeThat(PricingKernels.useVector()).isTrue();
+        assertMatchesBruteForce();
+    }
+
+    private static void assertMatchesBruteForce() {
+        SplittableRandom random = new SplittableRandom(11);
+        List<RoomInfo> rooms = rooms(37);
+
+        for (int round = 0; round < 50; round++) {
+            List<PriceRule> priceRules = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(30); i++) {
+                priceRules.add(rule(random.nextInt(40), random.nextInt(3_000)));
+            }
+            long[][] prices = new long[rooms.size()][10];
+            for (long[] roomPrices : prices) {
+                for (int night = 0; night < roomPrices.length; night++) {
+                    roomPrices[night] = 10_000 + random.nextInt(90_000);
+                }
+            }
+            PriceDataAdapter.RoomPriceQuery priceQuery = priceQuery(prices);
+            DateRange stay = DateRange.of(DAY, DAY.plusDays(random.nextInt(10)));
+
+            for (CustomerChoice customerChoice : CustomerChoice.values()) {
+                assertThat(OccupationPricing.calculateMinTotalPrice(priceRules, stay, rooms, priceQuery, customerChoice, false))
+                        .isEqualTo(bruteForce(priceRules, stay, rooms, priceQuery, customerChoice));
+            }
+        }
+    }
+
+    private static Money bruteForce(List<PriceRule> priceRules, DateRange stay, List<RoomInfo> rooms,
+                                    PriceDataAdapter.RoomPriceQuery priceQuery, CustomerChoice customerChoice) {
+        long minTotal = Long.MAX_VALUE;
+        for (PriceRule priceRule : priceRules) {
+            long total = 0L;
+            for (LocalDate day : stay.toStream().toList()) {
+                long nightPrice = customerChoice == CustomerChoice.FIXED ? 0L : Long.MAX_VALUE;
+                for (RoomInfo room : rooms) {
+                    long price = priceRule.getPriceInMinorUnits(day, priceQuery.queryRoomMinPriceInMinorUnits(room.getRoomNo(), day));
+                    nightPrice = customerChoice == CustomerChoice.FIXED ? nightPrice + price : Math.min(nightPrice, price);
+                }
+                total += nightPrice;
+            }
+            minTotal = Math.min(minTotal, total);
+        }
+        return Money.ofMinor(minTotal);
+    }
+
+    /**
+     * 百分比折扣后再减固定金额，不低于 0；对单价单调不减
+     */
+    private static PriceRule rule(int discountPercent, long fixedOff) {
+        return new PriceRule() {
+            @Override
+            public long getPriceInMinorUnits(LocalDate checkInDay, long unitPrice) {
+                long price = unitPrice * (100 - discountPercent) / 100 - (checkInDay.getDayOfMonth() % 2 == 0 ? fixedOff : 0);
+                return Math.max(price, 0L);
+            }
+        };
+    }
+
+    private static List<RoomInfo> rooms(int count) {
+        List<RoomInfo> rooms = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            RoomInfo room = new RoomInfo();
+            room.setRoomNo("room-" + i);
+            rooms.add(room);
+        }
+        return rooms;
+    }
+
+    private static PriceDataAdapter.RoomPriceQuery priceQuery(long[][] prices) {
+        return new PriceDataAdapter.RoomPriceQuery() {
+            @Override
+            public Money queryRoomMinPrice(String roomNo, LocalDate day) {
+                return Money.ofMinor(queryRoomMinPriceInMinorUnits(roomNo, day));
+            }
+
+            @Override
+            public long queryRoomMinPriceInMinorUnits(String roomNo, LocalDate day) {
+                return prices[Integer.parseInt(roomNo.substring("room-".length()))][(int) (day.toEpochDay() - DAY.toEpochDay())];
+            }
+
+            @Override
+            public boolean hasDataForRoom(String roomNo) {
+                return true;
+            }
+        };
+    }
+}
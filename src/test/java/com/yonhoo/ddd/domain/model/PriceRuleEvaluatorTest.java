@@ -0,0 +1,83 @@
+package com.yonhoo.ddd.domain.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PriceRuleEvaluatorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+    private static final long RULE_ID = 16L;
+
+    @AfterEach
+    void tearDown() {
+        PriceRuleEvaluator.invalidate(RULE_ID);
+    }
+
+    @Test
+    void appliesDiscountDefinitionsInOrderAndNeverGoesBelowZero() {
+        PriceRule priceRule = priceRule(null, null,
+                discount(DiscountType.PERCENTAGE, 12.5),
+                discount(DiscountType.FIXED_AMOUNT, 20.0));
+
+        // 333.33 × 87.5% = 291.66，再减 20 元
+        assertThat(priceRule.getPriceInMinorUnits(DAY, 333_33L)).isEqualTo(271_66L);
+        assertThat(priceRule.getPrice(DAY, Money.ofMinor(15_00L))).isEqualTo(Money.ZERO);
+        assertThat(priceRule(null, null).getPriceInMinorUnits(DAY, 100_00L)).isEqualTo(100_00L);
+
+        assertThatThrownBy(() -> priceRule(null, null, discount(DiscountType.PERCENTAGE, 120.0))
+                .getPriceInMinorUnits(DAY, 100_00L))
+                .hasMessageContaining("exceeds 100");
+    }
+
+    @Test
+    void sameRuleVersionIsCompiledOnceAndSharedAcrossInstances() {
+        PriceRule loadedByOneOffer = priceRule(RULE_ID, 1L, discount(DiscountType.PERCENTAGE, 10.0));
+        PriceRule loadedByAnotherOffer = priceRule(RULE_ID, 1L, discount(DiscountType.PERCENTAGE, 10.0));
+
+        assertThat(loadedByOneOffer.getPriceInMinorUnits(DAY, 100_00L)).isEqualTo(90_00L);
+        assertThat(PriceRuleEvaluator.of(loadedByAnotherOffer)).isSameAs(PriceRuleEvaluator.of(loadedByOneOffer));
+
+        PriceRule republished = priceRule(RULE_ID, 2L, discount(DiscountType.PERCENTAGE, 20.0));
+        assertThat(republished.getPriceInMinorUnits(DAY, 100_00L)).isEqualTo(80_00L);
+        assertThat(PriceRuleEvaluator.of(republished).getVersion()).isEqualTo(2L);
+
+        republished.setProductPriceDefinitions(List.of(discount(DiscountType.FIXED_AMOUNT, 5.0)));
+        republished.setVersion(3L);
+        assertThat(republished.getPriceInMinorUnits(DAY, 100_00L)).isEqualTo(95_00L);
+    }
+
+    @Test
+    void staleVersionIsCompiledPrivatelyWithoutReplacingTheSharedRule() {
+        PriceRule current = priceRule(RULE_ID, 2L, discount(DiscountType.PERCENTAGE, 20.0));
+        PriceRuleEvaluator shared = PriceRuleEvaluator.of(current);
+
+        PriceRule stale = priceRule(RULE_ID, 1L, discount(DiscountType.PERCENTAGE, 10.0));
+        assertThat(stale.getPriceInMinorUnits(DAY, 100_00L)).isEqualTo(90_00L);
+        assertThat(PriceRuleEvaluator.of(stale)).isNotSameAs(shared);
+
+        PriceRule anotherCurrent = priceRule(RULE_ID, 2L, discount(DiscountType.PERCENTAGE, 20.0));
+        assertThat(PriceRuleEvaluator.of(anotherCurrent)).isSameAs(shared);
+        assertThat(anotherCurrent.getPriceInMinorUnits(DAY, 100_00L)).isEqualTo(80_00L);
+    }
+
+    private static PriceRule priceRule(Long priceRuleId, Long version, DiscountDefinition... definitions) {
+        PriceRule priceRule = new PriceRule();
+        priceRule.setPriceRuleId(priceRuleId);
+        priceRule.setVersion(version);
+        priceRule.setProductPriceDefinitions(List.of(definitions));
+        return priceRule;
+    }
+
+    private static DiscountDefinition discount(DiscountType discountType, double value) {
+        DiscountDefinition definition = new DiscountDefinition();
+        definition.setDiscountType(discountType);
+        definition.setValue(value);
+        return definition;
+    }
+}
@@ -0,0 +1,50 @@
+package com.yonhoo.ddd.domain.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class PricingKernelsTest {
+
+    @AfterEach
+    void tearDown() {
+        PricingKernels.useScalar();
+    }
+
+    @Test
+    void vectorKernelAgreesWithScalarKernelIncludingTails() {
+        assumeThat(PricingKernels.useVector()).isTrue();
+        PriceKernel vector = PricingKernels.current();
+        PriceKernel scalar = ScalarPriceKernel.INSTANCE;
+
+        SplittableRandom random = new SplittableRandom(15);
+        for (int length = 0; length <= 70; length++) {
+            long[] values = new long[length + 3];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = 10_000 + random.nextInt(1_000_000);
+            }
+            if (length > 0 && random.nextBoolean()) {
+                values[random.nextInt(length)] = OccupationPricing.NO_PRICE;
+            }
+
+            assertThat(vector.min(values, length)).as("min of %d", length).isEqualTo(scalar.min(values, length));
+            if (scalar.min(values, length) != OccupationPricing.NO_PRICE) {
+                assertThat(vector.sum(values, length)).as("sum of %d", length).isEqualTo(scalar.sum(values, length));
+            }
+        }
+    }
+
+    @Test
+    void switchesBetweenKernelsAtRuntime() {
+        assertThat(PricingKernels.isVectorEnabled()).isFalse();
+        assertThat(PricingKernels.useVector()).isEqualTo(PricingKernels.isVectorAvailable());
+        assertThat(PricingKernels.isVectorEnabled()).isEqualTo(PricingKernels.isVectorAvailable());
+
+        PricingKernels.useScalar();
+        assertThat(PricingKernels.current()).isSameAs(ScalarPriceKernel.INSTANCE);
+    }
+}
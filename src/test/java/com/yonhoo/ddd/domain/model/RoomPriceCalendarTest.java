@@ -0,0 +1,52 @@
+package com.yonhoo.ddd.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoomPriceCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+
+    @Test
+    void answersTheSameMinimumAsScanningThePricePairs() {
+        PriceData deluxe = priceData("deluxe",
+                new PricePair(DAY, new BigDecimal("420.00")),
+                new PricePair(DAY, new BigDecimal("399.50")),
+                new PricePair(DAY.plusDays(3), new BigDecimal("510.00")));
+        PriceData standard = priceData("standard",
+                new PricePair(DAY.plusDays(1), new BigDecimal("288.00")));
+
+        RoomPriceCalendar calendar = RoomPriceCalendar.of(Map.of("deluxe", deluxe, "standard", standard));
+
+        assertThat(calendar.getDayCount()).isEqualTo(4);
+        assertThat(calendar.queryRoomMinPrice("deluxe", DAY)).isEqualTo(deluxe.getMinPriceByDay(DAY));
+        assertThat(calendar.queryRoomMinPriceInMinorUnits("deluxe", DAY.plusDays(3))).isEqualTo(51_000L);
+        assertThat(calendar.queryRoomMinPriceInMinorUnits("standard", DAY.plusDays(1))).isEqualTo(28_800L);
+        assertThat(calendar.hasDataForRoom("suite")).isFalse();
+    }
+
+    @Test
+    void rejectsDaysWithoutPrice() {
+        RoomPriceCalendar calendar = RoomPriceCalendar.of(Map.of("deluxe",
+                priceData("deluxe", new PricePair(DAY, BigDecimal.TEN))));
+
+        assertThatThrownBy(() -> calendar.queryRoomMinPrice("deluxe", DAY.plusDays(1)))
+                .hasMessage("no available price");
+        assertThatThrownBy(() -> calendar.queryRoomMinPrice("suite", DAY))
+                .hasMessageContaining("suite");
+    }
+
+    private static PriceData priceData(String roomNo, PricePair... pricePairs) {
+        PriceData priceData = new PriceData();
+        priceData.setRoomNo(roomNo);
+        priceData.setPricePairs(List.of(pricePairs));
+        return priceData;
+    }
+}
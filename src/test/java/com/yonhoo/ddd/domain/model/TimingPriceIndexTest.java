@@ -0,0 +1,99 @@
+package com.yonhoo.ddd.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingPriceIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+
+    @Test
+    void effectiveAndWindowPricesMatchScanningEveryTiming() {
+        SplittableRandom random = new SplittableRandom(41);
+        List<PriceDataV2.TimingPrice> timingPrices = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            // 第 2 天没有分时价格；时刻只取整点，制造同一时刻多个价格
+            LocalDate day = DAY.plusDays(random.nextBoolean() ? 0 : 3 * random.nextInt(2) + 1);
+            timingPrices.add(timingPrice(day, LocalTime.of(random.nextInt(24), 0), 100_00L + random.nextInt(50_000)));
+        }
+        PriceDataV2 priceData = new PriceDataV2();
+        priceData.setRoomNo("r-1");
+        priceData.setTimingPriceList(timingPrices);
+        TimingPriceIndex index = TimingPriceIndex.of(Map.of("r-1", priceData));
+
+        for (int round = 0; round < 2_000; round++) {
+            LocalDate day = DAY.plusDays(random.nextInt(6) - 1);
+            LocalTime from = LocalTime.ofSecondOfDay(random.nextInt(86_400));
+            LocalTime to = from.plusSeconds(random.nextInt(86_400 - from.toSecondOfDay()));
+
+            assertPrice(() -> index.queryRoomPriceAt("r-1", day, from), effectiveAt(timingPrices, day, from));
+            assertPrice(() -> index.queryRoomMinPriceBetween("r-1", day, from, to), minBetween(timingPrices, day, from, to));
+            assertPrice(() -> index.queryRoomMinPrice("r-1", day), minBetween(timingPrices, day, LocalTime.MIN, LocalTime.MAX));
+        }
+
+        assertThatThrownBy(() -> index.queryRoomPriceAt("r-2", DAY, LocalTime.NOON))
+                .hasMessage("No price data found for room: r-2");
+        assertThatThrownBy(() -> index.queryRoomMinPriceBetween("r-1", DAY, LocalTime.NOON, LocalTime.MIDNIGHT))
+                .hasMessage("invalid time window: 12:00 - 00:00");
+    }
+
+    private static void assertPrice(Supplier<Money> query, Long expected) {
+        if (expected == null) {
+            assertThatThrownBy(query::get).hasMessage("no available price");
+        } else {
+            assertThat(query.get()).isEqualTo(Money.ofMinor(expected));
+        }
+    }
+
+    /**
+     * 当天时刻不晚于 time 的最后一个时刻上的最低价
+     */
+    private static Long effectiveAt(List<PriceDataV2.TimingPrice> timingPrices, LocalDate day, LocalTime time) {
+        LocalTime latest = effectiveTiming(timingPrices, day, time);
+        return latest == null ? null : minBetween(timingPrices, day, latest, latest);
+    }
+
+    private static Long minBetween(List<PriceDataV2.TimingPrice> timingPrices, LocalDate day, LocalTime from, LocalTime to) {
+        LocalTime effective = effectiveTiming(timingPrices, day, from);
+        Long minPrice = null;
+        for (PriceDataV2.TimingPrice timingPrice : timingPrices) {
+            LocalTime timing = timingPrice.getTiming();
+            boolean inWindow = timing.equals(effective) || (timing.isAfter(from) && !timing.isAfter(to));
+            if (timingPrice.getDay().equals(day) && inWindow) {
+                long price = Money.of(timingPrice.getPrice()).getMinorUnits();
+                minPrice = minPrice == null ? price : Math.min(minPrice, price);
+            }
+        }
+        return minPrice;
+    }
+
+    private static LocalTime effectiveTiming(List<PriceDataV2.TimingPrice> timingPrices, LocalDate day, LocalTime time) {
+        LocalTime latest = null;
+        for (PriceDataV2.TimingPrice timingPrice : timingPrices) {
+            if (timingPrice.getDay().equals(day) && !timingPrice.getTiming().isAfter(time)
+                    && (latest == null || timingPrice.getTiming().isAfter(latest))) {
+                latest = timingPrice.getTiming();
+            }
+        }
+        return latest;
+    }
+
+    private static PriceDataV2.TimingPrice timingPrice(LocalDate day, LocalTime timing, long minorUnits) {
+        PriceDataV2.TimingPrice timingPrice = new PriceDataV2.TimingPrice();
+        timingPrice.setDay(day);
+        timingPrice.setTiming(timing);
+        timingPrice.setPrice(BigDecimal.valueOf(minorUnits, 2));
+        return timingPrice;
+    }
+}
@@ -0,0 +1,145 @@
+package com.yonhoo.ddd.domain.model;
+
+import com.yonhoo.ddd.domain.service.UserPricingStrategySelector;
+import com.yonhoo.ddd.domain.service.UserPricingStrategySelector.SelectionMode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserStrategyDecisionTableTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 10, 1, 10, 0);
+    private static final Money BASE_PRICE = Money.of(new BigDecimal("1234.56"));
+
+    @Test
+    void matchesTheStrategySelectorForEveryUserCombination() {
+        List<UserPricingStrategy> strategies = List.of(
+                strategy("gold-only", PriorityLevel.HIGH, List.of(levelDiscount(UserLevel.GOLD, "12")), null, null),
+                strategy("east-app", PriorityLevel.MEDIUM, null,
+                        List.of(regionPricing(Region.EAST_CHINA, PricingAdjustmentType.DISCOUNT, "5")),
+                        List.of(channelPricing(Channel.MOBILE_APP, PricingAdjustmentType.MARKUP, "2"))),
+                strategy("everyone", PriorityLevel.LOW, levelDiscounts("3"), null,
+                        List.of(channelPricing(Channel.values()[0], PricingAdjustmentType.FIXED_PRICE, "999.99"))),
+                expired(strategy("expired", PriorityLevel.URGENT, levelDiscounts("50"), null, null)));
+
+        UserStrategyDecisionTable table = UserStrategyDecisionTable.compile(strategies);
+
+        for (UserLevel userLevel : UserLevel.values()) {
+            for (Region region : Region.values()) {
+                for (Channel channel : Channel.values()) {
+                    UserContext userContext = new UserContext("u", userLevel, region, channel, "m");
+                    for (SelectionMode mode : SelectionMode.values()) {
+                        assertThat(UserPricingStrategySelector.selectUserPrice(BASE_PRICE, userContext, table, mode, NOW))
+                                .as("%s %s %s %s", userLevel, region, channel, mode)
+                                .isEqualTo(UserPricingStrategySelector.calculateBestUserPrice(
+                                        BASE_PRICE, userContext, strategies, mode, NOW));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void inactiveStrategiesAreNotCompiled() {
+        UserPricingStrategy inactive = strategy("inactive", PriorityLevel.HIGH, levelDiscounts("10"), null, null);
+        inactive.setActive(false);
+
+        UserStrategyDecisionTable table = UserStrategyDecisionTable.compile(List.of(inactive));
+
+        assertThat(table.getStrategyCount()).isZero();
+        assertThat(table.selectBestPrice(100_00L,
+                new UserContext("u", UserLevel.GOLD, Region.EAST_CHINA, Channel.MOBILE_APP, "m"), NOW))
+                .isEqualTo(100_00L);
+    }
+
+    @Test
+    void unsetAdjustmentValuesAreAcceptedAndReportedWhenPricing() {
+        UserLevelDiscount discount = levelDiscount(UserLevel.GOLD, "10");
+        discount.setDiscountId("gold");
+        discount.setDiscountValue(null);
+        RegionPricing regionPricing = regionPricing(Region.EAST_CHINA, PricingAdjustmentType.FIXED_PRICE, "99");
+        regionPricing.setPricingId("east");
+        regionPricing.setAdjustmentValue(null);
+        ChannelPricing channelPricing = new ChannelPricing();
+        channelPricing.setAdjustmentValue(null);
+        HolidayPricing holidayPricing = new HolidayPricing();
+        holidayPricing.setAdjustmentValue(null);
+
+        assertThat(discount.getDiscountValue()).isNull();
+        assertThatThrownBy(() -> discount.applyDiscountInMinorUnits(100_00L))
+                .hasMessage("discount value is not configured: gold");
+        assertThatThrownBy(() -> regionPricing.adjustPriceInMinorUnits(100_00L))
+                .hasMessage("adjustment value is not configured: east");
+
+        regionPricing.setAdjustmentValue(new BigDecimal("99"));
+        assertThat(regionPricing.adjustPriceInMinorUnits(100_00L)).isEqualTo(99_00L);
+    }
+
+    private static UserPricingStrategy strategy(String strategyId,
+                                                PriorityLevel priorityLevel,
+                                                List<UserLevelDiscount> levelDiscounts,
+                                                List<RegionPricing> regionPricings,
+                                                List<ChannelPricing> channelPricings) {
+        PriorityRule priorityRule = new PriorityRule();
+        priorityRule.setApplyUserLevel(true);
+        priorityRule.setApplyRegion(true);
+        priorityRule.setApplyChannel(true);
+
+        UserPricingStrategy strategy = new UserPricingStrategy();
+        strategy.setStrategyId(strategyId);
+        strategy.setStrategyName(strategyId);
+        strategy.setActive(true);
+        strategy.setStrategyPriority(priorityLevel);
+        strategy.setEffectivePeriod(NOW.minusDays(1), NOW.plusDays(1));
+        strategy.setUserLevelDiscounts(levelDiscounts == null ? List.of() : levelDiscounts);
+        strategy.setRegionPricings(regionPricings == null ? List.of() : regionPricings);
+        strategy.setChannelPricings(channelPricings == null ? List.of() : channelPricings);
+        strategy.setPriorityRule(priorityRule);
+        return strategy;
+    }
+
+    private static UserPricingStrategy expired(UserPricingStrategy strategy) {
+        strategy.setEffectivePeriod(NOW.minusDays(10), NOW.minusDays(1));
+        return strategy;
+    }
+
+    private static List<UserLevelDiscount> levelDiscounts(String percentage) {
+        List<UserLevelDiscount> discounts = new ArrayList<>();
+        for (UserLevel userLevel : UserLevel.values()) {
+            discounts.add(levelDiscount(userLevel, percentage));
+        }
+        return discounts;
+    }
+
+    private static UserLevelDiscount levelDiscount(UserLevel userLevel, String percentage) {
+        UserLevelDiscount discount = new UserLevelDiscount();
+        discount.setTargetLevel(userLevel);
+        discount.setDiscountType(DiscountType.PERCENTAGE);
+        discount.setDiscountValue(new BigDecimal(percentage));
+        discount.setMinOrderAmount(Money.ZERO);
+        discount.setMaxDiscountAmount(Money.ofMajor(100));
+        return discount;
+    }
+
+    private static RegionPricing regionPricing(Region region, PricingAdjustmentType type, String value) {
+        RegionPricing pricing = new RegionPricing();
+        pricing.setTargetRegion(region);
+        pricing.setAdjustmentType(type);
+        pricing.setAdjustmentValue(new BigDecimal(value));
+        return pricing;
+    }
+
+    private static ChannelPricing channelPricing(Channel channel, PricingAdjustmentType type, String value) {
+        ChannelPricing pricing = new ChannelPricing();
+        pricing.setTargetChannel(channel);
+        pricing.setAdjustmentType(type);
+        pricing.setAdjustmentValue(new BigDecimal(value));
+        return pricing;
+    }
+}
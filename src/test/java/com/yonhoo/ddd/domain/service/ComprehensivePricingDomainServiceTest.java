@@ -0,0 +1,203 @@
+package com.yonhoo.ddd.domain.service;
+
+import com.yonhoo.ddd.domain.model.Channel;
+import com.yonhoo.ddd.domain.model.DailyPriceInfo;
+import com.yonhoo.ddd.domain.model.DateRange;
+import com.yonhoo.ddd.domain.model.DiscountType;
+import com.yonhoo.ddd.domain.model.HolidayPricing;
+import com.yonhoo.ddd.domain.model.HotelOffer;
+import com.yonhoo.ddd.domain.model.HotelProduct;
+import com.yonhoo.ddd.domain.model.MarketingContext;
+import com.yonhoo.ddd.domain.model.MarketingPricingStrategy;
+import com.yonhoo.ddd.domain.model.NumberOfNights;
+import com.yonhoo.ddd.domain.model.PriceData;
+import com.yonhoo.ddd.domain.model.PricePair;
+import com.yonhoo.ddd.domain.model.PriceRule;
+import com.yonhoo.ddd.domain.model.PriceTrendAnalysis;
+import com.yonhoo.ddd.domain.model.PricingAdjustmentType;
+import com.yonhoo.ddd.domain.model.PricingResult;
+import com.yonhoo.ddd.domain.model.PricingType;
+import com.yonhoo.ddd.domain.model.PriorityLevel;
+import com.yonhoo.ddd.domain.model.PriorityRule;
+import com.yonhoo.ddd.domain.model.Region;
+import com.yonhoo.ddd.domain.model.RoomInfo;
+import com.yonhoo.ddd.domain.model.RoomPriceCalendar;
+import com.yonhoo.ddd.domain.model.StrategyType;
+import com.yonhoo.ddd.domain.model.UserContext;
+import com.yonhoo.ddd.domain.model.UserLevel;
+import com.yonhoo.ddd.domain.model.UserLevelDiscount;
+import com.yonhoo.ddd.domain.model.UserPricingStrategy;
+import com.yonhoo.ddd.domain.model.Validity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComprehensivePricingDomainServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+    private static final DateRange RANGE = DateRange.of(DAY, DAY.plusDays(6));
+    private static final MarketingContext MARKETING_CONTEXT =
+            new MarketingContext(LocalDateTime.of(2025, 9, 1, 10, 0), "s-1", 1, "HOTEL_BOOKING_SYSTEM");
+
+    /**
+     * DAY+1 节假日折扣，DAY+3 节假日加价（不生效），DAY+4 更大的节假日折扣，DAY+5 不可售，DAY+6 缺价
+     */
+    private final HotelOffer hotelOffer = hotelOffer();
+    private final Map<String, PriceData> priceData = Map.of(
+            "room-1", priceData("room-1", 300_00, 310_00, 320_00, 330_00, 340_00, 350_00, null),
+            "room-2", priceData("room-2", 250_00, 360_00, 270_00, 380_00, 290_00, null, null));
+    private List<UserPricingStrategy> userStrategies = List.of(goldDiscount(15));
+    private final List<MarketingPricingStrategy> marketingStrategies = List.of(
+            holiday("holiday-discount", DAY.plusDays(1), PricingAdjustmentType.DISCOUNT, 20),
+            holiday("holiday-markup", DAY.plusDays(3), PricingAdjustmentType.MARKUP, 30),
+            holiday("holiday-discount-deep", DAY.plusDays(4), PricingAdjustmentType.DISCOUNT, 25));
+
+    @Test
+    void trendMatchesPricingEachDayOnItsOwn() {
+        UserContext gold = new UserContext("u-1", UserLevel.GOLD, Region.EAST_CHINA, Channel.MOBILE_APP, "MEMBER_u-1");
+
+        PriceTrendAnalysis trend = analyzePriceTrend(gold);
+
+        assertThat(trend.getDailyPrices()).extracting(DailyPriceInfo::getDate)
+                .containsExactly(DAY, DAY.plusDays(1), DAY.plusDays(2), DAY.plusDays(3), DAY.plusDays(4));
+        assertMatchesSingleDayPricing(trend, gold);
+        assertThat(trend.getDailyPrices()).extracting(DailyPriceInfo::getPricingType).containsExactly(
+                PricingType.USER_DISCOUNT, PricingType.HOLIDAY, PricingType.USER_DISCOUNT,
+                PricingType.USER_DISCOUNT, PricingType.HOLIDAY);
+    }
+
+    @Test
+    void daysWithoutAnyDiscountAreStandard() {
+        userStrategies = List.of();
+        UserContext gold = new UserContext("u-1", UserLevel.GOLD, Region.EAST_CHINA, Channel.MOBILE_APP, "MEMBER_u-1");
+
+        PriceTrendAnalysis trend = analyzePriceTrend(gold);
+
+        assertMatchesSingleDayPricing(trend, gold);
+        assertThat(trend.getDailyPrices()).extracting(DailyPriceInfo::getPricingType).containsExactly(
+                PricingType.STANDARD, PricingType.HOLIDAY, PricingType.STANDARD,
+                PricingType.STANDARD, PricingType.HOLIDAY);
+    }
+
+    private PriceTrendAnalysis analyzePriceTrend(UserContext userContext) {
+        return ComprehensivePricingDomainService.analyzePriceTrend(
+                hotelOffer, RANGE, RoomPriceCalendar.of(priceData), userContext, MARKETING_CONTEXT,
+                userStrategies, marketingStrategies);
+    }
+
+    /**
+     * 每一天都与单独调用 calculateFinalPrice 的基础价、最终价一致，定价类型与当天实际生效的折扣一致
+     */
+    private void assertMatchesSingleDayPricing(PriceTrendAnalysis trend, UserContext userContext) {
+        for (DailyPriceInfo daily : trend.getDailyPrices()) {
+            PricingResult single = ComprehensivePricingDomainService.calculateFinalPrice(
+                    hotelOffer, daily.getDate(), priceData, userContext, MARKETING_CONTEXT,
+                    userStrategies, marketingStrategies);
+
+            assertThat(daily.getBasePrice()).isEqualByComparingTo(single.getBasePrice());
+            assertThat(daily.getFinalPrice()).isEqualByComparingTo(single.getFinalPrice());
+            assertThat(daily.getPricingType()).isEqualTo(pricingTypeOf(single));
+        }
+    }
+
+    /**
+     * 本测试的营销策略都是节假日定价：营销价低于用户价即节假日价，否则看用户折扣是否生效
+     */
+    private static PricingType pricingTypeOf(PricingResult single) {
+        if (single.getFinalPrice().compareTo(single.getUserDiscountedPrice()) < 0) {
+            return PricingType.HOLIDAY;
+        }
+        if (single.getUserDiscountedPrice().compareTo(single.getBasePrice()) < 0) {
+            return PricingType.USER_DISCOUNT;
+        }
+        return PricingType.STANDARD;
+    }
+
+    private static HotelOffer hotelOffer() {
+        NumberOfNights numberOfNights = new NumberOfNights();
+        numberOfNights.setMinNight(1);
+        numberOfNights.setMaxNight(1);
+        List<RoomInfo> rooms = new ArrayList<>();
+        for (String roomNo : List.of("room-1", "room-2")) {
+            RoomInfo room = new RoomInfo();
+            room.setRoomNo(roomNo);
+            rooms.add(room);
+        }
+        HotelProduct hotelProduct = new HotelProduct();
+        hotelProduct.setNumberOfNights(numberOfNights);
+        hotelProduct.setHotelProducts(rooms);
+
+        Validity validity = new Validity();
+        validity.setVisitingStartDate(DAY);
+        validity.setVisitingEndDate(DAY.plusDays(30));
+        validity.setBlackOutDateRanges(List.of(DateRange.of(DAY.plusDays(5), DAY.plusDays(5))));
+
+        HotelOffer hotelOffer = new HotelOffer();
+        hotelOffer.setOfferNo("offer-1");
+        hotelOffer.setProducts(hotelProduct);
+        hotelOffer.setValidity(validity);
+        hotelOffer.setPriceRuleList(List.of(new PriceRule() {
+            @Override
+            public long getPriceInMinorUnits(LocalDate checkInDay, long unitPrice) {
+                return unitPrice;
+            }
+        }));
+        return hotelOffer;
+    }
+
+    /**
+     * 从 DAY 开始逐日的价格（分），null 表示当天缺价
+     */
+    private static PriceData priceData(String roomNo, Integer... minorUnits) {
+        List<PricePair> pricePairs = new ArrayList<>();
+        for (int i = 0; i < minorUnits.length; i++) {
+            if (minorUnits[i] != null) {
+                pricePairs.add(new PricePair(DAY.plusDays(i), BigDecimal.valueOf(minorUnits[i], 2)));
+            }
+        }
+        PriceData priceData = new PriceData();
+        priceData.setRoomNo(roomNo);
+        priceData.setPricePairs(pricePairs);
+        return priceData;
+    }
+
+    private static UserPricingStrategy goldDiscount(int percent) {
+        UserLevelDiscount discount = new UserLevelDiscount();
+        discount.setTargetLevel(UserLevel.GOLD);
+        discount.setDiscountType(DiscountType.PERCENTAGE);
+        discount.setDiscountValue(BigDecimal.valueOf(percent));
+        PriorityRule priorityRule = new PriorityRule();
+        priorityRule.setApplyUserLevel(true);
+
+        UserPricingStrategy strategy = new UserPricingStrategy();
+        strategy.setStrategyId("gold-" + percent);
+        strategy.setActive(true);
+        strategy.setUserLevelDiscounts(List.of(discount));
+        strategy.setPriorityRule(priorityRule);
+        return strategy;
+    }
+
+    private static MarketingPricingStrategy holiday(String strategyId, LocalDate day,
+                                                    PricingAdjustmentType adjustmentType, int percent) {
+        HolidayPricing holidayPricing = new HolidayPricing();
+        holidayPricing.setHolidayPeriod(DateRange.of(day, day));
+        holidayPricing.setAdjustmentType(adjustmentType);
+        holidayPricing.setAdjustmentValue(BigDecimal.valueOf(percent));
+
+        MarketingPricingStrategy strategy = new MarketingPricingStrategy();
+        strategy.setStrategyId(strategyId);
+        strategy.setStrategyType(StrategyType.HOLIDAY_PRICING);
+        strategy.setActive(true);
+        strategy.setPriorityLevel(PriorityLevel.MEDIUM);
+        strategy.setEffectivePeriod(DateRange.of(day, day));
+        strategy.setHolidayPricings(List.of(holidayPricing));
+        return strategy;
+    }
+}
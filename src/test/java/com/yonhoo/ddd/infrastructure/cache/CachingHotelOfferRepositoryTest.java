@@ -0,0 +1,191 @@
+package com.yonhoo.ddd.infrastructure.cache;
+
+import com.yonhoo.ddd.domain.model.HotelOffer;
+import com.yonhoo.ddd.domain.model.HotelOfferV2;
+import com.yonhoo.ddd.repository.HotelOfferRepository;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingHotelOfferRepositoryTest {
+
+    private final InMemoryHotelOfferRepository store = new InMemoryHotelOfferRepository();
+
+    @Test
+    void servesRepeatedLoadsFromMemoryUntilTheOfferIsSaved() {
+        store.saveOffer(hotelOffer("offer-1"));
+        CachingHotelOfferRepository repository = new CachingHotelOfferRepository(store, 16);
+
+        repository.queryHotelOfferByOfferNo("offer-1");
+        repository.queryHotelOfferByOfferNo("offer-1");
+        assertThat(store.loadCount.get()).isEqualTo(1);
+
+        repository.saveOffer(hotelOffer("offer-1"));
+        HotelOffer reloaded = repository.queryHotelOfferByOfferNo("offer-1");
+
+        assertThat(reloaded.getVersion()).isEqualTo(2L);
+        assertThat(store.loadCount.get()).isEqualTo(2);
+        assertThat(repository.getStats().getMemoryHitCount()).isEqualTo(1);
+        assertThat(repository.getStats().getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void changeEventRejectsOlderVersions() {
+        store.saveOffer(hotelOffer("offer-1"));
+        CachingHotelOfferRepository repository = new CachingHotelOfferRepository(store, 16);
+        repository.queryHotelOfferByOfferNo("offer-1");
+
+        repository.onOfferChanged("offer-1", 5L);
+        repository.queryHotelOfferByOfferNo("offer-1");
+        repository.queryHotelOfferByOfferNo("offer-1");
+
+        // 仓储仍返回旧版本时不写入缓存，每次都回源
+        assertThat(store.loadCount.get()).isEqualTo(3);
+        assertThat(repository.getStats().getInvalidationCount()).isEqualTo(1);
+    }
+
+    @Test
+    void changeEventEvictsTheCachedOfferEvenWithoutANewerVersion() {
+        store.saveOffer(hotelOffer("offer-1"));
+        CachingHotelOfferRepository repository = new CachingHotelOfferRepository(store, 16);
+        repository.queryHotelOfferByOfferNo("offer-1");
+
+        // 变更方不知道版本号（记为 0）时缓存也必须失效
+        repository.onOfferChanged("offer-1", 0L);
+        repository.queryHotelOfferByOfferNo("offer-1");
+        repository.queryHotelOfferByOfferNo("offer-1");
+
+        assertThat(store.loadCount.get()).isEqualTo(2);
+        assertThat(repository.getStats().getInvalidationCount()).isEqualTo(1);
+    }
+
+    @Test
+    void demotedOffersAreServedFromOffHeap() {
+        OffHeapOfferStore<HotelOffer> offHeap = new OffHeapOfferStore<>(new OfferNoCodec(), 1024);
+        CachingHotelOfferRepository repository = new CachingHotelOfferRepository(store, 1, offHeap, null);
+        for (int i = 0; i < 4; i++) {
+            store.saveOffer(hotelOffer("offer-" + i));
+            repository.queryHotelOfferByOfferNo("offer-" + i);
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(repository.queryHotelOfferByOfferNo("offer-" + i).getOfferNo()).isEqualTo("offer-" + i);
+        }
+
+        OfferCacheStats stats = repository.getStats();
+        assertThat(stats.getOffHeapHitCount()).isPositive();
+        assertThat(stats.getHitCount() + stats.getMissCount()).isEqualTo(8);
+    }
+
+    @Test
+    void changeEventDuringPromotionKeepsTheStaleCopyOutOfMemory() {
+        OfferNoCodec codec = new OfferNoCodec();
+        OffHeapOfferStore<HotelOffer> offHeap = new OffHeapOfferStore<>(codec, 1024);
+        CachingHotelOfferRepository repository = new CachingHotelOfferRepository(store, 16, offHeap, null);
+        store.saveOffer(hotelOffer("offer-1"));
+        offHeap.put("offer-1", store.offers.get("offer-1"));
+
+        // 二级缓存读出旧值之后、写入一级之前收到不带版本的变更事件
+        codec.onDecode = () -> {
+            codec.onDecode = null;
+            store.saveOffer(hotelOffer("offer-1"));
+            repository.onOfferChanged("offer-1", 0L);
+        };
+        assertThat(repository.queryHotelOfferByOfferNo("offer-1").getVersion()).isEqualTo(1L);
+
+        assertThat(repository.queryHotelOfferByOfferNo("offer-1").getVersion()).isEqualTo(2L);
+        assertThat(store.loadCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    void changeEventDuringDemotionKeepsTheStaleCopyOutOfOffHeap() {
+        OfferNoCodec codec = new OfferNoCodec();
+        OffHeapOfferStore<HotelOffer> offHeap = new OffHeapOfferStore<>(codec, 1024);
+        CachingHotelOfferRepository repository = new CachingHotelOfferRepository(store, 1, offHeap, null);
+        for (int i = 0; i < 2; i++) {
+            store.saveOffer(hotelOffer("offer-" + i));
+        }
+
+        // 降级编码期间收到变更事件
+        codec.onEncode = () -> {
+            codec.onEncode = null;
+            repository.onOfferChanged("offer-0", 0L);
+            repository.onOfferChanged("offer-1", 0L);
+        };
+        repository.queryHotelOfferByOfferNo("offer-0");
+        repository.queryHotelOfferByOfferNo("offer-1");
+
+        assertThat(offHeap.size()).isZero();
+    }
+
+    private static HotelOffer hotelOffer(String offerNo) {
+        HotelOffer hotelOffer = new HotelOffer();
+        hotelOffer.setOfferNo(offerNo);
+        return hotelOffer;
+    }
+
+    private static final class InMemoryHotelOfferRepository implements HotelOfferRepository {
+        private final Map<String, HotelOffer> offers = new HashMap<>();
+        private final AtomicInteger loadCount = new AtomicInteger();
+
+        @Override
+        public HotelOffer queryHotelOfferByOfferNo(String offerNo) {
+            loadCount.incrementAndGet();
+            return offers.get(offerNo);
+        }
+
+        @Override
+        public HotelOfferV2 queryHotelOfferV2ByOfferNo(String offerNo) {
+            return null;
+        }
+
+        @Override
+        public void saveOffer(HotelOffer hotelOffer) {
+            HotelOffer previous = offers.get(hotelOffer.getOfferNo());
+            hotelOffer.setVersion(previous == null ? 1L : previous.getVersion() + 1);
+            offers.put(hotelOffer.getOfferNo(), hotelOffer);
+        }
+
+        @Override
+        public void saveOfferV2(HotelOfferV2 hotelOffer) {
+        }
+    }
+
+    private static final class OfferNoCodec implements OfferCodec<HotelOffer> {
+        private volatile Runnable onEncode;
+        private volatile Runnable onDecode;
+
+        @Override
+        public ByteBuffer encode(HotelOffer offer) {
+            Runnable hook = onEncode;
+            if (hook != null) {
+                hook.run();
+            }
+            byte[] offerNo = offer.getOfferNo().getBytes(StandardCharsets.UTF_8);
+            return ByteBuffer.allocate(Long.BYTES + offerNo.length)
+                    .putLong(offer.getVersion())
+                    .put(offerNo)
+                    .flip();
+        }
+
+        @Override
+        public HotelOffer decode(ByteBuffer buffer) {
+            Runnable hook = onDecode;
+            if (hook != null) {
+                hook.run();
+            }
+            HotelOffer offer = new HotelOffer();
+            offer.setVersion(buffer.getLong());
+            byte[] offerNo = new byte[buffer.remaining()];
+            buffer.get(offerNo);
+            offer.setOfferNo(new String(offerNo, StandardCharsets.UTF_8));
+            return offer;
+        }
+    }
+}
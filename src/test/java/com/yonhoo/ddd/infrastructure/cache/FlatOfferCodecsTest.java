@@ -0,0 +1,220 @@
+package com.yonhoo.ddd.infrastructure.cache;
+
+import com.yonhoo.ddd.domain.model.AttractionProduct;
+import com.yonhoo.ddd.domain.model.AvailabilityCalendar;
+import com.yonhoo.ddd.domain.model.Channel;
+import com.yonhoo.ddd.domain.model.CustomerChoice;
+import com.yonhoo.ddd.domain.model.DateRange;
+import com.yonhoo.ddd.domain.model.DiscountDefinition;
+import com.yonhoo.ddd.domain.model.DiscountType;
+import com.yonhoo.ddd.domain.model.HotelOffer;
+import com.yonhoo.ddd.domain.model.HotelOfferV2;
+import com.yonhoo.ddd.domain.model.HotelProduct;
+import com.yonhoo.ddd.domain.model.HybridOffer;
+import com.yonhoo.ddd.domain.model.NumberOfNights;
+import com.yonhoo.ddd.domain.model.PriceData;
+import com.yonhoo.ddd.domain.model.PricePair;
+import com.yonhoo.ddd.domain.model.PriceRule;
+import com.yonhoo.ddd.domain.model.PriceRuleEvaluator;
+import com.yonhoo.ddd.domain.model.ProductGroups;
+import com.yonhoo.ddd.domain.model.QuantityRange;
+import com.yonhoo.ddd.domain.model.Region;
+import com.yonhoo.ddd.domain.model.RoomInfo;
+import com.yonhoo.ddd.domain.model.RoomPriceCalendar;
+import com.yonhoo.ddd.domain.model.TicketItem;
+import com.yonhoo.ddd.domain.model.UserLevel;
+import com.yonhoo.ddd.domain.model.Validity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlatOfferCodecsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+
+    @Test
+    void hotelOfferRoundTripsAndReadsFieldsInPlace() {
+        HotelOffer original = hotelOffer();
+        OfferCodec<HotelOffer> codec = FlatOfferCodecs.hotelOffer();
+
+        ByteBuffer encoded = codec.encode(original);
+        FlatOfferView view = FlatOfferView.wrap(encoded);
+        assertThat(view.getOfferNo()).isEqualTo("offer-1");
+        assertThat(view.getVersion()).isEqualTo(7L);
+        assertThat(view.getRoomNoList()).containsExactly("room-1", "room-2");
+        assertThat(view.getPriceRuleCount()).isEqualTo(2);
+        assertThat(view.getCustomerChoice()).isNull();
+        assertThat(encoded.position()).isZero();
+
+        HotelOffer decoded = codec.decode(encoded.duplicate());
+        assertThat(decoded).usingRecursiveComparison()
+                .ignoringFieldsOfTypes(PriceRuleEvaluator.class, AvailabilityCalendar.class)
+                .isEqualTo(original);
+        // 再编码得到完全相同的字节
+        assertThat(codec.encode(decoded)).isEqualTo(encoded);
+
+        Map<String, PriceData> prices = new HashMap<>();
+        prices.put("room-1", priceData("room-1", 300_00L));
+        prices.put("room-2", priceData("room-2", 200_00L));
+        RoomPriceCalendar calendar = RoomPriceCalendar.of(prices);
+        assertThat(decoded.calculateMinPrice(DAY.plusDays(3), calendar))
+                .isEqualTo(original.calculateMinPrice(DAY.plusDays(3), calendar));
+    }
+
+    @Test
+    void hotelOfferV2KeepsCustomerChoiceAndRejectsOtherFormats() {
+        HotelOfferV2 original = new HotelOfferV2();
+        original.setOfferNo("offer-2");
+        original.setVersion(3L);
+        original.setCustomerChoice(CustomerChoice.FIXED);
+        original.setProducts(hotelProduct());
+        original.setPriceRuleList(List.of(priceRule(1L, DiscountType.PERCENTAGE, 10.0)));
+
+        OfferCodec<HotelOfferV2> codec = FlatOfferCodecs.hotelOfferV2();
+        ByteBuffer encoded = codec.encode(original);
+        HotelOfferV2 decoded = codec.decode(encoded.duplicate());
+        assertThat(decoded.getCustomerChoice()).isEqualTo(CustomerChoice.FIXED);
+        assertThat(decoded.getRoomNoList()).containsExactly("room-1", "room-2");
+        assertThat(decoded.getValidity()).isNull();
+
+        OffHeapOfferStore<HotelOfferV2> store = new OffHeapOfferStore<>(codec, 1 << 16);
+        store.put("offer-2", original);
+        Long version = store.peek("offer-2", buffer -> FlatOfferView.wrap(buffer).getVersion());
+        assertThat(version).isEqualTo(3L);
+        assertThat(store.<Long>peek("missing", buffer -> FlatOfferView.wrap(buffer).getVersion())).isNull();
+
+        ByteBuffer otherVersion = ByteBuffer.allocate(encoded.remaining()).put(encoded.duplicate()).flip();
+        otherVersion.putShort(4, (short) 99);
+        assertThatThrownBy(() -> codec.decode(otherVersion))
+                .hasMessage("unsupported flat offer format version: 99");
+
+        HotelOfferV2 withStubRule = new HotelOfferV2();
+        withStubRule.setPriceRuleList(List.of(new PriceRule() {
+            @Override
+            public long getPriceInMinorUnits(LocalDate checkInDay, long unitPrice) {
+                return unitPrice;
+            }
+        }));
+        assertThatThrownBy(() -> codec.encode(withStubRule))
+                .hasMessageStartingWith("price rule is not serializable");
+    }
+
+    @Test
+    void hybridOfferRoundTripsHotelAndAttractionProducts() {
+        TicketItem ticket = new TicketItem();
+        ticket.setProductNumber("ticket-1");
+        ticket.setTicketCode("T1");
+        ticket.setThemeParks(List.of("park-a", "park-b"));
+        ticket.setName("门票");
+        ticket.setUnitPrice(new BigDecimal("128.50"));
+        TicketItem bareTicket = new TicketItem();
+        bareTicket.setProductNumber("ticket-2");
+        AttractionProduct attraction = new AttractionProduct();
+        attraction.setValidQuantityRange(new QuantityRange(1, 4));
+        attraction.setProductItemList(List.of(ticket, bareTicket));
+
+        HybridOffer original = new HybridOffer(new ProductGroups(hotelProduct(), attraction), "hybrid-1",
+                List.of(priceRule(1L, DiscountType.PERCENTAGE, 10.0)), hotelOffer().getValidity(), CustomerChoice.FIXED);
+        OfferCodec<HybridOffer> codec = FlatOfferCodecs.hybridOffer();
+
+        ByteBuffer encoded = codec.encode(original);
+        FlatOfferView view = FlatOfferView.wrap(encoded);
+        assertThat(view.getOfferNo()).isEqualTo("hybrid-1");
+        assertThat(view.getRoomNoList()).containsExactly("room-1", "room-2");
+        assertThat(view.getTicketProductNumberList()).containsExactly("ticket-1", "ticket-2");
+        assertThat(view.getCustomerChoice()).isEqualTo(CustomerChoice.FIXED);
+
+        HybridOffer decoded = codec.decode(encoded.duplicate());
+        assertThat(decoded).usingRecursiveComparison()
+                .ignoringFieldsOfTypes(PriceRuleEvaluator.class, AvailabilityCalendar.class)
+                .ignoringFieldsMatchingRegexes(".*productId")
+                .isEqualTo(original);
+        assertThat(decoded.getProductGroups().getAttractionProduct().getProductItemList().get(0).getUnitPrice())
+                .isEqualTo(new BigDecimal("128.50"));
+        assertThat(codec.encode(decoded)).isEqualTo(encoded);
+
+        // 只有门票产品、没有产品组时分别还原为 null
+        HybridOffer ticketsOnly = new HybridOffer(new ProductGroups(null, attraction), "hybrid-2", null, null, null);
+        HybridOffer decodedTicketsOnly = codec.decode(codec.encode(ticketsOnly));
+        assertThat(decodedTicketsOnly.getProductGroups().getHotelProduct()).isNull();
+        assertThat(FlatOfferView.wrap(codec.encode(ticketsOnly)).getRoomNoList()).isNull();
+        HybridOffer empty = new HybridOffer(null, "hybrid-3", null, null, null);
+        assertThat(codec.decode(codec.encode(empty)).getProductGroups()).isNull();
+        assertThat(FlatOfferView.wrap(codec.encode(empty)).getTicketProductNumberList()).isNull();
+
+        // 旧的 HotelOffer 编码没有门票字段
+        assertThat(FlatOfferView.wrap(FlatOfferCodecs.hotelOffer().encode(hotelOffer())).getTicketProductNumberList()).isNull();
+    }
+
+    private static HotelOffer hotelOffer() {
+        Validity validity = new Validity();
+        validity.setSalesStartDate(DAY.minusDays(30));
+        validity.setSalesEndDate(DAY.plusDays(60));
+        validity.setVisitingStartDate(DAY);
+        validity.setVisitingEndDate(DAY.plusDays(90));
+        validity.setPublishTime(LocalDateTime.of(2025, 9, 1, 8, 30, 15, 123_000_000));
+        validity.setAdvanceBookingDays(2);
+        validity.setBlackOutDateRanges(List.of(DateRange.of(DAY.plusDays(10), DAY.plusDays(12))));
+
+        HotelOffer hotelOffer = new HotelOffer();
+        hotelOffer.setOfferNo("offer-1");
+        hotelOffer.setVersion(7L);
+        hotelOffer.setProducts(hotelProduct());
+        hotelOffer.setPriceRuleList(List.of(
+                priceRule(1L, DiscountType.PERCENTAGE, 12.5),
+                priceRule(2L, DiscountType.FIXED_AMOUNT, 30.0)));
+        hotelOffer.setValidity(validity);
+        hotelOffer.setChannels(List.of(Channel.MOBILE_APP, Channel.OFFICIAL_WEBSITE));
+        hotelOffer.setSupportedUserLevels(List.of(UserLevel.GOLD));
+        hotelOffer.setSupportedRegions(new ArrayList<>(List.of(Region.EAST_CHINA)));
+        return hotelOffer;
+    }
+
+    private static HotelProduct hotelProduct() {
+        NumberOfNights numberOfNights = new NumberOfNights();
+        numberOfNights.setMinNight(1);
+        numberOfNights.setMaxNight(1);
+        List<RoomInfo> rooms = new ArrayList<>();
+        for (String roomNo : List.of("room-1", "room-2")) {
+            RoomInfo room = new RoomInfo();
+            room.setRoomNo(roomNo);
+            room.setHotelName("酒店");
+            rooms.add(room);
+        }
+        HotelProduct hotelProduct = new HotelProduct();
+        hotelProduct.setNumberOfNights(numberOfNights);
+        hotelProduct.setHotelProducts(rooms);
+        return hotelProduct;
+    }
+
+    private static PriceRule priceRule(long id, DiscountType discountType, double value) {
+        DiscountDefinition definition = new DiscountDefinition();
+        definition.setDiscountType(discountType);
+        definition.setValue(value);
+        PriceRule priceRule = new PriceRule();
+        priceRule.setPriceRuleId(id);
+        priceRule.setRuleName("rule-" + id);
+        priceRule.setDefaultPriceFlag(id == 1L);
+        priceRule.setCreatedTime(LocalDateTime.of(2025, 1, 1, 0, 0));
+        priceRule.setProductPriceDefinitions(List.of(definition));
+        priceRule.setVersion(1L);
+        return priceRule;
+    }
+
+    private static PriceData priceData(String roomNo, long minorUnits) {
+        PriceData priceData = new PriceData();
+        priceData.setRoomNo(roomNo);
+        priceData.setPricePairs(List.of(new PricePair(DAY.plusDays(3), BigDecimal.valueOf(minorUnits, 2))));
+        return priceData;
+    }
+}
@@ -0,0 +1,102 @@
+package com.yonhoo.ddd.infrastructure.store;
+
+import com.yonhoo.ddd.domain.model.PriceData;
+import com.yonhoo.ddd.domain.model.PriceDataAdapter;
+import com.yonhoo.ddd.domain.model.PricePair;
+import com.yonhoo.ddd.domain.model.RoomPriceCalendar;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedPriceDataRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mappedSnapshotAnswersLikeTheHeapCalendar() {
+        Map<String, PriceData> priceData = priceData(new SplittableRandom(17), 12, 40);
+        MappedPriceDataRepository repository = new MappedPriceDataRepository(directory.resolve("prices.bin"), null);
+        repository.publish(priceData);
+
+        MappedPriceSnapshot snapshot = repository.snapshot();
+        RoomPriceCalendar calendar = RoomPriceCalendar.of(priceData);
+        for (String roomNo : priceData.keySet()) {
+            for (LocalDate day = DAY.minusDays(2); day.isBefore(DAY.plusDays(42)); day = day.plusDays(1)) {
+                assertThat(queryOrNull(snapshot, roomNo, day)).as("%s %s", roomNo, day)
+                        .isEqualTo(queryOrNull(calendar, roomNo, day));
+            }
+        }
+        assertThat(snapshot.hasDataForRoom("missing-room")).isFalse();
+        assertThatThrownBy(() -> snapshot.queryRoomMinPriceInMinorUnits("missing-room", DAY))
+                .hasMessage("No price data found for room: missing-room");
+        assertThat(repository.queryPriceDataByRoomList(List.of("room-0", "missing-room"))).containsOnlyKeys("room-0");
+    }
+
+    @Test
+    void newSnapshotIsPickedUpOnRefreshWhileTheOldOneStaysReadable() {
+        Path file = directory.resolve("prices.bin");
+        MappedPriceDataRepository writer = new MappedPriceDataRepository(file, null);
+        writer.publish(Map.of("room-0", priceData("room-0", new PricePair(DAY, new BigDecimal("100.00")))));
+
+        // 另一个进程映射同一个文件
+        MappedPriceDataRepository reader = new MappedPriceDataRepository(file, null);
+        MappedPriceSnapshot before = reader.snapshot();
+        assertThat(reader.refresh()).isFalse();
+
+        writer.publish(Map.of("room-0", priceData("room-0", new PricePair(DAY, new BigDecimal("80.00")))));
+
+        assertThat(reader.refresh()).isTrue();
+        assertThat(reader.snapshot().queryRoomMinPriceInMinorUnits("room-0", DAY)).isEqualTo(80_00L);
+        assertThat(before.queryRoomMinPriceInMinorUnits("room-0", DAY)).isEqualTo(100_00L);
+        assertThat(directory.toFile().list()).containsExactly("prices.bin");
+    }
+
+    private static Long queryOrNull(PriceDataAdapter.RoomPriceQuery query, String roomNo, LocalDate day) {
+        try {
+            return query.queryRoomMinPriceInMinorUnits(roomNo, day);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 每个房间随机缺几天，部分日期有两个报价
+     */
+    private static Map<String, PriceData> priceData(SplittableRandom random, int rooms, int days) {
+        Map<String, PriceData> priceData = new LinkedHashMap<>();
+        for (int room = 0; room < rooms; room++) {
+            List<PricePair> pricePairs = new ArrayList<>();
+            for (int day = 0; day < days; day++) {
+                if (random.nextInt(10) == 0) {
+                    continue;
+                }
+                for (int quote = 0; quote <= random.nextInt(2); quote++) {
+                    pricePairs.add(new PricePair(DAY.plusDays(day), BigDecimal.valueOf(100_00 + random.nextInt(90_000), 2)));
+                }
+            }
+            priceData.put("room-" + room, priceData("room-" + room, pricePairs.toArray(new PricePair[0])));
+        }
+        return priceData;
+    }
+
+    private static PriceData priceData(String roomNo, PricePair... pricePairs) {
+        PriceData priceData = new PriceData();
+        priceData.setRoomNo(roomNo);
+        priceData.setPricePairs(List.of(pricePairs));
+        return priceData;
+    }
+}
@@ -0,0 +1,135 @@
+package com.yonhoo.ddd.infrastructure.store;
+
+import com.yonhoo.ddd.domain.model.IdDictionary;
+import com.yonhoo.ddd.domain.model.PriceDataAdapter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class PriceChangeStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsMergeDeltasOverTheBaseBeforeAndAfterCompaction() {
+        SplittableRandom random = new SplittableRandom(23);
+        Map<String, Long> expected = new HashMap<>();
+        try (PriceChangeStore store = PriceChangeStore.open(directory, false, Integer.MAX_VALUE)) {
+            for (int round = 0; round < 4; round++) {
+                List<PriceChange> changes = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    PriceChange change = randomChange(random);
+                    changes.add(change);
+                    expected.put(key(change.getRoomNo(), change.getDay()), change.getMinorUnits());
+                }
+                store.apply(changes);
+                assertMatches(store, expected);
+
+                assertThat(store.compact()).isTrue();
+                assertThat(store.getDeltaSize()).isZero();
+                assertMatches(store, expected);
+                assertMatches(store.getBaseSnapshot(), expected);
+            }
+            assertThat(store.compact()).isFalse();
+            assertThatThrownBy(() -> store.queryRoomMinPriceInMinorUnits("missing-room", DAY))
+                    .hasMessage("No price data found for room: missing-room");
+        }
+        assertThat(directory.toFile().list()).containsExactlyInAnyOrder(PriceChangeStore.SNAPSHOT_FILE, "prices-0000000000000004.log");
+    }
+
+    @Test
+    void reopeningReplaysUncompactedChangesAndDropsATornTail() throws IOException {
+        try (PriceChangeStore store = PriceChangeStore.open(directory, true, Integer.MAX_VALUE)) {
+            store.apply(new PriceChange("room-0", DAY, 100_00L));
+            store.compact();
+            store.apply(List.of(new PriceChange("room-0", DAY, 90_00L), PriceChange.closed("room-0", DAY.plusDays(1))));
+            store.apply(new PriceChange("room-1", DAY, 70_00L));
+        }
+        Path activeLog = directory.resolve("prices-0000000000000001.log");
+        Files.write(activeLog, new byte[]{0, 0, 0, 30, 1, 2}, StandardOpenOption.APPEND);
+
+        try (PriceChangeStore store = PriceChangeStore.open(directory, true, Integer.MAX_VALUE)) {
+            assertThat(store.getDeltaSize()).isEqualTo(3);
+            assertThat(store.queryRoomMinPriceInMinorUnits("room-0", DAY)).isEqualTo(90_00L);
+            assertThat(store.queryRoomMinPriceInMinorUnits("room-1", DAY)).isEqualTo(70_00L);
+            assertThatThrownBy(() -> store.queryRoomMinPriceInMinorUnits("room-0", DAY.plusDays(1)))
+                    .hasMessage("no available price");
+
+            store.apply(new PriceChange("room-1", DAY, 60_00L));
+            store.compact();
+            assertThat(store.getBaseSnapshot().queryRoomMinPriceInMinorUnits("room-1", DAY)).isEqualTo(60_00L);
+        }
+    }
+
+    @Test
+    void backgroundCompactorFoldsDeltasOnceTheThresholdIsReached() {
+        try (PriceChangeStore store = PriceChangeStore.open(directory, false, 50)) {
+            store.startCompactor(Duration.ofMinutes(10));
+            for (int day = 0; day < 50; day++) {
+                store.apply(new PriceChange("room-0", DAY.plusDays(day), 100_00L + day * 100));
+            }
+
+            await().atMost(Duration.ofSeconds(10)).until(() -> store.getDeltaSize() == 0);
+            assertThat(store.getLastCompactionFailure()).isNull();
+            assertThat(store.getBaseSnapshot().queryRoomMinPriceInMinorUnits("room-0", DAY.plusDays(49))).isEqualTo(149_00L);
+        }
+    }
+
+    private static PriceChange randomChange(SplittableRandom random) {
+        String roomNo = "room-" + random.nextInt(12);
+        LocalDate day = DAY.plusDays(random.nextInt(60) - 10);
+        return random.nextInt(10) == 0
+                ? PriceChange.closed(roomNo, day)
+                : new PriceChange(roomNo, day, 100_00L + random.nextInt(90_000));
+    }
+
+    /**
+     * 按房间号和按房间 id 查询都与期望一致
+     */
+    private static void assertMatches(PriceDataAdapter.RoomPriceQuery query, Map<String, Long> expected) {
+        for (int room = 0; room < 12; room++) {
+            String roomNo = "room-" + room;
+            int roomId = IdDictionary.ROOMS.idOf(roomNo);
+            for (LocalDate day = DAY.minusDays(12); day.isBefore(DAY.plusDays(52)); day = day.plusDays(1)) {
+                Long price = expected.get(key(roomNo, day));
+                Long expectedPrice = price == null || price == PriceChange.CLOSED ? null : price;
+                LocalDate queryDay = day;
+                assertThat(queryOrNull(() -> query.queryRoomMinPriceInMinorUnits(roomNo, queryDay)))
+                        .as("%s %s", roomNo, day).isEqualTo(expectedPrice);
+                assertThat(queryOrNull(() -> query.queryRoomMinPriceInMinorUnits(roomId, queryDay)))
+                        .as("id of %s %s", roomNo, day).isEqualTo(expectedPrice);
+            }
+        }
+    }
+
+    private static Long queryOrNull(LongSupplier query) {
+        try {
+            return query.getAsLong();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String key(String roomNo, LocalDate day) {
+        return roomNo + "@" + day;
+    }
+}
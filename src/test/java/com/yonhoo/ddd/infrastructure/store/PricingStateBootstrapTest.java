@@ -0,0 +1,264 @@
+package com.yonhoo.ddd.infrastructure.store;
+
+import com.yonhoo.ddd.application.ApplicationService;
+import com.yonhoo.ddd.application.OfferMinPriceView;
+import com.yonhoo.ddd.domain.model.DateRange;
+import com.yonhoo.ddd.domain.model.HotelOffer;
+import com.yonhoo.ddd.domain.model.HotelOfferV2;
+import com.yonhoo.ddd.domain.model.HotelProduct;
+import com.yonhoo.ddd.domain.model.Money;
+import com.yonhoo.ddd.domain.model.NumberOfNights;
+import com.yonhoo.ddd.domain.model.PriceRule;
+import com.yonhoo.ddd.domain.model.RoomInfo;
+import com.yonhoo.ddd.domain.model.Validity;
+import com.yonhoo.ddd.infrastructure.cache.CachingHotelOfferRepository;
+import com.yonhoo.ddd.repository.HotelOfferRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class PricingStateBootstrapTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void newNodeRestoresCheckpointAndCatchesUpFromTheChangeLog() throws Exception {
+        CountingHotelOfferRepository source = new CountingHotelOfferRepository();
+        CachingHotelOfferRepository running = new CachingHotelOfferRepository(source, 100);
+        try (PricingStateBootstrap node = new PricingStateBootstrap(directory, running, null, Integer.MAX_VALUE)) {
+            assertThatThrownBy(node::getPriceStore).hasMessage("pricing state is not restored");
+            node.restore();
+            for (int i = 0; i < 50; i++) {
+                running.queryHotelOfferByOfferNo("offer-" + i);
+            }
+            node.getPriceStore().apply(new PriceChange("room-1", DAY, 100_00L));
+            node.checkpoint();
+            node.getPriceStore().apply(new PriceChange("room-1", DAY.plusDays(1), 120_00L));
+        }
+        assertThat(source.loads).hasValue(50);
+
+        CachingHotelOfferRepository repository = new CachingHotelOfferRepository(source, 100);
+        try (PricingStateBootstrap restored = new PricingStateBootstrap(directory, repository, null, Integer.MAX_VALUE)) {
+            assertThat(restored.isReady()).isFalse();
+            restored.restoreAsync();
+            assertThat(restored.awaitReady(Duration.ofSeconds(10))).isTrue();
+
+            assertThat(restored.getRestoredOfferCount()).isEqualTo(50);
+            for (int i = 0; i < 50; i++) {
+                assertThat(repository.queryHotelOfferByOfferNo("offer-" + i).getVersion()).isEqualTo(3L);
+            }
+            assertThat(source.loads).hasValue(50);
+            // 检查点之前压缩进快照的价格，和检查点之后只在变更日志里的价格
+            assertThat(restored.getPriceStore().queryRoomMinPriceInMinorUnits("room-1", DAY)).isEqualTo(100_00L);
+            assertThat(restored.getPriceStore().queryRoomMinPriceInMinorUnits("room-1", DAY.plusDays(1))).isEqualTo(120_00L);
+        }
+        // 恢复线程随 close 一起退出
+        await().atMost(Duration.ofSeconds(10)).until(() -> Thread.getAllStackTraces().keySet().stream()
+                .noneMatch(thread -> thread.getName().startsWith("pricing-restore-")));
+    }
+
+    @Test
+    void offersChangedWhileTheNodeWasDownExpireFromTheWarmedCache() throws Exception {
+        CountingHotelOfferRepository source = new CountingHotelOfferRepository();
+        CachingHotelOfferRepository running = new CachingHotelOfferRepository(source, 100);
+        try (PricingStateBootstrap node = new PricingStateBootstrap(directory, running, null, Integer.MAX_VALUE)) {
+            node.restore();
+            running.queryHotelOfferByOfferNo("offer-1");
+            node.checkpoint();
+        }
+        // 停机期间的变更，新节点收不到变更事件
+        source.version.set(4L);
+
+        CachingHotelOfferRepository repository = new CachingHotelOfferRepository(source, 100);
+        try (PricingStateBootstrap restored = new PricingStateBootstrap(
+                directory, repository, null, Integer.MAX_VALUE, Duration.ofMillis(200))) {
+            restored.restore();
+            assertThat(restored.getRestoredOfferCount()).isEqualTo(1);
+
+            await().atMost(Duration.ofSeconds(10))
+                    .until(() -> repository.queryHotelOfferByOfferNo("offer-1").getVersion() == 4L);
+            int loads = source.loads.get();
+            assertThat(repository.queryHotelOfferByOfferNo("offer-1").getVersion()).isEqualTo(4L);
+            assertThat(source.loads).hasValue(loads);
+        }
+    }
+
+    @Test
+    void warmedOffersAreNotWrittenBackIntoTheNextCheckpoint() throws Exception {
+        CountingHotelOfferRepository source = new CountingHotelOfferRepository();
+        CachingHotelOfferRepository running = new CachingHotelOfferRepository(source, 100);
+        try (PricingStateBootstrap node = new PricingStateBootstrap(directory, running, null, Integer.MAX_VALUE)) {
+            node.restore();
+            running.queryHotelOfferByOfferNo("offer-1");
+            running.queryHotelOfferByOfferNo("offer-2");
+            node.checkpoint();
+        }
+
+        CachingHotelOfferRepository repository = new CachingHotelOfferRepository(source, 100);
+        try (PricingStateBootstrap restored = new PricingStateBootstrap(directory, repository, null, Integer.MAX_VALUE)) {
+            restored.restore();
+            assertThat(restored.getRestoredOfferCount()).isEqualTo(2);
+            // 命中预热条目不会把它变成回源的结果，只有回源加载的 offer-3 写进新的检查点
+            repository.queryHotelOfferByOfferNo("offer-1");
+            repository.queryHotelOfferByOfferNo("offer-3");
+            restored.checkpoint();
+        }
+
+        CachingHotelOfferRepository next = new CachingHotelOfferRepository(source, 100);
+        try (PricingStateBootstrap restored = new PricingStateBootstrap(directory, next, null, Integer.MAX_VALUE)) {
+            restored.restore();
+            assertThat(restored.getRestoredOfferCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void corruptedOfferCheckpointFallsBackToAColdCache() throws IOException {
+        Files.createDirectories(directory);
+        Files.write(directory.resolve(PricingStateBootstrap.OFFER_CHECKPOINT_FILE), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        CountingHotelOfferRepository source = new CountingHotelOfferRepository();
+        CachingHotelOfferRepository repository = new CachingHotelOfferRepository(source, 100);
+
+        try (PricingStateBootstrap bootstrap = new PricingStateBootstrap(directory, repository, null, Integer.MAX_VALUE)) {
+            bootstrap.restore();
+
+            assertThat(bootstrap.isReady()).isTrue();
+            assertThat(bootstrap.getCheckpointFailure()).hasMessageStartingWith("unsupported offer snapshot");
+            assertThat(repository.queryHotelOfferByOfferNo("offer-1")).isNotNull();
+            assertThat(source.loads).hasValue(1);
+        }
+    }
+
+    @Test
+    void minPriceViewFollowsPriceChangesAndOfferChanges() {
+        InMemoryHotelOfferRepository source = new InMemoryHotelOfferRepository();
+        source.saveOffer(hotelOffer(0L));
+        CachingHotelOfferRepository repository = new CachingHotelOfferRepository(source, 100);
+
+        try (PricingStateBootstrap bootstrap = new PricingStateBootstrap(directory, repository, null, Integer.MAX_VALUE)) {
+            bootstrap.restore();
+            PriceChangeStore store = bootstrap.getPriceStore();
+            store.apply(new PriceChange("room-1", DAY, 100_00L));
+            OfferMinPriceView view = bootstrap.createOfferMinPriceView(DateRange.of(DAY, DAY.plusDays(6)));
+            view.register(repository.queryHotelOfferByOfferNo("offer-1"));
+            ApplicationService applicationService = new ApplicationService();
+            applicationService.setHotelOfferRepository(repository);
+            applicationService.setOfferMinPriceView(view);
+            assertThat(applicationService.calculateMinPriceV2("offer-1", DAY)).isEqualByComparingTo("100.00");
+
+            // 价格变更：store → 变更监听 → 视图增量重算
+            store.apply(new PriceChange("room-1", DAY, 80_00L));
+            assertThat(view.getMinPrice("offer-1", DAY)).isEqualTo(Money.ofMinor(80_00L));
+            assertThat(applicationService.calculateMinPriceV2("offer-1", DAY)).isEqualByComparingTo("80.00");
+
+            // 价格规则变更：保存 → 缓存失效 → 视图按新版本重新登记
+            repository.saveOffer(hotelOffer(10_00L));
+            assertThat(view.getMinPrice("offer-1", 2L, DAY)).isEqualTo(Money.ofMinor(70_00L));
+            assertThat(applicationService.calculateMinPriceV2("offer-1", DAY)).isEqualByComparingTo("70.00");
+
+            // 视图登记的版本与当前聚合不一致时按同一价格来源现算
+            view.register(hotelOffer(0L));
+            assertThat(view.getMinPrice("offer-1", DAY)).isEqualTo(Money.ofMinor(80_00L));
+            assertThat(applicationService.calculateMinPriceV2("offer-1", DAY)).isEqualByComparingTo(new BigDecimal("70.00"));
+        }
+    }
+
+    /**
+     * 单房间单晚的 offer，价格规则在单价上减去 markdown
+     */
+    private static HotelOffer hotelOffer(long markdown) {
+        NumberOfNights numberOfNights = new NumberOfNights();
+        numberOfNights.setMinNight(1);
+        numberOfNights.setMaxNight(1);
+        RoomInfo room = new RoomInfo();
+        room.setRoomNo("room-1");
+        HotelProduct hotelProduct = new HotelProduct();
+        hotelProduct.setNumberOfNights(numberOfNights);
+        hotelProduct.setHotelProducts(List.of(room));
+
+        Validity validity = new Validity();
+        validity.setVisitingStartDate(DAY);
+        validity.setVisitingEndDate(DAY.plusDays(6));
+
+        HotelOffer hotelOffer = new HotelOffer();
+        hotelOffer.setOfferNo("offer-1");
+        hotelOffer.setProducts(hotelProduct);
+        hotelOffer.setValidity(validity);
+        hotelOffer.setPriceRuleList(List.of(new PriceRule() {
+            @Override
+            public long getPriceInMinorUnits(LocalDate checkInDay, long unitPrice) {
+                return unitPrice - markdown;
+            }
+        }));
+        return hotelOffer;
+    }
+
+    private static final class InMemoryHotelOfferRepository implements HotelOfferRepository {
+        private final Map<String, HotelOffer> offers = new ConcurrentHashMap<>();
+
+        @Override
+        public HotelOffer queryHotelOfferByOfferNo(String offerNo) {
+            return offers.get(offerNo);
+        }
+
+        @Override
+        public HotelOfferV2 queryHotelOfferV2ByOfferNo(String offerNo) {
+            return null;
+        }
+
+        @Override
+        public void saveOffer(HotelOffer hotelOffer) {
+            HotelOffer previous = offers.get(hotelOffer.getOfferNo());
+            hotelOffer.setVersion(previous == null ? 1L : previous.getVersion() + 1);
+            offers.put(hotelOffer.getOfferNo(), hotelOffer);
+        }
+
+        @Override
+        public void saveOfferV2(HotelOfferV2 hotelOffer) {
+        }
+    }
+
+    private static final class CountingHotelOfferRepository implements HotelOfferRepository {
+        private final AtomicInteger loads = new AtomicInteger();
+        private final AtomicLong version = new AtomicLong(3L);
+
+        @Override
+        public HotelOffer queryHotelOfferByOfferNo(String offerNo) {
+            loads.incrementAndGet();
+            HotelOffer hotelOffer = new HotelOffer();
+            hotelOffer.setOfferNo(offerNo);
+            hotelOffer.setVersion(version.get());
+            return hotelOffer;
+        }
+
+        @Override
+        public HotelOfferV2 queryHotelOfferV2ByOfferNo(String offerNo) {
+            return null;
+        }
+
+        @Override
+        public void saveOffer(HotelOffer hotelOffer) {
+        }
+
+        @Override
+        public void saveOfferV2(HotelOfferV2 hotelOffer) {
+        }
+    }
+}
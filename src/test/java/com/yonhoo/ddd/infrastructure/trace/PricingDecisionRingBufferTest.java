@@ -0,0 +1,130 @@
+package com.yonhoo.ddd.infrastructure.trace;
+
+import com.yonhoo.ddd.domain.model.*;
+import com.yonhoo.ddd.domain.service.PricingDecision;
+import com.yonhoo.ddd.domain.service.PricingDecisionListener;
+import com.yonhoo.ddd.domain.service.UserPricingStrategySelector;
+import com.yonhoo.ddd.domain.service.UserPricingStrategySelector.SelectionMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PricingDecisionRingBufferTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 10, 1, 10, 0);
+    private static final UserContext USER = new UserContext("u", UserLevel.GOLD, Region.EAST_CHINA, Channel.MOBILE_APP, "m");
+
+    @AfterEach
+    void tearDown() {
+        UserPricingStrategySelector.setDecisionListener(null);
+    }
+
+    @Test
+    void recordsCandidatesAndTheSelectedStrategy() {
+        PricingDecisionRingBuffer buffer = new PricingDecisionRingBuffer(8);
+        UserPricingStrategySelector.setDecisionListener(buffer);
+        UserPricingStrategy tenPercent = strategy("ten", "10");
+        UserPricingStrategy twentyPercent = strategy("twenty", "20");
+
+        Money price = UserPricingStrategySelector.calculateBestUserPrice(
+                Money.ofMajor(100), USER, List.of(tenPercent, twentyPercent), SelectionMode.BEST_PRICE, NOW);
+
+        List<PricingDecision> decisions = new ArrayList<>();
+        assertThat(buffer.drainTo(decisions::add)).isEqualTo(1);
+        PricingDecision decision = decisions.get(0);
+        assertThat(price).isEqualTo(Money.ofMajor(80));
+        assertThat(decision.getCandidateCount()).isEqualTo(2);
+        assertThat(decision.getCandidatePrice(0)).isEqualTo(Money.ofMajor(90));
+        assertThat(decision.getSelectedStrategy()).isSameAs(twentyPercent);
+        assertThat(decision.getFinalPrice()).isEqualTo(price);
+        assertThat(buffer.snapshot()).isEmpty();
+    }
+
+    @Test
+    void overwritesTheOldestDecisionsWhenFull() {
+        PricingDecisionRingBuffer buffer = new PricingDecisionRingBuffer(4);
+        UserPricingStrategySelector.setDecisionListener(buffer);
+        UserStrategyDecisionTable table = UserStrategyDecisionTable.compile(List.of(strategy("ten", "10")));
+
+        for (int i = 1; i <= 10; i++) {
+            UserPricingStrategySelector.selectUserPrice(Money.ofMajor(i), USER, table, SelectionMode.BEST_PRICE, NOW);
+        }
+
+        List<PricingDecision> decisions = new ArrayList<>();
+        buffer.drainTo(decisions::add);
+        assertThat(decisions).extracting(PricingDecision::getBasePrice)
+                .containsExactly(Money.ofMajor(7), Money.ofMajor(8), Money.ofMajor(9), Money.ofMajor(10));
+        assertThat(buffer.getDecisionCount()).isEqualTo(10);
+        assertThat(buffer.getDroppedCount()).isEqualTo(6);
+    }
+
+    @Test
+    void sampledOutDecisionsAreNeverBuilt() {
+        PricingDecisionRingBuffer buffer = new PricingDecisionRingBuffer(8, 3);
+        List<Money> recordedBasePrices = new ArrayList<>();
+        UserPricingStrategySelector.setDecisionListener(new PricingDecisionListener() {
+            @Override
+            public boolean shouldRecord() {
+                return buffer.shouldRecord();
+            }
+
+            @Override
+            public void onDecision(PricingDecision decision) {
+                recordedBasePrices.add(decision.getBasePrice());
+                buffer.onDecision(decision);
+            }
+        });
+        UserStrategyDecisionTable table = UserStrategyDecisionTable.compile(List.of(strategy("ten", "10")));
+
+        for (int i = 1; i <= 10; i++) {
+            UserPricingStrategySelector.selectUserPrice(Money.ofMajor(i), USER, table, SelectionMode.BEST_PRICE, NOW);
+        }
+
+        assertThat(recordedBasePrices)
+                .containsExactly(Money.ofMajor(1), Money.ofMajor(4), Money.ofMajor(7), Money.ofMajor(10));
+        assertThat(buffer.drainTo(decision -> { })).isEqualTo(4);
+        assertThat(buffer.getDecisionCount()).isEqualTo(10);
+    }
+
+    @Test
+    void analysisResultIsBuiltFromTheDecisionTrace() {
+        UserPricingStrategy tenPercent = strategy("ten", "10");
+        tenPercent.setEffectivePeriod(null, null);
+
+        StrategyAnalysisResult result = UserPricingStrategySelector.analyzeStrategies(
+                Money.ofMajor(100), USER, List.of(tenPercent));
+
+        assertThat(result.getApplicableStrategies()).containsExactly(tenPercent);
+        assertThat(result.getSelectedStrategy()).isSameAs(tenPercent);
+        assertThat(result.getFinalPrice()).isEqualTo(Money.ofMajor(90));
+    }
+
+    private static UserPricingStrategy strategy(String strategyId, String percentage) {
+        UserLevelDiscount discount = new UserLevelDiscount();
+        discount.setTargetLevel(UserLevel.GOLD);
+        discount.setDiscountType(DiscountType.PERCENTAGE);
+        discount.setDiscountValue(new BigDecimal(percentage));
+        discount.setMinOrderAmount(Money.ZERO);
+
+        PriorityRule priorityRule = new PriorityRule();
+        priorityRule.setApplyUserLevel(true);
+
+        UserPricingStrategy strategy = new UserPricingStrategy();
+        strategy.setStrategyId(strategyId);
+        strategy.setStrategyName(strategyId);
+        strategy.setActive(true);
+        strategy.setStrategyPriority(PriorityLevel.MEDIUM);
+        strategy.setEffectivePeriod(NOW.minusDays(1), NOW.plusDays(1));
+        strategy.setUserLevelDiscounts(List.of(discount));
+        strategy.setRegionPricings(List.of());
+        strategy.setChannelPricings(List.of());
+        strategy.setPriorityRule(priorityRule);
+        return strategy;
+    }
+}